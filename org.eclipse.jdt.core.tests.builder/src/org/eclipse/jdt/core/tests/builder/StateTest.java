@@ -88,6 +88,41 @@ public class StateTest extends BuilderTests {
 		writeReadAndCompareReferences(implementationProjectPath);
 	}
 
+	public void testWriteStateReadFromDisk() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+
+		env.addClass(projectPath, "a", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package a;\n" +
+			"public class A {\n" +
+			"	b.B b;\n" +
+			"}\n" +
+			"class Other {\n" +
+			"	java.util.List list;\n" +
+			"}" //$NON-NLS-1$
+		);
+		env.addClass(projectPath, "b", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package b;\n" +
+			"public class B {\n" +
+			"	a.A a;\n" +
+			"}" //$NON-NLS-1$
+		);
+		fullBuild();
+
+		// the references of a state read from disk are saved again without being decoded
+		IProject project = env.getProject(projectPath);
+		State savedState = (State) JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project).savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(readState, new DataOutputStream(outputStream));
+		State rereadState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		assertEqualLookupTables(savedState.getReferences(), rereadState.getReferences());
+		assertEqualLookupTables(savedState.getReferences(), readState.getReferences());
+		assertEquals("Unexpected type locator", "a/A.java", rereadState.typeLocators.get("a/Other")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
 	private void writeReadAndCompareReferences(IPath projectPath)
 			throws JavaModelException, IOException, CoreException {
 		JavaModelManager javaModelManager = JavaModelManager.getJavaModelManager();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2016 GoPivotal, Inc.
+ * Copyright (c) 2013, 2019 GoPivotal, Inc.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.compiler.regression;
 
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 import junit.framework.Test;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -528,6 +532,73 @@ public class ClassFileReaderTest_1_8 extends AbstractRegressionTest {
 		return sb.toString();
 	}
 
+	/**
+	 * Ensures that a class file read from a ByteBuffer at a non-zero position, or from a slice with a non-zero offset
+	 * into its backing store, has the same structure as when read from a byte[].
+	 */
+	public void testByteBufferWithOffset() throws Exception {
+		String source =
+			"import java.lang.annotation.*;\n" +
+			"import java.util.List;\n" +
+			"@Deprecated\n" +
+			"public class X<T extends Comparable<T>> {\n" +
+			"	public static final long L = 1234567890123L;\n" +
+			"	public static final double D = 3.5;\n" +
+			"	public static final String S = \"h\\u00e9llo\";\n" +
+			"	@Foo List<@Foo String> strings;\n" +
+			"	<U> U convert(T t, List<? super U> sink) throws Exception { return null; }\n" +
+			"	class Inner {}\n" +
+			"}\n" +
+			"@Retention(RetentionPolicy.CLASS)\n" +
+			"@Target({ElementType.TYPE_USE, ElementType.FIELD})\n" +
+			"@interface Foo {\n" +
+			"}\n";
+		compileAndDeploy(source, "", "X", false);
+		try {
+			byte[] bytes = org.eclipse.jdt.internal.compiler.util.Util.getFileByteContent(new File(EVAL_DIRECTORY, "X.class"));
+			char[] fileName = "X.class".toCharArray();
+			ClassFileReader expected = new ClassFileReader(bytes, fileName, true);
+
+			// heap buffer whose position is not 0, fully initialized
+			ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 64);
+			buffer.position(31);
+			buffer.put(bytes);
+			buffer.position(31).limit(31 + bytes.length);
+			ClassFileReader fromPosition = new ClassFileReader(buffer, fileName, true);
+			assertEquals("Buffer position should not change", 31, buffer.position());
+			assertEquals("Buffer limit should not change", 31 + bytes.length, buffer.limit());
+			assertReadSame(expected, fromPosition, bytes);
+
+			// slice with a non-zero offset into a direct little endian buffer, read on demand
+			ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 64).order(ByteOrder.LITTLE_ENDIAN);
+			direct.position(17);
+			direct.put(bytes);
+			direct.position(17).limit(17 + bytes.length);
+			ClassFileReader fromSlice = new ClassFileReader(direct.slice(), fileName, false);
+			assertReadSame(expected, fromSlice, bytes);
+
+			// slice of a heap buffer, whose array offset is not 0
+			buffer.position(31);
+			ByteBuffer slice = buffer.slice();
+			assertEquals("Unexpected array offset", 31, slice.arrayOffset());
+			assertReadSame(expected, new ClassFileReader(slice, fileName, false), bytes);
+		} finally {
+			removeTempClass("X");
+		}
+	}
+
+	private void assertReadSame(ClassFileReader expected, ClassFileReader actual, byte[] bytes) {
+		assertEquals("Unexpected reader", expected.toString(), actual.toString());
+		assertEquals("Unexpected generic signature", new String(expected.getGenericSignature()), new String(actual.getGenericSignature()));
+		assertEquals("Unexpected long constant", getField(expected, "L").getConstant().longValue(), getField(actual, "L").getConstant().longValue());
+		assertEquals("Unexpected double constant", getField(expected, "D").getConstant().doubleValue(), getField(actual, "D").getConstant().doubleValue(), 0.0);
+		assertEquals("Unexpected string constant", getField(expected, "S").getConstant().stringValue(), getField(actual, "S").getConstant().stringValue());
+		assertEquals("Unexpected field type annotations", getField(expected, "strings").getTypeAnnotations().length, getField(actual, "strings").getTypeAnnotations().length);
+		assertEquals("Unexpected method signature", new String(getMethod(expected, "convert").getGenericSignature()), new String(getMethod(actual, "convert").getGenericSignature()));
+		assertEquals("Unexpected member types", expected.getMemberTypes().length, actual.getMemberTypes().length);
+		assertFalse("Should have the same structure as when read from a byte[]", actual.hasStructuralChanges(bytes, true, false));
+	}
+
 	private IBinaryMethod getMethod(ClassFileReader cfr,String methodname) {
 		IBinaryMethod[] methods = cfr.getMethods();
 		if (methods == null) {
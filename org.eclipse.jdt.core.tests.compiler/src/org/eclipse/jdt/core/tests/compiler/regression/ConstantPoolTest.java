@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.compiler.regression;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import junit.framework.Test;
+
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.util.IClassFileReader;
+import org.eclipse.jdt.core.util.IConstantPool;
+import org.eclipse.jdt.core.util.IConstantPoolConstant;
+import org.eclipse.jdt.core.util.IConstantPoolEntry;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.codegen.ConstantIndexCache;
+
+@SuppressWarnings({ "rawtypes" })
+public class ConstantPoolTest extends AbstractRegressionTest {
+
+	public ConstantPoolTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return buildMinimalComplianceTestSuite(testClass(), F_1_5);
+	}
+
+	public static Class testClass() {
+		return ConstantPoolTest.class;
+	}
+
+	/**
+	 * Ensures that entries of different kinds with the same key do not collide in the shared table.
+	 */
+	public void testIndexCacheKindsShareKeys() {
+		ConstantIndexCache cache = new ConstantIndexCache();
+		int[] tags = {
+			ClassFileConstants.IntegerTag,
+			ClassFileConstants.FloatTag,
+			ClassFileConstants.LongTag,
+			ClassFileConstants.DoubleTag,
+			ClassFileConstants.MethodRefTag,
+			ClassFileConstants.NameAndTypeTag,
+			ClassFileConstants.InvokeDynamicTag
+		};
+		for (int i = 0; i < tags.length; i++)
+			assertEquals("Entry should be added", -(i + 1), cache.putIfAbsent(tags[i], 42L, i + 1));
+		assertEquals("Unexpected size", tags.length, cache.size());
+		for (int i = 0; i < tags.length; i++) {
+			assertEquals("Unexpected index of tag " + tags[i], i + 1, cache.get(tags[i], 42L));
+			assertEquals("Entry should already exist for tag " + tags[i], i + 1, cache.putIfAbsent(tags[i], 42L, 100));
+		}
+		assertEquals("Unexpected index of missing key", -1, cache.get(ClassFileConstants.IntegerTag, 43L));
+		assertEquals("Unexpected index of missing tag", -1, cache.get(ClassFileConstants.FieldRefTag, 42L));
+	}
+
+	/**
+	 * Ensures that entries survive the growth of the table and that clearing it forgets all of them.
+	 */
+	public void testIndexCacheRehashAndClear() {
+		ConstantIndexCache cache = new ConstantIndexCache(4);
+		for (int i = 1; i <= 1000; i++) {
+			assertTrue("Entry should be added", cache.putIfAbsent(ClassFileConstants.LongTag, (long) i << 32, i) < 0);
+			assertTrue("Entry should be added", cache.putIfAbsent(ClassFileConstants.IntegerTag, i, 1000 + i) < 0);
+		}
+		assertEquals("Unexpected size", 2000, cache.size());
+		for (int i = 1; i <= 1000; i++) {
+			assertEquals("Unexpected long index", i, cache.get(ClassFileConstants.LongTag, (long) i << 32));
+			assertEquals("Unexpected int index", 1000 + i, cache.get(ClassFileConstants.IntegerTag, i));
+		}
+		cache.clear();
+		assertEquals("Unexpected size", 0, cache.size());
+		assertEquals("Entry should be gone", -1, cache.get(ClassFileConstants.LongTag, 1L << 32));
+		assertEquals("Entry should be added again", -7, cache.putIfAbsent(ClassFileConstants.LongTag, 1L << 32, 7));
+	}
+
+	/**
+	 * Ensures that all NaN constants share one entry, while -0.0 gets an entry of its own, separate from
+	 * the entries of other kinds with the same bits.
+	 */
+	public void testFloatingPointConstants() throws Exception {
+		float floatWithIntBits = Float.intBitsToFloat(100000);
+		double doubleWithLongBits = Double.longBitsToDouble(100000L);
+		String source =
+			"public class X {\n" +
+			"	double[] doubles() {\n" +
+			"		return new double[] { 0.0 / 0.0, Double.NaN, -0.0, -0.0, 2.5, 2.5, " + doubleWithLongBits + " };\n" +
+			"	}\n" +
+			"	float[] floats() {\n" +
+			"		return new float[] { 0.0f / 0.0f, Float.NaN, -0.0f, -0.0f, 2.5f, " + floatWithIntBits + "f };\n" +
+			"	}\n" +
+			"	int i() {\n" +
+			"		return 100000;\n" +
+			"	}\n" +
+			"	long l() {\n" +
+			"		return 100000L;\n" +
+			"	}\n" +
+			"}\n";
+		compileAndDeploy(source, "", "X", false);
+		try {
+			IClassFileReader reader = ToolFactory.createDefaultClassFileReader(new File(EVAL_DIRECTORY, "X.class").getAbsolutePath(), IClassFileReader.CONSTANT_POOL);
+			assertNotNull("Cannot read X.class", reader);
+			IConstantPool constantPool = reader.getConstantPool();
+			ArrayList<String> doubles = new ArrayList<>();
+			ArrayList<String> floats = new ArrayList<>();
+			int integers = 0, longs = 0;
+			for (int i = 1, count = constantPool.getConstantPoolCount(); i < count; i++) {
+				IConstantPoolEntry entry;
+				switch (constantPool.getEntryKind(i)) {
+					case IConstantPoolConstant.CONSTANT_Double :
+						entry = constantPool.decodeEntry(i++); // a double takes two slots
+						doubles.add(Long.toHexString(Double.doubleToRawLongBits(entry.getDoubleValue())));
+						break;
+					case IConstantPoolConstant.CONSTANT_Float :
+						entry = constantPool.decodeEntry(i);
+						floats.add(Integer.toHexString(Float.floatToRawIntBits(entry.getFloatValue())));
+						break;
+					case IConstantPoolConstant.CONSTANT_Long :
+						i++; // a long takes two slots
+						longs++;
+						break;
+					case IConstantPoolConstant.CONSTANT_Integer :
+						integers++;
+						break;
+				}
+			}
+			assertEquals("Unexpected double entries", "[7ff8000000000000, 8000000000000000, 4004000000000000, 186a0]", doubles.toString());
+			assertEquals("Unexpected float entries", "[7fc00000, 80000000, 40200000, 186a0]", floats.toString());
+			assertEquals("Unexpected int entries", 1, integers);
+			assertEquals("Unexpected long entries", 1, longs);
+		} finally {
+			removeTempClass("X");
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -7167,4 +7167,62 @@ public void test476281a() {
 			"}"},
 			"Success");
 }
+// members of binary types are created on demand, switch and overload resolution must not depend on the order of lookups
+public void testSwitchOnBinaryEnum() {
+	runSwitchOnBinaryEnum(CompilerOptions.ENABLED);
+}
+// same with members of binary types created as soon as their type
+public void testSwitchOnBinaryEnum_eagerMembers() {
+	runSwitchOnBinaryEnum(CompilerOptions.DISABLED);
+}
+private void runSwitchOnBinaryEnum(String lazyBinaryMembers) {
+	Map options = getCompilerOptions();
+	options.put(CompilerOptions.OPTION_LazyBinaryMembers, lazyBinaryMembers);
+	this.runConformTest(
+		new String[] {
+			"p/Letter.java",
+			"package p;\n" +
+			"public enum Letter {\n" +
+			"	Z, A, M, B;\n" +
+			"	public static final int COUNT = 4;\n" +
+			"	public String name(int i) { return name() + i; }\n" +
+			"	public String name(String s) { return s + name(); }\n" +
+			"}"
+		},
+		"",
+		null,
+		true,
+		null,
+		options,
+		null
+	);
+	this.runConformTest(
+		new String[] {
+			"X.java",
+			"import p.Letter;\n" +
+			"public class X {\n" +
+			"	static int rank(Letter l) {\n" +
+			"		switch (l) {\n" +
+			"			case B: return 4;\n" +
+			"			case M: return 3;\n" +
+			"			case A: return 2;\n" +
+			"			default: return 1;\n" +
+			"		}\n" +
+			"	}\n" +
+			"	public static void main(String[] args) {\n" +
+			"		StringBuilder b = new StringBuilder();\n" +
+			"		for (Letter l : Letter.values())\n" +
+			"			b.append(l.name(rank(l))).append(l.name(\"-\"));\n" +
+			"		System.out.println(b.append(Letter.COUNT));\n" +
+			"	}\n" +
+			"}"
+		},
+		"Z1-ZA2-AM3-MB4-B4",
+		null,
+		false,
+		null,
+		options,
+		null
+	);
+}
 }
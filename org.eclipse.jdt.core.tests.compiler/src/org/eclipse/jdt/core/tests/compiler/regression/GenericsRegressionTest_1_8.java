@@ -9777,4 +9777,36 @@ public void testBug508834_comment0() {
 				"}\n"
 			});
 	}
+	// incorporation must still combine all bounds that share an inference variable when bounds are looked up per variable
+	public void testIncorporationOfManyVariables() {
+		runConformTest(
+			new String[] {
+				"X.java",
+				"import java.util.*;\n" + 
+				"import java.util.function.*;\n" + 
+				"import java.util.stream.*;\n" + 
+				"\n" + 
+				"public class X {\n" + 
+				"	static <A, B, C, D, E, F> List<F> zip6(List<? extends A> as, List<? super B> bs, Function<A, B> ab, Function<B, C> bc,\n" + 
+				"			Function<? super C, ? extends D> cd, Function<D, E> de, Function<E, F> ef) {\n" + 
+				"		List<F> result = new ArrayList<>();\n" + 
+				"		for (A a : as) {\n" + 
+				"			B b = ab.apply(a);\n" + 
+				"			bs.add(b);\n" + 
+				"			result.add(ef.apply(de.apply(cd.apply(bc.apply(b)))));\n" + 
+				"		}\n" + 
+				"		return result;\n" + 
+				"	}\n" + 
+				"	public static void main(String[] args) {\n" + 
+				"		List<Object> sink = new ArrayList<>();\n" + 
+				"		List<String> out = zip6(Arrays.asList(1, 2, 3), sink, i -> i * 2, i -> Collections.nCopies(i, \"x\"),\n" + 
+				"				l -> l.stream().collect(Collectors.joining()), s -> s.length(), n -> \"<\" + n + \">\");\n" + 
+				"		Map<Integer, List<String>> grouped = out.stream()\n" + 
+				"				.collect(Collectors.groupingBy(String::length, TreeMap::new, Collectors.mapping(s -> s.substring(1), Collectors.toList())));\n" + 
+				"		System.out.print(sink + \" \" + out + \" \" + grouped);\n" + 
+				"	}\n" + 
+				"}\n"
+			},
+			"[2, 4, 6] [<2>, <4>, <6>] {3=[2>, 4>, 6>]}");
+	}
 }
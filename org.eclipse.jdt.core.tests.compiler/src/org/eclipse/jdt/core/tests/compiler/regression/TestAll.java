@@ -90,6 +90,7 @@ public static Test suite() {
 	standardTests.add(InitializationTests.class);
 	standardTests.add(ResourceLeakTests.class);
 	standardTests.add(PackageBindingTest.class);
+	standardTests.add(TypeSystemTest.class);
 
 	// add all javadoc tests
 	for (int i=0, l=JavadocTest.ALL_CLASSES.size(); i<l; i++) {
@@ -104,6 +105,7 @@ public static Test suite() {
 	ArrayList since_1_5 = new ArrayList();
 	since_1_5.addAll(RunComparableTests.ALL_CLASSES);
 	since_1_5.add(ClassFileReaderTest_1_5.class);
+	since_1_5.add(ConstantPoolTest.class);
 	since_1_5.add(GenericTypeSignatureTest.class);
 	since_1_5.add(InternalHexFloatTest.class);
 	since_1_5.add(JavadocTest_1_5.class);
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.compiler.regression;
+
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.jdt.core.tests.util.AbstractCompilerTest;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.lookup.ArrayBinding;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
+
+public class TypeSystemTest extends AbstractCompilerTest {
+
+	public TypeSystemTest(String name) {
+		super(name);
+	}
+
+	/**
+	 * Ensures that array types interned concurrently by several threads, each in a different order,
+	 * yield exactly one binding per derivation, and that all of them are found again afterwards.
+	 */
+	public void testConcurrentInterning() throws Throwable {
+		final LookupEnvironment environment = new LookupEnvironment(null, new CompilerOptions(), null, new EmptyNameEnvironment());
+		final int threadCount = 8;
+		final int dimensions = 1000;
+		final ArrayBinding[][] interned = new ArrayBinding[threadCount][dimensions + 1];
+		final Throwable[] failure = new Throwable[1];
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			final int thread = t;
+			threads[t] = new Thread("Type System Test " + t) {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = 0; i < dimensions; i++) {
+							int dimension = 1 + (i + thread * (dimensions / threadCount)) % dimensions; // each thread starts elsewhere
+							interned[thread][dimension] = environment.createArrayType(TypeBinding.INT, dimension);
+						}
+					} catch (Throwable e) {
+						synchronized (failure) {
+							if (failure[0] == null)
+								failure[0] = e;
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		start.countDown();
+		for (int t = 0; t < threadCount; t++)
+			threads[t].join();
+		if (failure[0] != null)
+			throw failure[0];
+
+		HashSet<Integer> ids = new HashSet<>();
+		for (int dimension = 1; dimension <= dimensions; dimension++) {
+			ArrayBinding arrayType = interned[0][dimension];
+			assertEquals("Unexpected dimensions", dimension, arrayType.dimensions());
+			assertSame("Unexpected leaf type", TypeBinding.INT, arrayType.leafComponentType());
+			for (int t = 1; t < threadCount; t++)
+				assertSame("Array type of dimension " + dimension + " interned twice", arrayType, interned[t][dimension]);
+			assertSame("Array type of dimension " + dimension + " not found again", arrayType, environment.createArrayType(TypeBinding.INT, dimension));
+			assertTrue("Id of dimension " + dimension + " is not unique", ids.add(arrayType.id));
+		}
+	}
+
+	static class EmptyNameEnvironment implements INameEnvironment {
+		@Override
+		public NameEnvironmentAnswer findType(char[][] compoundTypeName) {
+			return null;
+		}
+
+		@Override
+		public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+			return null;
+		}
+
+		@Override
+		public boolean isPackage(char[][] parentPackageName, char[] packageName) {
+			return false;
+		}
+
+		@Override
+		public void cleanup() {
+		}
+	}
+}
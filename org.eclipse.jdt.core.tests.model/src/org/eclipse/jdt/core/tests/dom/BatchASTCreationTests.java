@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2016 IBM Corporation and others.
+ * Copyright (c) 2004, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,11 +14,16 @@
 package org.eclipse.jdt.core.tests.dom;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.Test;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.BindingKey;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
@@ -30,14 +35,23 @@ import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+import org.eclipse.jdt.internal.core.util.MethodBodyParser;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class BatchASTCreationTests extends AbstractASTTests {
@@ -2220,6 +2234,213 @@ public void test082() throws CoreException, IOException {
 			"LA~B<LC;:1TV;LC;:1TE;>;");
 	}
 	
+	/*
+	 * Ensures that a binding kept by the requestor is still shared with the following ASTs
+	 * of the batch, even though the earlier ASTs are no longer referenced.
+	 */
+	public void test089() throws CoreException {
+		this.workingCopies = createWorkingCopies(new String[] {
+			"/P/p1/X.java",
+			"package p1;\n" +
+			"public class X extends Y {\n" +
+			"}",
+			"/P/p1/Y.java",
+			"package p1;\n" +
+			"public class Y {\n" +
+			"}",
+		});
+		final ITypeBinding[] bindings = new ITypeBinding[2];
+		TestASTRequestor requestor = new TestASTRequestor() {
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				// only keep the bindings, not the ASTs
+				ITypeBinding typeBinding = ((TypeDeclaration) ast.types().get(0)).resolveBinding();
+				if (bindings[0] == null)
+					bindings[0] = typeBinding.getSuperclass();
+				else
+					bindings[1] = typeBinding;
+			}
+		};
+		resolveASTs(this.workingCopies, requestor);
+		assertNotNull("Missing superclass of X", bindings[0]);
+		assertTrue("Superclass of X and Y should be the same", bindings[0] == bindings[1]);
+	}
+
+	/*
+	 * Ensures that an AST can be garbage collected once the requestor is done with it when the bindings
+	 * are not shared across the ASTs of the batch.
+	 */
+	public void test090() throws CoreException {
+		this.workingCopies = createWorkingCopies(new String[] {
+			"/P/p1/X.java",
+			"package p1;\n" +
+			"public class X extends Y {\n" +
+			"}",
+			"/P/p1/Y.java",
+			"package p1;\n" +
+			"public class Y {\n" +
+			"}",
+		});
+		final WeakReference[] firstAST = new WeakReference[1];
+		final boolean[] released = new boolean[1];
+		final String[] keys = new String[2];
+		TestASTRequestor requestor = new TestASTRequestor() {
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				// neither keep the first AST nor its bindings
+				ITypeBinding typeBinding = ((TypeDeclaration) ast.types().get(0)).resolveBinding();
+				if (firstAST[0] == null) {
+					firstAST[0] = new WeakReference(ast);
+					keys[0] = typeBinding.getSuperclass().getKey();
+				} else {
+					for (int i = 0; i < 10 && firstAST[0].get() != null; i++)
+						System.gc();
+					released[0] = firstAST[0].get() == null;
+					keys[1] = typeBinding.getKey();
+				}
+			}
+			public boolean sharesBindingsAcrossASTs() {
+				return false;
+			}
+		};
+		resolveASTs(this.workingCopies, requestor);
+		assertTrue("First AST should have been released", released[0]);
+		assertEquals("Superclass of X and Y should have the same key", keys[0], keys[1]);
+	}
+
+	/*
+	 * Ensures that the bindings and problems of a batch larger than the window of units whose method bodies
+	 * are parsed in parallel are the same as when parsing on a single thread.
+	 */
+	public void testParallelParsing1() throws CoreException {
+		int length = 100;
+		String[] pathAndSources = new String[length * 2];
+		for (int i = 0; i < length; i++) {
+			pathAndSources[i * 2] = "/P/p1/X" + i + ".java";
+			pathAndSources[i * 2 + 1] =
+				"package p1;\n" +
+				"public class X" + i + " {\n" +
+				"  int foo(X" + ((i + 1) % length) + " x) {\n" +
+				"    java.util.List<String> list = null;\n" +
+				"    return x.foo(null) + list.size() + missing" + i + ";\n" +
+				"  }\n" +
+				"}";
+		}
+		this.workingCopies = createWorkingCopies(pathAndSources);
+		String previous = System.getProperty("jdt.compiler.useSingleThread");
+		String expected, actual;
+		try {
+			System.setProperty("jdt.compiler.useSingleThread", "true");
+			expected = resolveBindingsAndProblems(this.workingCopies);
+			System.clearProperty("jdt.compiler.useSingleThread");
+			actual = resolveBindingsAndProblems(this.workingCopies);
+		} finally {
+			if (previous == null)
+				System.clearProperty("jdt.compiler.useSingleThread");
+			else
+				System.setProperty("jdt.compiler.useSingleThread", previous);
+		}
+		assertTrue("Missing problems", expected.indexOf("missing99 cannot be resolved") != -1);
+		assertEquals("Unexpected bindings and problems", expected, actual);
+	}
+
+	/*
+	 * Ensures that cancelling a batch whose method bodies are parsed in parallel is reported to the caller.
+	 */
+	public void testParallelParsing2() throws CoreException {
+		int length = 100;
+		String[] pathAndSources = new String[length * 2];
+		for (int i = 0; i < length; i++) {
+			pathAndSources[i * 2] = "/P/p1/X" + i + ".java";
+			pathAndSources[i * 2 + 1] =
+				"package p1;\n" +
+				"public class X" + i + " {\n" +
+				"  int foo() {\n" +
+				"    return " + i + ";\n" +
+				"  }\n" +
+				"}";
+		}
+		this.workingCopies = createWorkingCopies(pathAndSources);
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		TestASTRequestor requestor = new TestASTRequestor() {
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				super.acceptAST(source, ast);
+				monitor.setCanceled(true);
+			}
+		};
+		ASTParser parser = ASTParser.newParser(JLS3_INTERNAL);
+		parser.setResolveBindings(true);
+		parser.setProject(getJavaProject("P"));
+		parser.setWorkingCopyOwner(this.owner);
+		try {
+			parser.createASTs(this.workingCopies, new String[0], requestor, monitor);
+			assertTrue("Should be cancelled", false);
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertEquals("Unexpected number of ASTs", 1, requestor.asts.size());
+	}
+
+	/*
+	 * Ensures that an exception thrown while parsing method bodies on another thread is rethrown in the calling thread.
+	 */
+	public void testParallelParsing3() throws InterruptedException {
+		if (Runtime.getRuntime().availableProcessors() < 2)
+			return; // method bodies are then parsed by the calling thread only
+		final Thread caller = Thread.currentThread();
+		final CountDownLatch failed = new CountDownLatch(1);
+		ProblemReporter problemReporter = new ProblemReporter(DefaultErrorHandlingPolicies.proceedWithAllProblems(), new CompilerOptions(), new DefaultProblemFactory());
+		CompilationUnitDeclaration[] units = new CompilationUnitDeclaration[MethodBodyParser.MAX_THREADS];
+		for (int i = 0; i < units.length; i++) {
+			char[] contents = ("public class X" + i + " {}").toCharArray();
+			org.eclipse.jdt.internal.compiler.env.ICompilationUnit sourceUnit = new org.eclipse.jdt.internal.compiler.batch.CompilationUnit(contents, "X" + i + ".java", null) {
+				public char[] getContents() {
+					if (Thread.currentThread() != caller) {
+						failed.countDown();
+						throw new IllegalStateException("Failure in worker");
+					}
+					try {
+						// let a worker take a unit
+						failed.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						// ignore
+					}
+					return super.getContents();
+				}
+			};
+			units[i] = new CompilationUnitDeclaration(problemReporter, new CompilationResult(sourceUnit, i, units.length, 100), contents.length);
+		}
+		MethodBodyParser methodBodyParser = new MethodBodyParser(problemReporter, false, "Test Parsing Task");
+		try {
+			methodBodyParser.parse(units, 0, units.length);
+			assertTrue("Should have failed", false);
+		} catch (IllegalStateException e) {
+			assertEquals("Unexpected exception", "Failure in worker", e.getMessage());
+		} finally {
+			methodBodyParser.shutdown();
+		}
+		assertTrue("A worker should have failed", failed.await(0, TimeUnit.SECONDS));
+	}
+
+	private String resolveBindingsAndProblems(ICompilationUnit[] cus) {
+		final StringBuffer buffer = new StringBuffer();
+		TestASTRequestor requestor = new TestASTRequestor() {
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				buffer.append(source.getElementName()).append('\n');
+				ast.accept(new ASTVisitor() {
+					public boolean visit(SimpleName node) {
+						IBinding binding = node.resolveBinding();
+						buffer.append(node.getIdentifier()).append('=').append(binding == null ? "null" : binding.getKey()).append('\n');
+						return true;
+					}
+				});
+				IProblem[] problems = ast.getProblems();
+				for (int i = 0; i < problems.length; i++)
+					buffer.append(problems[i].getSourceStart()).append(": ").append(problems[i].getMessage()).append('\n');
+			}
+		};
+		resolveASTs(cus, requestor);
+		return buffer.toString();
+	}
+
 	public void testIgnoreMethodBodies1() throws CoreException {
 		this.workingCopies = createWorkingCopies(new String[] {
 				"/P/p1/X.java",
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -12959,4 +12959,36 @@ public void testBug543780() {
 		"}";
 	formatSource(source);
 }
+/**
+ * Formatting a region inside a single method only needs that method to be parsed:
+ * check that the enclosing types still give the right indentation and the rest is kept.
+ */
+public void testRegionInMemberTypeMethod() {
+	String source =
+		"public class Test {\n" + 
+		"void foo() {\n" + 
+		"new Object() {void bar(){int i=0;}};\n" + 
+		"}\n" + 
+		"class Inner {\n" + 
+		"int baz(int a) {[#\n" + 
+		"if (a>0) return a; // positive\n" + 
+		"return -a;\n" + 
+		"#]}\n" + 
+		"}\n" + 
+		"}\n";
+	formatSource(source,
+		"public class Test {\n" + 
+		"void foo() {\n" + 
+		"new Object() {void bar(){int i=0;}};\n" + 
+		"}\n" + 
+		"class Inner {\n" + 
+		"int baz(int a) {\n" + 
+		"			if (a > 0)\n" + 
+		"				return a; // positive\n" + 
+		"			return -a;\n" + 
+		"		}\n" + 
+		"}\n" + 
+		"}\n"
+	);
+}
 }
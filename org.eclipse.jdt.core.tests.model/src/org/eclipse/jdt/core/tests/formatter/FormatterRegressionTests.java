@@ -48,6 +48,7 @@ import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.formatter.DefaultCodeFormatter;
 import org.eclipse.jdt.internal.formatter.DefaultCodeFormatterOptions;
 import org.eclipse.jdt.internal.formatter.DefaultCodeFormatterOptions.Alignment;
+import org.eclipse.jdt.internal.formatter.linewrap.WrapExecutor;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Region;
 import org.eclipse.text.edits.TextEdit;
@@ -14912,4 +14913,62 @@ public void testBug543818g() throws JavaModelException {
 	String input = getCompilationUnit("Formatter", "", "test543818", "in.java").getSource();
 	formatSource(input, getCompilationUnit("Formatter", "", "test543818", "G_out.java").getSource());
 }
+/**
+ * Formatting several sources concurrently gives the same result as formatting them one by one.
+ */
+public void testFormatSources() {
+	final Map options = JavaCore.getOptions();
+	String[] sources = new String[20];
+	for (int i = 0; i < sources.length; i++) {
+		sources[i] =
+			"public class X" + i + " {\n" +
+			"int foo(int a){if(a>" + i + ")return a;return -a;}\n" +
+			"}\n";
+	}
+	TextEdit[] edits = ToolFactory.formatSources(options, ToolFactory.M_FORMAT_EXISTING, CodeFormatter.K_COMPILATION_UNIT, sources, "\n", null);
+	assertEquals("Wrong number of edits", sources.length, edits.length);
+	CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(options, ToolFactory.M_FORMAT_EXISTING);
+	for (int i = 0; i < sources.length; i++) {
+		TextEdit expected = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, sources[i], 0, sources[i].length(), 0, "\n");
+		assertNotNull("No edit for source " + i, edits[i]);
+		assertSourceEquals("Different result for source " + i,
+			org.eclipse.jdt.internal.core.util.Util.editedString(sources[i], expected),
+			org.eclipse.jdt.internal.core.util.Util.editedString(sources[i], edits[i]));
+	}
+}
+/**
+ * Once the wraps search has analyzed too many line states, it only considers the last possible wrap in each line.
+ */
+public void testWrapSearchFallback() {
+	int limit = WrapExecutor.SEARCH_STATE_LIMIT;
+	WrapExecutor.SEARCH_STATE_LIMIT = 0;
+	try {
+		StringBuffer arguments = new StringBuffer();
+		StringBuffer wrappedArguments = new StringBuffer();
+		for (int i = 0; i < 30; i++) {
+			String argument = "value000" + (i < 10 ? "0" : "") + i;
+			if (i > 0) {
+				arguments.append(", ");
+				// 9 arguments fit in the first line, 8 in the following ones
+				wrappedArguments.append(i == 9 || i == 17 || i == 25 ? ",\n\t\t\t\t" : ", ");
+			}
+			arguments.append(argument);
+			wrappedArguments.append(argument);
+		}
+		String source =
+			"public class X {\n" +
+			"	void foo() {\n" +
+			"		bar(" + arguments + ");\n" +
+			"	}\n" +
+			"}\n";
+		formatSource(source,
+			"public class X {\n" +
+			"	void foo() {\n" +
+			"		bar(" + wrappedArguments + ");\n" +
+			"	}\n" +
+			"}\n");
+	} finally {
+		WrapExecutor.SEARCH_STATE_LIMIT = limit;
+	}
+}
 }
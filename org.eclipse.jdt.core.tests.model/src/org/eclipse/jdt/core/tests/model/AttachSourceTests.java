@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -57,12 +57,15 @@ import org.eclipse.jdt.core.SourceRange;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.internal.compiler.ISourceElementRequestor.TypeInfo;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.core.ExternalFoldersManager;
 import org.eclipse.jdt.internal.core.JarPackageFragmentRoot;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.JavaProject;
+import org.eclipse.jdt.internal.core.NamedMember;
+import org.eclipse.jdt.internal.core.SourceMapper;
 import org.eclipse.jdt.internal.core.util.Util;
 
 /**
@@ -1646,6 +1649,66 @@ public void testRootPath13() throws JavaModelException {
 		cf.getSource());
 	attachSource(root, null, null); // detach source
 }
+/**
+ * Ensures that the root paths found in a source attachment are remembered,
+ * and that they are used once the package fragment root is opened again.
+ */
+public void testRootPath14() throws JavaModelException {
+	IJavaProject project = getJavaProject("/AttachSourceTests");
+	IFile jar = getFile("/AttachSourceTests/test.jar");
+	IPackageFragmentRoot root = project.getPackageFragmentRoot(jar);
+	attachSource(root, "/AttachSourceTests/src.zip", "invalid");
+	try {
+		IOrdinaryClassFile cf = root.getPackageFragment("test1").getOrdinaryClassFile("Test.class");
+		assertNotNull("No source", cf.getSource());
+		String[] rootPaths = JavaModelManager.getJavaModelManager().sourceRootPaths.getRootPaths(jar.getFullPath(), new Path("/AttachSourceTests/src.zip"));
+		assertNotNull("Root paths should be remembered", rootPaths);
+		root.close();
+
+		cf = root.getPackageFragment("test1").getOrdinaryClassFile("Test.class");
+		assertSourceEquals(
+			"Unexpected source for class file",
+			"package test1;\n" +
+			"\n" +
+			"public class Test {}",
+			cf.getSource());
+	} finally {
+		attachSource(root, null, null); // detach source
+	}
+}
+/**
+ * Ensures that the results of parsing an attached source are recorded and used by the next source mappers
+ * instead of parsing the same source again, but not once the source changed.
+ */
+public void testSourceRangeIndex() throws JavaModelException {
+	class CountingSourceMapper extends SourceMapper {
+		int parsedTypes;
+		CountingSourceMapper() {
+			super(new Path("/AttachSourceTests/attachsrc.zip"), "", AttachSourceTests.this.currentProject.getOptions(true));
+		}
+		@Override
+		public void enterType(TypeInfo typeInfo) {
+			this.parsedTypes++;
+			super.enterType(typeInfo);
+		}
+	}
+	IOrdinaryClassFile cf = this.pkgFragmentRoot.getPackageFragment("x.y").getOrdinaryClassFile("A.class");
+	IType type = cf.getType();
+	IMethod method = type.getMethod("foo", null);
+	String source = cf.getSource();
+	ISourceRange range = method.getSourceRange();
+
+	CountingSourceMapper mapper = new CountingSourceMapper();
+	mapper.mapSource((NamedMember) type, source.toCharArray(), null);
+	assertEquals("Source should not be parsed again", 0, mapper.parsedTypes);
+	assertEquals("Unexpected source range", range, mapper.getSourceRange(method));
+
+	String prefix = "/* changed */";
+	mapper = new CountingSourceMapper();
+	mapper.mapSource((NamedMember) type, (prefix + source).toCharArray(), null);
+	assertTrue("Changed source should be parsed", mapper.parsedTypes > 0);
+	assertEquals("Unexpected source range", new SourceRange(range.getOffset() + prefix.length(), range.getLength()), mapper.getSourceRange(method));
+}
 /**
  * @test bug 153133: [model] toggle breakpoint in constructor creates a class load breakpoint
  * @see "http://bugs.eclipse.org/bugs/show_bug.cgi?id=153133"
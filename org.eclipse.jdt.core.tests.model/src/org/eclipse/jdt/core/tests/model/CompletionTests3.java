@@ -14,8 +14,11 @@
 package org.eclipse.jdt.core.tests.model;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.CompletionProposal;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.index.Index;
 
 import junit.framework.Test;
 
@@ -657,4 +660,106 @@ public void testBug425035_method_f() throws CoreException {
 		deleteProject("P");
 	}
 }
+public void testExpensiveProposalsReportedLast() throws CoreException {
+	try {
+		createJavaProject("P", new String[] {"src"}, new String[]{"JCL_LIB"}, "bin", "1.7");
+		this.workingCopies = new ICompilationUnit[2];
+		this.workingCopies[0] = getWorkingCopy(
+				"/P/src/a/LocalType.java",
+				"package a;\n" +
+				"public class LocalType {\n" +
+				"}\n");
+		this.workingCopies[1] = getWorkingCopy(
+				"/P/src/b/Test.java",
+				"package b;\n" +
+				"public class Test {\n" +
+				"	void f() {\n" +
+				"		int localVariable = 0;\n" +
+				"		Loc\n" +
+				"	}\n" +
+				"}\n");
+
+		final int[] proposalsBeforeExpensive = { -1 };
+		CompletionTestsRequestor2 requestor = new CompletionTestsRequestor2(true) {
+			@Override
+			public void beginReportingExpensiveProposals() {
+				proposalsBeforeExpensive[0] = this.proposalsPtr + 1;
+			}
+		};
+		requestor.setExpensiveProposalsTimeout(60000);
+		String str = this.workingCopies[1].getSource();
+		String completeBehind = "Loc";
+		int cursorLocation = str.lastIndexOf(completeBehind) + completeBehind.length();
+		this.workingCopies[1].codeComplete(cursorLocation, requestor, this.wcOwner);
+		String results = requestor.getResults();
+		assertTrue("Missing local variable proposal: " + results, results.indexOf("localVariable[LOCAL_VARIABLE_REF]") >= 0);
+		assertTrue("Missing type proposal: " + results, results.indexOf("LocalType[TYPE_REF]") >= 0);
+		assertEquals("Unexpected number of proposals before the expensive ones", 1, proposalsBeforeExpensive[0]);
+	} finally {
+		deleteProject("P");
+	}
+}
+/*
+ * Ensures that the types found for a prefix are filtered, rather than searched in the indexes again, when the prefix grows.
+ */
+public void testRecentTypeSearchWithLongerPrefix() throws CoreException {
+	try {
+		createJavaProject("P", new String[] {"src"}, new String[]{"JCL_LIB"}, "bin", "1.7");
+		createFolder("/P/src/a");
+		createFile(
+				"/P/src/a/ZorkAlpha.java",
+				"package a;\n" +
+				"public class ZorkAlpha {\n" +
+				"}\n");
+		createFile(
+				"/P/src/a/ZorkBeta.java",
+				"package a;\n" +
+				"public class ZorkBeta {\n" +
+				"}\n");
+		this.workingCopies = new ICompilationUnit[1];
+		this.workingCopies[0] = getWorkingCopy(
+				"/P/src/b/Test.java",
+				"package b;\n" +
+				"public class Test {\n" +
+				"	void f() {\n" +
+				"		ZorkB\n" +
+				"	}\n" +
+				"}\n");
+		waitUntilIndexesReady();
+
+		String str = this.workingCopies[0].getSource();
+		int cursorLocation = str.lastIndexOf("ZorkB") + "Zork".length();
+		CompletionTestsRequestor2 requestor = new CompletionTestsRequestor2(true);
+		this.workingCopies[0].codeComplete(cursorLocation, requestor, this.wcOwner);
+		String results = requestor.getResults();
+		assertTrue("Missing ZorkAlpha: " + results, results.indexOf("ZorkAlpha[TYPE_REF]") >= 0);
+		assertTrue("Missing ZorkBeta: " + results, results.indexOf("ZorkBeta[TYPE_REF]") >= 0);
+
+		// forget ZorkBeta in the index without requesting a job, only a new search of the index misses it
+		Index index = JavaModelManager.getIndexManager().getIndex(new Path("/P"), true/*reuse index file*/, false/*don't create*/);
+		assertNotNull("Missing index", index);
+		index.monitor.enterWrite();
+		try {
+			index.remove(index.containerRelativePath("/P/src/a/ZorkBeta.java"));
+		} finally {
+			index.monitor.exitWrite();
+		}
+
+		// the types found for the shorter prefix are filtered
+		requestor = new CompletionTestsRequestor2(true);
+		this.workingCopies[0].codeComplete(cursorLocation + 1, requestor, this.wcOwner);
+		results = requestor.getResults();
+		assertTrue("Unexpected ZorkAlpha: " + results, results.indexOf("ZorkAlpha[TYPE_REF]") < 0);
+		assertTrue("Indexes searched again: " + results, results.indexOf("ZorkBeta[TYPE_REF]") >= 0);
+
+		// a shorter prefix needs a new search
+		requestor = new CompletionTestsRequestor2(true);
+		this.workingCopies[0].codeComplete(cursorLocation - 1, requestor, this.wcOwner);
+		results = requestor.getResults();
+		assertTrue("Missing ZorkAlpha: " + results, results.indexOf("ZorkAlpha[TYPE_REF]") >= 0);
+		assertTrue("Indexes not searched again: " + results, results.indexOf("ZorkBeta[TYPE_REF]") < 0);
+	} finally {
+		deleteProject("P");
+	}
+}
 }
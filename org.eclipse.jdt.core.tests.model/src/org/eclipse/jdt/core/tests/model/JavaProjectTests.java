@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Hashtable;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 import org.eclipse.core.internal.runtime.RuntimeLog;
@@ -65,6 +66,8 @@ import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.core.ArchiveEntriesCache;
+import org.eclipse.jdt.internal.core.ArchiveEntriesCache.ArchiveEntries;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.PackageFragmentRoot;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -2954,4 +2957,180 @@ public void testBug519435() throws Exception {
 		deleteProject("P");
 	}
 }
+/*
+ * Ensures that an archive opened through the Java model is shared, and opened again once it changed.
+ */
+public void testSharedZipFile() throws Exception {
+	String jarPath = getExternalResourcePath("sharedZipFile.jar");
+	try {
+		createJar(new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}"
+		}, jarPath);
+		final JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		final IPath path = new Path(jarPath);
+		waitUntilIndexesReady(); // no bracket of the indexer keeps the released archives open
+		ZipFile first = manager.getZipFile(path);
+		ZipFile second = manager.getZipFile(path);
+		manager.closeZipFile(second);
+		assertTrue("Should keep the archive open while it is used", isOpen(first));
+		manager.closeZipFile(first);
+		assertSame("Should share the open archive", first, second);
+		assertFalse("Should close the archive once it is no longer used", isOpen(first));
+
+		createJar(new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}",
+			"p/Y.java",
+			"package p;\n" +
+			"public class Y {}"
+		}, jarPath);
+		ZipFile third = manager.getZipFile(path);
+		try {
+			assertNotSame("Should open the changed archive again", first, third);
+			assertNotNull("Should find the added class", third.getEntry("p/Y.class"));
+		} finally {
+			manager.closeZipFile(third);
+		}
+
+		// inside a bracket, an archive released by another thread is kept open until the bracket ends
+		final ZipFile[] fourth = new ZipFile[1];
+		manager.cacheZipFiles(this);
+		try {
+			Thread thread = new Thread() {
+				public void run() {
+					try {
+						fourth[0] = manager.getZipFile(path);
+						manager.closeZipFile(fourth[0]);
+					} catch (CoreException e) {
+						// reported below
+					}
+				}
+			};
+			thread.start();
+			thread.join();
+			assertNotNull("Should open the archive", fourth[0]);
+			assertTrue("Should keep the released archive open during the bracket", isOpen(fourth[0]));
+			assertSame("Should reuse the released archive during the bracket", fourth[0], manager.getZipFile(path));
+		} finally {
+			manager.flushZipFiles(this);
+		}
+		assertFalse("Should close the archive once the bracket ended", isOpen(fourth[0]));
+	} finally {
+		deleteExternalResource("sharedZipFile.jar");
+	}
+}
+private static boolean isOpen(ZipFile zipFile) {
+	try {
+		zipFile.size();
+		return true;
+	} catch (IllegalStateException e) {
+		return false; // zip file closed
+	}
+}
+/*
+ * Ensures that the entries of an archive are saved and read back from the saved file, and read from the archive
+ * again once it changed.
+ */
+public void testArchiveEntriesCache() throws Exception {
+	String jarPath = getExternalResourcePath("archiveEntriesCache.jar");
+	try {
+		createJar(new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}"
+		}, jarPath);
+		ArchiveEntriesCache cache = JavaModelManager.getJavaModelManager().archiveEntries;
+		IPath path = new Path(jarPath);
+		ArchiveEntries read = cache.getEntries(path);
+		assertTrue("Should save the entries", cache.getCacheFile(path).isFile());
+
+		// the archive cannot be opened anymore, but it has the same size and time stamp
+		overwriteWithZeros(new File(jarPath));
+		ArchiveEntries saved = cache.getEntries(path);
+		assertEquals("Unexpected entries", String.join("\n", read.names), String.join("\n", saved.names));
+		assertEquals("Unexpected class level", read.classLevel, saved.classLevel);
+		assertTrue("Should find the class", saved.hasEntry("p/X.class"));
+		assertFalse("Should not find a missing class", saved.hasEntry("p/Y.class"));
+
+		createJar(new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}",
+			"p/Y.java",
+			"package p;\n" +
+			"public class Y {}"
+		}, jarPath);
+		assertTrue("Should find the added class", cache.getEntries(path).hasEntry("p/Y.class"));
+	} finally {
+		deleteExternalResource("archiveEntriesCache.jar");
+	}
+}
+/*
+ * Ensures that the children of a multi-release archive root, and the versions of its classes, are computed
+ * from the saved entries of the archive.
+ */
+public void testArchiveEntriesCacheMultiRelease() throws Exception {
+	String classesPath = getExternalResourcePath("archiveEntriesCacheClasses.jar");
+	String jarPath = getExternalResourcePath("archiveEntriesCacheMultiRelease.jar");
+	try {
+		createJar(new String[] {
+			"p/X.java",
+			"package p;\n" +
+			"public class X {}"
+		}, classesPath);
+		byte[] classBytes;
+		try (ZipFile classes = new ZipFile(classesPath)) {
+			classBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(classes.getEntry("p/X.class"), classes);
+		}
+		String[] names = {
+			"p/",
+			"p/X.class",
+			"META-INF/",
+			"META-INF/versions/",
+			"META-INF/versions/9/",
+			"META-INF/versions/9/p/",
+			"META-INF/versions/9/p/X.class"
+		};
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jarPath))) {
+			for (int i = 0; i < names.length; i++) {
+				zip.putNextEntry(new ZipEntry(names[i]));
+				if (!names[i].endsWith("/"))
+					zip.write(classBytes);
+				zip.closeEntry();
+			}
+		}
+		IJavaProject project = createJavaProject("P", new String[0], new String[] {jarPath}, "", "9");
+		waitUntilIndexesReady();
+		ArchiveEntriesCache cache = JavaModelManager.getJavaModelManager().archiveEntries;
+		ArchiveEntries entries = cache.getEntries(new Path(jarPath));
+		assertTrue("Should find the versions directory", entries.hasEntry("META-INF/versions/"));
+		assertTrue("Should find the version 9 directory without slash", entries.hasEntry("META-INF/versions/9"));
+		assertFalse("Should not find a missing version", entries.hasEntry("META-INF/versions/10"));
+
+		// the root can only be opened from the saved entries
+		IPackageFragmentRoot root = project.getPackageFragmentRoot(jarPath);
+		root.close();
+		overwriteWithZeros(new File(jarPath));
+		assertTrue("Should find the package", root.getPackageFragment("p").exists());
+		assertEquals("Unexpected path of the class", "META-INF/versions/9/p/X.class", ((PackageFragmentRoot) root).getClassFilePath("p/X.class"));
+	} finally {
+		deleteProject("P");
+		deleteExternalResource("archiveEntriesCacheMultiRelease.jar");
+		deleteExternalResource("archiveEntriesCacheClasses.jar");
+	}
+}
+/*
+ * Overwrites the given file with as many zeros as it has bytes, keeping its time stamp.
+ */
+private void overwriteWithZeros(File file) throws IOException {
+	long lastModified = file.lastModified();
+	byte[] zeros = new byte[(int) file.length()];
+	try (FileOutputStream out = new FileOutputStream(file)) {
+		out.write(zeros);
+	}
+	assertTrue("Cannot restore the time stamp", file.setLastModified(lastModified));
+}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15139,4 +15139,42 @@ public void testBug521240_001() throws CoreException {
 	);
 }
 
+/*
+ * Type name queries on jar indexes only check the index words that may match the pattern.
+ */
+public void testSearchAllTypeNamesInSortedIndex() throws CoreException {
+	TypeNameRequestor requestor =  new SearchTests.SearchTypeNameRequestor();
+	new SearchEngine().searchAllTypeNames(
+		"java.lang".toCharArray(),
+		SearchPattern.R_EXACT_MATCH,
+		"cLO".toCharArray(),
+		SearchPattern.R_PREFIX_MATCH,
+		IJavaSearchConstants.TYPE,
+		getJavaSearchScope(),
+		requestor,
+		WAIT_UNTIL_READY_TO_SEARCH,
+		null
+	);
+	assertSearchResults(
+		"Unexpected type names with case insensitive prefix",
+		"java.lang.CloneNotSupportedException",
+		requestor);
+	requestor =  new SearchTests.SearchTypeNameRequestor();
+	new SearchEngine().searchAllTypeNames(
+		"java.lang".toCharArray(),
+		SearchPattern.R_EXACT_MATCH,
+		"IMSE".toCharArray(),
+		SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE,
+		IJavaSearchConstants.TYPE,
+		getJavaSearchScope(),
+		requestor,
+		WAIT_UNTIL_READY_TO_SEARCH,
+		null
+	);
+	assertSearchResults(
+		"Unexpected type names with camel case",
+		"java.lang.IllegalMonitorStateException",
+		requestor);
+}
+
 }
\ No newline at end of file
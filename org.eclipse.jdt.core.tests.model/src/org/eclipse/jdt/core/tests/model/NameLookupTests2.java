@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,9 +14,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.model;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.util.Map;
 
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
@@ -28,6 +30,7 @@ import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
 import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
 import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.JavaModelManager.PerProjectInfo;
 import org.eclipse.jdt.internal.core.JavaProject;
 import org.eclipse.jdt.internal.core.NameLookup;
 
@@ -146,6 +149,88 @@ public void testAddPackageFragment2() throws CoreException {
 		deleteProject("P");
 	}
 }
+/*
+ * Resolve, remove pkg, resolve again: removed pkg should not be found in the project and its dependents,
+ * but name lookups created before should be unchanged.
+ */
+public void testRemovePackageFragment() throws CoreException {
+	try {
+		JavaProject p1 = (JavaProject) createJavaProject("P1", new String[] {"src"}, "bin");
+		JavaProject p2 = (JavaProject) createJavaProject("P2", new String[] {""}, new String[0], new String[] {"/P1"}, "");
+		createFolder("/P1/src/a/b/c");
+		createFolder("/P1/src/a/d");
+
+		NameLookup previousLookup = getNameLookup(p1);
+		assertElementsEqual(
+			"Didn't find a.b.c",
+			"a.b.c [in src [in P1]]",
+			getNameLookup(p2).findPackageFragments("a.b.c", false));
+
+		deleteFolder("/P1/src/a/b");
+
+		assertNull("Should not find a.b.c", getNameLookup(p1).findPackageFragments("a.b.c", false));
+		assertNull("Should not find a.b", getNameLookup(p1).findPackageFragments("a.b", false));
+		assertNull("Should not find a.b.c in dependent project", getNameLookup(p2).findPackageFragments("a.b.c", false));
+		assertElementsEqual(
+			"Didn't find a.d",
+			"a.d [in src [in P1]]",
+			getNameLookup(p2).findPackageFragments("a.d", false));
+		assertElementsEqual(
+			"Previous name lookup should be unchanged",
+			"a.b.c [in src [in P1]]",
+			previousLookup.findPackageFragments("a.b.c", false));
+	} finally {
+		deleteProject("P1");
+		deleteProject("P2");
+	}
+}
+/*
+ * Add and remove several packages in one operation: all the changes should be seen by the project and its
+ * dependents, and the super packages of the remaining packages should be kept.
+ */
+public void testAddAndRemovePackageFragments() throws CoreException {
+	try {
+		JavaProject p1 = (JavaProject) createJavaProject("P1", new String[] {"src"}, "bin");
+		JavaProject p2 = (JavaProject) createJavaProject("P2", new String[] {""}, new String[0], new String[] {"/P1"}, "");
+		createFolder("/P1/src/a/b/c");
+		createFolder("/P1/src/a/d");
+		createFolder("/P1/src/x/y");
+
+		// populate the caches of both projects
+		getNameLookup(p1);
+		getNameLookup(p2);
+
+		IWorkspaceRunnable runnable = new IWorkspaceRunnable(){
+			public void run(IProgressMonitor monitor) throws CoreException {
+				deleteFolder("/P1/src/a/b");
+				deleteFolder("/P1/src/x");
+				createFolder("/P1/src/e/f");
+			}
+		};
+		JavaCore.run(runnable, null/*no progress*/);
+
+		NameLookup lookup = getNameLookup(p2);
+		assertNull("Should not find a.b.c", lookup.findPackageFragments("a.b.c", false));
+		assertNull("Should not find a.b", lookup.findPackageFragments("a.b", false));
+		assertNull("Should not find x.y", lookup.findPackageFragments("x.y", false));
+		assertNull("Should not find x", lookup.findPackageFragments("x", false));
+		assertElementsEqual(
+			"Didn't find a",
+			"a [in src [in P1]]",
+			lookup.findPackageFragments("a", false));
+		assertElementsEqual(
+			"Didn't find e.f",
+			"e.f [in src [in P1]]",
+			getNameLookup(p1).findPackageFragments("e.f", false));
+		assertElementsEqual(
+			"Didn't find e.f in dependent project",
+			"e.f [in src [in P1]]",
+			lookup.findPackageFragments("e.f", false));
+	} finally {
+		deleteProject("P1");
+		deleteProject("P2");
+	}
+}
 /*
  * Ensures that a NameLookup can be created with working copies that contain duplicate types
  * (regression test for bug 63245 findPackageFragment won't return default package)
@@ -354,6 +439,42 @@ public void testFindTypeWithUnrelatedWorkingCopy() throws Exception {
 		deleteProject("P2");
 	}
 }
+/*
+ * Ensures that the secondary types of a project are saved with the workspace,
+ * and that they are read back instead of being searched again in the next session.
+ */
+public void testSecondaryTypesSavedWithWorkspace() throws CoreException {
+	try {
+		IJavaProject project = createJavaProject("P");
+		createFolder("/P/p");
+		createFile(
+			"/P/p/X.java",
+			"package p;\n" +
+			"public class X {\n" +
+			"}\n" +
+			"class Secondary {\n" +
+			"}"
+		);
+		waitUntilIndexesReady();
+		IType secondary = getCompilationUnit("/P/p/X.java").getType("Secondary");
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		Map<String, Map<String, IType>> secondaryTypes = manager.secondaryTypes(project, true/*wait for indexes*/, null);
+		assertEquals("Unexpected secondary type", secondary, secondaryTypes.get("p").get("Secondary"));
+
+		getWorkspace().save(true/*full save*/, null/*no progress*/);
+		File file = project.getProject().getWorkingLocation(JavaCore.PLUGIN_ID).append("secondaryTypes.dat").toFile();
+		assertTrue("Secondary types should be saved", file.exists());
+
+		// simulate a new session
+		PerProjectInfo info = manager.getPerProjectInfo(project.getProject(), false/*don't create info*/);
+		info.secondaryTypes = null;
+		info.triedReadSecondaryTypes = false;
+		secondaryTypes = manager.secondaryTypes(project, false/*don't wait for indexes*/, null);
+		assertEquals("Unexpected secondary type after reading", secondary, secondaryTypes.get("p").get("Secondary"));
+	} finally {
+		deleteProject("P");
+	}
+}
 /*
  * A test for bug 162621. Tests that a library jar that is initially invalid but transitions
  * to being valid becomes visible in name lookup. Previously the jar would stay in the invalid
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -692,6 +692,34 @@ public class OverflowingCacheTests extends ModifyingResourceTests {
 		assertEquals("overflow space incorrect (after flush)", 0, actualOverflow);
 	}
 
+	/**
+	 * Creates an ElementCache of size 10 and fills it, uses one of its elements, then
+	 * adds other elements until the cache has to make space twice. Ensures that the used
+	 * element is kept the first time even if it is the least recently used one, and that
+	 * the hits, misses and evictions are counted.
+	 */
+	public void testElementCacheKeepsUsedEntries() {
+		int spaceLimit = 10;
+		int entryCount = 17;
+
+		ElementCache<OverflowingTestOpenable> cache = new ElementCache<>(spaceLimit);
+		OverflowingTestOpenable[] openables = new OverflowingTestOpenable[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			openables[i] = new OverflowingTestOpenable(new OverflowingTestBuffer(false, null), cache);
+			cache.put(openables[i], new MockInfo(i));
+			if (i == spaceLimit - 1)
+				assertEquals("wrong value", new MockInfo(0), cache.get(openables[0]));
+		}
+
+		assertEquals("current space incorrect", 5, cache.getCurrentSpace());
+		assertEquals("used entry should be present", new MockInfo(0), cache.peek(openables[0]));
+		assertNull("entry should not be present", cache.peek(openables[10]));
+		assertNull("entry should not be present", cache.get(openables[1]));
+		assertEquals("wrong hit count", 1, cache.getHitCount());
+		assertEquals("wrong miss count", 1, cache.getMissCount());
+		assertEquals("wrong eviction count", 12, cache.getEvictionCount());
+	}
+
 	static class MockInfo extends JavaElementInfo {
 		private final int index;
 
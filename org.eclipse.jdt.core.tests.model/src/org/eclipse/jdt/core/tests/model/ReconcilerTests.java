@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -5959,4 +5959,120 @@ public void testBug534865() throws CoreException, IOException {
 			deleteProject(project18);
 	}
 }
+/*
+ * Ensures that working copies reconciled together get their problems and ASTs as when reconciled one by one,
+ * and that the changes of one working copy are seen by the other.
+ */
+public void testReconcileWorkingCopies() throws CoreException {
+	class CountingProblemRequestor extends ProblemRequestor {
+		int reports;
+		public void beginReporting() {
+			this.reports++;
+			super.beginReporting();
+		}
+	}
+	final CountingProblemRequestor requestorOfX = new CountingProblemRequestor();
+	final CountingProblemRequestor requestorOfY = new CountingProblemRequestor();
+	WorkingCopyOwner owner = new WorkingCopyOwner() {
+		public IProblemRequestor getProblemRequestor(ICompilationUnit unit) {
+			return "X.java".equals(unit.getElementName()) ? requestorOfX : requestorOfY;
+		}
+	};
+	this.workingCopies = new ICompilationUnit[2];
+	this.workingCopies[0] = getWorkingCopy(
+		"/Reconciler/src/p1/Y.java",
+		"package p1;\n" +
+		"public class Y {\n" +
+		"  public void bar() {\n" +
+		"  }\n" +
+		"}",
+		owner);
+	this.workingCopies[1] = getCompilationUnit("/Reconciler/src/p1/X.java").getWorkingCopy(owner, null);
+	String source =
+		"package p1;\n" +
+		"public class X {\n" +
+		"  public void foo() {\n" +
+		"    new Y().bar();\n" +
+		"    new Y().baz();\n" +
+		"  }\n" +
+		"}";
+	this.workingCopies[1].getBuffer().setContents(source);
+	requestorOfX.initialize(source.toCharArray());
+	requestorOfX.reports = 0;
+	requestorOfY.reset();
+	requestorOfY.reports = 0;
+	org.eclipse.jdt.core.dom.CompilationUnit[] asts = JavaCore.reconcile(
+		this.workingCopies,
+		JLS_LATEST,
+		ICompilationUnit.FORCE_PROBLEM_DETECTION,
+		owner,
+		true/*parse in parallel*/,
+		null);
+	assertNotNull("Missing AST of Y", asts[0]);
+	assertNotNull("Missing AST of X", asts[1]);
+	assertTrue("Bindings should be resolved", asts[1].getAST().hasResolvedBindings());
+	assertEquals("Unexpected problems in Y", 0, asts[0].getProblems().length);
+	assertEquals("Unexpected problems in X", 1, asts[1].getProblems().length);
+	// the problems are only found and reported by the batch, not when building the structure of the working copies
+	assertEquals("Unexpected number of reports for Y", 1, requestorOfY.reports);
+	assertEquals("Unexpected number of reports for X", 1, requestorOfX.reports);
+	assertProblems(
+		"Unexpected problems of X",
+		"----------\n" +
+		"1. ERROR in /Reconciler/src/p1/X.java (at line 5)\n" +
+		"	new Y().baz();\n" +
+		"	        ^^^\n" +
+		"The method baz() is undefined for the type Y\n" +
+		"----------\n",
+		requestorOfX
+	);
+	assertProblems(
+		"Unexpected problems of Y",
+		"----------\n" +
+		"----------\n",
+		requestorOfY
+	);
+}
+/*
+ * Ensures that a working copy reconciled with other working copies is not resolved if no problem requestor
+ * is active and no AST is wanted, as when reconciled alone, unless problem detection is forced.
+ */
+public void testReconcileWorkingCopiesWithoutActiveRequestor() throws CoreException {
+	final CategorizedProblem[][] problems = new CategorizedProblem[1][];
+	final boolean[] notified = new boolean[1];
+	new ReconcileParticipant() {
+		/**
+		 * @deprecated
+		 */
+		public void reconcile(ReconcileContext context) {
+			notified[0] = true;
+			problems[0] = context.getProblems(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER);
+		}
+	};
+	final ProblemRequestor requestor = new ProblemRequestor();
+	requestor.isActive = false;
+	WorkingCopyOwner owner = new WorkingCopyOwner() {
+		public IProblemRequestor getProblemRequestor(ICompilationUnit unit) {
+			return requestor;
+		}
+	};
+	this.workingCopies = new ICompilationUnit[1];
+	this.workingCopies[0] = getCompilationUnit("/Reconciler/src/p1/X.java").getWorkingCopy(owner, null);
+	this.workingCopies[0].getBuffer().setContents(
+		"package p1;\n" +
+		"public class X {\n" +
+		"  public void foo() {\n" +
+		"    new Unknown();\n" +
+		"  }\n" +
+		"}");
+	JavaCore.reconcile(this.workingCopies, ICompilationUnit.NO_AST, 0, owner, false/*parse in parallel*/, null);
+	assertTrue("Participant should be notified", notified[0]);
+	assertNull("Working copy should not be resolved", problems[0]);
+
+	notified[0] = false;
+	JavaCore.reconcile(this.workingCopies, ICompilationUnit.NO_AST, ICompilationUnit.FORCE_PROBLEM_DETECTION, owner, false/*parse in parallel*/, null);
+	assertTrue("Participant should be notified", notified[0]);
+	assertNotNull("Working copy should be resolved", problems[0]);
+	assertEquals("Unexpected problems", 1, problems[0].length);
+}
 }
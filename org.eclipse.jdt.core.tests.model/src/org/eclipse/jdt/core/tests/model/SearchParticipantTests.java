@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,8 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.core.tests.model.AbstractJavaSearchTests.JavaSearchResultCollector;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
 import org.eclipse.jdt.internal.core.search.indexing.SourceIndexer;
 import org.eclipse.jdt.internal.core.search.processing.JobManager;
 
@@ -207,6 +209,39 @@ public class SearchParticipantTests extends ModifyingResourceTests implements IJ
 		assertTrue("Should have requested to index document", document.indexingRequested);
 	}
 
+	/*
+	 * Ensures that scheduleDocumentIndexing(...) triggers a call to indexDocument(...) for each participant
+	 * (case of the same document scheduled by two participants while indexing is waiting)
+	 */
+	public void testScheduleDocumentIndexing3() throws CoreException {
+		createFile(
+			"/P/X.java",
+			"public class X {\n" +
+			"}"
+		);
+		waitUntilIndexesReady();
+		IPath otherIndexLocation = new Path(getExternalPath() + "test2.index");
+		TestSearchParticipant participant1 = new TestSearchParticipant();
+		TestSearchParticipant participant2 = new TestSearchParticipant();
+		TestSearchDocument document1 = new TestSearchDocument("/P/X.java", participant1);
+		TestSearchDocument document2 = new TestSearchDocument("/P/X.java", participant2);
+		IndexManager indexManager = JavaModelManager.getIndexManager();
+		try {
+			indexManager.disable();
+			try {
+				participant1.scheduleDocumentIndexing(document1, getIndexLocation());
+				participant2.scheduleDocumentIndexing(document2, otherIndexLocation);
+			} finally {
+				indexManager.enable();
+			}
+			waitUntilIndexesReady();
+			assertTrue("Should have requested to index document of first participant", document1.indexingRequested);
+			assertTrue("Should have requested to index document of second participant", document2.indexingRequested);
+		} finally {
+			participant2.removeIndex(otherIndexLocation);
+		}
+	}
+
 	/*
 	 * Ensures that adding index entries through indexDocument() updates the index file.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -547,6 +547,50 @@ public void testConcurrentJob() throws CoreException, InterruptedException, IOEx
  		job.resume();
  	}
  }
+ /*
+  * Ensures that changing a compilation unit several times while its indexing is waiting only adds one indexing job,
+  * and that the index reflects the last contents of the compilation unit.
+  */
+ public void testCoalesceIndexingOfChangedDocument() throws CoreException, TimeOutException {
+ 	WaitingJob job = new WaitingJob();
+ 	try {
+ 		IJavaProject project = createJavaProject("P1");
+ 		createFile(
+ 			"/P1/X.java",
+ 			"public class X {\n" +
+ 			"}"
+ 		);
+ 		waitUntilIndexesReady();
+ 		job.suspend();
+ 		IndexManager indexManager = JavaModelManager.getIndexManager();
+ 		int awaitingJobs = indexManager.awaitingJobsCount();
+ 		editFile(
+ 			"/P1/X.java",
+ 			"public class X {\n" +
+ 			"}\n" +
+ 			"class Y {\n" +
+ 			"}"
+ 		);
+ 		editFile(
+ 			"/P1/X.java",
+ 			"public class X {\n" +
+ 			"}\n" +
+ 			"class Z {\n" +
+ 			"}"
+ 		);
+ 		assertEquals("Unexpected number of awaiting jobs", awaitingJobs + 1, indexManager.awaitingJobsCount());
+ 		job.resume();
+ 		assertAllTypes(
+ 			"Unexpected types in P1",
+ 			project,
+ 			"X\n" +
+ 			"Z"
+ 		);
+ 	} finally {
+ 		job.resume();
+ 		deleteProject("P1");
+ 	}
+ }
  /*
   * Ensures that types are found if the project is a lib folder
   * (regression test for bug 83822 Classes at root of project not found in Open Type dialog)
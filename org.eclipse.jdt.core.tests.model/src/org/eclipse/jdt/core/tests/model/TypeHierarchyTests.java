@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -45,6 +45,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.tests.model.SearchTests.WaitingJob;
 import org.eclipse.jdt.core.tests.model.Semaphore.TimeOutException;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.hierarchy.IndexBasedHierarchyBuilder;
 
 @SuppressWarnings("rawtypes")
 public class TypeHierarchyTests extends ModifyingResourceTests {
@@ -1669,6 +1670,54 @@ public void testMemberTypeSubtypeDifferentProject() throws CoreException {
 		deleteProjects(new String[] {"P1", "P2"});
 	}
 }
+/**
+ * Ensures that a type hierarchy with subtypes in several projects is the same whether the
+ * potential subtypes of the projects are resolved at the same time or one after the other.
+ */
+public void testSubtypesInSeveralProjects() throws CoreException {
+	int resolutionThreads = IndexBasedHierarchyBuilder.RESOLUTION_THREADS;
+	try {
+		createJavaProject("P1");
+		createFile(
+			"/P1/X.java",
+			"public class X {\n" +
+			"}"
+			);
+		createJavaProject("P2", new String[] {""}, new String[] {"JCL_LIB"}, new String[] {"/P1"}, "");
+		createFile(
+			"/P2/Y.java",
+			"public class Y extends X {\n" +
+			"}"
+		);
+		createJavaProject("P3", new String[] {""}, new String[] {"JCL_LIB"}, new String[] {"/P1", "/P2"}, "");
+		createFile(
+			"/P3/Z.java",
+			"public class Z extends Y {\n" +
+			"}"
+		);
+		createFile(
+			"/P3/W.java",
+			"public class W extends X {\n" +
+			"}"
+		);
+		IType focus = getCompilationUnit("/P1/X.java").getType("X");
+		String expected =
+			"Focus: X [in X.java [in <default> [in <project root> [in P1]]]]\n" +
+			"Super types:\n" +
+			"  Object [in Object.class [in java.lang [in "+ getExternalJCLPathString() + "]]]\n" +
+			"Sub types:\n" +
+			"  W [in W.java [in <default> [in <project root> [in P3]]]]\n" +
+			"  Y [in Y.java [in <default> [in <project root> [in P2]]]]\n" +
+			"    Z [in Z.java [in <default> [in <project root> [in P3]]]]\n";
+		IndexBasedHierarchyBuilder.RESOLUTION_THREADS = 4;
+		assertHierarchyEquals(expected, focus.newTypeHierarchy(null/*no progress*/));
+		IndexBasedHierarchyBuilder.RESOLUTION_THREADS = 1;
+		assertHierarchyEquals(expected, focus.newTypeHierarchy(null/*no progress*/));
+	} finally {
+		IndexBasedHierarchyBuilder.RESOLUTION_THREADS = resolutionThreads;
+		deleteProjects(new String[] {"P1", "P2", "P3"});
+	}
+}
 /**
  * Ensures that a hierarchy on a type that implements a missing interface is correctly rooted.
  * (regression test for bug 24691 Missing interface makes hierarchy incomplete)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,9 +21,14 @@ import junit.framework.Test;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 import org.eclipse.jdt.core.dom.rewrite.ITrackedNodePosition;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.parser.Scanner;
+import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.eclipse.jdt.internal.core.dom.rewrite.TokenScanner;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class ASTRewritingTrackingTest extends ASTRewritingTest {
@@ -534,6 +539,104 @@ public class ASTRewritingTrackingTest extends ASTRewritingTest {
 
 	}
 
+	public void testNamesWithSparseEdits() throws Exception {
+
+		IPackageFragment pack1= this.sourceFolder.createPackageFragment("test1", false, null);
+		StringBuffer buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class C {\n");
+		buf.append("    public void foo(int i) {\n");
+		buf.append("        i++;\n");
+		buf.append("    }\n");
+		buf.append("    public int bar(int j) {\n");
+		buf.append("        return j;\n");
+		buf.append("    }\n");
+		buf.append("    public void baz(int k) {\n");
+		buf.append("        k--;\n");
+		buf.append("        k++;\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("C.java", buf.toString(), false, null);
+
+		CompilationUnit astRoot= createAST(cu);
+		AST ast= astRoot.getAST();
+		ASTRewrite rewrite= ASTRewrite.create(ast);
+
+		ArrayList names= new ArrayList();
+		ArrayList positions= new ArrayList();
+
+		TypeDeclaration typeC= findTypeDeclaration(astRoot, "C");
+		List decls= typeC.bodyDeclarations();
+
+		// tracked nodes in subtrees without any change
+		MethodDeclaration foo= (MethodDeclaration) decls.get(0);
+		ExpressionStatement increment= (ExpressionStatement) foo.getBody().statements().get(0);
+		ITrackedNodePosition position= rewrite.track(((PostfixExpression) increment.getExpression()).getOperand());
+		names.add("i");
+		positions.add(position);
+
+		MethodDeclaration bar= (MethodDeclaration) decls.get(1);
+		ReturnStatement returnStatement= (ReturnStatement) bar.getBody().statements().get(0);
+		position= rewrite.track(returnStatement.getExpression());
+		names.add("j");
+		positions.add(position);
+
+		MethodDeclaration baz= (MethodDeclaration) decls.get(2);
+		List statements= baz.getBody().statements();
+		position= rewrite.track(((ExpressionStatement) statements.get(1)).getExpression());
+		names.add("k++");
+		positions.add(position);
+
+		// move the first statement of baz to foo
+		ASTNode placeHolder= rewrite.createMoveTarget((ASTNode) statements.get(0));
+		rewrite.getListRewrite(foo.getBody(), Block.STATEMENTS_PROPERTY).insertLast(placeHolder, null);
+
+		String preview= evaluateRewrite(cu, rewrite);
+
+		buf= new StringBuffer();
+		buf.append("package test1;\n");
+		buf.append("public class C {\n");
+		buf.append("    public void foo(int i) {\n");
+		buf.append("        i++;\n");
+		buf.append("        k--;\n");
+		buf.append("    }\n");
+		buf.append("    public int bar(int j) {\n");
+		buf.append("        return j;\n");
+		buf.append("    }\n");
+		buf.append("    public void baz(int k) {\n");
+		buf.append("        k++;\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		String expected= buf.toString();
+		assertEqualString(preview, expected);
+
+		assertCorrectTracking(names, positions, expected);
+	}
+
+
+
+	public void testTokenCacheAtOffsetZero() throws Exception {
+		final int[] scannedTokens= { 0 };
+		Scanner scanner= new Scanner(true, false, false, ClassFileConstants.JDK1_8, null, null, true) {
+			public int getNextToken() throws InvalidInputException {
+				scannedTokens[0]++;
+				return super.getNextToken();
+			}
+		};
+		scanner.setSource("class C {}".toCharArray());
+		TokenScanner tokenScanner= new TokenScanner(scanner, true);
+
+		assertEquals("Unexpected token at 0", TerminalTokens.TokenNameclass, tokenScanner.readNext(0, true));
+		assertEquals("Unexpected token at 5", TerminalTokens.TokenNameIdentifier, tokenScanner.readNext(5, true));
+		int scanned= scannedTokens[0];
+
+		// both tokens are found in the cache, including the one at offset 0
+		assertEquals("Unexpected cached token at 0", TerminalTokens.TokenNameclass, tokenScanner.readNext(0, true));
+		assertEquals("Unexpected start offset", 0, tokenScanner.getCurrentStartOffset());
+		assertEquals("Unexpected end offset", 5, tokenScanner.getCurrentEndOffset());
+		assertEquals("Unexpected cached token at 5", TerminalTokens.TokenNameIdentifier, tokenScanner.readNext(5, true));
+		assertEquals("Should not scan again", scanned, scannedTokens[0]);
+	}
 
 }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 20157IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,7 @@ import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.tests.model.AbstractJavaModelTests;
+import org.eclipse.test.performance.Dimension;
 
 /**
  */
@@ -618,6 +619,47 @@ public class FullSourceWorkspaceASTTests extends FullSourceWorkspaceTests {
 		createAST(unit, JLS3_INTERNAL);
 	}
 
+	/**
+	 * Performance DOM/AST memory retained by one big file with bindings using JLS3.
+	 */
+	public void testPerfDomAstMemoryJLS3() throws JavaModelException {
+		tagAsSummary("DOM AST memory for one file with bindings (JLS3)", Dimension.USED_JAVA_HEAP, false); // do NOT put in fingerprint
+
+		ICompilationUnit unit = getCompilationUnit("org.eclipse.jdt.core", "org.eclipse.jdt.internal.compiler.parser", "Parser.java");
+
+		// Warm up
+		for (int i = 0; i < 2; i++) {
+			ASTParser parser = ASTParser.newParser(JLS3_INTERNAL);
+			parser.setSource(unit);
+			parser.setResolveBindings(true);
+			parser.createAST(null);
+		}
+
+		// Measures: the used heap delta is the memory retained by the AST and its bindings
+		for (int i = 0; i < MEASURES_COUNT; i++) {
+			runGc();
+			startMeasuring();
+			ASTParser parser = ASTParser.newParser(JLS3_INTERNAL);
+			parser.setSource(unit);
+			parser.setResolveBindings(true);
+			CompilationUnit result = (CompilationUnit) parser.createAST(null);
+			result.accept(new ASTVisitor() {
+				public boolean visit(SimpleName node) {
+					node.resolveBinding();
+					return true;
+				}
+			});
+			runGc();
+			stopMeasuring();
+			if (PRINT) System.out.println("		  estimated size of the AST: "+result.subtreeBytes()+" bytes");
+			assertEquals("Wrong type for node"+result, result.getNodeType(), ASTNode.COMPILATION_UNIT);
+		}
+
+		// Commit
+		commitMeasurements();
+		assertPerformance();
+	}
+
 	/*
 	 * Create AST nodes tree for all compilation units of all projects
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -161,6 +161,113 @@ public void testFormatDefaultBigFile() {
 	assertPerformance();
 }
 
+/**
+ * Format one statement of file (Parser.java - 225176 chars) using code formatter default options.
+ */
+public void testFormatRegionDefault() throws JavaModelException {
+	tagAsSummary("Format one statement region with default options", false); // do NOT put in fingerprint
+
+	// Warm up
+	String source = PARSER_WORKING_COPY.getSource();
+	int offset = source.indexOf("protected void consumeStatementReturn() {");
+	assertTrue("Method not found", offset > 0);
+	offset = source.indexOf("if (", offset);
+	int length = source.indexOf('\n', offset) - offset;
+	int warmup = WARMUP_COUNT;
+	for (int i=0; i<warmup; i++) {
+		long start = System.currentTimeMillis();
+		new DefaultCodeFormatter().format(CodeFormatter.K_COMPILATION_UNIT, source, offset, length, 0, null);
+		if (i==0) {
+			System.out.println("	Time to format a region of "+length+" chars in file ("+source.length()+" chars) = "+(System.currentTimeMillis()-start)+"ms");
+		}
+	}
+
+	// Measures
+	resetCounters();
+	int measures = MEASURES_COUNT;
+	for (int i=0; i<measures; i++) {
+		runGc();
+		startMeasuring();
+		for (int j=1; j<10; j++)
+			new DefaultCodeFormatter().format(CodeFormatter.K_COMPILATION_UNIT, source, offset, length, 0, null);
+		stopMeasuring();
+	}
+
+	// Commit
+	commitMeasurements();
+	assertPerformance();
+}
+
+/*
+ * Builds a compilation unit with long fluent and builder call chains, whose arguments are
+ * themselves chains, long argument lists and big array initializers. These make the search
+ * for line wraps explore a lot of combinations.
+ */
+private static String buildFluentChainsSource() {
+	StringBuffer buffer = new StringBuffer();
+	buffer.append("public class FluentChains {\n");
+	for (int m = 0; m < 10; m++) {
+		buffer.append("\tvoid builder").append(m).append("() {\n");
+		buffer.append("\t\tObject o = Builder.create()");
+		for (int i = 0; i < 40; i++) {
+			buffer.append(".with").append(i).append("(value").append(i).append(", Other.of(a").append(i);
+			buffer.append(").map(x -> x.get").append(i).append("()).filter(y -> y != null).orElse(fallback").append(i).append("))");
+		}
+		buffer.append(".build();\n");
+		buffer.append("\t\tcall(");
+		for (int i = 0; i < 60; i++) {
+			if (i > 0) buffer.append(", ");
+			buffer.append("stream").append(i).append(".map(Object::toString).collect(Collectors.joining(\", \"))");
+		}
+		buffer.append(");\n");
+		buffer.append("\t\tint[][] data = {");
+		for (int i = 0; i < 50; i++) {
+			buffer.append(i > 0 ? ", {" : "{");
+			for (int j = 0; j < 12; j++) {
+				if (j > 0) buffer.append(", ");
+				buffer.append(i * j);
+			}
+			buffer.append('}');
+		}
+		buffer.append("};\n");
+		buffer.append("\t}\n");
+	}
+	buffer.append("}\n");
+	return buffer.toString();
+}
+
+/**
+ * Format a corpus of pathological fluent and builder chains with default options.
+ */
+public void testFormatFluentChains() {
+	tagAsSummary("Format fluent and builder chains with default options", false); // do NOT put in fingerprint
+
+	// Warm up
+	String source = buildFluentChainsSource();
+	int warmup = WARMUP_COUNT;
+	for (int i=0; i<warmup; i++) {
+		long start = System.currentTimeMillis();
+		assertNotNull("Unexpected null edit", new DefaultCodeFormatter().format(CodeFormatter.K_COMPILATION_UNIT, source, 0, source.length(), 0, null));
+		if (i==0) {
+			System.out.println("	Time to format fluent chains ("+source.length()+" chars) = "+(System.currentTimeMillis()-start)+"ms");
+		}
+	}
+
+	// Measures
+	resetCounters();
+	int measures = MEASURES_COUNT;
+	for (int i=0; i<measures; i++) {
+		runGc();
+		startMeasuring();
+		new DefaultCodeFormatter().format(CodeFormatter.K_COMPILATION_UNIT, source, 0, source.length(), 0, null);
+		stopMeasuring();
+	}
+
+	// Commit
+	commitMeasurements();
+	assertPerformance();
+}
+
 protected void resetCounters() {
 	// do nothing
 }
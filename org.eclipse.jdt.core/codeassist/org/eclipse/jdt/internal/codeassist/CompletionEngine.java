@@ -312,6 +312,14 @@ public final class CompletionEngine
 		}
 	}
 	
+	/*
+	 * Thrown when the time budget of the expensive proposals is exhausted. Unlike an OperationCanceledException,
+	 * it is not caught by the name environment to look for the types in the Java model instead of the indexes.
+	 */
+	static class ExpensiveProposalsTimeout extends RuntimeException {
+		private static final long serialVersionUID = -6172904351839046917L;
+	}
+
 	private static class AcceptedType {
 		public char[] packageName;
 		public char[] simpleTypeName;
@@ -839,6 +847,11 @@ public final class CompletionEngine
 	private int foundConstructorsCount;
 	private ObjectVector acceptedConstructors;
 
+	private boolean expensiveProposalsStarted;
+	private long expensiveProposalsDeadline = Long.MAX_VALUE;
+	private boolean expensiveProposalsTimedOut;
+	private int expensiveProposalsDepth; // > 0 while computing expensive proposals
+
 	/**
 	 * The CompletionEngine is responsible for computing source completions.
 	 *
@@ -1914,6 +1927,108 @@ public final class CompletionEngine
 		if (this.monitor != null && this.monitor.isCanceled()) {
 			throw new OperationCanceledException();
 		}
+		if (isExpensiveProposalsTimeoutExceeded()) {
+			throw new ExpensiveProposalsTimeout();
+		}
+	}
+
+	/*
+	 * Starts the computation of proposals that need to search the indexes or to guess missing types.
+	 * The first time, the requestor is notified that the cheap proposals have been reported, and the
+	 * time budget of the expensive proposals starts.
+	 * Returns false if the time budget is exhausted: the caller must not compute the proposals then.
+	 * Otherwise the caller must call endExpensiveProposals() when done.
+	 */
+	private boolean beginExpensiveProposals() {
+		if (!this.expensiveProposalsStarted) {
+			this.expensiveProposalsStarted = true;
+			long timeout = this.requestor.getExpensiveProposalsTimeout();
+			if (timeout > 0)
+				this.expensiveProposalsDeadline = System.currentTimeMillis() + timeout;
+			this.requestor.beginReportingExpensiveProposals();
+		}
+		this.expensiveProposalsDepth++;
+		if (isExpensiveProposalsTimeoutExceeded()) {
+			this.expensiveProposalsDepth--;
+			return false;
+		}
+		return true;
+	}
+
+	private void endExpensiveProposals() {
+		this.expensiveProposalsDepth--;
+	}
+
+	/*
+	 * Drops the expensive proposals not reported yet as their computation was stopped by the time budget.
+	 */
+	private void dropExpensiveProposals() {
+		this.acceptedTypes = null;
+		this.acceptedConstructors = null;
+	}
+
+	private boolean isExpensiveProposalsTimeoutExceeded() {
+		if (this.expensiveProposalsDepth == 0)
+			return false;
+		if (!this.expensiveProposalsTimedOut && System.currentTimeMillis() > this.expensiveProposalsDeadline)
+			this.expensiveProposalsTimedOut = true;
+		return this.expensiveProposalsTimedOut;
+	}
+
+	private void findConstructorDeclarationsInIndexes(char[] token, Scope scope) {
+		if (!beginExpensiveProposals())
+			return;
+		try {
+			this.foundConstructorsCount = 0;
+			this.nameEnvironment.findConstructorDeclarations(
+					token,
+					this.options.camelCaseMatch,
+					this,
+					this.monitor);
+			acceptConstructors(scope);
+		} catch (ExpensiveProposalsTimeout e) {
+			dropExpensiveProposals();
+		} finally {
+			endExpensiveProposals();
+		}
+	}
+
+	private void findTypesInIndexes(char[] token, boolean findMembers, int searchFor, Scope scope) {
+		if (!beginExpensiveProposals())
+			return;
+		try {
+			this.foundTypesCount = 0;
+			if (!RecentTypeSearch.acceptRecentTypes(this.typeRoot, this.javaProject, this.owner, token, findMembers,
+					this.options.camelCaseMatch, searchFor, this.requestor.isTestCodeExcluded(), this)) {
+				RecentTypeSearch search = new RecentTypeSearch(this.typeRoot, this.javaProject, this.owner, token,
+						findMembers, this.options.camelCaseMatch, searchFor, this.requestor.isTestCodeExcluded(), this);
+				this.nameEnvironment.findTypes(
+						token,
+						findMembers,
+						this.options.camelCaseMatch,
+						searchFor,
+						search,
+						this.monitor);
+				search.searchDone();
+			}
+			acceptTypes(scope);
+		} catch (ExpensiveProposalsTimeout e) {
+			dropExpensiveProposals();
+		} finally {
+			endExpensiveProposals();
+		}
+	}
+
+	private void guessMissingTypes(TypeReference typeRef, Scope scope, MissingTypesGuesser.GuessedTypeRequestor typeRequestor) {
+		if (!beginExpensiveProposals())
+			return;
+		try {
+			new MissingTypesGuesser(this).guess(typeRef, scope, typeRequestor);
+		} catch (ExpensiveProposalsTimeout e) {
+			dropExpensiveProposals();
+		} finally {
+			endExpensiveProposals();
+		}
 	}
 
 	private boolean complete(
@@ -5662,7 +5777,6 @@ public final class CompletionEngine
 			final TypeBinding[] argTypes,
 			final Scope scope,
 			final InvocationSite invocationSite) {
-		MissingTypesGuesser missingTypesConverter = new MissingTypesGuesser(this);
 		MissingTypesGuesser.GuessedTypeRequestor substitutionRequestor =
 			new MissingTypesGuesser.GuessedTypeRequestor() {
 				@Override
@@ -5707,7 +5821,7 @@ public final class CompletionEngine
 					}
 				}
 			};
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(typeRef, scope, substitutionRequestor);
 	}
 		
 	private void findConstructors(
@@ -7874,7 +7988,6 @@ public final class CompletionEngine
 			final Scope scope,
 			final InvocationSite invocationSite,
 			final Scope invocationScope) {
-		MissingTypesGuesser missingTypesConverter = new MissingTypesGuesser(this);
 		MissingTypesGuesser.GuessedTypeRequestor substitutionRequestor =
 			new MissingTypesGuesser.GuessedTypeRequestor() {
 				@Override
@@ -7904,7 +8017,7 @@ public final class CompletionEngine
 
 				}
 			};
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(typeRef, scope, substitutionRequestor);
 	}
 
 	private void findFieldsAndMethodsFromStaticImports(
@@ -8258,15 +8371,7 @@ public final class CompletionEngine
 				false);
 		}
 		if(!this.requestor.isIgnored(CompletionProposal.TYPE_REF)) {
-			this.foundTypesCount = 0;
-			this.nameEnvironment.findTypes(
-					importName,
-					findMembers,
-					this.options.camelCaseMatch,
-					IJavaSearchConstants.TYPE,
-					this,
-					this.monitor);
-			acceptTypes(null);
+			findTypesInIndexes(importName, findMembers, IJavaSearchConstants.TYPE, null);
 		}
 	}
 
@@ -9916,7 +10021,6 @@ public final class CompletionEngine
 			final Scope scope,
 			final InvocationSite invocationSite,
 			final boolean isInsideAnnotationAttribute) {
-		MissingTypesGuesser missingTypesConverter = new MissingTypesGuesser(this);
 		MissingTypesGuesser.GuessedTypeRequestor substitutionRequestor =
 			new MissingTypesGuesser.GuessedTypeRequestor() {
 				@Override
@@ -9942,7 +10046,7 @@ public final class CompletionEngine
 			};
 		SingleTypeReference typeRef = new SingleTypeReference(token, pos);
 		typeRef.resolvedType = new ProblemReferenceBinding(new char[][]{ token }, null, ProblemReasons.NotFound);
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(typeRef, scope, substitutionRequestor);
 	}
 
 	private void findMemberTypes(
@@ -10285,7 +10389,6 @@ public final class CompletionEngine
 			char[] typeName,
 			final long pos,
 			final Scope scope)  {
-		MissingTypesGuesser missingTypesConverter = new MissingTypesGuesser(this);
 		MissingTypesGuesser.GuessedTypeRequestor substitutionRequestor =
 			new MissingTypesGuesser.GuessedTypeRequestor() {
 				@Override
@@ -10313,14 +10416,13 @@ public final class CompletionEngine
 			};
 		SingleTypeReference typeRef = new SingleTypeReference(typeName, pos);
 		typeRef.resolvedType = new ProblemReferenceBinding(new char[][]{ typeName }, null, ProblemReasons.NotFound);
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(typeRef, scope, substitutionRequestor);
 	}
 	
 	private void findMemberTypesFromMissingType(
 			TypeReference typeRef,
 			final long pos,
 			final Scope scope)  {
-		MissingTypesGuesser missingTypesConverter = new MissingTypesGuesser(this);
 		MissingTypesGuesser.GuessedTypeRequestor substitutionRequestor =
 			new MissingTypesGuesser.GuessedTypeRequestor() {
 				@Override
@@ -10346,7 +10448,7 @@ public final class CompletionEngine
 					}
 				}
 			};
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(typeRef, scope, substitutionRequestor);
 	}
 
 	private void findMethodDeclarations(
@@ -11287,13 +11389,7 @@ public final class CompletionEngine
 				
 				checkCancel();
 				
-				this.foundConstructorsCount = 0;
-				this.nameEnvironment.findConstructorDeclarations(
-						token,
-						this.options.camelCaseMatch,
-						this,
-						this.monitor);
-				acceptConstructors(scope);
+				findConstructorDeclarationsInIndexes(token, scope);
 			} else if (proposeType) {
 				int l = typesFound.size();
 				for (int i = 0; i < l; i++) {
@@ -11320,15 +11416,7 @@ public final class CompletionEngine
 				
 				checkCancel();
 				
-				this.foundTypesCount = 0;
-				this.nameEnvironment.findTypes(
-						token,
-						proposeAllMemberTypes,
-						this.options.camelCaseMatch,
-						searchFor,
-						this,
-						this.monitor);
-				acceptTypes(scope);
+				findTypesInIndexes(token, proposeAllMemberTypes, searchFor, scope);
 			}
 			if(!isEmptyPrefix && !this.requestor.isIgnored(CompletionProposal.PACKAGE_REF)) {
 				
@@ -11479,13 +11567,7 @@ public final class CompletionEngine
 			
 			checkCancel();
 			
-			this.foundConstructorsCount = 0;
-			this.nameEnvironment.findConstructorDeclarations(
-					qualifiedName,
-					this.options.camelCaseMatch,
-					this,
-					this.monitor);
-			acceptConstructors(scope);
+			findConstructorDeclarationsInIndexes(qualifiedName, scope);
 		} if(proposeType) {
 			int searchFor = IJavaSearchConstants.TYPE;
 			if(this.assistNodeIsClass) {
@@ -11502,15 +11584,7 @@ public final class CompletionEngine
 			
 			checkCancel();
 			
-			this.foundTypesCount = 0;
-			this.nameEnvironment.findTypes(
-					qualifiedName,
-					false,
-					this.options.camelCaseMatch,
-					searchFor,
-					this,
-					this.monitor);
-			acceptTypes(scope);
+			findTypesInIndexes(qualifiedName, false, searchFor, scope);
 		}
 		
 		if(!this.requestor.isIgnored(CompletionProposal.PACKAGE_REF)) {
@@ -13699,6 +13773,10 @@ public final class CompletionEngine
 		this.knownModules = new HashtableOfObject(10);
 		this.knownPkgs = new HashtableOfObject(10);
 		this.knownTypes = new HashtableOfObject(10);
+		this.expensiveProposalsStarted = false;
+		this.expensiveProposalsDeadline = Long.MAX_VALUE;
+		this.expensiveProposalsTimedOut = false;
+		this.expensiveProposalsDepth = 0;
 		if (this.noCacheNameEnvironment != null) {
 			this.noCacheNameEnvironment.cleanup();
 			this.noCacheNameEnvironment = null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -167,6 +167,7 @@ public class MissingTypesGuesser extends ASTVisitor {
 
 	}
 
+	private CompletionEngine completionEngine;
 	private CompletionEngine.CompletionProblemFactory problemFactory ;
 	private  SearchableEnvironment nameEnvironment;
 
@@ -175,6 +176,7 @@ public class MissingTypesGuesser extends ASTVisitor {
 	private int combinationsCount;
 
 	public MissingTypesGuesser(CompletionEngine completionEngine) {
+		this.completionEngine = completionEngine;
 		this.problemFactory = completionEngine.problemFactory;
 		this.nameEnvironment = completionEngine.nameEnvironment;
 	}
@@ -558,6 +560,8 @@ public class MissingTypesGuesser extends ASTVisitor {
 		ResolutionCleaner resolutionCleaner = new ResolutionCleaner();
 		for (int i = 0; i < this.combinationsCount; i++) {
 
+			this.completionEngine.checkCancel();
+
 			nextSubstitution(substituedTypeNodes, subtitutions, substitutionsIndexes);
 
 
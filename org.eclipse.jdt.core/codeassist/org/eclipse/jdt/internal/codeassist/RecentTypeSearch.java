@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.codeassist;
+
+import java.lang.ref.SoftReference;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
+import org.eclipse.jdt.internal.compiler.util.ObjectVector;
+import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
+
+/**
+ * The types found by the most recent type name search of code completion.
+ * <p>
+ * While a type name is being typed, each completion extends the prefix of the previous one,
+ * so the types matching the new prefix are among the types found for the previous prefix.
+ * They are filtered from these instead of searching the indexes again.
+ * </p><p>
+ * The types are only reused for the same compilation unit, project and working copies (including the primary
+ * working copies), within {@link #VALIDITY} milliseconds, as long as no classpath was changed and no indexing job
+ * was requested and no index was removed in between. Types added to the other working copies within that time
+ * may thus be missed. The most recent search is forgotten once it cannot be reused anymore, and it is only softly
+ * reachable in the meantime.
+ * </p>
+ */
+class RecentTypeSearch implements ISearchRequestor {
+
+	static final long VALIDITY = 5000;
+	private static final int MAX_TYPES = 5000;
+
+	private static volatile SoftReference<RecentTypeSearch> lastSearch;
+
+	private final ITypeRoot typeRoot;
+	private final IJavaProject project;
+	private final WorkingCopyOwner owner;
+	private final ICompilationUnit[] workingCopies;
+	private final char[] prefix;
+	private final boolean findMembers;
+	private final boolean camelCaseMatch;
+	private final boolean excludeTestCode;
+	private final int searchFor;
+	private final long time;
+	private final int indexChangesCount;
+	private final int classpathChangesCount;
+
+	private final ISearchRequestor requestor;
+	// packageName, typeName, enclosingTypeNames, modifiers and accessRestriction of each type found
+	private ObjectVector types = new ObjectVector();
+
+	/**
+	 * Creates a requestor recording the types found by the search, and passing them to the given requestor.
+	 * {@link #searchDone()} must be called once the search completed.
+	 */
+	RecentTypeSearch(ITypeRoot typeRoot, IJavaProject project, WorkingCopyOwner owner, char[] prefix, boolean findMembers,
+			boolean camelCaseMatch, int searchFor, boolean excludeTestCode, ISearchRequestor requestor) {
+		this.typeRoot = typeRoot;
+		this.project = project;
+		this.owner = owner;
+		this.workingCopies = getWorkingCopies(owner);
+		this.prefix = prefix;
+		this.findMembers = findMembers;
+		this.camelCaseMatch = camelCaseMatch;
+		this.searchFor = searchFor;
+		this.excludeTestCode = excludeTestCode;
+		this.time = System.currentTimeMillis();
+		IndexManager indexManager = JavaModelManager.getIndexManager();
+		this.indexChangesCount = indexManager.awaitingJobsCount() == 0 ? indexManager.indexChangesCount() : -1;
+		this.classpathChangesCount = JavaModelManager.getJavaModelManager().getClasspathChangesCount();
+		this.requestor = requestor;
+	}
+
+	/**
+	 * Passes the types of the most recent search that match the given prefix to the given requestor,
+	 * if that search can be reused.
+	 *
+	 * @return whether the types of the most recent search were reused
+	 */
+	static boolean acceptRecentTypes(ITypeRoot typeRoot, IJavaProject project, WorkingCopyOwner owner, char[] prefix,
+			boolean findMembers, boolean camelCaseMatch, int searchFor, boolean excludeTestCode, ISearchRequestor requestor) {
+		SoftReference<RecentTypeSearch> reference = lastSearch;
+		RecentTypeSearch recent = reference == null ? null : reference.get();
+		if (recent == null || !recent.canBeReusedFor(typeRoot, project, owner, prefix, findMembers, camelCaseMatch, searchFor, excludeTestCode)) {
+			if (reference != null && lastSearch == reference)
+				lastSearch = null; // expired, outdated or for another completion, the next search replaces it anyway
+			return false;
+		}
+		int lastDotIndex = CharOperation.lastIndexOf('.', prefix);
+		char[] simpleName = lastDotIndex < 0 ? prefix : CharOperation.subarray(prefix, lastDotIndex + 1, prefix.length);
+		ObjectVector recentTypes = recent.types;
+		for (int i = 0, length = recentTypes.size(); i < length; i++) {
+			Object[] type = (Object[]) recentTypes.elementAt(i);
+			char[] typeName = (char[]) type[1];
+			if (CharOperation.prefixEquals(simpleName, typeName, false)
+					|| (camelCaseMatch && CharOperation.camelCaseMatch(simpleName, typeName))) {
+				requestor.acceptType((char[]) type[0], typeName, (char[][]) type[2], ((Integer) type[3]).intValue(), (AccessRestriction) type[4]);
+			}
+		}
+		return true;
+	}
+
+	private boolean canBeReusedFor(ITypeRoot root, IJavaProject javaProject, WorkingCopyOwner workingCopyOwner, char[] newPrefix,
+			boolean newFindMembers, boolean newCamelCaseMatch, int newSearchFor, boolean newExcludeTestCode) {
+		if (System.currentTimeMillis() - this.time > VALIDITY)
+			return false;
+		if (this.indexChangesCount != JavaModelManager.getIndexManager().indexChangesCount()
+				|| this.classpathChangesCount != JavaModelManager.getJavaModelManager().getClasspathChangesCount())
+			return false;
+		if (root == null || !root.equals(this.typeRoot) || javaProject == null || !javaProject.equals(this.project)
+				|| workingCopyOwner != this.owner)
+			return false;
+		if (newFindMembers != this.findMembers || newCamelCaseMatch != this.camelCaseMatch || newSearchFor != this.searchFor
+				|| newExcludeTestCode != this.excludeTestCode)
+			return false;
+		// the new prefix must only add characters to the simple name of the previous one
+		if (this.prefix.length == 0
+				|| !CharOperation.prefixEquals(this.prefix, newPrefix)
+				|| CharOperation.indexOf('.', newPrefix, this.prefix.length) >= 0)
+			return false;
+		ICompilationUnit[] copies = getWorkingCopies(workingCopyOwner);
+		if (copies == null || this.workingCopies == null)
+			return copies == this.workingCopies;
+		if (copies.length != this.workingCopies.length)
+			return false;
+		for (int i = 0, length = copies.length; i < length; i++) {
+			if (copies[i] != this.workingCopies[i])
+				return false;
+		}
+		return true;
+	}
+
+	private static ICompilationUnit[] getWorkingCopies(WorkingCopyOwner owner) {
+		// without owner, the search sees the primary working copies
+		return JavaModelManager.getJavaModelManager().getWorkingCopies(owner == null ? DefaultWorkingCopyOwner.PRIMARY : owner, true/*add primary WCs*/);
+	}
+
+	/**
+	 * Makes the types recorded so far available to the next searches, unless there are too many of them
+	 * or the indexes were not ready.
+	 */
+	void searchDone() {
+		if (this.types != null && this.indexChangesCount >= 0 && this.typeRoot != null)
+			lastSearch = new SoftReference<>(this);
+	}
+
+	@Override
+	public void acceptType(char[] packageName, char[] typeName, char[][] enclosingTypeNames, int modifiers, AccessRestriction accessRestriction) {
+		if (this.types != null) {
+			if (this.types.size() < MAX_TYPES)
+				this.types.add(new Object[] {packageName, typeName, enclosingTypeNames, Integer.valueOf(modifiers), accessRestriction});
+			else
+				this.types = null; // too many types to keep
+		}
+		this.requestor.acceptType(packageName, typeName, enclosingTypeNames, modifiers, accessRestriction);
+	}
+
+	@Override
+	public void acceptConstructor(int modifiers, char[] simpleTypeName, int parameterCount, char[] signature,
+			char[][] parameterTypes, char[][] parameterNames, int typeModifiers, char[] packageName, int extraFlags,
+			String path, AccessRestriction access) {
+		this.requestor.acceptConstructor(modifiers, simpleTypeName, parameterCount, signature, parameterTypes,
+				parameterNames, typeModifiers, packageName, extraFlags, path, access);
+	}
+
+	@Override
+	public void acceptPackage(char[] packageName) {
+		this.requestor.acceptPackage(packageName);
+	}
+
+	@Override
+	public void acceptModule(char[] moduleName) {
+		this.requestor.acceptModule(moduleName);
+	}
+}
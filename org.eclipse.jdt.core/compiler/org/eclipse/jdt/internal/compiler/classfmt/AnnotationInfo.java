@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 BEA Systems, Inc.
+ * Copyright (c) 2005, 2019 BEA Systems, Inc.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -40,7 +41,7 @@ public class AnnotationInfo extends ClassFileStruct implements IBinaryAnnotation
 
 	public RuntimeException exceptionDuringDecode;
 
-AnnotationInfo(byte[] classFileBytes, int[] contantPoolOffsets, int offset) {
+AnnotationInfo(ByteBuffer classFileBytes, int[] contantPoolOffsets, int offset) {
 	super(classFileBytes, contantPoolOffsets, offset);
 }
 /**
@@ -48,7 +49,7 @@ AnnotationInfo(byte[] classFileBytes, int[] contantPoolOffsets, int offset) {
  * @param offset the offset into <code>classFileBytes</code> for the "type_index" of the annotation attribute.
  * @param populate <code>true</code> to indicate to build out the annotation structure.
  */
-AnnotationInfo(byte[] classFileBytes, int[] contantPoolOffsets, int offset, boolean runtimeVisible, boolean populate) {
+AnnotationInfo(ByteBuffer classFileBytes, int[] contantPoolOffsets, int offset, boolean runtimeVisible, boolean populate) {
 	this(classFileBytes, contantPoolOffsets, offset);
 	if (populate)
 		decodeAnnotation();
@@ -80,8 +81,8 @@ private void decodeAnnotation() {
 		newMessage.append(" while decoding pair #").append(i).append(" of annotation @").append(this.typename); //$NON-NLS-1$ //$NON-NLS-2$
 		newMessage.append(", bytes at structOffset ").append(this.structOffset).append(":"); //$NON-NLS-1$ //$NON-NLS-2$
 		int offset = this.structOffset;
-		while (offset <= this.structOffset+this.readOffset && offset < this.reference.length) {
-			newMessage.append(' ').append(Integer.toHexString(this.reference[offset++] & 0xFF));
+		while (offset <= this.structOffset+this.readOffset && offset < this.reference.limit()) {
+			newMessage.append(' ').append(Integer.toHexString(this.reference.get(offset++) & 0xFF));
 		}
 		throw new IllegalStateException(newMessage.toString(), any);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ package org.eclipse.jdt.internal.compiler.classfmt;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.function.Predicate;
 
@@ -192,11 +193,28 @@ public ClassFileReader(byte classFileBytes[], char[] fileName) throws ClassForma
  * @exception ClassFormatException
  */
 public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInitialize) throws ClassFormatException {
+	this(ByteBuffer.wrap(classFileBytes), fileName, fullyInitialize);
+}
+
+/**
+ * @param classFileBytes ByteBuffer
+ * 		Actual bytes of a .class file, from the buffer's position to its limit. The buffer is not modified
+ * 		and may be a slice of a larger one, e.g. of a memory mapped file. Unless the new object is fully
+ * 		initialized it reads from the buffer on demand, so its contents must not change while the object is in use.
+ *
+ * @param fileName char[]
+ * 		Actual name of the file that contains the bytes, can be null
+ *
+ * @param fullyInitialize boolean
+ * 		Flag to fully initialize the new object
+ * @exception ClassFormatException
+ */
+public ClassFileReader(ByteBuffer classFileBytes, char[] fileName, boolean fullyInitialize) throws ClassFormatException {
 	// This method looks ugly but is actually quite simple, the constantPool is constructed
 	// in 3 passes.  All non-primitive constant pool members that usually refer to other members
 	// by index are tweaked to have their value in inst vars, this minor cost at read-time makes
 	// all subsequent uses of the constant pool element faster.
-	super(classFileBytes, null, 0);
+	super(classFileBytes.slice(), null, 0); // big endian, index 0 is the magic number
 	this.classFileName = fileName;
 	int readOffset = 10;
 	try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,11 +13,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
+
 abstract public class ClassFileStruct {
-	byte[] reference;
+	ByteBuffer reference; // index 0 is the first byte of the class file, may be backed by a byte[] or a mapped file
 	int[] constantPoolOffsets;
 	int structOffset;
-public ClassFileStruct(byte[] classFileBytes, int[] offsets, int offset) {
+public ClassFileStruct(ByteBuffer classFileBytes, int[] offsets, int offset) {
 	this.reference = classFileBytes;
 	this.constantPoolOffsets = offsets;
 	this.structOffset = offset;
@@ -29,51 +31,41 @@ public float floatAt(int relativeOffset) {
 	return (Float.intBitsToFloat(i4At(relativeOffset)));
 }
 public int i4At(int relativeOffset) {
-	int position = relativeOffset + this.structOffset;
-	return ((this.reference[position++] & 0xFF) << 24) | ((this.reference[position++] & 0xFF) << 16) | ((this.reference[position++] & 0xFF) << 8) + (this.reference[position] & 0xFF);
+	return this.reference.getInt(relativeOffset + this.structOffset);
 }
 public long i8At(int relativeOffset) {
-	int position = relativeOffset + this.structOffset;
-	return (((long) (this.reference[position++] & 0xFF)) << 56)
-					| (((long) (this.reference[position++] & 0xFF)) << 48)
-					| (((long) (this.reference[position++] & 0xFF)) << 40)
-					| (((long) (this.reference[position++] & 0xFF)) << 32)
-					| (((long) (this.reference[position++] & 0xFF)) << 24)
-					| (((long) (this.reference[position++] & 0xFF)) << 16)
-					| (((long) (this.reference[position++] & 0xFF)) << 8)
-					| (this.reference[position++] & 0xFF);
+	return this.reference.getLong(relativeOffset + this.structOffset);
 }
 protected void reset() {
 	this.reference = null;
 	this.constantPoolOffsets = null;
 }
 public int u1At(int relativeOffset) {
-	return (this.reference[relativeOffset + this.structOffset] & 0xFF);
+	return (this.reference.get(relativeOffset + this.structOffset) & 0xFF);
 }
 public int u2At(int relativeOffset) {
-	int position = relativeOffset + this.structOffset;
-	return ((this.reference[position++] & 0xFF) << 8) | (this.reference[position] & 0xFF);
+	return (this.reference.getShort(relativeOffset + this.structOffset) & 0xFFFF);
 }
 public long u4At(int relativeOffset) {
-	int position = relativeOffset + this.structOffset;
-	return (((this.reference[position++] & 0xFFL) << 24) | ((this.reference[position++] & 0xFF) << 16) | ((this.reference[position++] & 0xFF) << 8) | (this.reference[position] & 0xFF));
+	return (this.reference.getInt(relativeOffset + this.structOffset) & 0xFFFFFFFFL);
 }
 public char[] utf8At(int relativeOffset, int bytesAvailable) {
 	int length = bytesAvailable;
 	char outputBuf[] = new char[bytesAvailable];
 	int outputPos = 0;
 	int readOffset = this.structOffset + relativeOffset;
+	ByteBuffer bytes = this.reference;
 
 	while (length != 0) {
-		int x = this.reference[readOffset++] & 0xFF;
+		int x = bytes.get(readOffset++) & 0xFF;
 		length--;
 		if ((0x80 & x) != 0) {
 			if ((x & 0x20) != 0) {
 				length-=2;
-				x = ((x & 0xF) << 12) | ((this.reference[readOffset++] & 0x3F) << 6) | (this.reference[readOffset++] & 0x3F);
+				x = ((x & 0xF) << 12) | ((bytes.get(readOffset++) & 0x3F) << 6) | (bytes.get(readOffset++) & 0x3F);
 			} else {
 				length--;
-				x = ((x & 0x1F) << 6) | (this.reference[readOffset++] & 0x3F);
+				x = ((x & 0x1F) << 6) | (bytes.get(readOffset++) & 0x3F);
 			}
 		}
 		outputBuf[outputPos++] = (char) x;
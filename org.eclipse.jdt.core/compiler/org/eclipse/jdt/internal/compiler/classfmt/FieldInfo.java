@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
+
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.codegen.AttributeNamesConstants;
 import org.eclipse.jdt.internal.compiler.env.IBinaryAnnotation;
@@ -38,7 +40,7 @@ public class FieldInfo extends ClassFileStruct implements IBinaryField, Comparab
 	protected Object wrappedConstantValue;
 	protected long version;
 
-public static FieldInfo createField(byte classFileBytes[], int offsets[], int offset, long version) {
+public static FieldInfo createField(ByteBuffer classFileBytes, int offsets[], int offset, long version) {
 	FieldInfo fieldInfo = new FieldInfo(classFileBytes, offsets, offset, version);
 	
 	int attributesCount = fieldInfo.u2At(6);
@@ -102,12 +104,12 @@ public static FieldInfo createField(byte classFileBytes[], int offsets[], int of
 }
 
 /**
- * @param classFileBytes byte[]
+ * @param classFileBytes ByteBuffer
  * @param offsets int[]
  * @param offset int
  * @param version class file version
  */
-protected FieldInfo (byte classFileBytes[], int offsets[], int offset, long version) {
+protected FieldInfo (ByteBuffer classFileBytes, int offsets[], int offset, long version) {
 	super(classFileBytes, offsets, offset);
 	this.accessFlags = -1;
 	this.signatureUtf8Offset = -1;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
+
 import org.eclipse.jdt.internal.compiler.env.IBinaryNestedType;
 
 /**
@@ -32,7 +34,7 @@ public class InnerClassInfo extends ClassFileStruct implements IBinaryNestedType
 	private boolean readOuterClassName;
 	private boolean readInnerName;
 
-public InnerClassInfo(byte classFileBytes[], int offsets[], int offset) {
+public InnerClassInfo(ByteBuffer classFileBytes, int offsets[], int offset) {
 	super(classFileBytes, offsets, offset);
 	this.innerClassNameIndex = u2At(0);
 	this.outerClassNameIndex = u2At(2);
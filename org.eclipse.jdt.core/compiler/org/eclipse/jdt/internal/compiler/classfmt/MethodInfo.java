@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
+
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.codegen.AttributeNamesConstants;
 import org.eclipse.jdt.internal.compiler.codegen.ConstantPool;
@@ -41,7 +43,7 @@ public class MethodInfo extends ClassFileStruct implements IBinaryMethod, Compar
 	protected volatile char[][] argumentNames;
 	protected long version;
 
-public static MethodInfo createMethod(byte classFileBytes[], int offsets[], int offset, long version) {
+public static MethodInfo createMethod(ByteBuffer classFileBytes, int offsets[], int offset, long version) {
 	MethodInfo methodInfo = new MethodInfo(classFileBytes, offsets, offset, version);
 	int attributesCount = methodInfo.u2At(6);
 	int readOffset = 8;
@@ -218,12 +220,12 @@ static AnnotationInfo[][] decodeParamAnnotations(int offset, boolean runtimeVisi
 }
 
 /**
- * @param classFileBytes byte[]
+ * @param classFileBytes ByteBuffer
  * @param offsets int[]
  * @param offset int
  * @param version class file version 
  */
-protected MethodInfo (byte classFileBytes[], int offsets[], int offset, long version) {
+protected MethodInfo (ByteBuffer classFileBytes, int offsets[], int offset, long version) {
 	super(classFileBytes, offsets, offset);
 	this.accessFlags = -1;
 	this.signatureUtf8Offset = -1;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 IBM Corporation.
+ * Copyright (c) 2016, 2019 IBM Corporation.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -92,11 +93,11 @@ public class ModuleInfo extends ClassFileStruct implements IBinaryModule {
 	}
 
 	/**
-	 * @param classFileBytes byte[]
+	 * @param classFileBytes ByteBuffer
 	 * @param offsets int[]
 	 * @param offset int
 	 */
-	protected ModuleInfo (byte classFileBytes[], int offsets[], int offset) {
+	protected ModuleInfo (ByteBuffer classFileBytes, int offsets[], int offset) {
 		super(classFileBytes, offsets, offset);
 	}
 
@@ -106,7 +107,7 @@ public class ModuleInfo extends ClassFileStruct implements IBinaryModule {
 	 * @param offset offset to the "Module" attribute
 	 * @return a module info initialized from the "Module" attribute, which was already detected by the caller
 	 */
-	public static ModuleInfo createModule(byte classFileBytes[], int offsets[], int offset) {
+	public static ModuleInfo createModule(ByteBuffer classFileBytes, int offsets[], int offset) {
 
 		ModuleInfo module = new ModuleInfo(classFileBytes, offsets, 0);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 GoPivotal, Inc.
+ * Copyright (c) 2016, 2019 GoPivotal, Inc.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import org.eclipse.jdt.internal.compiler.codegen.AnnotationTargetTypeConstants;
@@ -50,11 +51,11 @@ public class TypeAnnotationInfo extends ClassFileStruct implements IBinaryTypeAn
 	int readOffset = 0;
 	
 	
-TypeAnnotationInfo(byte[] classFileBytes, int[] contantPoolOffsets, int offset) {
+TypeAnnotationInfo(ByteBuffer classFileBytes, int[] contantPoolOffsets, int offset) {
 	super(classFileBytes, contantPoolOffsets, offset);
 }
 	
-TypeAnnotationInfo(byte[] classFileBytes, int[] contantPoolOffsets, int offset, boolean runtimeVisible, boolean populate) {
+TypeAnnotationInfo(ByteBuffer classFileBytes, int[] contantPoolOffsets, int offset, boolean runtimeVisible, boolean populate) {
 	this(classFileBytes, contantPoolOffsets, offset);
 	this.readOffset = 0;
 	this.targetType = u1At(0);
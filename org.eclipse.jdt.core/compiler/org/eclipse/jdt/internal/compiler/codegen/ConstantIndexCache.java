@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.codegen;
+
+import java.util.Arrays;
+
+/**
+ * Open addressed table mapping constant pool entries to their index. An entry is identified
+ * by its constant pool tag and a 64 bit key: the bits of a numeric constant, or the indexes
+ * of the entries it refers to. No objects are allocated per entry, and the table is meant to
+ * be cleared and reused from one class file to the next.
+ */
+public class ConstantIndexCache {
+	private byte[] tagTable; // 0 marks a free slot
+	private long[] keyTable;
+	private int[] valueTable;
+	private int elementSize;
+	private int threshold;
+
+/**
+ * Constructs a new, empty table. A default capacity is used. Note that the table will
+ * automatically grow when it gets full.
+ */
+public ConstantIndexCache() {
+	this(32);
+}
+/**
+ * Constructs a new, empty table with the specified initial capacity.
+ * @param initialCapacity int
+ *  the initial number of buckets, rounded up to a power of 2
+ */
+public ConstantIndexCache(int initialCapacity) {
+	int capacity = 4;
+	while (capacity < initialCapacity) {
+		capacity <<= 1;
+	}
+	this.elementSize = 0;
+	this.threshold = (capacity >> 1) + (capacity >> 2); // 0.75
+	this.tagTable = new byte[capacity];
+	this.keyTable = new long[capacity];
+	this.valueTable = new int[capacity];
+}
+/**
+ * Clears the table so that it has no more elements in it. Only the tags are reset,
+ * stale keys and values are overwritten when their slot is reused.
+ */
+public void clear() {
+	if (this.elementSize == 0) return;
+	Arrays.fill(this.tagTable, (byte) 0);
+	this.elementSize = 0;
+}
+/**
+ * Returns the index stored for the given entry, or -1 if there is none.
+ *
+ * @param tag <CODE>int</CODE> the constant pool tag of the entry
+ * @param key <CODE>long</CODE> the key of the entry
+ * @return int
+ */
+public int get(int tag, long key) {
+	int mask = this.tagTable.length - 1;
+	int index = hash(tag, key) & mask;
+	byte currentTag;
+	while ((currentTag = this.tagTable[index]) != 0) {
+		if (currentTag == tag && this.keyTable[index] == key)
+			return this.valueTable[index];
+		index = (index + 1) & mask;
+	}
+	return -1;
+}
+private static int hash(int tag, long key) {
+	long h = (key ^ tag) * 0x9E3779B97F4A7C15L;
+	return (int) (h ^ (h >>> 32));
+}
+/**
+ * Puts the specified entry into the table if it wasn't there already.
+ *
+ * @param tag <CODE>int</CODE> the constant pool tag of the entry, must not be 0
+ * @param key <CODE>long</CODE> the key of the entry
+ * @param value <CODE>int</CODE> the index of the entry, must be positive
+ * @return int the existing value, or the negated new value when the entry was added
+ */
+public int putIfAbsent(int tag, long key, int value) {
+	int mask = this.tagTable.length - 1;
+	int index = hash(tag, key) & mask;
+	byte currentTag;
+	while ((currentTag = this.tagTable[index]) != 0) {
+		if (currentTag == tag && this.keyTable[index] == key)
+			return this.valueTable[index];
+		index = (index + 1) & mask;
+	}
+	this.tagTable[index] = (byte) tag;
+	this.keyTable[index] = key;
+	this.valueTable[index] = value;
+	if (++this.elementSize > this.threshold) {
+		rehash();
+	}
+	return -value; // negative when added, assumes value is > 0
+}
+/**
+ * Rehashes the content of the table into a table twice as large.
+ */
+private void rehash() {
+	byte[] oldTags = this.tagTable;
+	long[] oldKeys = this.keyTable;
+	int[] oldValues = this.valueTable;
+	int capacity = oldTags.length << 1;
+	int mask = capacity - 1;
+	this.threshold = (capacity >> 1) + (capacity >> 2);
+	this.tagTable = new byte[capacity];
+	this.keyTable = new long[capacity];
+	this.valueTable = new int[capacity];
+	for (int i = oldTags.length; --i >= 0;) {
+		byte tag = oldTags[i];
+		if (tag == 0) continue;
+		long key = oldKeys[i];
+		int index = hash(tag, key) & mask;
+		while (this.tagTable[index] != 0) {
+			index = (index + 1) & mask;
+		}
+		this.tagTable[index] = tag;
+		this.keyTable[index] = key;
+		this.valueTable[index] = oldValues[i];
+	}
+}
+/**
+ * Returns the number of elements contained in the table.
+ *
+ * @return <CODE>int</CODE> The size of the table
+ */
+public int size() {
+	return this.elementSize;
+}
+@Override
+public String toString() {
+	StringBuffer buf = new StringBuffer();
+	buf.append("{"); //$NON-NLS-1$
+	for (int i = 0, length = this.tagTable.length; i < length; i++) {
+		if (this.tagTable[i] != 0) {
+			if (buf.length() > 1) {
+				buf.append(", "); //$NON-NLS-1$
+			}
+			buf.append(this.tagTable[i]).append(':').append(this.keyTable[i]).append("->").append(this.valueTable[i]); //$NON-NLS-1$
+		}
+	}
+	buf.append("}"); //$NON-NLS-1$
+	return buf.toString();
+}
+}
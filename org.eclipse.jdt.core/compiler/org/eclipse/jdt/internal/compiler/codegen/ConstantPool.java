@@ -21,7 +21,6 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.codegen;
 
-import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.ClassFile;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.compiler.lookup.MethodBinding;
@@ -29,8 +28,6 @@ import org.eclipse.jdt.internal.compiler.lookup.TagBits;
 import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.lookup.TypeIds;
-import org.eclipse.jdt.internal.compiler.util.HashtableOfInteger;
-import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.Util;
 /**
  * This type is used to store all the constant pool entries.
@@ -48,18 +45,16 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	public static final int CONSTANTPOOL_INITIAL_SIZE = 2000;
 	public static final int CONSTANTPOOL_GROW_SIZE = 6000;
 	public static final int DYNAMIC_INITIAL_SIZE = 10;
-	protected DoubleCache doubleCache;
-	protected FloatCache floatCache;
-	protected IntegerCache intCache;
-	protected LongCache longCache;
 	public CharArrayCache UTF8Cache;
 	protected CharArrayCache stringCache;
-	protected HashtableOfObject methodsAndFieldsCache;
 	protected CharArrayCache classCache;
 	protected CharArrayCache moduleCache;
 	protected CharArrayCache packageCache;
-	protected HashtableOfObject nameAndTypeCacheForFieldsAndMethods;
-	protected HashtableOfInteger dynamicCache;
+	/*
+	 * Numeric constants, name and types, field and method refs and dynamic entries,
+	 * keyed by their bits or by the indexes of the entries they refer to
+	 */
+	protected ConstantIndexCache indexCache;
 	public byte[] poolContent;
 	public int currentIndex = 1;
 	public int currentOffset;
@@ -313,12 +308,10 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	public ConstantPool(ClassFile classFile) {
 		this.UTF8Cache = new CharArrayCache(UTF8_INITIAL_SIZE);
 		this.stringCache = new CharArrayCache(STRING_INITIAL_SIZE);
-		this.methodsAndFieldsCache = new HashtableOfObject(METHODS_AND_FIELDS_INITIAL_SIZE);
 		this.classCache = new CharArrayCache(CLASS_INITIAL_SIZE);
 		this.moduleCache = new CharArrayCache(5);
 		this.packageCache = new CharArrayCache(5);
-		this.nameAndTypeCacheForFieldsAndMethods = new HashtableOfObject(NAMEANDTYPE_INITIAL_SIZE);
-		this.dynamicCache = new HashtableOfInteger(DYNAMIC_INITIAL_SIZE);
+		this.indexCache = new ConstantIndexCache(METHODS_AND_FIELDS_INITIAL_SIZE + NAMEANDTYPE_INITIAL_SIZE);
 		this.offsets = new int[5];
 		initialize(classFile);
 	}
@@ -482,12 +475,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 		// The double constant takes two indexes into the constant pool, but we only store
 		// the first index into the long table
 		int index;
-		// lazy initialization for base type caches
-		// If it is null, initialize it, otherwise use it
-		if (this.doubleCache == null) {
-			this.doubleCache = new DoubleCache(DOUBLE_INITIAL_SIZE);
-		}
-		if ((index = this.doubleCache.putIfAbsent(key, this.currentIndex)) < 0) {
+		if ((index = this.indexCache.putIfAbsent(DoubleTag, java.lang.Double.doubleToLongBits(key), this.currentIndex)) < 0) {
 			if ((index = -index)> 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
@@ -529,12 +517,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	public int literalIndex(float key) {
 		//Retrieve the index from the cache
 		int index;
-		// lazy initialization for base type caches
-		// If it is null, initialize it, otherwise use it
-		if (this.floatCache == null) {
-			this.floatCache = new FloatCache(FLOAT_INITIAL_SIZE);
-		}
-		if ((index = this.floatCache.putIfAbsent(key, this.currentIndex)) < 0) {
+		if ((index = this.indexCache.putIfAbsent(FloatTag, java.lang.Float.floatToIntBits(key), this.currentIndex)) < 0) {
 			if ((index = -index) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
@@ -571,12 +554,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	public int literalIndex(int key) {
 		//Retrieve the index from the cache
 		int index;
-		// lazy initialization for base type caches
-		// If it is null, initialize it, otherwise use it
-		if (this.intCache == null) {
-			this.intCache = new IntegerCache(INT_INITIAL_SIZE);
-		}
-		if ((index = this.intCache.putIfAbsent(key, this.currentIndex)) < 0) {
+		if ((index = this.indexCache.putIfAbsent(IntegerTag, key, this.currentIndex)) < 0) {
 			this.currentIndex++;
 			if ((index = -index) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
@@ -614,12 +592,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 		// The long constant takes two indexes into the constant pool, but we only store
 		// the first index into the long table
 		int index;
-		// lazy initialization for base type caches
-		// If it is null, initialize it, otherwise use it
-		if (this.longCache == null) {
-			this.longCache = new LongCache(LONG_INITIAL_SIZE);
-		}
-		if ((index = this.longCache.putIfAbsent(key, this.currentIndex)) < 0) {
+		if ((index = this.indexCache.putIfAbsent(LongTag, key, this.currentIndex)) < 0) {
 			if ((index = -index) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
@@ -783,10 +756,9 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	}
 	public int literalIndexForMethod(char[] declaringClass, char[] selector, char[] signature, boolean isInterface) {
 		int index;
-		if ((index = putInCacheIfAbsent(declaringClass, selector, signature, this.currentIndex)) < 0) {
+		if ((index = memberIndex(declaringClass, selector, signature)) < 0) {
 			// it doesn't exist yet
-			this.currentIndex++;
-			if ((index = -index) > 0xFFFF){
+			if ((index = this.currentIndex++) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
 			// Write the interface method ref constant into the constant pool
@@ -807,6 +779,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 
 			final int classIndex = literalIndexForType(declaringClass);
 			final int nameAndTypeIndex = literalIndexForNameAndType(selector, signature);
+			this.indexCache.putIfAbsent(MethodRefTag, key(classIndex, nameAndTypeIndex), index);
 
 			this.poolContent[classIndexOffset++] = (byte) (classIndex >> 8);
 			this.poolContent[classIndexOffset++] = (byte) classIndex;
@@ -823,10 +796,9 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	}
 	public int literalIndexForNameAndType(char[] name, char[] signature) {
 		int index;
-		if ((index = putInNameAndTypeCacheIfAbsent(name, signature, this.currentIndex)) < 0) {
+		if ((index = nameAndTypeIndex(name, signature)) < 0) {
 			// The entry doesn't exit yet
-			this.currentIndex++;
-			if ((index = -index) > 0xFFFF){
+			if ((index = this.currentIndex++) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
 			int length = this.offsets.length;
@@ -844,6 +816,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 
 			final int nameIndex = literalIndex(name);
 			final int typeIndex = literalIndex(signature);
+			this.indexCache.putIfAbsent(NameAndTypeTag, key(nameIndex, typeIndex), index);
 			this.poolContent[nameIndexOffset++] = (byte) (nameIndex >> 8);
 			this.poolContent[nameIndexOffset++] = (byte) nameIndex;
 			this.poolContent[nameIndexOffset++] = (byte) (typeIndex >> 8);
@@ -898,9 +871,8 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	}
 	private int literalIndexForInvokeAndConstantDynamic(int bootStrapIndex, char[] selector, char[] descriptor, int tag) {
 		int index;
-		if ((index = putInDynamicCacheIfAbsent(bootStrapIndex, selector, descriptor, this.currentIndex)) < 0) {
-			this.currentIndex++;
-			if ((index = -index) > 0xFFFF){
+		if ((index = dynamicIndex(bootStrapIndex, selector, descriptor)) < 0) {
+			if ((index = this.currentIndex++) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
 			int length = this.offsets.length;
@@ -918,6 +890,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 			this.currentOffset+=4;
 
 			int nameAndTypeIndex = literalIndexForNameAndType(selector, descriptor);
+			this.indexCache.putIfAbsent(InvokeDynamicTag, key(bootStrapIndex, nameAndTypeIndex), index);
 
 			this.poolContent[classIndexOffset++] = (byte) (bootStrapIndex >> 8);
 			this.poolContent[classIndexOffset++] = (byte) bootStrapIndex;
@@ -935,10 +908,9 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 	}
 	public int literalIndexForField(char[] declaringClass, char[] name, char[] signature) {
 		int index;
-		if ((index = putInCacheIfAbsent(declaringClass, name, signature, this.currentIndex)) < 0) {
-			this.currentIndex++;
+		if ((index = memberIndex(declaringClass, name, signature)) < 0) {
 			// doesn't exist yet
-			if ((index = -index) > 0xFFFF){
+			if ((index = this.currentIndex++) > 0xFFFF){
 				this.classFile.referenceBinding.scope.problemReporter().noMoreAvailableSpaceInConstantPool(this.classFile.referenceBinding.scope.referenceType());
 			}
 			// Write the interface method ref constant into the constant pool
@@ -958,6 +930,7 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 
 			final int classIndex = literalIndexForType(declaringClass);
 			final int nameAndTypeIndex = literalIndexForNameAndType(name, signature);
+			this.indexCache.putIfAbsent(MethodRefTag, key(classIndex, nameAndTypeIndex), index);
 
 			this.poolContent[classIndexOffset++] = (byte) (classIndex >> 8);
 			this.poolContent[classIndexOffset++] = (byte) classIndex;
@@ -1073,116 +1046,51 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 		}
 		return index;
 	}
+	/*
+	 * Name and types, field and method refs and dynamic entries are identified by the indexes
+	 * of the entries they refer to. Since these are looked up before the entry is created,
+	 * a missing constituent means that the entry is missing too, which keeps the order of
+	 * the entries unchanged: the referring entry always precedes the entries it refers to.
+	 */
+	private static long key(int index1, int index2) {
+		return ((long) index1 << 32) | index2;
+	}
 	/**
-	 * @param key1 the given name
-	 * @param key2 the given signature
-	 * @param value the given index
-	 * @return the new index
+	 * @param declaringClass the given declaring class name
+	 * @param name the given field name or method selector
+	 * @param signature the given signature
+	 * @return the index of the field or method ref, or -1 if it doesn't exist yet
 	 */
-	private int putInNameAndTypeCacheIfAbsent(final char[] key1, final char[] key2, int value) {
-		int index ;
-		Object key1Value = this.nameAndTypeCacheForFieldsAndMethods.get(key1);
-		if (key1Value == null) {
-			CachedIndexEntry cachedIndexEntry = new CachedIndexEntry(key2, value);
-			index = -value;
-			this.nameAndTypeCacheForFieldsAndMethods.put(key1, cachedIndexEntry);
-		} else if (key1Value instanceof CachedIndexEntry) {
-			// adding a second entry
-			CachedIndexEntry entry = (CachedIndexEntry) key1Value;
-			if (CharOperation.equals(key2, entry.signature)) {
-				index = entry.index;
-			} else {
-				CharArrayCache charArrayCache = new CharArrayCache();
-				charArrayCache.putIfAbsent(entry.signature, entry.index);
-				index = charArrayCache.putIfAbsent(key2, value);
-				this.nameAndTypeCacheForFieldsAndMethods.put(key1, charArrayCache);
-			}
-		} else {
-			CharArrayCache charArrayCache = (CharArrayCache) key1Value;
-			index = charArrayCache.putIfAbsent(key2, value);
-		}
-		return index;
+	private int memberIndex(final char[] declaringClass, final char[] name, final char[] signature) {
+		int classIndex = this.classCache.get(declaringClass);
+		if (classIndex < 0) return -1;
+		int nameAndTypeIndex = nameAndTypeIndex(name, signature);
+		if (nameAndTypeIndex < 0) return -1;
+		// field refs and (interface) method refs share the same key space, as their signatures differ
+		return this.indexCache.get(MethodRefTag, key(classIndex, nameAndTypeIndex));
+	}
+	/**
+	 * @param name the given name
+	 * @param signature the given signature
+	 * @return the index of the name and type, or -1 if it doesn't exist yet
+	 */
+	private int nameAndTypeIndex(final char[] name, final char[] signature) {
+		int nameIndex = this.UTF8Cache.get(name);
+		if (nameIndex < 0) return -1;
+		int typeIndex = this.UTF8Cache.get(signature);
+		if (typeIndex < 0) return -1;
+		return this.indexCache.get(NameAndTypeTag, key(nameIndex, typeIndex));
 	}
-	
 	/**
 	 * @param bootstrapIndex the given bootstrap index
 	 * @param selector the given method selector
 	 * @param descriptor the given signature
-	 * @param value the new index
-	 * @return the given index
-	 */	private int putInDynamicCacheIfAbsent(int bootstrapIndex, final char[] selector, final char[] descriptor, final int value) {
-		int index;
-		HashtableOfObject key1Value = (HashtableOfObject) this.dynamicCache.get(bootstrapIndex);
-		if (key1Value == null) {
-			key1Value = new HashtableOfObject();
-			this.dynamicCache.put(bootstrapIndex, key1Value);
-			CachedIndexEntry cachedIndexEntry = new CachedIndexEntry(descriptor, value);
-			index = -value;
-			key1Value.put(selector, cachedIndexEntry);
-		} else {
-			Object key2Value = key1Value.get(selector);
-			if (key2Value == null) {
-				CachedIndexEntry cachedIndexEntry = new CachedIndexEntry(descriptor, value);
-				index = -value;
-				key1Value.put(selector, cachedIndexEntry);
-			} else if (key2Value instanceof CachedIndexEntry) {
-				// adding a second entry
-				CachedIndexEntry entry = (CachedIndexEntry) key2Value;
-				if (CharOperation.equals(descriptor, entry.signature)) {
-					index = entry.index;
-				} else {
-					CharArrayCache charArrayCache = new CharArrayCache();
-					charArrayCache.putIfAbsent(entry.signature, entry.index);
-					index = charArrayCache.putIfAbsent(descriptor, value);
-					key1Value.put(selector, charArrayCache);
-				}
-			} else {
-				CharArrayCache charArrayCache = (CharArrayCache) key2Value;
-				index = charArrayCache.putIfAbsent(descriptor, value);
-			}
-		}
-		return index;
-	}
-
-	/**
-	 * @param key1 the given declaring class name
-	 * @param key2 the given field name or method selector
-	 * @param key3 the given signature
-	 * @param value the new index
-	 * @return the given index
+	 * @return the index of the dynamic or invoke dynamic entry, or -1 if it doesn't exist yet
 	 */
-	private int putInCacheIfAbsent(final char[] key1, final char[] key2, final char[] key3, int value) {
-		int index;
-		HashtableOfObject key1Value = (HashtableOfObject) this.methodsAndFieldsCache.get(key1);
-		if (key1Value == null) {
-			key1Value = new HashtableOfObject();
-			this.methodsAndFieldsCache.put(key1, key1Value);
-			CachedIndexEntry cachedIndexEntry = new CachedIndexEntry(key3, value);
-			index = -value;
-			key1Value.put(key2, cachedIndexEntry);
-		} else {
-			Object key2Value = key1Value.get(key2);
-			if (key2Value == null) {
-				CachedIndexEntry cachedIndexEntry = new CachedIndexEntry(key3, value);
-				index = -value;
-				key1Value.put(key2, cachedIndexEntry);
-			} else if (key2Value instanceof CachedIndexEntry) {
-				// adding a second entry
-				CachedIndexEntry entry = (CachedIndexEntry) key2Value;
-				if (CharOperation.equals(key3, entry.signature)) {
-					index = entry.index;
-				} else {
-					CharArrayCache charArrayCache = new CharArrayCache();
-					charArrayCache.putIfAbsent(entry.signature, entry.index);
-					index = charArrayCache.putIfAbsent(key3, value);
-					key1Value.put(key2, charArrayCache);
-				}
-			} else {
-				CharArrayCache charArrayCache = (CharArrayCache) key2Value;
-				index = charArrayCache.putIfAbsent(key3, value);
-			}
-		}
-		return index;
+	private int dynamicIndex(int bootstrapIndex, final char[] selector, final char[] descriptor) {
+		int nameAndTypeIndex = nameAndTypeIndex(selector, descriptor);
+		if (nameAndTypeIndex < 0) return -1;
+		return this.indexCache.get(InvokeDynamicTag, key(bootstrapIndex, nameAndTypeIndex));
 	}
 	/**
 	 * This method is used to clean the receiver in case of a clinit header is generated, but the
@@ -1238,18 +1146,12 @@ public class ConstantPool implements ClassFileConstants, TypeIds {
 		this.poolContent[this.currentOffset++] = (byte) value;
 	}
 	public void reset() {
-		if (this.doubleCache != null) this.doubleCache.clear();
-		if (this.floatCache != null) this.floatCache.clear();
-		if (this.intCache != null) this.intCache.clear();
-		if (this.longCache != null) this.longCache.clear();
+		this.indexCache.clear();
 		this.UTF8Cache.clear();
 		this.stringCache.clear();
-		this.methodsAndFieldsCache.clear();
 		this.classCache.clear();
 		this.packageCache.clear();
 		this.moduleCache.clear();
-		this.nameAndTypeCacheForFieldsAndMethods.clear();
-		this.dynamicCache.clear();
 		this.currentIndex = 1;
 		this.currentOffset = 0;
 	}
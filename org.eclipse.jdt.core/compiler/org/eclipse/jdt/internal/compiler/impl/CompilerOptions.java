@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -155,6 +155,10 @@ public class CompilerOptions {
 	// OPTION_Store_Annotations: undocumented option for testing purposes
 	public static final String OPTION_Store_Annotations = "org.eclipse.jdt.core.compiler.storeAnnotations"; //$NON-NLS-1$
 	public static final String OPTION_EmulateJavacBug8031744 = "org.eclipse.jdt.core.compiler.emulateJavacBug8031744"; //$NON-NLS-1$
+	// OPTION_LazyBinaryMembers: undocumented option, enabled by default. When disabled, all the fields and methods
+	// of a binary type are created as soon as its binding is, as they are anyway with annotation-based null analysis
+	// or when annotations are stored
+	public static final String OPTION_LazyBinaryMembers = "org.eclipse.jdt.core.compiler.lazyBinaryMembers"; //$NON-NLS-1$
 	public static final String OPTION_ReportRedundantSuperinterface =  "org.eclipse.jdt.core.compiler.problem.redundantSuperinterface"; //$NON-NLS-1$
 	public static final String OPTION_ReportComparingIdentical =  "org.eclipse.jdt.core.compiler.problem.comparingIdentical"; //$NON-NLS-1$
 	public static final String OPTION_ReportMissingSynchronizedOnInheritedMethod =  "org.eclipse.jdt.core.compiler.problem.missingSynchronizedOnInheritedMethod"; //$NON-NLS-1$
@@ -469,6 +473,8 @@ public class CompilerOptions {
 	public boolean generateClassFiles;
 	/** Indicate if method bodies should be ignored */
 	public boolean ignoreMethodBodies;
+	/** Indicate if fields and methods of binary types should only be created when first looked up (see OPTION_LazyBinaryMembers) */
+	public boolean lazyBinaryMembers;
 	/** Raise null related warnings for variables tainted inside an assert statement (java 1.4 and above)*/
 	public boolean includeNullInfoFromAsserts;
 	/** Controls whether forced generic type problems get reported  */
@@ -1325,6 +1331,7 @@ public class CompilerOptions {
 		optionsMap.put(OPTION_Process_Annotations, this.processAnnotations ? ENABLED : DISABLED);
 		optionsMap.put(OPTION_Store_Annotations, this.storeAnnotations ? ENABLED : DISABLED);
 		optionsMap.put(OPTION_EmulateJavacBug8031744, this.emulateJavacBug8031744 ? ENABLED : DISABLED);
+		optionsMap.put(OPTION_LazyBinaryMembers, this.lazyBinaryMembers ? ENABLED : DISABLED);
 		optionsMap.put(OPTION_ReportRedundantSuperinterface, getSeverityString(RedundantSuperinterface));
 		optionsMap.put(OPTION_ReportComparingIdentical, getSeverityString(ComparingIdentical));
 		optionsMap.put(OPTION_ReportMissingSynchronizedOnInheritedMethod, getSeverityString(MissingSynchronizedModifierInInheritedMethod));
@@ -1545,6 +1552,9 @@ public class CompilerOptions {
 		
 		// ignore method bodies
 		this.ignoreMethodBodies = false;
+
+		// create members of binary types on demand
+		this.lazyBinaryMembers = true;
 		
 		this.ignoreSourceFolderWarningOption = false;
 		
@@ -2069,6 +2079,13 @@ public class CompilerOptions {
 				this.emulateJavacBug8031744 = false;
 			}
 		}
+		if ((optionValue = optionsMap.get(OPTION_LazyBinaryMembers)) != null) {
+			if (ENABLED.equals(optionValue)) {
+				this.lazyBinaryMembers = true;
+			} else if (DISABLED.equals(optionValue)) {
+				this.lazyBinaryMembers = false;
+			}
+		}
 		if ((optionValue = optionsMap.get(OPTION_ReportUninternedIdentityComparison)) != null) {
 			if (ENABLED.equals(optionValue)) {
 				this.complainOnUninternedIdentityComparison = true;
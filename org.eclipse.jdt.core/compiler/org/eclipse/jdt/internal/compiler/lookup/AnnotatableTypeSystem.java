@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2018 IBM Corporation and others.
+ * Copyright (c) 2013, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -43,14 +43,12 @@ public class AnnotatableTypeSystem extends TypeSystem {
 	@Override
 	public TypeBinding[] getAnnotatedTypes(TypeBinding type) {
 		
-		TypeBinding[] derivedTypes = getDerivedTypes(type);
-		final int length = derivedTypes.length;
+		DerivedTypes derived = getDerivedTypes(type);
+		final int length = derived.count;
 		TypeBinding [] annotatedVersions = new TypeBinding[length];
 		int versions = 0;
 		for (int i = 0; i < length; i++) {
-			final TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
+			final TypeBinding derivedType = derived.types[i];
 			if (!derivedType.hasTypeAnnotations())
 				continue;
 			if (derivedType.id == type.id)
@@ -70,6 +68,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 	*/
 	@Override
 	public ArrayBinding getArrayType(TypeBinding leafType, int dimensions, AnnotationBinding [] annotations) {
+		ArrayBinding arrayType = getArrayType(leafType, dimensions, annotations, false);
+		if (arrayType != null)
+			return arrayType;
+		synchronized (this) {
+			return getArrayType(leafType, dimensions, annotations, true);
+		}
+	}
+
+	// Answer the existing array type or, if create is true, create the missing type. pre: create implies holding the lock on this.
+	private ArrayBinding getArrayType(TypeBinding leafType, int dimensions, AnnotationBinding [] annotations, boolean create) {
 		if (leafType instanceof ArrayBinding) { // substitution attempts can cause this, don't create array of arrays.
 			dimensions += leafType.dimensions();
 			AnnotationBinding[] leafAnnotations = leafType.getTypeAnnotations();
@@ -80,10 +88,9 @@ public class AnnotatableTypeSystem extends TypeSystem {
 			annotations = allAnnotations;
 		}
 		ArrayBinding nakedType = null;
-		TypeBinding[] derivedTypes = getDerivedTypes(leafType);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) break;
+		DerivedTypes derived = getDerivedTypes(leafType);
+		for (int i = 0, length = derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isArrayType() || derivedType.dimensions() != dimensions || derivedType.leafComponentType() != leafType) //$IDENTITY-COMPARISON$
 				continue;
 			if (Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations)) 
@@ -91,11 +98,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 			if (!derivedType.hasTypeAnnotations())
 				nakedType = (ArrayBinding) derivedType;
 		}
-		if (nakedType == null)
+		if (nakedType == null) {
+			if (!create)
+				return null;
 			nakedType = super.getArrayType(leafType, dimensions);
+		}
 		
 		if (!haveTypeAnnotations(leafType, annotations))
 			return nakedType;
+		if (!create)
+			return null;
 
 		ArrayBinding arrayType = new ArrayBinding(leafType, dimensions, this.environment);
 		arrayType.id = nakedType.id;
@@ -130,7 +142,17 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		if (!haveTypeAnnotations(genericType, enclosingType, typeArguments, annotations))
 			return nakedType;
 		
-		parameterizedType = new ParameterizedTypeBinding(genericType, typeArguments, enclosingType, this.environment);
+		synchronized (this) {
+			parameterizedType = this.parameterizedTypes.get(genericType, typeArguments, enclosingType, annotations);
+			if (parameterizedType != null)
+				return parameterizedType;
+			return createParameterizedType(genericType, typeArguments, enclosingType, annotations, nakedType);
+		}
+	}
+
+	// pre: holding the lock on this
+	private ParameterizedTypeBinding createParameterizedType(ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType, AnnotationBinding [] annotations, ParameterizedTypeBinding nakedType) {
+		ParameterizedTypeBinding parameterizedType = new ParameterizedTypeBinding(genericType, typeArguments, enclosingType, this.environment);
 		parameterizedType.id = nakedType.id;
 		parameterizedType.setTypeAnnotations(annotations, this.isAnnotationBasedNullAnalysisEnabled);
 		this.parameterizedTypes.put(genericType, typeArguments, enclosingType, parameterizedType);
@@ -144,6 +166,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 
 	@Override
 	public RawTypeBinding getRawType(ReferenceBinding genericType, ReferenceBinding enclosingType, AnnotationBinding [] annotations) {
+		RawTypeBinding rawType = getRawType(genericType, enclosingType, annotations, false);
+		if (rawType != null)
+			return rawType;
+		synchronized (this) {
+			return getRawType(genericType, enclosingType, annotations, true);
+		}
+	}
+
+	// Answer the existing raw type or, if create is true, create the missing type. pre: create implies holding the lock on this.
+	private RawTypeBinding getRawType(ReferenceBinding genericType, ReferenceBinding enclosingType, AnnotationBinding [] annotations, boolean create) {
 		if (genericType.hasTypeAnnotations())
 			throw new IllegalStateException();
 		if (!genericType.hasEnclosingInstanceContext() && enclosingType != null) {
@@ -151,11 +183,9 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		}
 		
 		RawTypeBinding nakedType = null;
-		TypeBinding[] derivedTypes = getDerivedTypes(genericType);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null)
-				break;
+		DerivedTypes derived = getDerivedTypes(genericType);
+		for (int i = 0, length = derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isRawType() || derivedType.actualType() != genericType || derivedType.enclosingType() != enclosingType) //$IDENTITY-COMPARISON$
 				continue;
 			if (Util.effectivelyEqual(derivedType.getTypeAnnotations(), annotations))
@@ -163,11 +193,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 			if (!derivedType.hasTypeAnnotations())
 				nakedType = (RawTypeBinding) derivedType;
 		}
-		if (nakedType == null)
+		if (nakedType == null) {
+			if (!create)
+				return null;
 			nakedType = super.getRawType(genericType, enclosingType);
+		}
 		
 		if (!haveTypeAnnotations(genericType, enclosingType, null, annotations))
 			return nakedType;
+		if (!create)
+			return null;
 	
 		RawTypeBinding rawType = new RawTypeBinding(genericType, enclosingType, this.environment);
 		rawType.id = nakedType.id;
@@ -182,6 +217,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 	
 	@Override
 	public WildcardBinding getWildcard(ReferenceBinding genericType, int rank, TypeBinding bound, TypeBinding[] otherBounds, int boundKind, AnnotationBinding [] annotations) {
+		WildcardBinding wildcard = getWildcard(genericType, rank, bound, otherBounds, boundKind, annotations, false);
+		if (wildcard != null)
+			return wildcard;
+		synchronized (this) {
+			return getWildcard(genericType, rank, bound, otherBounds, boundKind, annotations, true);
+		}
+	}
+
+	// Answer the existing wildcard or, if create is true, create the missing wildcard. pre: create implies holding the lock on this.
+	private WildcardBinding getWildcard(ReferenceBinding genericType, int rank, TypeBinding bound, TypeBinding[] otherBounds, int boundKind, AnnotationBinding [] annotations, boolean create) {
 		
 		if (genericType == null) // pseudo wildcard denoting composite bounds for lub computation
 			genericType = ReferenceBinding.LUB_GENERIC;
@@ -191,11 +236,9 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		
 		WildcardBinding nakedType = null;
 		boolean useDerivedTypesOfBound = bound instanceof TypeVariableBinding || (bound instanceof ParameterizedTypeBinding && !(bound instanceof RawTypeBinding)) ;
-		TypeBinding[] derivedTypes = getDerivedTypes(useDerivedTypesOfBound ? bound : genericType);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) 
-				break;
+		DerivedTypes derived = getDerivedTypes(useDerivedTypesOfBound ? bound : genericType);
+		for (int i = 0, length = derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isWildcard() || derivedType.actualType() != genericType || derivedType.rank() != rank) //$IDENTITY-COMPARISON$
 				continue;
 			if (derivedType.boundKind() != boundKind || derivedType.bound() != bound || !Util.effectivelyEqual(derivedType.additionalBounds(), otherBounds)) //$IDENTITY-COMPARISON$
@@ -206,11 +249,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 				nakedType = (WildcardBinding) derivedType;
 		}
 		
-		if (nakedType == null)
+		if (nakedType == null) {
+			if (!create)
+				return null;
 			nakedType = super.getWildcard(genericType, rank, bound, otherBounds, boundKind);
+		}
 		
 		if (!haveTypeAnnotations(genericType, bound, otherBounds, annotations))
 			return nakedType;
+		if (!create)
+			return null;
 		
 		WildcardBinding wildcard = new WildcardBinding(genericType, rank, bound, otherBounds, boundKind, this.environment);
 		wildcard.id = nakedType.id;
@@ -301,11 +349,20 @@ public class AnnotatableTypeSystem extends TypeSystem {
 		if (type.kind() == Binding.PARAMETERIZED_TYPE) {
 			return getParameterizedType(type.actualType(), type.typeArguments(), (ReferenceBinding) enclosingType, annotations);
 		}
+		TypeBinding annotatedType = getAnnotatedType(type, enclosingType, annotations, false);
+		if (annotatedType != null)
+			return annotatedType;
+		synchronized (this) {
+			return getAnnotatedType(type, enclosingType, annotations, true);
+		}
+	}
+
+	// Answer the existing annotated type or, if create is true, create the missing type. pre: create implies holding the lock on this.
+	private TypeBinding getAnnotatedType(TypeBinding type, TypeBinding enclosingType, AnnotationBinding[] annotations, boolean create) {
 		TypeBinding nakedType = null;
-		TypeBinding[] derivedTypes = getDerivedTypes(type);
-		for (int i = 0, length = derivedTypes.length; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) break;
+		DerivedTypes derived = getDerivedTypes(type);
+		for (int i = 0, length = derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			
 			if (derivedType.enclosingType() != enclosingType || !Util.effectivelyEqual(derivedType.typeArguments(), type.typeArguments())) //$IDENTITY-COMPARISON$
 				continue;
@@ -343,11 +400,16 @@ public class AnnotatableTypeSystem extends TypeSystem {
 			if (!derivedType.hasTypeAnnotations())
 				nakedType = derivedType;
 		}
-		if (nakedType == null)
+		if (nakedType == null) {
+			if (!create)
+				return null;
 			nakedType = getUnannotatedType(type);
+		}
 		
 		if (!haveTypeAnnotations(type, enclosingType, null, annotations))
 			return nakedType;
+		if (!create)
+			return null;
 		
 		TypeBinding annotatedType = type.clone(enclosingType);
 		annotatedType.id = nakedType.id;
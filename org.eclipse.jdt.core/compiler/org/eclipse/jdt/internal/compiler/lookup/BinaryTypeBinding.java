@@ -46,6 +46,8 @@
 package org.eclipse.jdt.internal.compiler.lookup;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.ast.Annotation;
@@ -81,6 +83,14 @@ public class BinaryTypeBinding extends ReferenceBinding {
 	public static final char[] TYPE_QUALIFIER_DEFAULT = "TypeQualifierDefault".toCharArray(); //$NON-NLS-1$
 
 	private static final IBinaryMethod[] NO_BINARY_METHODS = new IBinaryMethod[0];
+	private static final Comparator<IBinaryMethod> BINARY_METHOD_COMPARATOR = new Comparator<IBinaryMethod>() {
+		@Override
+		public int compare(IBinaryMethod o1, IBinaryMethod o2) {
+			char[] s1 = o1.getSelector();
+			char[] s2 = o2.getSelector();
+			return ReferenceBinding.compare(s1, s2, s1.length, s2.length);
+		}
+	};
 
 	// all of these fields are ONLY guaranteed to be initialized if accessed using their public accessor method
 	protected ReferenceBinding superclass;
@@ -98,6 +108,14 @@ public class BinaryTypeBinding extends ReferenceBinding {
 
 	protected SimpleLookupTable storedAnnotations = null; // keys are this ReferenceBinding & its fields and methods, value is an AnnotationHolder
 
+	// when members are materialised lazily (see CompilerOptions#lazyBinaryMembers), this.fields and this.methods start out
+	// as arrays of nulls in their final sorted order, which are filled from the parallel arrays of binary members on demand.
+	// The IBinaryType itself is not kept: only its missing type names are needed to create the members
+	private char[][][] lazyMissingTypeNames; // released once all members have been created
+	private IBinaryField[] lazyFields; // sorted by name, null once all fields have been created
+	private int[] lazyFieldOrdinals;
+	private IBinaryMethod[] lazyMethods; // sorted by selector, null once all methods have been created
+
 	private ReferenceBinding containerAnnotationType;
 	int defaultNullness = 0;
 	public enum ExternalAnnotationStatus {
@@ -337,6 +355,7 @@ public FieldBinding[] availableFields() {
 		return this.prototype.availableFields();
 	}
 	
+	materializeAllFields();
 	if ((this.tagBits & TagBits.AreFieldsComplete) != 0)
 		return this.fields;
 
@@ -398,6 +417,7 @@ public MethodBinding[] availableMethods() {
 		return this.prototype.availableMethods();
 	}
 
+	materializeAllMethods();
 	if ((this.tagBits & TagBits.AreMethodsComplete) != 0)
 		return this.methods;
 
@@ -544,7 +564,12 @@ void cachePartsFrom(IBinaryType binaryType, boolean needFieldsAndMethods) {
 			}
 		}
 
-		if (needFieldsAndMethods) {
+		if (needFieldsAndMethods && globalOptions.lazyBinaryMembers
+				&& !globalOptions.isAnnotationBasedNullAnalysisEnabled && !globalOptions.storeAnnotations
+				&& binaryType.getExternalAnnotationStatus() != ExternalAnnotationStatus.TYPE_IS_ANNOTATED) {
+			// members are created when first looked up, without external annotations to enrich them with
+			prepareLazyMembers(binaryType, sourceLevel, missingTypeNames);
+		} else if (needFieldsAndMethods) {
 			IBinaryField[] iFields = binaryType.getFields();
 			createFields(iFields, binaryType, sourceLevel, missingTypeNames);
 			IBinaryMethod[] iMethods = createMethods(binaryType.getMethods(), binaryType, sourceLevel, missingTypeNames);
@@ -674,27 +699,11 @@ private void createFields(IBinaryField[] iFields, IBinaryType binaryType, long s
 			int size = iFields.length;
 			if (size > 0) {
 				FieldBinding[] fields1 = new FieldBinding[size];
-				boolean use15specifics = sourceLevel >= ClassFileConstants.JDK1_5;
 				boolean hasRestrictedAccess = hasRestrictedAccess();
 				int firstAnnotatedFieldIndex = -1;
 				for (int i = 0; i < size; i++) {
 					IBinaryField binaryField = iFields[i];
-					char[] fieldSignature = use15specifics ? binaryField.getGenericSignature() : null;
-					ITypeAnnotationWalker walker = getTypeAnnotationWalker(binaryField.getTypeAnnotations(), getNullDefaultFrom(binaryField.getAnnotations()));
-					if (sourceLevel >= ClassFileConstants.JDK1_8) { // below 1.8, external annotations will be attached later
-						walker = binaryType.enrichWithExternalAnnotationsFor(walker, iFields[i], this.environment);
-					}
-					walker = walker.toField();
-					TypeBinding type = fieldSignature == null
-						? this.environment.getTypeFromSignature(binaryField.getTypeName(), 0, -1, false, this, missingTypeNames, walker)
-						: this.environment.getTypeFromTypeSignature(new SignatureWrapper(fieldSignature), Binding.NO_TYPE_VARIABLES, this, missingTypeNames, walker);
-					FieldBinding field =
-						new FieldBinding(
-							binaryField.getName(),
-							type,
-							binaryField.getModifiers() | ExtraCompilerModifiers.AccUnresolved,
-							this,
-							binaryField.getConstant());
+					FieldBinding field = createField(binaryField, binaryType, sourceLevel, missingTypeNames, hasRestrictedAccess);
 					boolean forceStoreAnnotations = !this.environment.globalOptions.storeAnnotations
 							&& (this.environment.globalOptions.sourceLevel >= ClassFileConstants.JDK9
 							&& binaryField.getAnnotations() != null
@@ -707,12 +716,6 @@ private void createFields(IBinaryField[] iFields, IBinaryType binaryType, long s
 							storedAnnotations(true, true); // for Java 9 @Deprecated we need to force storing annotations
 					}
 					field.id = i; // ordinal
-					if (use15specifics)
-						field.tagBits |= binaryField.getTagBits();
-					if (hasRestrictedAccess)
-						field.modifiers |= ExtraCompilerModifiers.AccRestrictedAccess;
-					if (fieldSignature != null)
-						field.modifiers |= ExtraCompilerModifiers.AccGenericSignature;
 					fields1[i] = field;
 				}
 				this.fields = fields1;
@@ -730,6 +733,36 @@ private void createFields(IBinaryField[] iFields, IBinaryType binaryType, long s
 	}
 }
 
+// binaryType is null when the field is created on demand, in which case it has no external annotations
+private FieldBinding createField(IBinaryField binaryField, IBinaryType binaryType, long sourceLevel, char[][][] missingTypeNames, boolean hasRestrictedAccess) {
+	if (!isPrototype()) throw new IllegalStateException();
+	boolean use15specifics = sourceLevel >= ClassFileConstants.JDK1_5;
+	char[] fieldSignature = use15specifics ? binaryField.getGenericSignature() : null;
+	ITypeAnnotationWalker walker = getTypeAnnotationWalker(binaryField.getTypeAnnotations(), getNullDefaultFrom(binaryField.getAnnotations()));
+	if (binaryType != null && sourceLevel >= ClassFileConstants.JDK1_8) { // below 1.8, external annotations will be attached later
+		walker = binaryType.enrichWithExternalAnnotationsFor(walker, binaryField, this.environment);
+	}
+	walker = walker.toField();
+	TypeBinding type = fieldSignature == null
+		? this.environment.getTypeFromSignature(binaryField.getTypeName(), 0, -1, false, this, missingTypeNames, walker)
+		: this.environment.getTypeFromTypeSignature(new SignatureWrapper(fieldSignature), Binding.NO_TYPE_VARIABLES, this, missingTypeNames, walker);
+	FieldBinding field =
+		new FieldBinding(
+			binaryField.getName(),
+			type,
+			binaryField.getModifiers() | ExtraCompilerModifiers.AccUnresolved,
+			this,
+			binaryField.getConstant());
+	if (use15specifics)
+		field.tagBits |= binaryField.getTagBits();
+	if (hasRestrictedAccess)
+		field.modifiers |= ExtraCompilerModifiers.AccRestrictedAccess;
+	if (fieldSignature != null)
+		field.modifiers |= ExtraCompilerModifiers.AccGenericSignature;
+	return field;
+}
+
+// binaryType is null when the method is created on demand, in which case it has no external annotations
 private MethodBinding createMethod(IBinaryMethod method, IBinaryType binaryType, long sourceLevel, char[][][] missingTypeNames) {
 	if (!isPrototype()) throw new IllegalStateException();
 	int methodModifiers = method.getModifiers() | ExtraCompilerModifiers.AccUnresolved;
@@ -761,7 +794,7 @@ private MethodBinding createMethod(IBinaryMethod method, IBinaryType binaryType,
 	char[] methodSignature = method.getGenericSignature(); // always use generic signature, even in 1.4
 	if (methodSignature == null) { // no generics
 		char[] methodDescriptor = method.getMethodDescriptor();   // of the form (I[Ljava/jang/String;)V
-		if (sourceLevel >= ClassFileConstants.JDK1_8) { // below 1.8, external annotations will be attached later
+		if (binaryType != null && sourceLevel >= ClassFileConstants.JDK1_8) { // below 1.8, external annotations will be attached later
 			walker = binaryType.enrichWithExternalAnnotationsFor(walker, method, this.environment);
 		}
 		int numOfParams = 0;
@@ -838,7 +871,7 @@ private MethodBinding createMethod(IBinaryMethod method, IBinaryType binaryType,
 		}
 
 	} else {
-		if (sourceLevel >= ClassFileConstants.JDK1_8) { // below 1.8, external annotations will be attached later
+		if (binaryType != null && sourceLevel >= ClassFileConstants.JDK1_8) { // below 1.8, external annotations will be attached later
 			walker = binaryType.enrichWithExternalAnnotationsFor(walker, method, this.environment);
 		}
 		methodModifiers |= ExtraCompilerModifiers.AccGenericSignature;
@@ -1013,6 +1046,221 @@ private IBinaryMethod[] createMethods(IBinaryMethod[] iMethods, IBinaryType bina
 	}
 }
 
+/**
+ * Prepare for creating fields and methods on demand: remember the binary members in the order
+ * in which their bindings are to be kept, i.e. sorted by name (and for methods later also by
+ * parameter count), with synthetics and <clinit> filtered out as in createMethods(..).
+ */
+private void prepareLazyMembers(IBinaryType binaryType, long sourceLevel, char[][][] missingTypeNames) {
+	if (!isPrototype()) throw new IllegalStateException();
+	this.fields = Binding.NO_FIELDS;
+	final IBinaryField[] iFields = binaryType.getFields();
+	int size = iFields == null ? 0 : iFields.length;
+	if (size > 0) {
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+			order[i] = Integer.valueOf(i);
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				char[] n1 = iFields[o1.intValue()].getName();
+				char[] n2 = iFields[o2.intValue()].getName();
+				return ReferenceBinding.compare(n1, n2, n1.length, n2.length);
+			}
+		});
+		this.lazyFields = new IBinaryField[size];
+		this.lazyFieldOrdinals = new int[size];
+		for (int i = 0; i < size; i++) {
+			int ordinal = order[i].intValue();
+			this.lazyFields[i] = iFields[ordinal];
+			this.lazyFieldOrdinals[i] = ordinal;
+		}
+		this.fields = new FieldBinding[size];
+	}
+	this.tagBits |= TagBits.AreFieldsSorted; // positions are final already
+
+	this.methods = Binding.NO_METHODS;
+	IBinaryMethod[] iMethods = binaryType.getMethods();
+	size = iMethods == null ? 0 : iMethods.length;
+	if (size > 0) {
+		IBinaryMethod[] keptMethods = new IBinaryMethod[size];
+		int total = 0;
+		boolean keepBridgeMethods = sourceLevel < ClassFileConstants.JDK1_5; // https://bugs.eclipse.org/bugs/show_bug.cgi?id=330347
+		for (int i = 0; i < size; i++) {
+			IBinaryMethod method = iMethods[i];
+			if ((method.getModifiers() & ClassFileConstants.AccSynthetic) != 0) {
+				if (!keepBridgeMethods || (method.getModifiers() & ClassFileConstants.AccBridge) == 0)
+					continue; // discard synthetics methods
+			} else {
+				char[] methodName = method.getSelector();
+				if (methodName.length == 8 && methodName[0] == Util.C_GENERIC_START)
+					continue; // discard <clinit>
+			}
+			keptMethods[total++] = method;
+		}
+		if (total > 0) {
+			if (total < size)
+				System.arraycopy(keptMethods, 0, keptMethods = new IBinaryMethod[total], 0, total);
+			Arrays.sort(keptMethods, BINARY_METHOD_COMPARATOR); // stable, as is ReferenceBinding.sortMethods(..)
+			this.lazyMethods = keptMethods;
+			this.methods = new MethodBinding[total];
+		}
+	}
+	if (this.lazyFields != null || this.lazyMethods != null)
+		this.lazyMissingTypeNames = missingTypeNames;
+}
+
+private static int binarySearch(char[] name, IBinaryField[] sortedFields) {
+	int left = 0, right = sortedFields.length - 1, nameLength = name.length;
+	while (left <= right) {
+		int mid = left + (right - left) /2;
+		char[] midName = sortedFields[mid].getName();
+		int compare = ReferenceBinding.compare(name, midName, nameLength, midName.length);
+		if (compare < 0) {
+			right = mid-1;
+		} else if (compare > 0) {
+			left = mid+1;
+		} else {
+			return mid;
+		}
+	}
+	return -1;
+}
+
+// same encoding of the range as ReferenceBinding.binarySearch(char[], MethodBinding[])
+private static long binarySearch(char[] selector, IBinaryMethod[] sortedMethods) {
+	int left = 0, right = sortedMethods.length - 1, selectorLength = selector.length;
+	while (left <= right) {
+		int mid = left + (right - left) /2;
+		char[] midSelector = sortedMethods[mid].getSelector();
+		int compare = ReferenceBinding.compare(selector, midSelector, selectorLength, midSelector.length);
+		if (compare < 0) {
+			right = mid-1;
+		} else if (compare > 0) {
+			left = mid+1;
+		} else {
+			int start = mid, end = mid;
+			// find first method with same selector
+			while (start > left && CharOperation.equals(sortedMethods[start-1].getSelector(), selector)){ start--; }
+			// find last method with same selector
+			while (end < right && CharOperation.equals(sortedMethods[end+1].getSelector(), selector)){ end++; }
+			return start + ((long)end<< 32);
+		}
+	}
+	return -1;
+}
+
+private FieldBinding materializeField(int index) {
+	FieldBinding field = this.fields[index];
+	if (field != null)
+		return field;
+	IBinaryField binaryField = this.lazyFields[index];
+	char[][][] missingTypeNames = this.lazyMissingTypeNames;
+	boolean save = this.environment.mayTolerateMissingType;
+	this.environment.mayTolerateMissingType = true;
+	try {
+		field = createField(binaryField, null, this.environment.globalOptions.originalSourceLevel, missingTypeNames, hasRestrictedAccess());
+		field.id = this.lazyFieldOrdinals[index]; // ordinal
+		if (!field.isDeprecated() && isViewedAsDeprecated())
+			field.modifiers |= ExtraCompilerModifiers.AccDeprecatedImplicitly;
+		// annotations may refer to the field being constructed (147875)
+		this.fields[index] = field;
+		IBinaryAnnotation[] annotations = binaryField.getAnnotations();
+		if (annotations != null) {
+			if (this.environment.globalOptions.sourceLevel >= ClassFileConstants.JDK9
+					&& (binaryField.getTagBits() & TagBits.AnnotationDeprecated) != 0)
+				storedAnnotations(true, true); // for Java 9 @Deprecated we need to force storing annotations
+			if (storedAnnotations(false, false) != null)
+				field.setAnnotations(createAnnotations(annotations, this.environment, missingTypeNames), false);
+		}
+	} finally {
+		this.environment.mayTolerateMissingType = save;
+	}
+	return field;
+}
+
+private void materializeAllFields() {
+	if (this.lazyFields == null)
+		return;
+	for (int i = 0, length = this.fields.length; i < length; i++)
+		materializeField(i);
+	this.lazyFields = null;
+	this.lazyFieldOrdinals = null;
+	if (this.lazyMethods == null)
+		this.lazyMissingTypeNames = null;
+}
+
+/* Create the methods at positions start..end, which all share the same selector, then order them as
+ * ReferenceBinding.sortMethods(..) would, keeping this.lazyMethods parallel to this.methods. */
+private void materializeMethods(int start, int end) {
+	boolean save = this.environment.mayTolerateMissingType;
+	this.environment.mayTolerateMissingType = true;
+	try {
+		boolean created = false;
+		for (int i = start; i <= end; i++) {
+			if (this.methods[i] != null)
+				continue;
+			MethodBinding method = createMethod(this.lazyMethods[i], null, this.environment.globalOptions.originalSourceLevel, this.lazyMissingTypeNames);
+			if (hasRestrictedAccess())
+				method.modifiers |= ExtraCompilerModifiers.AccRestrictedAccess;
+			if (!method.isDeprecated() && isViewedAsDeprecated())
+				method.modifiers |= ExtraCompilerModifiers.AccDeprecatedImplicitly;
+			this.methods[i] = method;
+			created = true;
+		}
+		if (created) {
+			for (int i = start + 1; i <= end; i++) {
+				for (int j = i; j > start && this.methods[j - 1].parameters.length > this.methods[j].parameters.length; j--) {
+					MethodBinding method = this.methods[j];
+					this.methods[j] = this.methods[j - 1];
+					this.methods[j - 1] = method;
+					IBinaryMethod binaryMethod = this.lazyMethods[j];
+					this.lazyMethods[j] = this.lazyMethods[j - 1];
+					this.lazyMethods[j - 1] = binaryMethod;
+				}
+			}
+		}
+	} finally {
+		this.environment.mayTolerateMissingType = save;
+	}
+}
+
+private void materializeAllMethods() {
+	if (this.lazyMethods == null)
+		return;
+	for (int start = 0, length = this.methods.length; start < length;) {
+		char[] selector = this.lazyMethods[start].getSelector();
+		int end = start;
+		while (end + 1 < length && CharOperation.equals(this.lazyMethods[end + 1].getSelector(), selector))
+			end++;
+		materializeMethods(start, end);
+		start = end + 1;
+	}
+	this.lazyMethods = null;
+	this.tagBits |= TagBits.AreMethodsSorted;
+	if (this.lazyFields == null)
+		this.lazyMissingTypeNames = null;
+}
+
+/* Answer the range of the methods named selector, encoded as by ReferenceBinding.binarySearch(char[], MethodBinding[]),
+ * after sorting this.methods or creating the methods of that name as needed. */
+private long methodRange(char[] selector) {
+	if (this.lazyMethods != null) {
+		long range = binarySearch(selector, this.lazyMethods);
+		if (range >= 0)
+			materializeMethods((int) range, (int) (range >> 32));
+		return range;
+	}
+	// lazily sort methods
+	if ((this.tagBits & TagBits.AreMethodsSorted) == 0) {
+		int length = this.methods.length;
+		if (length > 1)
+			ReferenceBinding.sortMethods(this.methods, 0, length);
+		this.tagBits |= TagBits.AreMethodsSorted;
+	}
+	return ReferenceBinding.binarySearch(selector, this.methods);
+}
+
 private TypeVariableBinding[] createTypeVariables(SignatureWrapper wrapper, boolean assignVariables, char[][][] missingTypeNames,
 													ITypeAnnotationWalker walker, boolean isClassTypeParameter)
 {
@@ -1090,6 +1338,7 @@ public FieldBinding[] fields() {
 		return this.fields = this.prototype.fields();
 	}
 
+	materializeAllFields();
 	if ((this.tagBits & TagBits.AreFieldsComplete) != 0)
 		return this.fields;
 
@@ -1180,16 +1429,9 @@ public MethodBinding getExactConstructor(TypeBinding[] argumentTypes) {
 	if (!isPrototype())
 		return this.prototype.getExactConstructor(argumentTypes);
 
-	// lazily sort methods
-	if ((this.tagBits & TagBits.AreMethodsSorted) == 0) {
-		int length = this.methods.length;
-		if (length > 1)
-			ReferenceBinding.sortMethods(this.methods, 0, length);
-		this.tagBits |= TagBits.AreMethodsSorted;
-	}
 	int argCount = argumentTypes.length;
 	long range;
-	if ((range = ReferenceBinding.binarySearch(TypeConstants.INIT, this.methods)) >= 0) {
+	if ((range = methodRange(TypeConstants.INIT)) >= 0) {
 		nextMethod: for (int imethod = (int)range, end = (int)(range >> 32); imethod <= end; imethod++) {
 			MethodBinding method = this.methods[imethod];
 			if (method.parameters.length == argCount) {
@@ -1214,19 +1456,11 @@ public MethodBinding getExactMethod(char[] selector, TypeBinding[] argumentTypes
 	if (!isPrototype())
 		return this.prototype.getExactMethod(selector, argumentTypes, refScope);
 
-	// lazily sort methods
-	if ((this.tagBits & TagBits.AreMethodsSorted) == 0) {
-		int length = this.methods.length;
-		if (length > 1)
-			ReferenceBinding.sortMethods(this.methods, 0, length);
-		this.tagBits |= TagBits.AreMethodsSorted;
-	}
-
 	int argCount = argumentTypes.length;
 	boolean foundNothing = true;
 
 	long range;
-	if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+	if ((range = methodRange(selector)) >= 0) {
 		nextMethod: for (int imethod = (int)range, end = (int)(range >> 32); imethod <= end; imethod++) {
 			MethodBinding method = this.methods[imethod];
 			foundNothing = false; // inner type lookups must know that a method with this name exists
@@ -1262,6 +1496,11 @@ public FieldBinding getField(char[] fieldName, boolean needResolve) {
 	if (!isPrototype())
 		return this.prototype.getField(fieldName, needResolve);
 
+	if (this.lazyFields != null) {
+		int index = binarySearch(fieldName, this.lazyFields);
+		FieldBinding field = index < 0 ? null : materializeField(index);
+		return needResolve && field != null ? resolveTypeFor(field) : field;
+	}
 	// lazily sort fields
 	if ((this.tagBits & TagBits.AreFieldsSorted) == 0) {
 		int length = this.fields.length;
@@ -1318,15 +1557,8 @@ public MethodBinding[] getMethods(char[] selector) {
 		}
 		return Binding.NO_METHODS;
 	}
-	// lazily sort methods
-	if ((this.tagBits & TagBits.AreMethodsSorted) == 0) {
-		int length = this.methods.length;
-		if (length > 1)
-			ReferenceBinding.sortMethods(this.methods, 0, length);
-		this.tagBits |= TagBits.AreMethodsSorted;
-	}
 	long range;
-	if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+	if ((range = methodRange(selector)) >= 0) {
 		int start = (int) range, end = (int) (range >> 32);
 		int length = end - start + 1;
 		MethodBinding[] result = new MethodBinding[length];
@@ -1347,15 +1579,8 @@ public MethodBinding[] getMethods(char[] selector, int suggestedParameterLength)
 
 	if ((this.tagBits & TagBits.AreMethodsComplete) != 0)
 		return getMethods(selector);
-	// lazily sort methods
-	if ((this.tagBits & TagBits.AreMethodsSorted) == 0) {
-		int length = this.methods.length;
-		if (length > 1)
-			ReferenceBinding.sortMethods(this.methods, 0, length);
-		this.tagBits |= TagBits.AreMethodsSorted;
-	}
 	long range;
-	if ((range = ReferenceBinding.binarySearch(selector, this.methods)) >= 0) {
+	if ((range = methodRange(selector)) >= 0) {
 		int start = (int) range, end = (int) (range >> 32);
 		int length = end - start + 1;
 		int count = 0;
@@ -1549,6 +1774,7 @@ public MethodBinding[] methods() {
 		return this.methods = this.prototype.methods();
 	}
 	
+	materializeAllMethods();
 	if ((this.tagBits & TagBits.AreMethodsComplete) != 0)
 		return this.methods;
 
@@ -2214,6 +2440,7 @@ MethodBinding[] unResolvedMethods() { // for the MethodVerifier so it doesn't re
 	if (!isPrototype())
 		return this.prototype.unResolvedMethods();
 	
+	materializeAllMethods();
 	return this.methods;
 }
 
@@ -2223,6 +2450,7 @@ public FieldBinding[] unResolvedFields() {
 	if (!isPrototype())
 		return this.prototype.unResolvedFields();
 	
+	materializeAllFields();
 	return this.fields;
 }
 @Override
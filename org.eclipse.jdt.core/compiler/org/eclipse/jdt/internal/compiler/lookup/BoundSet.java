@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2017 GK Software AG.
+ * Copyright (c) 2013, 2019 GK Software AG.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@
 package org.eclipse.jdt.internal.compiler.lookup;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -26,6 +27,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.jdt.internal.compiler.ast.Wildcard;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfInt;
 
 /**
  * Implementation of 18.1.3 in JLS8.
@@ -516,11 +518,14 @@ class BoundSet {
 	boolean incorporate(InferenceContext18 context, TypeBound [] first, TypeBound [] next) throws InferenceFailureException {
 		boolean analyzeNull = context.environment.globalOptions.isAnnotationBasedNullAnalysisEnabled;
 		ConstraintTypeFormula [] mostRecentFormulas = new ConstraintTypeFormula[4]; // poor man's cache to toss out duplicates, in pathological cases there are a good quarter million of them.
+		// only pairs of bounds mentioning a common inference variable can produce new constraints, find those via an index:
+		BoundIndex nextIndex = new BoundIndex(next);
 		// check each pair, in each way.
 		for (int i = 0, iLength = first.length; i < iLength; i++) {
 			TypeBound boundI = first[i];
-			for (int j = 0, jLength = next.length; j < jLength; j++) {
-				TypeBound boundJ = next[j];
+			int[] partners = nextIndex.partnersOf(boundI); // null means: any bound in next may be a partner
+			for (int p = 0, jLength = partners == null ? next.length : nextIndex.partnersCount; p < jLength; p++) {
+				TypeBound boundJ = next[partners == null ? p : partners[p]];
 				if (boundI == boundJ)
 					continue;
 				int iteration = 1;
@@ -711,6 +716,189 @@ class BoundSet {
 		return true;
 	}
 
+	/**
+	 * Index over one generation of bounds used during incorporation:
+	 * for each inference variable it records the ascending positions of all bounds mentioning that variable.
+	 * Two bounds that do not mention any common inference variable never combine to a new constraint,
+	 * so looking up partners by inference variable avoids checking each pair of bounds.
+	 */
+	private static class BoundIndex {
+		HashtableOfInt positionsPerVariable = new HashtableOfInt(); // int[] per variable key, element 0 holds the count
+		int[] unknownPositions = new int[4]; // bounds whose inference variables could not be determined
+		int unknownCount = 0;
+		int[] partners = new int[16];
+		int partnersCount;
+
+		BoundIndex(TypeBound[] bounds) {
+			for (int j = 0, length = bounds.length; j < length; j++) {
+				int[] mentioned = mentionedVariables(bounds[j]);
+				if (mentioned == UNKNOWN_MENTIONS) {
+					if (this.unknownCount == this.unknownPositions.length)
+						System.arraycopy(this.unknownPositions, 0, this.unknownPositions = new int[this.unknownCount * 2], 0, this.unknownCount);
+					this.unknownPositions[this.unknownCount++] = j;
+					continue;
+				}
+				for (int m = 0; m < mentioned.length; m++) {
+					int[] positions = (int[]) this.positionsPerVariable.get(mentioned[m]);
+					if (positions == null) {
+						this.positionsPerVariable.put(mentioned[m], positions = new int[5]);
+					} else if (positions[0] + 1 == positions.length) {
+						System.arraycopy(positions, 0, positions = new int[positions.length * 2], 0, positions[0] + 1);
+						this.positionsPerVariable.put(mentioned[m], positions);
+					}
+					positions[++positions[0]] = j;
+				}
+			}
+		}
+
+		/**
+		 * Answer the ascending positions of all indexed bounds that may combine with the given bound,
+		 * valid up to {@link #partnersCount} and until the next invocation,
+		 * or null if all indexed bounds have to be considered.
+		 */
+		int[] partnersOf(TypeBound bound) {
+			int[] mentioned = mentionedVariables(bound);
+			if (mentioned == UNKNOWN_MENTIONS)
+				return null;
+			int count = 0;
+			for (int m = 0; m < mentioned.length; m++) {
+				int[] positions = (int[]) this.positionsPerVariable.get(mentioned[m]);
+				if (positions != null)
+					count = addPartners(positions, 1, positions[0], count);
+			}
+			count = addPartners(this.unknownPositions, 0, this.unknownCount, count);
+			if (count > 1 && (mentioned.length > 1 || this.unknownCount > 0)) {
+				// merged from several lists, restore the original order and remove duplicates:
+				Arrays.sort(this.partners, 0, count);
+				int unique = 1;
+				for (int p = 1; p < count; p++) {
+					if (this.partners[p] != this.partners[unique - 1])
+						this.partners[unique++] = this.partners[p];
+				}
+				count = unique;
+			}
+			this.partnersCount = count;
+			return this.partners;
+		}
+
+		private int addPartners(int[] positions, int start, int length, int count) {
+			int needed = count + length;
+			if (needed > this.partners.length)
+				System.arraycopy(this.partners, 0, this.partners = new int[Math.max(needed, this.partners.length * 2)], 0, count);
+			System.arraycopy(positions, start, this.partners, count, length);
+			return needed;
+		}
+	}
+
+	/** Marks a bound whose mentioned inference variables cannot be determined, such bound may combine with any other bound. */
+	static final int[] UNKNOWN_MENTIONS = new int[0];
+
+	/**
+	 * Answer the keys of all inference variables mentioned in the given bound, either as its left-hand side
+	 * or anywhere within its right-hand side, as far as {@link TypeBinding#substituteInferenceVariable(InferenceVariable, TypeBinding)}
+	 * would find them. Keys are derived from {@link InferenceVariable#varId}, different variables sharing the
+	 * same id only cause additional pairs to be checked.
+	 */
+	static int[] mentionedVariables(TypeBound bound) {
+		int[] mentioned = bound.mentionedVariables;
+		if (mentioned == null) {
+			MentionedVariablesCollector collector = new MentionedVariablesCollector();
+			collector.add(bound.left);
+			collector.collect(bound.right);
+			bound.mentionedVariables = mentioned = collector.getKeys();
+		}
+		return mentioned;
+	}
+
+	static class MentionedVariablesCollector {
+		int[] keys = new int[4];
+		int count = 0;
+		boolean unknown = false;
+		List<TypeVariableBinding> visited; // guards against recursive type variable bounds
+
+		void add(InferenceVariable variable) {
+			int key = variable.prototype().varId + 1; // HashtableOfInt cannot store key 0
+			for (int i = 0; i < this.count; i++)
+				if (this.keys[i] == key)
+					return;
+			if (this.count == this.keys.length)
+				System.arraycopy(this.keys, 0, this.keys = new int[this.count * 2], 0, this.count);
+			this.keys[this.count++] = key;
+		}
+
+		void collect(TypeBinding type) {
+			if (type == null || this.unknown)
+				return;
+			if (type instanceof InferenceVariable) {
+				add((InferenceVariable) type);
+				return;
+			}
+			switch (type.kind()) {
+				case Binding.BASE_TYPE:
+				case Binding.RAW_TYPE: // raw types are never substituted
+					return;
+				case Binding.ARRAY_TYPE:
+					collect(type.leafComponentType());
+					return;
+				case Binding.PARAMETERIZED_TYPE:
+					ParameterizedTypeBinding parameterizedType = (ParameterizedTypeBinding) type;
+					if (parameterizedType.arguments != null) {
+						for (int i = 0; i < parameterizedType.arguments.length; i++) {
+							if (TypeBinding.notEquals(parameterizedType.arguments[i], parameterizedType))
+								collect(parameterizedType.arguments[i]);
+						}
+					}
+					collect(parameterizedType.enclosingType());
+					return;
+				case Binding.WILDCARD_TYPE:
+				case Binding.INTERSECTION_TYPE:
+					WildcardBinding wildcard = (WildcardBinding) type;
+					collect(wildcard.bound);
+					collectAll(wildcard.otherBounds);
+					return;
+				case Binding.INTERSECTION_TYPE18:
+					collectAll(((IntersectionTypeBinding18) type).intersectingTypes);
+					return;
+				case Binding.TYPE_PARAMETER:
+					TypeVariableBinding typeVariable = (TypeVariableBinding) type;
+					if (this.visited == null)
+						this.visited = new ArrayList<>();
+					for (TypeVariableBinding seen : this.visited)
+						if (seen == typeVariable) //$IDENTITY-COMPARISON$
+							return;
+					this.visited.add(typeVariable);
+					collect(typeVariable.superclass);
+					collectAll(typeVariable.superInterfaces);
+					collect(typeVariable.firstBound);
+					if (typeVariable instanceof CaptureBinding) {
+						CaptureBinding capture = (CaptureBinding) typeVariable;
+						collect(capture.wildcard);
+						collect(capture.lowerBound);
+						if (capture instanceof CaptureBinding18)
+							collectAll(((CaptureBinding18) capture).upperBounds);
+					}
+					return;
+				default:
+					if (!type.isProperType(true))
+						this.unknown = true;
+			}
+		}
+
+		void collectAll(TypeBinding[] types) {
+			if (types != null)
+				for (int i = 0; i < types.length; i++)
+					collect(types[i]);
+		}
+
+		int[] getKeys() {
+			if (this.unknown)
+				return UNKNOWN_MENTIONS;
+			int[] result;
+			System.arraycopy(this.keys, 0, result = new int[this.count], 0, this.count);
+			return result;
+		}
+	}
+
 	void addTypeBoundsFromWildcardBound(InferenceContext18 context, InferenceSubstitution theta, int boundKind, TypeBinding t,
 			TypeBinding r, TypeBinding bi) throws InferenceFailureException {
 		ConstraintFormula formula = null;
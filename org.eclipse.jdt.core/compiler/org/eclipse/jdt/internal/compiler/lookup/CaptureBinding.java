@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -553,17 +553,17 @@ public class CaptureBinding extends TypeVariableBinding {
 	 */
 	@Override
 	protected TypeBinding[] getDerivedTypesForDeferredInitialization() {
-		TypeBinding[] derived = this.environment.typeSystem.getDerivedTypes(this);
-		if (derived.length > 0) {
-			int count = 0;
-			for (int i = 0; i < derived.length; i++) {
-				if (derived[i] != null && derived[i].id == this.id)
-					derived[count++] = derived[i];
-			}
-			if (count < derived.length)
-				System.arraycopy(derived, 0, derived = new TypeBinding[count], 0, count);
+		TypeSystem.DerivedTypes derived = this.environment.typeSystem.getDerivedTypes(this);
+		// the array is shared with the type system, collect into a fresh one:
+		TypeBinding[] sameId = new TypeBinding[derived.count];
+		int count = 0;
+		for (int i = 0; i < derived.count; i++) {
+			if (derived.types[i].id == this.id)
+				sameId[count++] = derived.types[i];
 		}
-		return derived;
+		if (count < sameId.length)
+			System.arraycopy(sameId, 0, sameId = new TypeBinding[count], 0, count);
+		return sameId;
 	}
 
 	@Override
@@ -27,6 +27,9 @@ public class TypeBound extends ReductionResult {
 
 	// here we accumulate null tagBits from any types that have been related to this type bound during incorporation:
 	long nullHints;
+
+	// lazily computed by BoundSet: keys of all inference variables mentioned on either side of this bound:
+	int[] mentionedVariables;
 	
 	static TypeBound createBoundOrDependency(InferenceSubstitution theta, TypeBinding type, InferenceVariable variable) {
         // Part of JLS8 sect 18.1.3:
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2018 IBM Corporation and others.
+ * Copyright (c) 2013, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,7 +19,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.lookup;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.eclipse.jdt.internal.compiler.ast.ASTNode;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
@@ -130,7 +131,8 @@ public class TypeSystem {
 			}
 		}
 		
-		HashMap<PTBKey, ParameterizedTypeBinding []> hashedParameterizedTypes = new HashMap<>(256);
+		// lookups may run concurrently, put() is only called while holding the lock on the enclosing TypeSystem.
+		ConcurrentHashMap<PTBKey, ParameterizedTypeBinding []> hashedParameterizedTypes = new ConcurrentHashMap<>(256);
 
 		ParameterizedTypeBinding get(ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType, AnnotationBinding[] annotations) {
 			
@@ -191,8 +193,27 @@ public class TypeSystem {
 		}
 	}	
 	
-	private int typeid = TypeIds.T_LastWellKnownTypeId;
-	private TypeBinding [][] types; 
+	/* A published family of types: the naked type at slot 0 followed by the types derived from it, in the first count slots of types.
+	   These slots are never modified once published. Appending writes the next free slot of the same array, or of an array grown
+	   geometrically, and publishes a new DerivedTypes with a larger count, so that readers which only look at the first count slots
+	   never observe an unpublished type.
+	*/
+	static final class DerivedTypes {
+		static final DerivedTypes EMPTY = new DerivedTypes(Binding.NO_TYPES, 0);
+
+		final TypeBinding[] types;
+		final int count;
+
+		DerivedTypes(TypeBinding[] types, int count) {
+			this.types = types;
+			this.count = count;
+		}
+	}
+
+	private int typeid = TypeIds.T_LastWellKnownTypeId; // guarded by this
+	/* Indexed by TypeBinding.id: the derived types of each naked type. Writers publish new DerivedTypes while holding the lock on this
+	   TypeSystem, so that readers can look up types without any locking. */
+	private volatile AtomicReferenceArray<DerivedTypes> types;
 	protected HashedParameterizedTypes parameterizedTypes;  // auxiliary fast lookup table for parameterized types.
 	private SimpleLookupTable annotationTypes; // cannot store in types, since AnnotationBinding is not a TypeBinding and we don't want types to operate at Binding level.
 	LookupEnvironment environment;
@@ -201,10 +222,48 @@ public class TypeSystem {
 		this.environment = environment;
 		this.annotationTypes = new SimpleLookupTable(16);
 		this.typeid = TypeIds.T_LastWellKnownTypeId;
-		this.types = new TypeBinding[TypeIds.T_LastWellKnownTypeId * 2][]; 
+		this.types = new AtomicReferenceArray<>(TypeIds.T_LastWellKnownTypeId * 2); 
 		this.parameterizedTypes = new HashedParameterizedTypes();
 	}
 
+	/* Concurrency: all lookups are performed without locking against the most recently published derived types, only when a lookup fails
+	   the lock on this TypeSystem is acquired, the lookup is repeated and the missing type is created and published. Hence each derivation
+	   still yields a unique binding (as TypeBinding.equalsEquals and identity comparisons throughout the compiler expect), irrespective
+	   of how many threads concurrently ask for it.
+	*/
+
+	// Answer the naked type and all types derived from it for the given id, or null if nothing is registered for this id.
+	private DerivedTypes derivedTypesAt(int id) {
+		AtomicReferenceArray<DerivedTypes> table = this.types;
+		return id >= 0 && id < table.length() ? table.get(id) : null;
+	}
+
+	// Register the given naked type under a fresh id and answer that id. pre: holding the lock on this.
+	private int newTypeId(TypeBinding nakedType) {
+		AtomicReferenceArray<DerivedTypes> table = this.types;
+		int length = table.length();
+		if (this.typeid == length) {
+			AtomicReferenceArray<DerivedTypes> newTable = new AtomicReferenceArray<>(length * 2);
+			for (int i = 0; i < length; i++)
+				newTable.set(i, table.get(i));
+			this.types = table = newTable;
+		}
+		table.set(this.typeid, new DerivedTypes(new TypeBinding[] { nakedType }, 1));
+		return this.typeid++;
+	}
+
+	// Publish the derived types of the given id with derivedType appended. pre: holding the lock on this.
+	private TypeBinding appendDerivedType(int id, TypeBinding derivedType) {
+		DerivedTypes derived = derivedTypesAt(id);
+		TypeBinding[] derivedTypes = derived.types;
+		int count = derived.count;
+		if (count == derivedTypes.length) // grow geometrically, so that interning n derived types costs O(n)
+			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[count == 0 ? 4 : count * 2], 0, count);
+		derivedTypes[count] = derivedType; // beyond the published count, not yet looked at by any reader
+		this.types.set(id, new DerivedTypes(derivedTypes, count + 1));
+		return derivedType;
+	}
+
 	// Given a type, answer its unannotated aka naked prototype. This is also a convenient way to "register" a type with TypeSystem and have it id stamped.
 	public final TypeBinding getUnannotatedType(TypeBinding type) {
 		UnresolvedReferenceBinding urb = null;
@@ -215,28 +274,32 @@ public class TypeSystem {
 				type = resolvedType;
 			}
 		}
-		try {
-			if (type.id == TypeIds.NoId) {
-				if (type.hasTypeAnnotations())
-					throw new IllegalStateException();
-				int typesLength = this.types.length;
-				if (this.typeid == typesLength)
-					System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-				this.types[type.id = this.typeid++] = new TypeBinding[4];
-			} else {
-				TypeBinding nakedType = this.types[type.id] == null ? null : this.types[type.id][0];
+		if (type.id != TypeIds.NoId && (urb == null || urb.id != TypeIds.NoId)) {
+			DerivedTypes derived = derivedTypesAt(type.id);
+			if (derived != null && derived.count > 0)
+				return derived.types[0];
+		}
+		synchronized (this) {
+			try {
+				if (type.id == TypeIds.NoId) {
+					if (type.hasTypeAnnotations())
+						throw new IllegalStateException();
+					type.id = newTypeId(type);
+					return type;
+				}
+				DerivedTypes derived = derivedTypesAt(type.id);
+				TypeBinding nakedType = derived == null || derived.count == 0 ? null : derived.types[0];
 				if (type.hasTypeAnnotations() && nakedType == null)
 					throw new IllegalStateException();
 				if (nakedType != null)
 					return nakedType;
-				this.types[type.id] = new TypeBinding[4];  // well known type, assigned id elsewhere.
+				this.types.set(type.id, new DerivedTypes(new TypeBinding[] { type }, 1));  // well known type, assigned id elsewhere.
+				return type;
+			} finally {
+				if (urb != null && urb.id == TypeIds.NoId)
+					urb.id = type.id;
 			}
-		} finally {
-			if (urb != null && urb.id == TypeIds.NoId)
-				urb.id = type.id;
 		}
-	
-		return this.types[type.id][0] = type;
 	}
 
 	/**
@@ -244,13 +307,17 @@ public class TypeSystem {
 	 * If it itself is already registered as the key unannotated type of its family,
 	 * create a clone to play that role from now on and swap types in the types cache.
 	 */
-	public void forceRegisterAsDerived(TypeBinding derived) {
+	public synchronized void forceRegisterAsDerived(TypeBinding derived) {
 		int id = derived.id;
-		if (id != TypeIds.NoId && this.types[id] != null) {
-			TypeBinding unannotated = this.types[id][0];
+		DerivedTypes family = id != TypeIds.NoId ? derivedTypesAt(id) : null;
+		if (family != null && family.count > 0) {
+			TypeBinding unannotated = family.types[0];
 			if (unannotated == derived) { //$IDENTITY-COMPARISON$
 				// was previously registered as unannotated, replace by a fresh clone to remain unannotated:
-				this.types[id][0] = unannotated = derived.clone(null);
+				TypeBinding[] derivedTypes = new TypeBinding[family.types.length];
+				System.arraycopy(family.types, 0, derivedTypes, 0, family.count);
+				derivedTypes[0] = unannotated = derived.clone(null);
+				this.types.set(id, new DerivedTypes(derivedTypes, family.count));
 			}
 			// proceed as normal:
 			cacheDerivedType(unannotated, derived);
@@ -275,27 +342,30 @@ public class TypeSystem {
 			leafType = leafType.leafComponentType();
 		}
 		TypeBinding unannotatedLeafType = getUnannotatedType(leafType);
-		TypeBinding[] derivedTypes = this.types[unannotatedLeafType.id];
-		int i, length = derivedTypes.length;
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) 
-				break;
+		ArrayBinding arrayType = findArrayType(unannotatedLeafType, dimensions);
+		if (arrayType != null)
+			return arrayType;
+		synchronized (this) {
+			arrayType = findArrayType(unannotatedLeafType, dimensions);
+			if (arrayType == null) {
+				arrayType = new ArrayBinding(unannotatedLeafType, dimensions, this.environment);
+				arrayType.id = newTypeId(arrayType);
+				appendDerivedType(unannotatedLeafType.id, arrayType);
+			}
+			return arrayType;
+		}
+	}
+
+	private ArrayBinding findArrayType(TypeBinding unannotatedLeafType, int dimensions) {
+		DerivedTypes derived = derivedTypesAt(unannotatedLeafType.id);
+		for (int i = 0, length = derived == null ? 0 : derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isArrayType() || derivedType.hasTypeAnnotations())
 				continue;
 			if (derivedType.leafComponentType() == unannotatedLeafType && derivedType.dimensions() == dimensions) //$IDENTITY-COMPARISON$
 				return (ArrayBinding) derivedType;
 		}
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[unannotatedLeafType.id] = derivedTypes;
-		}
-		TypeBinding arrayType = derivedTypes[i] = new ArrayBinding(unannotatedLeafType, dimensions, this.environment);
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (ArrayBinding) (this.types[arrayType.id = this.typeid++][0] = arrayType);
+		return null;
 	}
 	
 	public ArrayBinding getArrayType(TypeBinding leafComponentType, int dimensions, AnnotationBinding[] annotations) {
@@ -327,14 +397,16 @@ public class TypeSystem {
 		if (parameterizedType != null) 
 			return parameterizedType;
 
-		parameterizedType = new ParameterizedTypeBinding(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, this.environment);
-		cacheDerivedType(unannotatedGenericType, parameterizedType);
-		this.parameterizedTypes.put(genericType, typeArguments, enclosingType, parameterizedType);
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (ParameterizedTypeBinding) (this.types[parameterizedType.id = this.typeid++][0] = parameterizedType);
+		synchronized (this) {
+			parameterizedType = this.parameterizedTypes.get(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, Binding.NO_ANNOTATIONS);
+			if (parameterizedType != null) 
+				return parameterizedType;
+			parameterizedType = new ParameterizedTypeBinding(unannotatedGenericType, unannotatedTypeArguments, unannotatedEnclosingType, this.environment);
+			parameterizedType.id = newTypeId(parameterizedType);
+			cacheDerivedType(unannotatedGenericType, parameterizedType);
+			this.parameterizedTypes.put(genericType, typeArguments, enclosingType, parameterizedType);
+			return parameterizedType;
+		}
 	}
 
 	public ParameterizedTypeBinding getParameterizedType(ReferenceBinding genericType, TypeBinding[] typeArguments, ReferenceBinding enclosingType, AnnotationBinding[] annotations) {
@@ -351,29 +423,30 @@ public class TypeSystem {
 		ReferenceBinding unannotatedGenericType = (ReferenceBinding) getUnannotatedType(genericType);
 		ReferenceBinding unannotatedEnclosingType = enclosingType == null ? null : (ReferenceBinding) getUnannotatedType(enclosingType);
 	
-		TypeBinding[] derivedTypes = this.types[unannotatedGenericType.id];
-		int i, length = derivedTypes.length;
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) 
-				break;
+		RawTypeBinding rawType = findRawType(unannotatedGenericType, unannotatedEnclosingType);
+		if (rawType != null)
+			return rawType;
+		synchronized (this) {
+			rawType = findRawType(unannotatedGenericType, unannotatedEnclosingType);
+			if (rawType == null) {
+				rawType = new RawTypeBinding(unannotatedGenericType, unannotatedEnclosingType, this.environment);
+				rawType.id = newTypeId(rawType);
+				appendDerivedType(unannotatedGenericType.id, rawType);
+			}
+			return rawType;
+		}
+	}
+
+	private RawTypeBinding findRawType(ReferenceBinding unannotatedGenericType, ReferenceBinding unannotatedEnclosingType) {
+		DerivedTypes derived = derivedTypesAt(unannotatedGenericType.id);
+		for (int i = 0, length = derived == null ? 0 : derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isRawType() || derivedType.actualType() != unannotatedGenericType || derivedType.hasTypeAnnotations()) //$IDENTITY-COMPARISON$
 				continue;
 			if (derivedType.enclosingType() == unannotatedEnclosingType) //$IDENTITY-COMPARISON$
 				return (RawTypeBinding) derivedType;
 		}
-
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[unannotatedGenericType.id] = derivedTypes;
-		}
-		
-		TypeBinding rawTytpe = derivedTypes[i] = new RawTypeBinding(unannotatedGenericType, unannotatedEnclosingType, this.environment);
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (RawTypeBinding) (this.types[rawTytpe.id = this.typeid++][0] = rawTytpe);
+		return null;
 	}
 	
 	public RawTypeBinding getRawType(ReferenceBinding genericType, ReferenceBinding enclosingType, AnnotationBinding[] annotations) {
@@ -396,13 +469,26 @@ public class TypeSystem {
 		TypeBinding unannotatedBound = bound == null ? null : getUnannotatedType(bound);
 
 		boolean useDerivedTypesOfBound = unannotatedBound instanceof TypeVariableBinding || (unannotatedBound instanceof ParameterizedTypeBinding && !(unannotatedBound instanceof RawTypeBinding));
-		TypeBinding[] derivedTypes = this.types[useDerivedTypesOfBound ? unannotatedBound.id :unannotatedGenericType.id];  // by construction, cachedInfo != null now.
+		int keyId = useDerivedTypesOfBound ? unannotatedBound.id : unannotatedGenericType.id;  // by construction, derived types of keyId are registered now.
 
-		int i, length = derivedTypes.length;
-		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) 
-				break;
+		WildcardBinding wildcard = findWildcard(keyId, unannotatedGenericType, rank, unannotatedBound, unannotatedOtherBounds, boundKind);
+		if (wildcard != null)
+			return wildcard;
+		synchronized (this) {
+			wildcard = findWildcard(keyId, unannotatedGenericType, rank, unannotatedBound, unannotatedOtherBounds, boundKind);
+			if (wildcard == null) {
+				wildcard = new WildcardBinding(unannotatedGenericType, rank, unannotatedBound, unannotatedOtherBounds, boundKind, this.environment);
+				wildcard.id = newTypeId(wildcard);
+				appendDerivedType(keyId, wildcard);
+			}
+			return wildcard;
+		}
+	}
+
+	private WildcardBinding findWildcard(int keyId, ReferenceBinding unannotatedGenericType, int rank, TypeBinding unannotatedBound, TypeBinding[] unannotatedOtherBounds, int boundKind) {
+		DerivedTypes derived = derivedTypesAt(keyId);
+		for (int i = 0, length = derived == null ? 0 : derived.count; i < length; i++) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isWildcard() || derivedType.actualType() != unannotatedGenericType || derivedType.hasTypeAnnotations()) //$IDENTITY-COMPARISON$
 				continue;
 			if (derivedType.rank() != rank || derivedType.boundKind() != boundKind || derivedType.bound() != unannotatedBound) //$IDENTITY-COMPARISON$
@@ -410,60 +496,46 @@ public class TypeSystem {
 			if (Util.effectivelyEqual(derivedType.additionalBounds(), unannotatedOtherBounds))
 				return (WildcardBinding) derivedType;
 		}
-		
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[useDerivedTypesOfBound ? unannotatedBound.id :unannotatedGenericType.id] = derivedTypes;
-		}
-		TypeBinding wildcard = derivedTypes[i] = new WildcardBinding(unannotatedGenericType, rank, unannotatedBound, unannotatedOtherBounds, boundKind, this.environment);
-	
-		int typesLength = this.types.length;
-		if (this.typeid == typesLength)
-			System.arraycopy(this.types, 0, this.types = new TypeBinding[typesLength * 2][], 0, typesLength);
-		this.types[this.typeid] = new TypeBinding[1];
-		return (WildcardBinding) (this.types[wildcard.id = this.typeid++][0] = wildcard);
+		return null;
 	}
 	
 	// No need for an override in ATS, since interning is position specific and either the wildcard there is annotated or not.
 	public final CaptureBinding getCapturedWildcard(WildcardBinding wildcard, ReferenceBinding contextType, int start, int end, ASTNode cud, int id) {
 		
 		WildcardBinding unannotatedWildcard = (WildcardBinding) getUnannotatedType(wildcard);
-		TypeBinding[] derivedTypes = this.types[unannotatedWildcard.id];  // by construction, cachedInfo != null now.
-		int i, length = derivedTypes.length;
-		
+		CaptureBinding capture = findCapturedWildcard(unannotatedWildcard, contextType, start, end, cud);
+		if (capture != null)
+			return capture;
+		synchronized (this) {
+			capture = findCapturedWildcard(unannotatedWildcard, contextType, start, end, cud);
+			if (capture == null) {
+				capture = new CaptureBinding(wildcard, contextType, start, end, cud, id);
+				// the above constructor already registers the capture, don't repeat that here
+				appendDerivedType(unannotatedWildcard.id, capture);
+			}
+			return capture;
+		}
+	}
+
+	private CaptureBinding findCapturedWildcard(WildcardBinding unannotatedWildcard, ReferenceBinding contextType, int start, int end, ASTNode cud) {
+		DerivedTypes derived = derivedTypesAt(unannotatedWildcard.id);  // by construction, cachedInfo != null now.
+
 		/* Search backwards looking at recent captures, if we encounter a capture from a different compilation unit, this is a fresh uninterned capture.
 		   While compiling one file, we may reach into another file to build structure, we should not compile method bodies there, so we expect to see 
 		   all captures from the same file together without being interleaved by captures from other files.
 		*/
-		int nullSlot = length;
-		for (i = length - 1; i >= -1; --i) {
-			if (i == -1) {
-				i = nullSlot;
-				break;
-			}
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) { 
-				nullSlot = i;
-				continue;
-			}
+		for (int i = derived == null ? -1 : derived.count - 1; i >= 0; --i) {
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isCapture())
 				continue;
 			CaptureBinding prior = (CaptureBinding) derivedType;
-			if (prior.cud != cud) { // Searching further to the left is futile, exit the loop.
-				i = nullSlot;
+			if (prior.cud != cud) // Searching further to the left is futile, exit the loop.
 				break;
-			}
 			if (prior.sourceType != contextType || prior.start != start || prior.end != end) //$IDENTITY-COMPARISON$
 				continue;
 			return prior;
 		}
-		
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[unannotatedWildcard.id] = derivedTypes;
-		}
-		return (CaptureBinding) (derivedTypes[i] = new CaptureBinding(wildcard, contextType, start, end, cud, id));
-		// the above constructor already registers the capture, don't repeat that here
+		return null;
 	}
 	
 	public WildcardBinding getWildcard(ReferenceBinding genericType, int rank, TypeBinding bound, TypeBinding[] otherBounds, int boundKind, AnnotationBinding[] annotations) {
@@ -474,35 +546,21 @@ public class TypeSystem {
 		return type; // Nothing to do for plain vanilla type system.
 	}
 	
-	protected final TypeBinding /* @NonNull */ [] getDerivedTypes(TypeBinding keyType) {
+	/* Answer the currently published derived types of the given type. Only the first count slots may be looked at and none may be modified,
+	   they may lack types that are concurrently being added, so callers missing a type must repeat the lookup while holding the lock on this. 
+	*/
+	final DerivedTypes /* @NonNull */ getDerivedTypes(TypeBinding keyType) {
 		keyType = getUnannotatedType(keyType);
-		return this.types[keyType.id];
+		DerivedTypes derived = derivedTypesAt(keyType.id);
+		return derived != null ? derived : DerivedTypes.EMPTY;
 	}
 	
 	private TypeBinding cacheDerivedType(TypeBinding keyType, TypeBinding derivedType) {
 		if (keyType == null || derivedType == null || keyType.id == TypeIds.NoId)
 			throw new IllegalStateException();
-		
-		TypeBinding[] derivedTypes = this.types[keyType.id];
-		// binary search for the *earliest* slot with a null reference. By design and construction, a null value will never be followed by a valid derived type.
-		int first, last,length = derivedTypes.length;
-		first = 0; last = length;
-		int i = (first + last) / 2;
-		do {
-			  if (derivedTypes[i] == null) {
-				  if (i == first || i > 0 && derivedTypes[i - 1] != null)
-					  break;
-				  last = i - 1;
-			  } else { 
-				  first = i + 1;
-			  }
-			  i = (first + last) / 2;
-		} while (i < length && first <= last);
-		if (i == length) {
-			System.arraycopy(derivedTypes, 0, derivedTypes = new TypeBinding[length * 2], 0, length);
-			this.types[keyType.id] = derivedTypes;
-		}
-		return derivedTypes[i] = derivedType;
+		synchronized (this) {
+			return appendDerivedType(keyType.id, derivedType);
+		}
 	}
 	
 	protected final TypeBinding cacheDerivedType(TypeBinding keyType, TypeBinding nakedType, TypeBinding derivedType) {
@@ -521,9 +579,11 @@ public class TypeSystem {
 		   alternate code paths. Unless care is exercised, we will end up with duplicate objects (that share
 		   the same TypeBinding.id => correctness is not an issue, but memory wastage is)
 		*/
-		cacheDerivedType(keyType, derivedType);
-		if (nakedType.id != keyType.id) {
-			cacheDerivedType(nakedType, derivedType);
+		synchronized (this) {
+			cacheDerivedType(keyType, derivedType);
+			if (nakedType.id != keyType.id) {
+				cacheDerivedType(nakedType, derivedType);
+			}
 		}
 		return derivedType;
 	}
@@ -532,13 +592,16 @@ public class TypeSystem {
 	   We may return a resolved annotation when requested for unresolved one, but not vice versa. 
 	*/
 	public final AnnotationBinding getAnnotationType(ReferenceBinding annotationType, boolean requiredResolved) {
-		AnnotationBinding annotation = (AnnotationBinding) this.annotationTypes.get(annotationType);
-		if (annotation == null) {
-			if (requiredResolved)
-				annotation = new AnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS);
-			else 
-				annotation = new UnresolvedAnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS, this.environment);
-			this.annotationTypes.put(annotationType, annotation);
+		AnnotationBinding annotation;
+		synchronized (this) {
+			annotation = (AnnotationBinding) this.annotationTypes.get(annotationType);
+			if (annotation == null) {
+				if (requiredResolved)
+					annotation = new AnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS);
+				else 
+					annotation = new UnresolvedAnnotationBinding(annotationType, Binding.NO_ELEMENT_VALUE_PAIRS, this.environment);
+				this.annotationTypes.put(annotationType, annotation);
+			}
 		}
 		if (requiredResolved)
 			annotation.resolve();
@@ -549,30 +612,33 @@ public class TypeSystem {
 		return false;
 	}
 
-	public void reset() {
+	public synchronized void reset() {
 		this.annotationTypes = new SimpleLookupTable(16);
 		this.typeid = TypeIds.T_LastWellKnownTypeId;
-		this.types = new TypeBinding[TypeIds.T_LastWellKnownTypeId * 2][];
+		this.types = new AtomicReferenceArray<>(TypeIds.T_LastWellKnownTypeId * 2);
 		this.parameterizedTypes = new HashedParameterizedTypes();
 	}
 	
-	public void updateCaches(UnresolvedReferenceBinding unresolvedType, ReferenceBinding resolvedType) {
+	public synchronized void updateCaches(UnresolvedReferenceBinding unresolvedType, ReferenceBinding resolvedType) {
 		final int unresolvedTypeId = unresolvedType.id;
 		if (resolvedType.id != TypeIds.NoId) {
 			unresolvedType.id = resolvedType.id;
 		}
 		if (unresolvedTypeId != TypeIds.NoId) {
 			// https://bugs.eclipse.org/bugs/show_bug.cgi?id=432977
-			TypeBinding[] derivedTypes = this.types[unresolvedTypeId];
-			for (int i = 0, length = derivedTypes == null ? 0 : derivedTypes.length; i < length; i++) {
-				if (derivedTypes[i] == null)
-					break;
-				if (derivedTypes[i] == unresolvedType) { //$IDENTITY-COMPARISON$
+			DerivedTypes derived = derivedTypesAt(unresolvedTypeId);
+			TypeBinding[] updatedTypes = null;
+			for (int i = 0, length = derived == null ? 0 : derived.count; i < length; i++) {
+				if (derived.types[i] == unresolvedType) { //$IDENTITY-COMPARISON$
 					if(resolvedType.id == TypeIds.NoId)
 						resolvedType.id = unresolvedTypeId;
-					derivedTypes[i] = resolvedType;
+					if (updatedTypes == null)
+						System.arraycopy(derived.types, 0, updatedTypes = new TypeBinding[derived.types.length], 0, length);
+					updatedTypes[i] = resolvedType;
 				}
 			}
+			if (updatedTypes != null)
+				this.types.set(unresolvedTypeId, new DerivedTypes(updatedTypes, derived.count));
 		}
 		if (this.annotationTypes.get(unresolvedType) != null) { // update the key
 			Object[] keys = this.annotationTypes.keyTable;
@@ -593,13 +659,24 @@ public class TypeSystem {
 		if (keyType == null || intersectingTypesLength == 1)
 			return keyType;
 					
-		TypeBinding[] derivedTypes = getDerivedTypes(keyType);
-		int i, length = derivedTypes.length;
+		TypeBinding intersectionType = findIntersectionType18(keyType, intersectingTypes);
+		if (intersectionType != null)
+			return intersectionType;
+		synchronized (this) {
+			intersectionType = findIntersectionType18(keyType, intersectingTypes);
+			if (intersectionType == null)
+				intersectionType = cacheDerivedType(keyType, new IntersectionTypeBinding18(intersectingTypes, this.environment));
+			return intersectionType;
+		}
+	}
+
+	private TypeBinding findIntersectionType18(TypeBinding keyType, ReferenceBinding[] intersectingTypes) {
+		int intersectingTypesLength = intersectingTypes.length;
+		DerivedTypes derived = getDerivedTypes(keyType);
+		int i, length = derived.count;
 		next:
 		for (i = 0; i < length; i++) {
-			TypeBinding derivedType = derivedTypes[i];
-			if (derivedType == null) 
-				break;
+			TypeBinding derivedType = derived.types[i];
 			if (!derivedType.isIntersectionType18())
 				continue;
 			ReferenceBinding [] priorIntersectingTypes = derivedType.getIntersectingTypes();
@@ -611,17 +688,18 @@ public class TypeSystem {
 			}	
 			return derivedType;
 		}
-		return cacheDerivedType(keyType, new IntersectionTypeBinding18(intersectingTypes, this.environment));
+		return null;
 	}
 	
 	/**
 	 * If a TVB was created with a dummy declaring element and needs to be fixed now,
 	 * make sure that this update affects all early clones, too.
 	 */
-	public void fixTypeVariableDeclaringElement(TypeVariableBinding var, Binding declaringElement) {
-		int id = var.id;
-		if (id < this.typeid && this.types[id] != null) {
-			for (TypeBinding t : this.types[id]) {
+	public synchronized void fixTypeVariableDeclaringElement(TypeVariableBinding var, Binding declaringElement) {
+		DerivedTypes derived = derivedTypesAt(var.id);
+		if (derived != null) {
+			for (int i = 0; i < derived.count; i++) {
+				TypeBinding t = derived.types[i];
 				if (t instanceof TypeVariableBinding)
 					((TypeVariableBinding)t).declaringElement = declaringElement;
 			}
@@ -69,6 +69,7 @@ import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.parser.RecoveryScanner;
 import org.eclipse.jdt.internal.compiler.parser.Scanner;
 import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.core.dom.SourceRangeVerifier;
 import org.eclipse.jdt.internal.core.util.Util;
 
@@ -92,6 +93,8 @@ class ASTConverter {
 	protected boolean resolveBindings;
 	Scanner scanner;
 	private DefaultCommentMapper commentMapper;
+	// identifier strings shared by the names of the converted AST (key is char[], value is String)
+	private HashtableOfObject identifiers = new HashtableOfObject();
 
 	public ASTConverter(Map<String, String> options, boolean resolveBindings, IProgressMonitor monitor) {
 		this.resolveBindings = resolveBindings;
@@ -114,6 +117,20 @@ class ASTConverter {
 		this.insideComments = JavaCore.ENABLED.equals(options.get(JavaCore.COMPILER_DOC_COMMENT_SUPPORT));
 	}
 
+	/*
+	 * Returns the identifier string for the given name. A name such as a local variable or a
+	 * frequently used type is referenced many times in a unit, and all its SimpleNames share
+	 * the same string rather than each holding a copy.
+	 */
+	private String identifier(char[] name) {
+		String identifier = (String) this.identifiers.get(name);
+		if (identifier == null) {
+			identifier = new String(name);
+			this.identifiers.put(name, identifier);
+		}
+		return identifier;
+	}
+
 	protected void adjustSourcePositionsForParent(org.eclipse.jdt.internal.compiler.ast.Expression expression) {
 		int start = expression.sourceStart;
 		int end = expression.sourceEnd;
@@ -521,7 +538,7 @@ class ASTConverter {
 		boolean isConstructor = methodDeclaration.isConstructor();
 		methodDecl.setConstructor(isConstructor);
 		final SimpleName methodName = new SimpleName(this.ast);
-		methodName.internalSetIdentifier(new String(methodDeclaration.selector));
+		methodName.internalSetIdentifier(identifier(methodDeclaration.selector));
 		int start = methodDeclaration.sourceStart;
 		int end = retrieveIdentifierEndPosition(start, methodDeclaration.sourceEnd);
 		if (end < start)
@@ -837,7 +854,7 @@ class ASTConverter {
 		AnnotationTypeDeclaration typeDecl = this.ast.newAnnotationTypeDeclaration();
 		setModifiers(typeDecl, typeDeclaration);
 		final SimpleName typeName = new SimpleName(this.ast);
-		typeName.internalSetIdentifier(new String(typeDeclaration.name));
+		typeName.internalSetIdentifier(identifier(typeDeclaration.name));
 		typeName.setSourceRange(typeDeclaration.sourceStart, typeDeclaration.sourceEnd - typeDeclaration.sourceStart + 1);
 		typeDecl.setName(typeName);
 		typeDecl.setSourceRange(typeDeclaration.declarationSourceStart, typeDeclaration.bodyEnd - typeDeclaration.declarationSourceStart + 1);
@@ -860,7 +877,7 @@ class ASTConverter {
 		AnnotationTypeMemberDeclaration annotationTypeMemberDeclaration2 = new AnnotationTypeMemberDeclaration(this.ast);
 		setModifiers(annotationTypeMemberDeclaration2, annotationTypeMemberDeclaration);
 		final SimpleName methodName = new SimpleName(this.ast);
-		methodName.internalSetIdentifier(new String(annotationTypeMemberDeclaration.selector));
+		methodName.internalSetIdentifier(identifier(annotationTypeMemberDeclaration.selector));
 		int start = annotationTypeMemberDeclaration.sourceStart;
 		int end = retrieveIdentifierEndPosition(start, annotationTypeMemberDeclaration.sourceEnd);
 		methodName.setSourceRange(start, end - start + 1);
@@ -891,7 +908,7 @@ class ASTConverter {
 		Receiver receiver = method.receiver;
 		if (receiver.qualifyingName != null) {
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(receiver.qualifyingName.getName()[0]));
+			name.internalSetIdentifier(identifier(receiver.qualifyingName.getName()[0]));
 			int start = receiver.qualifyingName.sourceStart;
 			int nameEnd = receiver.qualifyingName.sourceEnd;
 			name.setSourceRange(start, nameEnd - start + 1);
@@ -915,7 +932,7 @@ class ASTConverter {
 		SingleVariableDeclaration variableDecl = new SingleVariableDeclaration(this.ast);
 		setModifiers(variableDecl, argument);
 		final SimpleName name = new SimpleName(this.ast);
-		name.internalSetIdentifier(new String(argument.name));
+		name.internalSetIdentifier(identifier(argument.name));
 		if (argument instanceof Receiver) {
 			name.setFlags(name.getFlags() | ASTNode.MALFORMED);
 		}
@@ -1299,7 +1316,7 @@ class ASTConverter {
 		}
 		if (statement.label != null) {
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(statement.label));
+			name.internalSetIdentifier(identifier(statement.label));
 			retrieveIdentifierAndSetPositions(statement.sourceStart, statement.sourceEnd, name);
 			breakStatement.setLabel(name);
 		}
@@ -1572,7 +1589,7 @@ class ASTConverter {
 		continueStatement.setSourceRange(statement.sourceStart, statement.sourceEnd - statement.sourceStart + 1);
 		if (statement.label != null) {
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(statement.label));
+			name.internalSetIdentifier(identifier(statement.label));
 			retrieveIdentifierAndSetPositions(statement.sourceStart, statement.sourceEnd, name);
 			continueStatement.setLabel(name);
 		}
@@ -1613,7 +1630,7 @@ class ASTConverter {
 		checkCanceled();
 		EnumConstantDeclaration enumConstantDeclaration = new EnumConstantDeclaration(this.ast);
 		final SimpleName typeName = new SimpleName(this.ast);
-		typeName.internalSetIdentifier(new String(enumConstant.name));
+		typeName.internalSetIdentifier(identifier(enumConstant.name));
 		typeName.setSourceRange(enumConstant.sourceStart, enumConstant.sourceEnd - enumConstant.sourceStart + 1);
 		enumConstantDeclaration.setName(typeName);
 		int declarationSourceStart = enumConstant.declarationSourceStart;
@@ -1928,7 +1945,7 @@ class ASTConverter {
 				}
 			}
 			final SimpleName simpleName = new SimpleName(this.ast);
-			simpleName.internalSetIdentifier(new String(reference.token));
+			simpleName.internalSetIdentifier(identifier(reference.token));
 			int sourceStart = (int)(reference.nameSourcePosition>>>32);
 			int length = (int)(reference.nameSourcePosition & 0xFFFFFFFF) - sourceStart + 1;
 			simpleName.setSourceRange(sourceStart, length);
@@ -1946,7 +1963,7 @@ class ASTConverter {
 			Expression receiver = convert(reference.receiver);
 			fieldAccess.setExpression(receiver);
 			final SimpleName simpleName = new SimpleName(this.ast);
-			simpleName.internalSetIdentifier(new String(reference.token));
+			simpleName.internalSetIdentifier(identifier(reference.token));
 			int sourceStart = (int)(reference.nameSourcePosition>>>32);
 			int length = (int)(reference.nameSourcePosition & 0xFFFFFFFF) - sourceStart + 1;
 			simpleName.setSourceRange(sourceStart, length);
@@ -2152,7 +2169,7 @@ class ASTConverter {
 		if (body == null) return null;
 		labeledStatement.setBody(body);
 		final SimpleName name = new SimpleName(this.ast);
-		name.internalSetIdentifier(new String(statement.label));
+		name.internalSetIdentifier(identifier(statement.label));
 		name.setSourceRange(sourceStart, statement.labelEnd - sourceStart + 1);
 		labeledStatement.setLabel(name);
 		return labeledStatement;
@@ -2195,7 +2212,7 @@ class ASTConverter {
 				recordNodes(superMethodInvocation, expression);
 			}
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(expression.selector));
+			name.internalSetIdentifier(identifier(expression.selector));
 			int nameSourceStart =  (int) (expression.nameSourcePosition >>> 32);
 			int nameSourceLength = ((int) expression.nameSourcePosition) - nameSourceStart + 1;
 			name.setSourceRange(nameSourceStart, nameSourceLength);
@@ -2247,7 +2264,7 @@ class ASTConverter {
 				recordNodes(methodInvocation, expression);
 			}
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(expression.selector));
+			name.internalSetIdentifier(identifier(expression.selector));
 			int nameSourceStart =  (int) (expression.nameSourcePosition >>> 32);
 			int nameSourceLength = ((int) expression.nameSourcePosition) - nameSourceStart + 1;
 			name.setSourceRange(nameSourceStart, nameSourceLength);
@@ -2319,7 +2336,7 @@ class ASTConverter {
 				if (argument.type == null) {
 					VariableDeclarationFragment variableDeclarationFragment = new VariableDeclarationFragment(this.ast);
 					SimpleName simpleName = new SimpleName(this.ast);
-					simpleName.internalSetIdentifier(new String(argument.name));
+					simpleName.internalSetIdentifier(identifier(argument.name));
 					int start = argument.sourceStart;
 					int end = argument.sourceEnd;
 					simpleName.setSourceRange(start, end - start + 1);
@@ -2366,7 +2383,7 @@ class ASTConverter {
 	public MemberValuePair convert(org.eclipse.jdt.internal.compiler.ast.MemberValuePair memberValuePair) {
 		final MemberValuePair pair = new MemberValuePair(this.ast);
 		final SimpleName simpleName = new SimpleName(this.ast);
-		simpleName.internalSetIdentifier(new String(memberValuePair.name));
+		simpleName.internalSetIdentifier(identifier(memberValuePair.name));
 		int start = memberValuePair.sourceStart;
 		int end = memberValuePair.sourceEnd;
 		simpleName.setSourceRange(start, end - start + 1);
@@ -2672,7 +2689,7 @@ class ASTConverter {
 		int start = arguments != null && arguments.length > 0 ? arguments[arguments.length - 1].sourceEnd + 1 : reference.lhs.sourceEnd + 1;
 		final SimpleName name = new SimpleName(this.ast);
 		retrieveIdentifierAndSetPositions(start, reference.sourceEnd, name);
-		name.internalSetIdentifier(new String(reference.selector));
+		name.internalSetIdentifier(identifier(reference.selector));
 		if (this.resolveBindings) {
 			recordNodes(name, reference);
 		}
@@ -2761,7 +2778,7 @@ class ASTConverter {
 
 	public SimpleName convert(org.eclipse.jdt.internal.compiler.ast.SingleNameReference nameReference) {
 		final SimpleName name = new SimpleName(this.ast);
-		name.internalSetIdentifier(new String(nameReference.token));
+		name.internalSetIdentifier(identifier(nameReference.token));
 		if (this.resolveBindings) {
 			recordNodes(name, nameReference);
 		}
@@ -3067,7 +3084,7 @@ class ASTConverter {
 		boolean isInterface = kind == org.eclipse.jdt.internal.compiler.ast.TypeDeclaration.INTERFACE_DECL;
 		typeDecl.setInterface(isInterface);
 		final SimpleName typeName = new SimpleName(this.ast);
-		typeName.internalSetIdentifier(new String(typeDeclaration.name));
+		typeName.internalSetIdentifier(identifier(typeDeclaration.name));
 		typeName.setSourceRange(typeDeclaration.sourceStart, typeDeclaration.sourceEnd - typeDeclaration.sourceStart + 1);
 		typeDecl.setName(typeName);
 		typeDecl.setSourceRange(typeDeclaration.declarationSourceStart, typeDeclaration.bodyEnd - typeDeclaration.declarationSourceStart + 1);
@@ -3124,7 +3141,7 @@ class ASTConverter {
 	public TypeParameter convert(org.eclipse.jdt.internal.compiler.ast.TypeParameter typeParameter) {
 		final TypeParameter typeParameter2 = new TypeParameter(this.ast);
 		final SimpleName simpleName = new SimpleName(this.ast);
-		simpleName.internalSetIdentifier(new String(typeParameter.name));
+		simpleName.internalSetIdentifier(identifier(typeParameter.name));
 		int start = typeParameter.sourceStart;
 		int end = typeParameter.sourceEnd;
 		simpleName.setSourceRange(start, end - start + 1);
@@ -3173,7 +3190,7 @@ class ASTConverter {
 			return setQualifiedNameNameAndSourceRanges(typeName, positions, typeReference);
 		} else {
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(typeName[0]));
+			name.internalSetIdentifier(identifier(typeName[0]));
 			name.setSourceRange(typeReference.sourceStart, typeReference.sourceEnd - typeReference.sourceStart + 1);
 			name.index = 1;
 			if (this.resolveBindings) {
@@ -3255,7 +3272,7 @@ class ASTConverter {
 			name = setQualifiedNameNameAndSourceRanges(tokens, positions, node);
 		} else {
 			name = new SimpleName(this.ast);
-			((SimpleName)name).internalSetIdentifier(new String(tokens[0]));
+			((SimpleName)name).internalSetIdentifier(identifier(tokens[0]));
 			final int start = (int)(positions[0]>>>32);
 			final int end = (int)(positions[0] & 0xFFFFFFFF);
 			name.setSourceRange(start, end - start + 1);
@@ -3277,7 +3294,7 @@ class ASTConverter {
 			packageDeclaration.setName(setQualifiedNameNameAndSourceRanges(tokens, positions, importReference));
 		} else {
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(tokens[0]));
+			name.internalSetIdentifier(identifier(tokens[0]));
 			int start = (int)(positions[0]>>>32);
 			int end = (int)(positions[length - 1] & 0xFFFFFFFF);
 			name.setSourceRange(start, end - start + 1);
@@ -3338,7 +3355,7 @@ class ASTConverter {
 		final EnumDeclaration enumDeclaration2 = new EnumDeclaration(this.ast);
 		setModifiers(enumDeclaration2, typeDeclaration);
 		final SimpleName typeName = new SimpleName(this.ast);
-		typeName.internalSetIdentifier(new String(typeDeclaration.name));
+		typeName.internalSetIdentifier(identifier(typeDeclaration.name));
 		typeName.setSourceRange(typeDeclaration.sourceStart, typeDeclaration.sourceEnd - typeDeclaration.sourceStart + 1);
 		enumDeclaration2.setName(typeName);
 		enumDeclaration2.setSourceRange(typeDeclaration.declarationSourceStart, typeDeclaration.bodyEnd - typeDeclaration.declarationSourceStart + 1);
@@ -3532,7 +3549,7 @@ class ASTConverter {
 		final SingleVariableDeclaration variableDecl = new SingleVariableDeclaration(this.ast);
 		setModifiers(variableDecl, localDeclaration);
 		final SimpleName name = new SimpleName(this.ast);
-		name.internalSetIdentifier(new String(localDeclaration.name));
+		name.internalSetIdentifier(identifier(localDeclaration.name));
 		int start = localDeclaration.sourceStart;
 		int nameEnd = localDeclaration.sourceEnd;
 		name.setSourceRange(start, nameEnd - start + 1);
@@ -3580,7 +3597,7 @@ class ASTConverter {
 	protected VariableDeclarationFragment convertToVariableDeclarationFragment(org.eclipse.jdt.internal.compiler.ast.FieldDeclaration fieldDeclaration) {
 		final VariableDeclarationFragment variableDeclarationFragment = new VariableDeclarationFragment(this.ast);
 		final SimpleName name = new SimpleName(this.ast);
-		name.internalSetIdentifier(new String(fieldDeclaration.name));
+		name.internalSetIdentifier(identifier(fieldDeclaration.name));
 		name.setSourceRange(fieldDeclaration.sourceStart, fieldDeclaration.sourceEnd - fieldDeclaration.sourceStart + 1);
 		variableDeclarationFragment.setName(name);
 		int start = fieldDeclaration.sourceEnd;
@@ -3624,7 +3641,7 @@ class ASTConverter {
 	protected VariableDeclarationFragment convertToVariableDeclarationFragment(org.eclipse.jdt.internal.compiler.ast.LocalDeclaration localDeclaration) {
 		final VariableDeclarationFragment variableDeclarationFragment = new VariableDeclarationFragment(this.ast);
 		final SimpleName name = new SimpleName(this.ast);
-		name.internalSetIdentifier(new String(localDeclaration.name));
+		name.internalSetIdentifier(identifier(localDeclaration.name));
 		name.setSourceRange(localDeclaration.sourceStart, localDeclaration.sourceEnd - localDeclaration.sourceStart + 1);
 		variableDeclarationFragment.setName(name);
 		int start = localDeclaration.sourceEnd;
@@ -3840,7 +3857,7 @@ class ASTConverter {
 			} else if (typeReference instanceof ParameterizedSingleTypeReference) {
 				ParameterizedSingleTypeReference parameterizedSingleTypeReference = (ParameterizedSingleTypeReference) typeReference;
 				final SimpleName simpleName = new SimpleName(this.ast);
-				simpleName.internalSetIdentifier(new String(name));
+				simpleName.internalSetIdentifier(identifier(name));
 				int[] positions = retrieveEndOfElementTypeNamePosition(sourceStart < annotationsEnd ? annotationsEnd : sourceStart, sourceStart + length);
 				int end = positions[1];
 				if (end == -1) {
@@ -3896,7 +3913,7 @@ class ASTConverter {
 				}
 			} else {
 				final SimpleName simpleName = new SimpleName(this.ast);
-				simpleName.internalSetIdentifier(new String(name));
+				simpleName.internalSetIdentifier(identifier(name));
 				// we need to search for the starting position of the first brace in order to set the proper length
 				// PR http://dev.eclipse.org/bugs/show_bug.cgi?id=10759
 				int[] positions = retrieveEndOfElementTypeNamePosition(sourceStart < annotationsEnd ? annotationsEnd : sourceStart, sourceStart + length);
@@ -4250,7 +4267,7 @@ class ASTConverter {
 
 	private SimpleName createSimpleName(TypeReference typeReference, long[] positions, char[][] tokens, int index) {
 		final SimpleName simpleName = new SimpleName(this.ast);
-		simpleName.internalSetIdentifier(new String(tokens[index]));
+		simpleName.internalSetIdentifier(identifier(tokens[index]));
 		recordPendingNameScopeResolution(simpleName);
 		int start = (int) (positions[index] >>> 32);
 		int end = (int) positions[index];
@@ -5790,14 +5807,14 @@ class ASTConverter {
 	protected QualifiedName setQualifiedNameNameAndSourceRanges(char[][] typeName, long[] positions, org.eclipse.jdt.internal.compiler.ast.ASTNode node) {
 	    int length = typeName.length;
 		final SimpleName firstToken = new SimpleName(this.ast);
-		firstToken.internalSetIdentifier(new String(typeName[0]));
+		firstToken.internalSetIdentifier(identifier(typeName[0]));
 		firstToken.index = 1;
 		int start0 = (int)(positions[0]>>>32);
 		int start = start0;
 		int end = (int)(positions[0] & 0xFFFFFFFF);
 		firstToken.setSourceRange(start, end - start + 1);
 		final SimpleName secondToken = new SimpleName(this.ast);
-		secondToken.internalSetIdentifier(new String(typeName[1]));
+		secondToken.internalSetIdentifier(identifier(typeName[1]));
 		secondToken.index = 2;
 		start = (int)(positions[1]>>>32);
 		end = (int)(positions[1] & 0xFFFFFFFF);
@@ -5818,7 +5835,7 @@ class ASTConverter {
 		SimpleName newPart = null;
 		for (int i = 2; i < length; i++) {
 			newPart = new SimpleName(this.ast);
-			newPart.internalSetIdentifier(new String(typeName[i]));
+			newPart.internalSetIdentifier(identifier(typeName[i]));
 			newPart.index = i + 1;
 			start = (int)(positions[i]>>>32);
 			end = (int)(positions[i] & 0xFFFFFFFF);
@@ -5847,14 +5864,14 @@ class ASTConverter {
 	protected QualifiedName setQualifiedNameNameAndSourceRanges(char[][] typeName, long[] positions, int endingIndex, org.eclipse.jdt.internal.compiler.ast.TypeReference node) {
  		int length = endingIndex + 1;
 		final SimpleName firstToken = new SimpleName(this.ast);
-		firstToken.internalSetIdentifier(new String(typeName[0]));
+		firstToken.internalSetIdentifier(identifier(typeName[0]));
 		firstToken.index = 1;
 		int start0 = (int)(positions[0]>>>32);
 		int start = start0;
 		int end = (int) positions[0];
 		firstToken.setSourceRange(start, end - start + 1);
 		final SimpleName secondToken = new SimpleName(this.ast);
-		secondToken.internalSetIdentifier(new String(typeName[1]));
+		secondToken.internalSetIdentifier(identifier(typeName[1]));
 		secondToken.index = 2;
 		start = (int)(positions[1]>>>32);
 		end = (int) positions[1];
@@ -5875,7 +5892,7 @@ class ASTConverter {
 		SimpleName newPart = null;
 		for (int i = 2; i < length; i++) {
 			newPart = new SimpleName(this.ast);
-			newPart.internalSetIdentifier(new String(typeName[i]));
+			newPart.internalSetIdentifier(identifier(typeName[i]));
 			newPart.index = i + 1;
 			start = (int)(positions[i]>>>32);
 			end = (int) positions[i];
@@ -5911,7 +5928,7 @@ class ASTConverter {
 		} else {
 			SingleTypeReference singleTypeReference = (SingleTypeReference) typeReference;
 			final SimpleName name = new SimpleName(this.ast);
-			name.internalSetIdentifier(new String(singleTypeReference.token));
+			name.internalSetIdentifier(identifier(singleTypeReference.token));
 			int start = singleTypeReference.sourceStart;
 			int end = singleTypeReference.sourceEnd;
 			name.setSourceRange(start, end - start + 1);
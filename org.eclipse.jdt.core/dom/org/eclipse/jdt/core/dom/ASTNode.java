@@ -1339,9 +1339,12 @@ public abstract class ASTNode {
 
 		/**
 		 * The underlying list in which the nodes of this list are
-		 * stored (element type: {@link ASTNode}).
+		 * stored (element type: {@link ASTNode}), or <code>null</code>
+		 * if no node was ever added to this list.
 		 * <p>
-		 * Be stingy on storage - assume that list will be empty.
+		 * Be stingy on storage - assume that list will be empty. Most lists
+		 * of a converted AST (modifiers, type parameters, thrown exceptions,
+		 * extra dimensions...) never get any element.
 		 * </p>
 		 * <p>
 		 * This field declared default visibility (rather than private)
@@ -1349,7 +1352,7 @@ public abstract class ASTNode {
 		 * a synthetic accessor method.
 		 * </p>
 		 */
-		ArrayList store = new ArrayList(0);
+		ArrayList store = null;
 
 		/**
 		 * The property descriptor for this list.
@@ -1372,12 +1375,12 @@ public abstract class ASTNode {
 
 			@Override
 			public boolean hasNext() {
-				return this.position < NodeList.this.store.size();
+				return this.position < NodeList.this.size();
 			}
 
 			@Override
 			public Object next() {
-				Object result = NodeList.this.store.get(this.position);
+				Object result = NodeList.this.get(this.position);
 				this.position++;
 				return result;
 		    }
@@ -1433,11 +1436,14 @@ public abstract class ASTNode {
 
 		@Override
 		public int size() {
-			return this.store.size();
+			return this.store == null ? 0 : this.store.size();
 		}
 
 		@Override
 		public Object get(int index) {
+			if (this.store == null) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
 			return this.store.get(index);
 		}
 
@@ -1452,7 +1458,7 @@ public abstract class ASTNode {
 			}
 			// delink old child from parent, and link new child to parent
 			ASTNode newChild = (ASTNode) element;
-			ASTNode oldChild = (ASTNode) this.store.get(index);
+			ASTNode oldChild = (ASTNode) get(index);
 			if (oldChild == newChild) {
 				return oldChild;
 			}
@@ -1485,7 +1491,9 @@ public abstract class ASTNode {
 			ASTNode.checkNewChild(ASTNode.this, newChild, this.propertyDescriptor.cycleRisk, this.propertyDescriptor.elementType);
 			ASTNode.this.ast.preAddChildEvent(ASTNode.this, newChild, this.propertyDescriptor);
 
-
+			if (this.store == null) {
+				this.store = new ArrayList(1);
+			}
 			this.store.add(index, element);
 			updateCursors(index, +1);
 			// n.b. setParent will call ast.modifying()
@@ -1500,7 +1508,7 @@ public abstract class ASTNode {
 				throw new IllegalArgumentException("AST node cannot be modified"); //$NON-NLS-1$
 			}
 			// delink old child from parent
-			ASTNode oldChild = (ASTNode) this.store.get(index);
+			ASTNode oldChild = (ASTNode) get(index);
 			if ((oldChild.typeAndFlags & PROTECT) != 0) {
 				// old child is protected => cannot be unparented
 				throw new IllegalArgumentException("AST node cannot be modified"); //$NON-NLS-1$
@@ -1591,6 +1599,7 @@ public abstract class ASTNode {
 	     * <li>1 object header for the NodeList instance</li>
 	     * <li>5 4-byte fields of the NodeList instance</li>
 	     * <li>0 for cursors since null unless walk in progress</li>
+	     * <li>0 for the store since null unless a node was added</li>
 	     * <li>1 object header for the ArrayList instance</li>
 	     * <li>2 4-byte fields of the ArrayList instance</li>
 	     * <li>1 object header for an Object[] instance</li>
@@ -1601,8 +1610,10 @@ public abstract class ASTNode {
 		 */
 		int memSize() {
 			int result = HEADERS + 5 * 4;
-			result += HEADERS + 2 * 4;
-			result += HEADERS + 4 * size();
+			if (this.store != null) {
+				result += HEADERS + 2 * 4;
+				result += HEADERS + 4 * size();
+			}
 			return result;
 		}
 
@@ -2898,6 +2909,10 @@ public abstract class ASTNode {
 	 *    if none
 	 */
 	final void acceptChildren(ASTVisitor visitor, ASTNode.NodeList children) {
+		if (children.size() == 0) {
+			// nothing to visit, don't allocate a cursor
+			return;
+		}
 		// use a cursor to keep track of where we are up to
 		// (the list may be changing under foot)
 		NodeList.Cursor cursor = children.newCursor();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2010 IBM Corporation and others.
+ * Copyright (c) 2005, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -82,6 +82,37 @@ public abstract class ASTRequestor {
 		// do nothing
 	}
 
+	/**
+	 * Returns whether the bindings of the ASTs passed to {@link #acceptAST(ICompilationUnit, CompilationUnit) acceptAST}
+	 * are shared across the ASTs of the batch.
+	 * <p>
+	 * When they are, the same element has the same binding in all the ASTs of the batch, and the tables
+	 * that map elements to their bindings are kept until the batch ends. Through their bindings, all the
+	 * ASTs of the batch then remain in memory until it ends, even when this requestor no longer
+	 * references them.
+	 * </p>
+	 * <p>
+	 * When they are not, these tables are released each time <code>acceptAST</code> returns. An AST
+	 * that this requestor no longer references can then be garbage collected while the remaining
+	 * compilation units are processed, which keeps the memory used by large batches bounded. The ASTs
+	 * and their bindings remain usable, but the bindings of different ASTs for the same element
+	 * are no longer identical: they must be compared with {@link IBinding#isEqualTo(IBinding)}
+	 * or {@link IBinding#getKey()}.
+	 * </p>
+	 * <p>
+	 * The default implementation of this method returns <code>true</code>.
+	 * Clients that are done with each AST once <code>acceptAST</code> returns may override it to
+	 * return <code>false</code>.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the bindings are shared across the ASTs of the batch,
+	 * <code>false</code> if they are only shared within each AST
+	 * @since 3.18
+	 */
+	public boolean sharesBindingsAcrossASTs() {
+		return true;
+	}
+
 	/**
 	 * Resolves bindings for the given binding keys.
 	 * The given binding keys must have been obtained earlier
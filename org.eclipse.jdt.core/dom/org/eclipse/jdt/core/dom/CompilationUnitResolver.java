@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -74,6 +74,7 @@ import org.eclipse.jdt.internal.core.SourceTypeElementInfo;
 import org.eclipse.jdt.internal.core.util.BindingKeyResolver;
 import org.eclipse.jdt.internal.core.util.CommentRecorderParser;
 import org.eclipse.jdt.internal.core.util.DOMFinder;
+import org.eclipse.jdt.internal.core.util.MethodBodyParser;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
 class CompilationUnitResolver extends Compiler {
@@ -84,6 +85,11 @@ class CompilationUnitResolver extends Compiler {
 	public static final int BINDING_RECOVERY = 0x10;
 	public static final int INCLUDE_RUNNING_VM_BOOTCLASSPATH = 0x20;
 
+	/*
+	 * Number of units whose method bodies are parsed in parallel ahead of their resolution
+	 */
+	static final int PARSE_WINDOW = 64;
+
 	/* A list of int */
 	static class IntArrayList {
 		public int[] list = new int[5];
@@ -120,6 +126,21 @@ class CompilationUnitResolver extends Compiler {
 	 */
 	boolean fromJavaProject;
 
+	/*
+	 * Units before this index already had their method bodies parsed by parseMethodBodies(int)
+	 */
+	private int methodBodiesParsedUpTo;
+
+	/*
+	 * Parses method bodies in parallel for the whole batch, null until first needed
+	 */
+	private MethodBodyParser methodBodyParser;
+
+	/*
+	 * Whether parseMethodBodies(int) uses worker threads, unless the jdt.compiler.useSingleThread system property is set
+	 */
+	private boolean parseMethodBodiesInParallel;
+
 	/**
 	 * Answer a new CompilationUnitVisitor using the given name environment and compiler options.
 	 * The environment and options will be in effect for the lifetime of the compiler.
@@ -168,6 +189,9 @@ class CompilationUnitResolver extends Compiler {
 		this.hasCompilationAborted = false;
 		this.monitor =monitor;
 		this.fromJavaProject = fromJavaProject;
+		// only method bodies are parsed by worker threads: the units are still read by this thread (useSingleThread stays true)
+		String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
+		this.parseMethodBodiesInParallel = setting == null || !setting.equals("true"); //$NON-NLS-1$
 	}
 
 	/*
@@ -905,6 +929,7 @@ class CompilationUnitResolver extends Compiler {
 					break;
 				}
 				unit = this.unitsToProcess[i];
+				parseMethodBodies(i);
 				try {
 					super.process(unit, i); // this.process(...) is optimized to not process already known units
 
@@ -931,6 +956,11 @@ class CompilationUnitResolver extends Compiler {
 
 						// pass it to requestor
 						astRequestor.acceptAST(source, compilationUnit);
+						if (!astRequestor.sharesBindingsAcrossASTs()) {
+							// the tables hold the bindings of the AST, and through them the AST: release them so that the
+							// AST can be collected once the requestor drops it
+							this.bindingTables = new DefaultBindingResolver.BindingTables();
+						}
 
 						worked(1);
 
@@ -988,6 +1018,10 @@ class CompilationUnitResolver extends Compiler {
 		} finally {
 			// disconnect ourselves from ast requestor
 			astRequestor.compilationUnitResolver = null;
+			if (this.methodBodyParser != null) {
+				this.methodBodyParser.shutdown();
+				this.methodBodyParser = null;
+			}
 		}
 	}
 
@@ -1043,6 +1077,7 @@ class CompilationUnitResolver extends Compiler {
 					break;
 				}
 				unit = this.unitsToProcess[i];
+				parseMethodBodies(i);
 				try {
 					super.process(unit, i); // this.process(...) is optimized to not process already known units
 
@@ -1069,6 +1104,11 @@ class CompilationUnitResolver extends Compiler {
 
 						// pass it to requestor
 						astRequestor.acceptAST(new String(source.getFileName()), compilationUnit);
+						if (!astRequestor.sharesBindingsAcrossASTs()) {
+							// the tables hold the bindings of the AST, and through them the AST: release them so that the
+							// AST can be collected once the requestor drops it
+							this.bindingTables = new DefaultBindingResolver.BindingTables();
+						}
 
 						worked(1);
 
@@ -1126,6 +1166,10 @@ class CompilationUnitResolver extends Compiler {
 		} finally {
 			// disconnect ourselves from ast requestor
 			astRequestor.compilationUnitResolver = null;
+			if (this.methodBodyParser != null) {
+				this.methodBodyParser.shutdown();
+				this.methodBodyParser = null;
+			}
 		}
 	}
 
@@ -1301,6 +1345,19 @@ class CompilationUnitResolver extends Compiler {
 			generateCode);
 	}
 
+	/*
+	 * Parses the method bodies of the units about to be processed using several threads, so that
+	 * process(...) only needs to resolve them. The threads are shared by all the windows of the batch.
+	 */
+	private void parseMethodBodies(int unitIndex) {
+		if (!this.parseMethodBodiesInParallel || unitIndex < this.methodBodiesParsedUpTo) return;
+		int end = Math.min(this.totalUnits, unitIndex + PARSE_WINDOW);
+		this.methodBodiesParsedUpTo = end;
+		if (this.methodBodyParser == null)
+			this.methodBodyParser = new MethodBodyParser(this.problemReporter, false, "Compilation Unit Resolver Parsing Task"); //$NON-NLS-1$
+		this.methodBodyParser.parse(this.unitsToProcess, unitIndex, end); // rethrows in this thread, e.g. an AbortCompilation on cancel
+	}
+
 	boolean resolvedRequestedSourcesAndKeys(int unitIndexToProcess) {
 		if (unitIndexToProcess < this.requestedSources.size() && unitIndexToProcess < this.requestedKeys.size())
 			return false; // must process at least this many units before checking to see if all are done
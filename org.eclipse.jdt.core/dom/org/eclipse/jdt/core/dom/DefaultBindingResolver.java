@@ -556,7 +556,7 @@ class DefaultBindingResolver extends BindingResolver {
 		}
 		Object key =  new AnnotationIdentityBinding(internalInstance);
 		IAnnotationBinding newDomInstance = new AnnotationBinding(internalInstance, this);
-		IAnnotationBinding domInstance = (IAnnotationBinding) ((ConcurrentHashMap)this.bindingTables.compilerAnnotationBindingsToASTBindings).putIfAbsent(key, newDomInstance);
+		IAnnotationBinding domInstance = (IAnnotationBinding) this.bindingTables.compilerAnnotationBindingsToASTBindings.putIfAbsent(key, newDomInstance);
 		return domInstance != null ? domInstance : newDomInstance;
 	}
 
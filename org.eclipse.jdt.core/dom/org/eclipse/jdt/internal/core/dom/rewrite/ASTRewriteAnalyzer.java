@@ -18,6 +18,7 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import org.eclipse.core.runtime.Assert;
@@ -154,6 +155,7 @@ public final class ASTRewriteAnalyzer extends ASTVisitor {
 	private final NodeInfoStore nodeInfos;
 	private final TargetSourceRangeComputer extendedSourceRangeComputer;
 	private final LineCommentEndOffsets lineCommentEndOffsets;
+	private final Set nodesWithChangedSubtree; // null if all nodes have to be visited
 	
 	private int beforeRequiredSpaceIndex = -1;
 	
@@ -199,6 +201,7 @@ public final class ASTRewriteAnalyzer extends ASTVisitor {
 
 		this.extendedSourceRangeComputer = extendedSourceRangeComputer;
 		this.lineCommentEndOffsets= new LineCommentEndOffsets(comments);
+		this.nodesWithChangedSubtree= eventStore.getNodesWithChangedSubtree();
 		
 		this.options = options;
 		
@@ -233,7 +236,7 @@ public final class ASTRewriteAnalyzer extends ASTVisitor {
 							this.recoveryScannerData);
 			}
 			scanner.setSource(this.content);
-			this.tokenScanner= new TokenScanner(scanner);
+			this.tokenScanner= new TokenScanner(scanner, this.recoveryScannerData == null /*cacheTokens*/);
 		}
 		return this.tokenScanner;
 	}
@@ -1751,6 +1754,19 @@ public final class ASTRewriteAnalyzer extends ASTVisitor {
 		doCopySourcePostVisit(node, this.sourceCopyEndNodes);
 	}
 
+	@Override
+	public boolean preVisit2(ASTNode node) {
+		if (this.nodesWithChangedSubtree != null && !this.nodesWithChangedSubtree.contains(node)) {
+			// nothing to rewrite, copy or track in this subtree: skip it
+			if (this.beforeRequiredSpaceIndex != -1 && this.beforeRequiredSpaceIndex < getExtendedOffset(node)) {
+				this.beforeRequiredSpaceIndex = -1;
+			}
+			return false;
+		}
+		preVisit(node);
+		return true;
+	}
+
 	@Override
 	public void preVisit(ASTNode node) {
 		// copies, then range marker
@@ -123,6 +123,7 @@ public final class ASTRewriteFormatter {
 	private final RewriteEventStore eventStore;
 
 	private final Map options;
+	private CodeFormatter codeFormatter; // created on first use, shared by all snippets of the rewrite
 
 
 	public ASTRewriteFormatter(NodeInfoStore placeholders, RewriteEventStore eventStore, Map options, String lineDelimiter) {
@@ -199,7 +200,7 @@ public final class ASTRewriteFormatter {
 	}
 
     public String createIndentString(int indentationUnits) {
-    	return ToolFactory.createCodeFormatter(this.options).createIndentationString(indentationUnits);
+    	return getCodeFormatter().createIndentationString(indentationUnits);
     }
 
 	public String getIndentString(String currentLine) {
@@ -241,7 +242,14 @@ public final class ASTRewriteFormatter {
 	}
 
 	public TextEdit formatString(int kind, String string, int offset, int length, int indentationLevel) {
-		return ToolFactory.createCodeFormatter(this.options).format(kind, string, offset, length, indentationLevel, this.lineDelimiter);
+		return getCodeFormatter().format(kind, string, offset, length, indentationLevel, this.lineDelimiter);
+	}
+
+	private CodeFormatter getCodeFormatter() {
+		if (this.codeFormatter == null) {
+			this.codeFormatter= ToolFactory.createCodeFormatter(this.options);
+		}
+		return this.codeFormatter;
 	}
 
 	/**
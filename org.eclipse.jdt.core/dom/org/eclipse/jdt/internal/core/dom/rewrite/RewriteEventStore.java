@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -448,6 +448,40 @@ public final class RewriteEventStore {
 		return false;
 	}
 
+	/**
+	 * Returns the nodes that have events, are the source of a copy or move, or are tracked,
+	 * together with all their ancestors. The subtrees of all other nodes are not affected
+	 * by the rewrite.
+	 * @return the set of nodes, or <code>null</code> if the parent chains cannot be trusted
+	 * because the AST has been modified (see {@link #setNodePropertyMapper(INodePropertyMapper)})
+	 */
+	public Set getNodesWithChangedSubtree() {
+		if (this.nodePropertyMapper != null) {
+			return null;
+		}
+		Set result= Collections.newSetFromMap(new IdentityHashMap());
+		for (Iterator iter= this.eventLookup.keySet().iterator(); iter.hasNext();) {
+			addWithAncestors((ASTNode) iter.next(), result);
+		}
+		if (this.nodeCopySources != null) {
+			for (int i= 0; i < this.nodeCopySources.size(); i++) {
+				addWithAncestors(((CopySourceInfo) this.nodeCopySources.get(i)).getNode(), result);
+			}
+		}
+		if (this.trackedNodes != null) {
+			for (Iterator iter= this.trackedNodes.keySet().iterator(); iter.hasNext();) {
+				addWithAncestors((ASTNode) iter.next(), result);
+			}
+		}
+		return result;
+	}
+
+	private static void addWithAncestors(ASTNode node, Set nodes) {
+		while (node != null && nodes.add(node)) {
+			node= node.getParent();
+		}
+	}
+
 	public PropertyLocation getPropertyLocation(Object value, int kind) {
 		for (Iterator iter= this.eventLookup.values().iterator(); iter.hasNext();) {
 			List events= (List) iter.next();
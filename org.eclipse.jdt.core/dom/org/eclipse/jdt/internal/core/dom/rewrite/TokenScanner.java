@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.internal.compiler.parser.Scanner;
 import org.eclipse.jdt.internal.compiler.parser.TerminalTokens;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfInt;
 
 /**
  * Wraps a scanner and offers convenient methods for finding tokens
@@ -33,13 +34,32 @@ public class TokenScanner {
 	private final Scanner scanner;
 	private final int endPosition;
 
+	// tokens read from a given offset: key -> int[] {token, start offset, end offset}, null if not cached
+	private final HashtableOfInt tokenCache;
+	// token answered from the cache, the wrapped scanner has not read it yet
+	private int[] cachedToken;
+	private int cachedTokenOffset;
+	private boolean cachedTokenIgnoreComments;
+
 	/**
 	 * Creates a TokenScanner
 	 * @param scanner The scanner to be wrapped
 	 */
 	public TokenScanner(Scanner scanner) {
+		this(scanner, false);
+	}
+
+	/**
+	 * Creates a TokenScanner
+	 * @param scanner The scanner to be wrapped
+	 * @param cacheTokens If set, the tokens read from a given offset are remembered, so that
+	 * looking up the same position again does not scan the source again. Only use this if
+	 * the scanner reads the same tokens each time it is reset to a given offset.
+	 */
+	public TokenScanner(Scanner scanner, boolean cacheTokens) {
 		this.scanner= scanner;
 		this.endPosition= this.scanner.getSource().length - 1;
+		this.tokenCache= cacheTokens ? new HashtableOfInt() : null;
 	}
 
 	/**
@@ -55,6 +75,7 @@ public class TokenScanner {
 	 * @param offset The offset to set
 	 */
 	public void setOffset(int offset) {
+		this.cachedToken= null;
 		this.scanner.resetTo(offset, this.endPosition);
 	}
 
@@ -62,6 +83,9 @@ public class TokenScanner {
 	 * @return Returns the offset after the current token
 	 */
 	public int getCurrentEndOffset() {
+		if (this.cachedToken != null) {
+			return this.cachedToken[2];
+		}
 		return this.scanner.getCurrentTokenEndPosition() + 1;
 	}
 
@@ -69,6 +93,9 @@ public class TokenScanner {
 	 * @return Returns the start offset of the current token
 	 */
 	public int getCurrentStartOffset() {
+		if (this.cachedToken != null) {
+			return this.cachedToken[1];
+		}
 		return this.scanner.getCurrentTokenStartPosition();
 	}
 
@@ -87,6 +114,13 @@ public class TokenScanner {
 	 * or a lexical error was detected while scanning (code LEXICAL_ERROR)
 	 */
 	public int readNext(boolean ignoreComments) throws CoreException {
+		if (this.cachedToken != null) {
+			// continue after a cached token: let the scanner read it first
+			int offset= this.cachedTokenOffset;
+			boolean ignoreCommentsBefore= this.cachedTokenIgnoreComments;
+			setOffset(offset);
+			readNext(ignoreCommentsBefore);
+		}
 		int curr= 0;
 		do {
 			try {
@@ -110,8 +144,22 @@ public class TokenScanner {
 	 * or a lexical error was detected while scanning (code LEXICAL_ERROR)
 	 */
 	public int readNext(int offset, boolean ignoreComments) throws CoreException {
-		setOffset(offset);
-		return readNext(ignoreComments);
+		if (this.tokenCache == null) {
+			setOffset(offset);
+			return readNext(ignoreComments);
+		}
+		int key= (offset + 1) << 2 | (ignoreComments ? 1 : 0) | (this.scanner.fakeInModule ? 2 : 0); // never 0, an empty slot of the table
+		int[] token= (int[]) this.tokenCache.get(key);
+		if (token == null) {
+			setOffset(offset);
+			int curr= readNext(ignoreComments);
+			this.tokenCache.put(key, new int[] { curr, getCurrentStartOffset(), getCurrentEndOffset() });
+			return curr;
+		}
+		this.cachedToken= token;
+		this.cachedTokenOffset= offset;
+		this.cachedTokenIgnoreComments= ignoreComments;
+		return token[0];
 	}
 
 	/**
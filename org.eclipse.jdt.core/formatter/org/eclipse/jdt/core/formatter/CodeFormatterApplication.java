@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2016 IBM Corporation and others.
+ *  Copyright (c) 2005, 2019 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -32,6 +32,7 @@ import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.internal.compiler.env.IModule;
 import org.eclipse.jdt.internal.core.util.Util;
+import org.eclipse.jdt.internal.formatter.ConcurrentFormatter;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
@@ -196,7 +197,7 @@ public class CodeFormatterApplication implements IApplication {
 	 * Recursively format the Java source code that is contained in the
 	 * directory rooted at dir.
 	 */
-	private void formatDirTree(File dir, CodeFormatter codeFormatter) {
+	private void formatDirTree(File dir, ConcurrentFormatter formatter) {
 
 		File[] files = dir.listFiles();
 		if (files == null)
@@ -205,9 +206,9 @@ public class CodeFormatterApplication implements IApplication {
 		for (int i = 0; i < files.length; i++) {
 			File file = files[i];
 			if (file.isDirectory()) {
-				formatDirTree(file, codeFormatter);
+				formatDirTree(file, formatter);
 			} else if (Util.isJavaLikeFileName(file.getPath())) {
-				formatFile(file, codeFormatter);
+				formatter.submit(codeFormatter -> formatFile(file, codeFormatter));
 			}
 		}
 	}
@@ -416,16 +417,19 @@ public class CodeFormatterApplication implements IApplication {
 			System.out.println(Messages.bind(Messages.CommandLineStart));
 		}
 
-		final CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(this.options,
-				ToolFactory.M_FORMAT_EXISTING);
-		// format the list of files and/or directories
-		for (int i = 0, max = filesToFormat.length; i < max; i++) {
-			final File file = filesToFormat[i];
-			if (file.isDirectory()) {
-				formatDirTree(file, codeFormatter);
-			} else if (Util.isJavaLikeFileName(file.getPath())) {
-				formatFile(file, codeFormatter);
+		// format the list of files and/or directories, each thread uses its own code formatter
+		final ConcurrentFormatter formatter = new ConcurrentFormatter(this.options, ToolFactory.M_FORMAT_EXISTING);
+		try {
+			for (int i = 0, max = filesToFormat.length; i < max; i++) {
+				final File file = filesToFormat[i];
+				if (file.isDirectory()) {
+					formatDirTree(file, formatter);
+				} else if (Util.isJavaLikeFileName(file.getPath())) {
+					formatter.submit(codeFormatter -> formatFile(file, codeFormatter));
+				}
 			}
+		} finally {
+			formatter.shutdown();
 		}
 		if (!this.quiet) {
 			System.out.println(Messages.bind(Messages.CommandLineDone));
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.formatter;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.formatter.CodeFormatter;
+
+/**
+ * Runs formatting tasks on several threads. A code formatter keeps state while formatting, so every thread
+ * gets its own formatter, created from the same options.
+ * <p>
+ * Few tasks can be pending: when all threads are busy and the queue is full, the submitting thread runs the
+ * task itself. Clients streaming a large number of sources thus only hold a few of them in memory at a time.
+ * </p>
+ */
+public class ConcurrentFormatter {
+
+	/**
+	 * A formatting task, run with the formatter of the thread that executes it.
+	 */
+	public interface Task {
+		void run(CodeFormatter formatter);
+	}
+
+	private final ThreadLocal<CodeFormatter> formatters;
+	private final ThreadPoolExecutor executor;
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	/**
+	 * Creates a formatter using as many threads as there are available processors.
+	 * @see ToolFactory#createCodeFormatter(Map, int)
+	 */
+	public ConcurrentFormatter(Map<String, String> options, int mode) {
+		this(options, mode, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @see ToolFactory#createCodeFormatter(Map, int)
+	 */
+	public ConcurrentFormatter(Map<String, String> options, int mode, int threadCount) {
+		this.formatters = ThreadLocal.withInitial(() -> ToolFactory.createCodeFormatter(options, mode));
+		int threads = Math.max(1, threadCount);
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(threads * 2),
+				runnable -> {
+					Thread thread = new Thread(runnable, "Java Code Formatter"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	/**
+	 * Schedules the given task. The task may run on the calling thread if all formatting threads are busy.
+	 */
+	public void submit(Task task) {
+		this.executor.execute(() -> {
+			try {
+				task.run(this.formatters.get());
+			} catch (RuntimeException | Error e) {
+				this.failure.compareAndSet(null, e);
+			}
+		});
+	}
+
+	/**
+	 * Waits for all submitted tasks to be done, then stops the formatting threads.
+	 *
+	 * @throws RuntimeException the first exception thrown by a task, if any
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void shutdown() throws InterruptedException {
+		this.executor.shutdown();
+		try {
+			while (!this.executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				// wait for pending tasks
+			}
+		} finally {
+			this.formatters.remove(); // the calling thread may have run some tasks
+		}
+		Throwable e = this.failure.get();
+		if (e instanceof RuntimeException)
+			throw (RuntimeException) e;
+		if (e instanceof Error)
+			throw (Error) e;
+	}
+}
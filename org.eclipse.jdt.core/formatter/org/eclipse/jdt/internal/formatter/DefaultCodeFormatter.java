@@ -37,14 +37,20 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IModuleDescription;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
 import org.eclipse.jdt.core.dom.Comment;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Initializer;
 import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
@@ -312,6 +318,11 @@ public class DefaultCodeFormatter extends CodeFormatter {
 
 	private ASTNode parseSourceCode(int kind) {
 		kind = kind & K_MASK;
+		if (kind == K_COMPILATION_UNIT) {
+			ASTNode astNode = parseMemberOfRegions();
+			if (astNode != null)
+				return astNode;
+		}
 		if (kind != K_UNKNOWN) {
 			ASTNode astNode = createParser(kind).createAST(null);
 			if (kind == K_COMPILATION_UNIT || kind == K_MODULE_INFO)
@@ -331,6 +342,40 @@ public class DefaultCodeFormatter extends CodeFormatter {
 		return null;
 	}
 
+	/**
+	 * Parses the compilation unit with only the statements of the method or initializer that contains all the
+	 * format regions. Everything outside the regions keeps its original layout, so the unparsed method bodies
+	 * don't need to be prepared. Returns null if the regions are not inside a single method or initializer,
+	 * or if formatter tags may disable formatting across members: the whole unit must be parsed then.
+	 */
+	private ASTNode parseMemberOfRegions() {
+		if (this.workingOptions.use_tags && this.workingOptions.disabling_tag != null
+				&& CharOperation.indexOf(this.workingOptions.disabling_tag, this.sourceArray, true) != -1)
+			return null;
+		int start = this.formatRegions.get(0).getOffset();
+		IRegion lastRegion = this.formatRegions.get(this.formatRegions.size() - 1);
+		int end = lastRegion.getOffset() + lastRegion.getLength();
+		if (end - start > this.sourceArray.length / 2)
+			return null; // most of the unit has to be parsed anyway
+
+		ASTParser parser = createParser(K_COMPILATION_UNIT);
+		parser.setFocalPosition(start);
+		ASTNode unit = parser.createAST(null);
+
+		// the parser has only parsed the statements of the outermost member that is not a type
+		BodyDeclaration member = null;
+		for (ASTNode node = NodeFinder.perform(unit, start, 0); node != null; node = node.getParent()) {
+			if (node instanceof BodyDeclaration && !(node instanceof AbstractTypeDeclaration)
+					&& node.getParent() instanceof AbstractTypeDeclaration)
+				member = (BodyDeclaration) node;
+		}
+		if (!(member instanceof MethodDeclaration || member instanceof Initializer))
+			return null;
+		if (start < member.getStartPosition() || end > member.getStartPosition() + member.getLength())
+			return null;
+		return unit;
+	}
+
 	private ASTParser createParser(int kind) {
 		ASTParser parser = ASTParser.newParser(AST.JLS12);
 
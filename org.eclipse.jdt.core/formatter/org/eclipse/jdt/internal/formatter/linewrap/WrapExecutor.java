@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 Mateusz Matela and others.
+ * Copyright (c) 2014, 2019 Mateusz Matela and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import static org.eclipse.jdt.internal.compiler.parser.TerminalTokens.TokenNameW
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 
@@ -250,6 +251,7 @@ public class WrapExecutor {
 			} else if (this.stack.isEmpty()) {
 				this.initialIndent = token.getIndent();
 				WrapExecutor.this.wrapSearchResults.clear();
+				resetSearchBudget();
 			}
 
 			this.currentIndent = this.stack.isEmpty() ? this.initialIndent : this.stack.peek().getIndent();
@@ -353,8 +355,19 @@ public class WrapExecutor {
 
 	private final static int[] EMPTY_ARRAY = {};
 
+	/**
+	 * Maximum number of line states analyzed while looking for wraps of a single statement. Above that, the search
+	 * only considers the last possible wrap in each line. As the limit does not depend on time, the result is the same
+	 * on every run. Can be changed with the <code>jdt.formatter.wrapSearchStates</code> system property, and by tests.
+	 */
+	public static int SEARCH_STATE_LIMIT = Integer.getInteger("jdt.formatter.wrapSearchStates", 200000); //$NON-NLS-1$
+
 	final HashMap<WrapInfo, WrapResult> wrapSearchResults = new HashMap<WrapInfo, WrapResult>();
 	private final ArrayDeque<WrapInfo> wrapSearchStack = new ArrayDeque<>();
+	private final IdentityHashMap<WrapPolicy, Double> policyPenalties = new IdentityHashMap<>();
+
+	private int searchedStates;
+	private boolean searchBudgetExceeded;
 
 	private final LineAnalyzer lineAnalyzer;
 
@@ -374,6 +387,21 @@ public class WrapExecutor {
 		this.tm.traverse(0, new NLSTagHandler());
 	}
 
+	void resetSearchBudget() {
+		this.searchedStates = 0;
+		this.searchBudgetExceeded = false;
+	}
+
+	private void checkSearchBudget() {
+		if (this.searchBudgetExceeded)
+			return;
+		this.searchedStates++;
+		if (this.searchedStates > SEARCH_STATE_LIMIT) {
+			// fall back to the best wraps found so far and a greedy search for the remaining lines
+			this.searchBudgetExceeded = true;
+		}
+	}
+
 	WrapResult findWrapsCached(final int startTokenIndex, final int indent) {
 		this.wrapInfoTemp.wrapTokenIndex = startTokenIndex;
 		this.wrapInfoTemp.indent = indent;
@@ -435,6 +463,7 @@ public class WrapExecutor {
 	 * Calls itself recursively to get results for wrapped sub-lines.  
 	 */
 	private WrapResult findWraps(int wrapTokenIndex, int indent) {
+		checkSearchBudget();
 		final int lastIndex = this.lineAnalyzer.analyzeLine(wrapTokenIndex, indent);
 		final boolean nextLineWrapped = this.lineAnalyzer.isNextLineWrapped;
 		final boolean wrapRequired = this.lineAnalyzer.lineExceeded || nextLineWrapped;
@@ -501,10 +530,12 @@ public class WrapExecutor {
 			int nextWrapIndent = getWrapIndent(token);
 			WrapResult nextWrapResult = findWrapsCached(i, nextWrapIndent);
 			cacheMiss |= nextWrapResult == null;
-			if (cacheMiss)
+			if (cacheMiss) {
+				if (this.searchBudgetExceeded)
+					break;
 				continue;
+			}
 
-			double totalPenalty = getWrapPenalty(wrapTokenIndex, indent, i, nextWrapIndent, nextWrapResult);
 			int totalExtraPenalty = nextWrapResult.extraPenalty + extraLines;
 			if (lineOverflow > 0) {
 				int position = this.tm.getPositionInLine(i - 1);
@@ -515,7 +546,14 @@ public class WrapExecutor {
 			boolean isBetter = totalExtraPenalty < bestExtraPenalty
 					|| i == activeTopPriorityWrap
 					|| (bestNextWrap < 0 && wrapRequired);
-			if (!isBetter && totalExtraPenalty == bestExtraPenalty)
+			if (!isBetter && totalExtraPenalty > bestExtraPenalty) {
+				// dominated by the best wrap so far, no need to calculate the penalty
+				if (this.searchBudgetExceeded)
+					break;
+				continue;
+			}
+			double totalPenalty = getWrapPenalty(wrapTokenIndex, indent, i, nextWrapIndent, nextWrapResult);
+			if (!isBetter)
 				isBetter = totalPenalty < bestTotalPenalty || bestTotalPenalty == Double.MAX_VALUE;
 			if (isBetter) {
 				bestTotalPenalty = totalPenalty;
@@ -526,6 +564,8 @@ public class WrapExecutor {
 				if (!this.options.wrap_outer_expressions_when_nested || i == activeTopPriorityWrap || nextLineWrapped)
 					break;
 			}
+			if (this.searchBudgetExceeded)
+				break;
 		}
 		if (cacheMiss)
 			return null;
@@ -600,7 +640,12 @@ public class WrapExecutor {
 	}
 
 	private double getPenalty(WrapPolicy policy) {
-		return Math.exp(policy.structureDepth) * policy.penaltyMultiplier;
+		Double penalty = this.policyPenalties.get(policy);
+		if (penalty == null) {
+			penalty = Math.exp(policy.structureDepth) * policy.penaltyMultiplier;
+			this.policyPenalties.put(policy, penalty);
+		}
+		return penalty;
 	}
 
 	boolean checkForceWrap(Token token, int index, int currentIndent) {
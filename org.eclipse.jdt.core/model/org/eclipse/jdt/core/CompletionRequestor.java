@@ -76,6 +76,8 @@ public abstract class CompletionRequestor {
 
 	private boolean requireExtendedContext = false;
 
+	private long expensiveProposalsTimeout = 0;
+
 	/**
 	 * Creates a new completion requestor.
 	 * The requestor is interested in all kinds of completion
@@ -285,6 +287,24 @@ public abstract class CompletionRequestor {
 		// do nothing
 	}
 
+	/**
+	 * Notification sent once all the completion proposals that are cheap to compute have
+	 * been reported, such as the local variables and the members of the receiver, and before
+	 * computing proposals that need to search the indexes or to guess missing types.
+	 * It is not sent if there are no such proposals to compute.
+	 * <p>
+	 * The default implementation of this method does nothing.
+	 * Clients may override, for instance to show the proposals received so far
+	 * while the remaining ones are computed.
+	 * </p>
+	 *
+	 * @see #setExpensiveProposalsTimeout(long)
+	 * @since 3.18
+	 */
+	public void beginReportingExpensiveProposals() {
+		// do nothing
+	}
+
 	/**
 	 * Notification of failure to produce any completions.
 	 * The problem object explains what prevented completing.
@@ -361,6 +381,36 @@ public abstract class CompletionRequestor {
 		this.requireExtendedContext = require;
 	}
 
+	/**
+	 * Returns the time in milliseconds given to the computation of the completion proposals
+	 * that are expensive to compute, or <code>0</code> if it is not limited.
+	 *
+	 * By default this method return <code>0</code>.
+	 *
+	 * @return the timeout in milliseconds, or <code>0</code>
+	 *
+	 * @see #setExpensiveProposalsTimeout(long)
+	 * @since 3.18
+	 */
+	public long getExpensiveProposalsTimeout() {
+		return this.expensiveProposalsTimeout;
+	}
+
+	/**
+	 * Sets the time in milliseconds given to the computation of the completion proposals
+	 * that are expensive to compute, counted from {@link #beginReportingExpensiveProposals()}.
+	 * When it expires, the expensive proposals that are not reported yet are silently dropped
+	 * and the completion ends normally.
+	 *
+	 * @param timeout the timeout in milliseconds, or <code>0</code> to not limit the time
+	 *
+	 * @see #beginReportingExpensiveProposals()
+	 * @since 3.18
+	 */
+	public void setExpensiveProposalsTimeout(long timeout) {
+		this.expensiveProposalsTimeout = timeout;
+	}
+
 	/**
 	 * If this returns true, exclude test sources and dependencies.
 	 * 
@@ -185,6 +185,7 @@ import org.eclipse.jdt.internal.core.JavaModel;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.JavaProject;
 import org.eclipse.jdt.internal.core.PackageFragmentRoot;
+import org.eclipse.jdt.internal.core.ReconcileWorkingCopiesOperation;
 import org.eclipse.jdt.internal.core.Region;
 import org.eclipse.jdt.internal.core.SetContainerOperation;
 import org.eclipse.jdt.internal.core.SetVariablesOperation;
@@ -5838,6 +5839,73 @@ public final class JavaCore extends Plugin {
 			workspace.run(new BatchOperation(action), rule, IWorkspace.AVOID_UPDATE, monitor);
 		}
 	}
+	/**
+	 * Reconciles the given working copies together.
+	 * <p>
+	 * This is similar to calling {@link ICompilationUnit#reconcile(int, int, WorkingCopyOwner, IProgressMonitor)}
+	 * on each working copy, except that the working copies of the same project are resolved together, so that the
+	 * types they depend on are only looked up and resolved once for all of them. Reconciling many related working
+	 * copies this way costs about as much as compiling them together, instead of compiling each of them separately.
+	 * </p><p>
+	 * As when reconciling it alone, a working copy is only resolved if its contents changed and one of its problem
+	 * requestors is active or an AST is wanted, or if {@link ICompilationUnit#FORCE_PROBLEM_DETECTION} is set.
+	 * The problems found in each working copy are reported to its problem requestors, as when reconciling
+	 * the working copy alone, and are also available from its AST through
+	 * {@link org.eclipse.jdt.core.dom.CompilationUnit#getProblems()}. Unlike when reconciling a working copy alone,
+	 * the ASTs are always created with their bindings resolved, even if no problem requestor is active.
+	 * Working copies that are not working copies any longer are ignored.
+	 * </p>
+	 *
+	 * @param workingCopies the working copies to reconcile
+	 * @param astLevel either {@link ICompilationUnit#NO_AST} if no AST is wanted,
+	 * or the {@linkplain org.eclipse.jdt.core.dom.AST#newAST(int) AST API level} of the ASTs wanted
+	 * @param reconcileFlags the given configuration flags, as with
+	 * {@link ICompilationUnit#reconcile(int, int, WorkingCopyOwner, IProgressMonitor)}
+	 * @param owner the owner of working copies that take precedence over the original compilation units,
+	 * or <code>null</code> if the primary working copy owner should be used
+	 * @param parseInParallel whether the method bodies of the working copies may be parsed on several threads
+	 * before they are resolved
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting and cancellation are not desired
+	 * @return the ASTs of the working copies, at the index of each working copy. An entry is <code>null</code>
+	 * if no AST is wanted, or if no AST was created for the working copy, as described in
+	 * {@link ICompilationUnit#reconcile(int, int, WorkingCopyOwner, IProgressMonitor)}.
+	 * @exception JavaModelException if the contents of the original elements
+	 *		cannot be accessed. Reasons include:
+	 * <ul>
+	 * <li> The original Java element does not exist (ELEMENT_DOES_NOT_EXIST)</li>
+	 * </ul>
+	 * @since 3.18
+	 */
+	public static org.eclipse.jdt.core.dom.CompilationUnit[] reconcile(ICompilationUnit[] workingCopies, int astLevel,
+			int reconcileFlags, WorkingCopyOwner owner, boolean parseInParallel, IProgressMonitor monitor) throws JavaModelException {
+		int length = workingCopies.length;
+		org.eclipse.jdt.core.dom.CompilationUnit[] asts = new org.eclipse.jdt.core.dom.CompilationUnit[length];
+		ArrayList<ICompilationUnit> reconciled = new ArrayList<>(length);
+		int[] indexes = new int[length];
+		for (int i = 0; i < length; i++) {
+			if (workingCopies[i].isWorkingCopy()) { // reconciling is not supported on non working copies
+				indexes[reconciled.size()] = i;
+				reconciled.add(workingCopies[i]);
+			}
+		}
+		if (reconciled.isEmpty())
+			return asts;
+		if (owner == null)
+			owner = DefaultWorkingCopyOwner.PRIMARY;
+		ReconcileWorkingCopiesOperation operation = new ReconcileWorkingCopiesOperation(
+				reconciled.toArray(new ICompilationUnit[reconciled.size()]), astLevel, reconcileFlags, owner, parseInParallel);
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		try {
+			manager.cacheZipFiles(operation); // cache zip files for performance (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=134172)
+			operation.runOperation(monitor);
+		} finally {
+			manager.flushZipFiles(operation);
+		}
+		for (int i = 0, count = reconciled.size(); i < count; i++)
+			asts[indexes[i]] = operation.asts[i];
+		return asts;
+	}
 	/**
 	 * Bind a container reference path to some actual containers (<code>IClasspathContainer</code>).
 	 * This API must be invoked whenever changes in container need to be reflected onto the JavaModel.
@@ -19,9 +19,12 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.compiler.IScanner;
 import org.eclipse.jdt.core.compiler.ITerminalSymbols;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
@@ -40,7 +43,9 @@ import org.eclipse.jdt.internal.core.PackageFragment;
 import org.eclipse.jdt.internal.core.util.ClassFileReader;
 import org.eclipse.jdt.internal.core.util.Disassembler;
 import org.eclipse.jdt.internal.core.util.PublicScanner;
+import org.eclipse.jdt.internal.formatter.ConcurrentFormatter;
 import org.eclipse.jdt.internal.formatter.DefaultCodeFormatter;
+import org.eclipse.text.edits.TextEdit;
 
 import java.io.File;
 import java.io.IOException;
@@ -217,6 +222,59 @@ public class ToolFactory {
 		return new DefaultCodeFormatter(currentOptions);
 	}
 
+	/**
+	 * Formats the given sources concurrently. Code formatters are not thread safe, so each thread formats
+	 * with its own code formatter, created as with {@link #createCodeFormatter(Map, int)}. Each source is
+	 * formatted as a whole, with the given kind and an initial indentation level of 0.
+	 *
+	 * @param options the options map to use for formatting, see {@link #createCodeFormatter(Map, int)}.
+	 * 	If set to <code>null</code>, then use the current settings from <code>JavaCore#getOptions</code>.
+	 * @param mode the given mode to modify the given options, see {@link #createCodeFormatter(Map, int)}
+	 * @param kind the kind of the sources, see {@link CodeFormatter#format(int, String, int, int, int, String)}
+	 * @param sources the sources to format
+	 * @param lineSeparator the line separator to use in the formatted sources,
+	 * 	if set to <code>null</code>, then the platform default one will be used.
+	 * @param monitor the progress monitor used to report progress and request cancellation,
+	 * 	or <code>null</code> if none
+	 * @return the text edits describing the changes required to format each source, at the index of the source.
+	 * 	An entry is <code>null</code> if the corresponding source could not be formatted.
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 * @see CodeFormatter#format(int, String, int, int, int, String)
+	 * @since 3.18
+	 */
+	public static TextEdit[] formatSources(Map options, int mode, int kind, String[] sources, String lineSeparator, IProgressMonitor monitor) {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, sources.length);
+		TextEdit[] edits = new TextEdit[sources.length];
+		ConcurrentFormatter formatter = new ConcurrentFormatter(options, mode);
+		try {
+			for (int i = 0; i < sources.length; i++) {
+				if (subMonitor.isCanceled())
+					break;
+				final int index = i;
+				formatter.submit(codeFormatter -> {
+					String source = sources[index];
+					try {
+						edits[index] = codeFormatter.format(kind, source, 0, source.length(), 0, lineSeparator);
+					} catch (RuntimeException e) {
+						// leave a null entry for this source and format the other ones
+						org.eclipse.jdt.internal.core.util.Util.log(e, "Unable to format source " + index); //$NON-NLS-1$
+					}
+				});
+				subMonitor.worked(1);
+			}
+		} finally {
+			try {
+				formatter.shutdown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+		}
+		if (subMonitor.isCanceled())
+			throw new OperationCanceledException();
+		return edits;
+	}
+
 	/**
 	 * Create a classfile bytecode disassembler, able to produce a String representation of a given classfile.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,5 +23,6 @@ public class ASTHolderCUInfo extends CompilationUnitElementInfo {
 	boolean resolveBindings;
 	int reconcileFlags;
 	HashMap problems = null;
+	boolean findProblems = true; // false if only the structure is needed, the problems being found by the caller
 	CompilationUnit ast;
 }
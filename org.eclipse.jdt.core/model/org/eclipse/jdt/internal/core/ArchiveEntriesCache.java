@@ -0,0 +1,376 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.core.util.Util;
+
+/**
+ * The names of the entries of archives, saved in a file per archive in the plug-in state location.
+ * <p>
+ * Opening a {@link JarPackageFragmentRoot} requires the names of all the entries of its archive, and the
+ * level of its class files. Reading them requires opening the archive and creating an object per entry,
+ * which is done again after each restart, and each time the root is closed because the Java model cache
+ * is full. They are thus saved once read from the archive, storing the prefix that a name has in common
+ * with the previous name only once, and read back from the saved file as long as the archive has the
+ * same size and time stamp.
+ * </p>
+ */
+public class ArchiveEntriesCache {
+
+	private static final int VERSION = 1;
+	private static final String DIRECTORY_NAME = "archiveEntries"; //$NON-NLS-1$
+	private static final String FILE_EXTENSION = ".entries"; //$NON-NLS-1$
+
+	/**
+	 * The entries of an archive.
+	 */
+	public static class ArchiveEntries {
+		/**
+		 * The level of the first class file of the archive, as answered by {@link Util#getJdkLevel(Object)}
+		 */
+		public final long classLevel;
+		/**
+		 * The names of the entries in the order of the archive, the names of directory entries ending with a slash
+		 */
+		public final String[] names;
+		// the names sorted for lookups, created on the first lookup
+		private String[] sortedNames;
+
+		ArchiveEntries(long classLevel, String[] names) {
+			this.classLevel = classLevel;
+			this.names = names;
+		}
+
+		/**
+		 * Returns whether the archive has an entry with the given name, or a directory entry with the given name
+		 * followed by a slash, as {@link ZipFile#getEntry(String)} does.
+		 */
+		public boolean hasEntry(String name) {
+			String[] sorted = getSortedNames();
+			if (Arrays.binarySearch(sorted, name) >= 0)
+				return true;
+			int length = name.length();
+			return (length == 0 || name.charAt(length - 1) != '/') && Arrays.binarySearch(sorted, name + '/') >= 0;
+		}
+
+		private synchronized String[] getSortedNames() {
+			if (this.sortedNames == null) {
+				String[] sorted = this.names.clone();
+				Arrays.sort(sorted);
+				this.sortedNames = sorted;
+			}
+			return this.sortedNames;
+		}
+	}
+
+	private File directory;
+
+	/**
+	 * Returns the entries of the archive with the given path, reading them from the archive if they were not
+	 * saved yet or if the archive changed since they were saved.
+	 *
+	 * @throws CoreException if the archive cannot be opened
+	 */
+	public ArchiveEntries getEntries(IPath archivePath) throws CoreException {
+		Object target = JavaModel.getTarget(archivePath, true);
+		File cacheFile = getCacheFile(archivePath);
+		long[] stamps = getStamps(target);
+		if (cacheFile != null && stamps != null) {
+			ArchiveEntries entries = read(cacheFile, archivePath, stamps);
+			if (entries != null)
+				return entries;
+		}
+		ArchiveEntries entries = readArchive(archivePath, target);
+		if (cacheFile != null && stamps != null)
+			write(cacheFile, archivePath, stamps, entries);
+		return entries;
+	}
+
+	/**
+	 * Reads the entries of the given archives that were not saved yet, in parallel, so that the roots
+	 * of these archives are then opened from the saved entries.
+	 * The entries that could not be read are read again when the corresponding roots are opened.
+	 */
+	public void prefetch(IPath[] archivePaths) {
+		ArrayList<IPath> missing = new ArrayList<>();
+		for (int i = 0, length = archivePaths.length; i < length; i++) {
+			IPath archivePath = archivePaths[i];
+			File cacheFile = getCacheFile(archivePath);
+			if (cacheFile == null)
+				return; // the entries cannot be saved
+			long[] stamps = getStamps(JavaModel.getTarget(archivePath, true));
+			if (stamps != null && !isSaved(cacheFile, archivePath, stamps))
+				missing.add(archivePath);
+		}
+		int missingCount = missing.size();
+		int threadsCount = Math.min(missingCount, Runtime.getRuntime().availableProcessors());
+		if (threadsCount < 2)
+			return; // no need to read a single archive ahead of time
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount, runnable -> {
+			Thread thread = new Thread(runnable, "Java Archive Entries Reader"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			ArrayList<Future<Object>> results = new ArrayList<>(missingCount);
+			for (int i = 0; i < missingCount; i++) {
+				IPath archivePath = missing.get(i);
+				results.add(executor.submit(() -> {
+					try {
+						return getEntries(archivePath);
+					} catch (CoreException e) {
+						return null; // reported when the root is opened
+					}
+				}));
+			}
+			for (int i = 0; i < missingCount; i++) {
+				try {
+					results.get(i).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new IllegalStateException(cause);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Deletes the saved entries of the archives that changed or have been deleted since they were saved.
+	 */
+	public void cleanUp() {
+		File cacheDirectory = getDirectory();
+		File[] files = cacheDirectory == null ? null : cacheDirectory.listFiles();
+		if (files == null)
+			return;
+		for (int i = 0, length = files.length; i < length; i++) {
+			File file = files[i];
+			if (file.getName().endsWith(FILE_EXTENSION) && isValid(file))
+				continue;
+			file.delete(); // including the files left by interrupted writes
+		}
+	}
+
+	/**
+	 * Deletes all the saved entries.
+	 */
+	public void reset() {
+		File cacheDirectory = getDirectory();
+		File[] files = cacheDirectory == null ? null : cacheDirectory.listFiles();
+		if (files == null)
+			return;
+		for (int i = 0, length = files.length; i < length; i++)
+			files[i].delete();
+	}
+
+	private synchronized File getDirectory() {
+		if (this.directory == null && Platform.isRunning())
+			this.directory = JavaCore.getPlugin().getStateLocation().append(DIRECTORY_NAME).toFile();
+		return this.directory;
+	}
+
+	/**
+	 * Returns the file in which the entries of the given archive are saved, or null if they cannot be saved.
+	 * Archives whose paths have the same hash code share the same file, which then holds the entries of the last
+	 * archive read.
+	 */
+	public File getCacheFile(IPath archivePath) {
+		File cacheDirectory = getDirectory();
+		if (cacheDirectory == null)
+			return null;
+		return new File(cacheDirectory, Integer.toHexString(archivePath.toPortableString().hashCode()) + FILE_EXTENSION);
+	}
+
+	/*
+	 * Returns the time stamp and size of the given archive, or null if it is not an existing file.
+	 */
+	private static long[] getStamps(Object target) {
+		File file = null;
+		if (target instanceof File) {
+			file = (File) target;
+		} else if (target instanceof IFile) {
+			IPath location = ((IFile) target).getLocation();
+			if (location != null)
+				file = location.toFile();
+		}
+		if (file == null || !file.isFile())
+			return null;
+		long[] stamps = new long[] {file.lastModified(), file.length()};
+		if (stamps[0] == 0)
+			return null; // does not exist
+		return stamps;
+	}
+
+	private static ArchiveEntries readArchive(IPath archivePath, Object target) throws CoreException {
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		ZipFile jar = manager.getZipFile(archivePath);
+		try {
+			long classLevel = Util.getJdkLevel(target);
+			String[] names = new String[jar.size()];
+			int count = 0;
+			for (Enumeration<? extends ZipEntry> e = jar.entries(); e.hasMoreElements();) {
+				String name = e.nextElement().getName();
+				if (count == names.length)
+					System.arraycopy(names, 0, names = new String[count * 2 + 1], 0, count);
+				names[count++] = name;
+			}
+			if (count < names.length)
+				System.arraycopy(names, 0, names = new String[count], 0, count);
+			return new ArchiveEntries(classLevel, names);
+		} finally {
+			manager.closeZipFile(jar);
+		}
+	}
+
+	/*
+	 * Reads the header of a saved file, and answers whether it holds the entries of the given archive
+	 * with the given time stamp and size.
+	 */
+	private static boolean readHeader(DataInputStream in, IPath archivePath, long[] stamps) throws IOException {
+		return in.readInt() == VERSION
+				&& in.readUTF().equals(archivePath.toPortableString())
+				&& in.readLong() == stamps[0]
+				&& in.readLong() == stamps[1];
+	}
+
+	private static boolean isSaved(File cacheFile, IPath archivePath, long[] stamps) {
+		if (!cacheFile.isFile())
+			return false;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			return readHeader(in, archivePath, stamps);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * Answers whether the given saved file holds the entries of an archive that did not change since.
+	 */
+	private static boolean isValid(File cacheFile) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (in.readInt() != VERSION)
+				return false;
+			IPath archivePath = Path.fromPortableString(in.readUTF());
+			long[] stamps = getStamps(JavaModel.getTarget(archivePath, true));
+			return stamps != null && in.readLong() == stamps[0] && in.readLong() == stamps[1];
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static ArchiveEntries read(File cacheFile, IPath archivePath, long[] stamps) {
+		if (!cacheFile.isFile())
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (!readHeader(in, archivePath, stamps))
+				return null;
+			long classLevel = in.readLong();
+			int count = in.readInt();
+			if (count < 0)
+				throw new IOException("Invalid entries count: " + count); //$NON-NLS-1$
+			String[] names = new String[count];
+			StringBuilder name = new StringBuilder();
+			for (int i = 0; i < count; i++) {
+				int prefixLength = in.readUnsignedShort();
+				if (prefixLength > name.length())
+					throw new IOException("Invalid prefix length: " + prefixLength); //$NON-NLS-1$
+				name.setLength(prefixLength);
+				name.append(in.readUTF());
+				names[i] = name.toString();
+			}
+			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
+				System.out.println("(" + Thread.currentThread() + ") [ArchiveEntriesCache.read(...)] Read " + count + " entries of " + archivePath //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						+ " from " + cacheFile); //$NON-NLS-1$
+			}
+			return new ArchiveEntries(classLevel, names);
+		} catch (IOException e) {
+			// the entries are read from the archive again
+			return null;
+		}
+	}
+
+	private static void write(File cacheFile, IPath archivePath, long[] stamps, ArchiveEntries entries) {
+		File tempFile = null;
+		try {
+			File cacheDirectory = cacheFile.getParentFile();
+			cacheDirectory.mkdirs();
+			// write to a temporary file first so that other threads never read a partially written file
+			tempFile = File.createTempFile(cacheFile.getName(), null, cacheDirectory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(VERSION);
+				out.writeUTF(archivePath.toPortableString());
+				out.writeLong(stamps[0]);
+				out.writeLong(stamps[1]);
+				out.writeLong(entries.classLevel);
+				String[] names = entries.names;
+				out.writeInt(names.length);
+				String previous = ""; //$NON-NLS-1$
+				for (int i = 0, length = names.length; i < length; i++) {
+					String name = names[i];
+					int max = Math.min(Math.min(previous.length(), name.length()), 0xFFFF);
+					int prefixLength = 0;
+					while (prefixLength < max && previous.charAt(prefixLength) == name.charAt(prefixLength))
+						prefixLength++;
+					out.writeShort(prefixLength);
+					out.writeUTF(name.substring(prefixLength));
+					previous = name;
+				}
+			}
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			tempFile = null;
+		} catch (IOException e) {
+			// the entries are read from the archive again next time
+			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
+				System.out.println("(" + Thread.currentThread() + ") [ArchiveEntriesCache.write(...)] Unable to save the entries of " + archivePath + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		} finally {
+			if (tempFile != null)
+				tempFile.delete();
+		}
+	}
+}
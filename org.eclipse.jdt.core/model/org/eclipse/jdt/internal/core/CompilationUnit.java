@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -124,20 +124,23 @@ protected boolean buildStructure(OpenableElementInfo info, final IProgressMonito
 	boolean resolveBindings;
 	int reconcileFlags;
 	HashMap problems;
+	boolean findProblems;
 	if (info instanceof ASTHolderCUInfo) {
 		ASTHolderCUInfo astHolder = (ASTHolderCUInfo) info;
 		createAST = astHolder.astLevel != NO_AST;
 		resolveBindings = astHolder.resolveBindings;
 		reconcileFlags = astHolder.reconcileFlags;
 		problems = astHolder.problems;
+		findProblems = astHolder.findProblems;
 	} else {
 		createAST = false;
 		resolveBindings = false;
 		reconcileFlags = 0;
 		problems = null;
+		findProblems = true;
 	}
 
-	boolean computeProblems = perWorkingCopyInfo != null && perWorkingCopyInfo.isActive() && project != null && JavaProject.hasJavaNature(project.getProject());
+	boolean computeProblems = findProblems && perWorkingCopyInfo != null && perWorkingCopyInfo.isActive() && project != null && JavaProject.hasJavaNature(project.getProject());
 	IProblemFactory problemFactory = new DefaultProblemFactory();
 	Map options = project == null ? JavaCore.getOptions() : project.getOptions(true);
 	if (!computeProblems) {
@@ -1154,6 +1157,23 @@ public org.eclipse.jdt.core.dom.CompilationUnit makeConsistent(int astLevel, boo
 		JavaModelManager.getJavaModelManager().abortOnMissingSource.set(null);
 	}
 }
+/*
+ * Makes this working copy consistent without finding nor reporting its problems, as they are found by the caller.
+ */
+public void makeStructureConsistent(int reconcileFlags, IProgressMonitor monitor) throws JavaModelException {
+	if (isConsistent()) return;
+
+	try {
+		JavaModelManager.getJavaModelManager().abortOnMissingSource.set(Boolean.TRUE);
+		ASTHolderCUInfo info = new ASTHolderCUInfo();
+		info.astLevel = NO_AST;
+		info.reconcileFlags = reconcileFlags;
+		info.findProblems = false;
+		openWhenClosed(info, true, monitor);
+	} finally {
+		JavaModelManager.getJavaModelManager().abortOnMissingSource.set(null);
+	}
+}
 /**
  * @see ISourceManipulation#move(IJavaElement, IJavaElement, String, boolean, IProgressMonitor)
  */
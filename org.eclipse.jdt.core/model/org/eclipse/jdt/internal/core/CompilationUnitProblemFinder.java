@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,7 @@ import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.parser.SourceTypeConverter;
 import org.eclipse.jdt.internal.compiler.problem.AbortCompilation;
 import org.eclipse.jdt.internal.core.util.CommentRecorderParser;
+import org.eclipse.jdt.internal.core.util.MethodBodyParser;
 import org.eclipse.jdt.internal.core.util.Util;
 
 /**
@@ -287,21 +288,7 @@ public class CompilationUnitProblemFinder extends Compiler {
 				problemFinder.handleInternalException(e, unit);
 			}
 			if (unit != null) {
-				CompilationResult unitResult = unit.compilationResult;
-				CategorizedProblem[] unitProblems = unitResult.getCUProblems();
-				int length = unitProblems == null ? 0 : unitProblems.length;
-				if (length > 0) {
-					CategorizedProblem[] categorizedProblems = new CategorizedProblem[length];
-					System.arraycopy(unitProblems, 0, categorizedProblems, 0, length);
-					problems.put(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, categorizedProblems);
-				}
-				unitProblems = unitResult.getTasks();
-				length = unitProblems == null ? 0 : unitProblems.length;
-				if (length > 0) {
-					CategorizedProblem[] categorizedProblems = new CategorizedProblem[length];
-					System.arraycopy(unitProblems, 0, categorizedProblems, 0, length);
-					problems.put(IJavaModelMarker.TASK_MARKER, categorizedProblems);
-				}
+				recordProblems(unit, problems);
 				if (NameLookup.VERBOSE) {
 					System.out.println(Thread.currentThread() + " TIME SPENT in NameLoopkup#seekTypesInSourcePackage: " + environment.nameLookup.timeSpentInSeekTypesInSourcePackage + "ms");  //$NON-NLS-1$ //$NON-NLS-2$
 					System.out.println(Thread.currentThread() + " TIME SPENT in NameLoopkup#seekTypesInBinaryPackage: " + environment.nameLookup.timeSpentInSeekTypesInBinaryPackage + "ms");  //$NON-NLS-1$ //$NON-NLS-2$
@@ -312,15 +299,7 @@ public class CompilationUnitProblemFinder extends Compiler {
 			throw e;
 		} catch(RuntimeException e) {
 			// avoid breaking other tools due to internal compiler failure (40334)
-			String lineDelimiter = unitElement.findRecommendedLineSeparator();
-			StringBuffer message = new StringBuffer("Exception occurred during problem detection:");  //$NON-NLS-1$
-			message.append(lineDelimiter);
-			message.append("----------------------------------- SOURCE BEGIN -------------------------------------"); //$NON-NLS-1$
-			message.append(lineDelimiter);
-			message.append(unitElement.getSource());
-			message.append(lineDelimiter);
-			message.append("----------------------------------- SOURCE END -------------------------------------"); //$NON-NLS-1$
-			Util.log(e, message.toString());
+			logFailure(e, unitElement);
 			throw new JavaModelException(e, IJavaModelStatusConstants.COMPILER_FAILURE);
 		} finally {
 			if (environment != null)
@@ -346,6 +325,142 @@ public class CompilationUnitProblemFinder extends Compiler {
 		return process(unitElement, null/*use default Parser*/, workingCopyOwner, problems, creatingAST, reconcileFlags, monitor);
 	}
 
+	/*
+	 * Resolves the given working copies of the same project together, in a single lookup environment, so that the types
+	 * they depend on are only found and built once. Stores the problems of each working copy in the map at the same index,
+	 * and answers the declaration of each working copy at the same index, or null if it could not be resolved.
+	 * When parseInParallel is set, the method bodies of the working copies are parsed on several threads before any
+	 * of them is resolved.
+	 */
+	public static CompilationUnitDeclaration[] process(
+			CompilationUnit[] unitElements,
+			WorkingCopyOwner workingCopyOwner,
+			HashMap[] problems,
+			boolean creatingAST,
+			int reconcileFlags,
+			boolean parseInParallel,
+			IProgressMonitor monitor)
+		throws JavaModelException {
+
+		int length = unitElements.length;
+		CompilationUnitDeclaration[] units = new CompilationUnitDeclaration[length];
+		JavaProject project = (JavaProject) unitElements[0].getJavaProject();
+		boolean excludeTestCode = true;
+		for (int i = 0; i < length && excludeTestCode; i++) {
+			excludeTestCode = !isTestSource(project, unitElements[i]);
+		}
+		CancelableNameEnvironment environment = null;
+		CancelableProblemFactory problemFactory = null;
+		CompilationUnitProblemFinder problemFinder = null;
+		CompilationUnit unitElement = null; // the working copy being processed
+		try {
+			environment = new CancelableNameEnvironment(project, workingCopyOwner, monitor, excludeTestCode);
+			problemFactory = new CancelableProblemFactory(monitor);
+			CompilerOptions compilerOptions = getCompilerOptions(project.getOptions(true), creatingAST, ((reconcileFlags & ICompilationUnit.ENABLE_STATEMENTS_RECOVERY) != 0));
+			boolean ignoreMethodBodies = (reconcileFlags & ICompilationUnit.IGNORE_METHOD_BODIES) != 0;
+			compilerOptions.ignoreMethodBodies = ignoreMethodBodies;
+			problemFinder = new CompilationUnitProblemFinder(
+				environment,
+				getHandlingPolicy(),
+				compilerOptions,
+				getRequestor(),
+				problemFactory);
+			try {
+				// build the declarations and type bindings of all the working copies before resolving any of them
+				org.eclipse.jdt.internal.compiler.env.ICompilationUnit[] sourceUnits = new org.eclipse.jdt.internal.compiler.env.ICompilationUnit[length];
+				System.arraycopy(unitElements, 0, sourceUnits, 0, length); // beginToCompile releases the units it is given
+				problemFinder.beginToCompile(sourceUnits);
+			} catch (AbortCompilation e) {
+				problemFinder.handleInternalException(e, null);
+				return units;
+			}
+			for (int i = 0; i < problemFinder.totalUnits; i++) {
+				CompilationUnitDeclaration unit = problemFinder.unitsToProcess[i];
+				for (int j = 0; j < length; j++) {
+					if (unit.compilationResult.compilationUnit == unitElements[j]) {
+						units[j] = unit;
+						break;
+					}
+				}
+			}
+			if (parseInParallel && !ignoreMethodBodies) {
+				MethodBodyParser methodBodyParser = new MethodBodyParser(problemFinder.problemReporter, compilerOptions.parseLiteralExpressionsAsConstants, "Compilation Unit Problem Finder Parsing Task"); //$NON-NLS-1$
+				try {
+					methodBodyParser.parse(units, 0, length);
+				} catch (AbortCompilation e) {
+					problemFinder.handleInternalException(e, null);
+				} finally {
+					methodBodyParser.shutdown();
+				}
+			}
+			for (int i = 0; i < length; i++) {
+				CompilationUnitDeclaration unit = units[i];
+				if (unit == null)
+					continue;
+				unitElement = unitElements[i];
+				try {
+					problemFinder.process(unit, i);
+				} catch (AbortCompilation e) {
+					problemFinder.handleInternalException(e, unit);
+				}
+				recordProblems(unit, problems[i]);
+			}
+			if (NameLookup.VERBOSE) {
+				System.out.println(Thread.currentThread() + " TIME SPENT in NameLoopkup#seekTypesInSourcePackage: " + environment.nameLookup.timeSpentInSeekTypesInSourcePackage + "ms");  //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println(Thread.currentThread() + " TIME SPENT in NameLoopkup#seekTypesInBinaryPackage: " + environment.nameLookup.timeSpentInSeekTypesInBinaryPackage + "ms");  //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} catch (OperationCanceledException e) {
+			// catch this exception so as to not enter the catch(RuntimeException e) below
+			throw e;
+		} catch(RuntimeException e) {
+			// avoid breaking other tools due to internal compiler failure (40334)
+			if (unitElement != null)
+				logFailure(e, unitElement);
+			else
+				Util.log(e, "Exception occurred during problem detection"); //$NON-NLS-1$
+			throw new JavaModelException(e, IJavaModelStatusConstants.COMPILER_FAILURE);
+		} finally {
+			if (environment != null)
+				environment.setMonitor(null); // don't hold a reference to this external object
+			if (problemFactory != null)
+				problemFactory.monitor = null; // don't hold a reference to this external object
+			// NB: unit.cleanUp() is done by caller
+			if (problemFinder != null && !creatingAST)
+				problemFinder.lookupEnvironment.reset();
+		}
+		return units;
+	}
+
+	private static void recordProblems(CompilationUnitDeclaration unit, HashMap problems) {
+		CompilationResult unitResult = unit.compilationResult;
+		CategorizedProblem[] unitProblems = unitResult.getCUProblems();
+		int length = unitProblems == null ? 0 : unitProblems.length;
+		if (length > 0) {
+			CategorizedProblem[] categorizedProblems = new CategorizedProblem[length];
+			System.arraycopy(unitProblems, 0, categorizedProblems, 0, length);
+			problems.put(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, categorizedProblems);
+		}
+		unitProblems = unitResult.getTasks();
+		length = unitProblems == null ? 0 : unitProblems.length;
+		if (length > 0) {
+			CategorizedProblem[] categorizedProblems = new CategorizedProblem[length];
+			System.arraycopy(unitProblems, 0, categorizedProblems, 0, length);
+			problems.put(IJavaModelMarker.TASK_MARKER, categorizedProblems);
+		}
+	}
+
+	private static void logFailure(RuntimeException e, CompilationUnit unitElement) throws JavaModelException {
+		String lineDelimiter = unitElement.findRecommendedLineSeparator();
+		StringBuffer message = new StringBuffer("Exception occurred during problem detection:");  //$NON-NLS-1$
+		message.append(lineDelimiter);
+		message.append("----------------------------------- SOURCE BEGIN -------------------------------------"); //$NON-NLS-1$
+		message.append(lineDelimiter);
+		message.append(unitElement.getSource());
+		message.append(lineDelimiter);
+		message.append("----------------------------------- SOURCE END -------------------------------------"); //$NON-NLS-1$
+		Util.log(e, message.toString());
+	}
+
 	/* (non-Javadoc)
 	 * Fix for bug https://bugs.eclipse.org/bugs/show_bug.cgi?id=60689.
 	 * @see org.eclipse.jdt.internal.compiler.Compiler#initializeParser()
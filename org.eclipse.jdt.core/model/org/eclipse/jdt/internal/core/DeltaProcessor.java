@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -266,6 +266,12 @@ public class DeltaProcessor {
 	/* A set of IJavaProject whose caches need to be reset */
 	public Set<IJavaElement> projectCachesToReset = new HashSet<>();
 
+	/* A table from the package fragments that were added (true) or removed (false) to whether they were added */
+	public Map<PackageFragment, Boolean> packageCachesToUpdate = new LinkedHashMap<>();
+
+	/* The number of package fragment changes above which the project caches are reset rather than updated */
+	private static final int PACKAGE_CACHES_UPDATE_THRESHOLD = 100;
+
 	/* A table from IJavaProject to an array of IPackageFragmentRoot.
 	 * This table contains the pkg fragment roots of the project that are being deleted.
 	 */
@@ -702,6 +708,7 @@ public class DeltaProcessor {
 			close(element);
 			int flags = IJavaElementDelta.F_CONTENT;
 			if (element instanceof JarPackageFragmentRoot){
+				this.manager.zipFilePool.invalidate(element.getPath());
 				flags |= IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED;
 				// need also to reset project cache otherwise it will be out-of-date
 				// see bug https://bugs.eclipse.org/bugs/show_bug.cgi?id=162621
@@ -1283,9 +1290,8 @@ public class DeltaProcessor {
 
 					break;
 				case IJavaElement.PACKAGE_FRAGMENT :
-					// reset project's package fragment cache
-					project = (JavaProject) element.getJavaProject();
-					this.projectCachesToReset.add(project);
+					// remember that the project's package fragment cache must be updated
+					this.packageCachesToUpdate.put((PackageFragment) element, Boolean.TRUE);
 
 					break;
 			}
@@ -1302,6 +1308,10 @@ public class DeltaProcessor {
 	private void elementRemoved(Openable element, IResourceDelta delta, RootInfo rootInfo) {
 
 		int elementType = element.getElementType();
+		if (element instanceof JarPackageFragmentRoot) {
+			// do not keep the removed archive open
+			this.manager.zipFilePool.invalidate(element.getPath());
+		}
 		if (delta == null || (delta.getFlags() & IResourceDelta.MOVED_TO) == 0) {
 			// regular element removal
 			if (isPrimaryWorkingCopy(element, elementType) ) {
@@ -1379,9 +1389,8 @@ public class DeltaProcessor {
 
 				break;
 			case IJavaElement.PACKAGE_FRAGMENT :
-				// reset package fragment cache
-				project = (JavaProject) element.getJavaProject();
-				this.projectCachesToReset.add(project);
+				// remember that the project's package fragment cache must be updated
+				this.packageCachesToUpdate.put((PackageFragment) element, Boolean.FALSE);
 
 				break;
 		}
@@ -1983,14 +1992,24 @@ public class DeltaProcessor {
 	}
 	/*
 	 * Traverse the set of projects which have changed namespace, and reset their
-	 * caches and their dependents
+	 * caches and their dependents.
+	 * Then update the package fragment caches of the other projects where package fragments
+	 * were added or removed, and of their dependents, applying all the changes seen by a project at once.
+	 * Above PACKAGE_CACHES_UPDATE_THRESHOLD changes, the caches are reset instead.
 	 */
 	public void resetProjectCaches() {
-		if (this.projectCachesToReset.isEmpty())
+		if (this.projectCachesToReset.isEmpty() && this.packageCachesToUpdate.isEmpty())
 			return;
 
 		JavaModelManager.getJavaModelManager().resetJarTypeCache();
 
+		if (this.packageCachesToUpdate.size() > PACKAGE_CACHES_UPDATE_THRESHOLD) {
+			// rebuilding the caches is cheaper than updating them with that many changes
+			for (PackageFragment pkg : this.packageCachesToUpdate.keySet())
+				this.projectCachesToReset.add(pkg.getJavaProject());
+			this.packageCachesToUpdate.clear();
+		}
+
 		Iterator<IJavaElement> iterator = this.projectCachesToReset.iterator();
 		Map<IJavaProject, IJavaProject[]> projectDepencies = this.state.projectDependencies;
 		Set<IJavaElement> affectedDependents = new HashSet<>();
@@ -2006,7 +2025,36 @@ public class DeltaProcessor {
 			project.resetCaches();
 		}
 
+		// group the package changes by the projects that were not reset and see them,
+		// computing the dependents of each changed project once
+		Map<IJavaElement, Set<IJavaElement>> projectsToUpdate = new HashMap<>();
+		Map<IJavaElement, Map<PackageFragment, Boolean>> changesByProject = new LinkedHashMap<>();
+		for (Map.Entry<PackageFragment, Boolean> entry : this.packageCachesToUpdate.entrySet()) {
+			PackageFragment pkg = entry.getKey();
+			IJavaProject project = pkg.getJavaProject();
+			if (this.projectCachesToReset.contains(project) || affectedDependents.contains(project))
+				continue; // dependents were also reset
+			Set<IJavaElement> projects = projectsToUpdate.get(project);
+			if (projects == null) {
+				projects = new LinkedHashSet<>();
+				projects.add(project);
+				addDependentProjects(project, projectDepencies, projects);
+				projects.removeAll(this.projectCachesToReset);
+				projects.removeAll(affectedDependents);
+				projectsToUpdate.put(project, projects);
+			}
+			for (IJavaElement target : projects) {
+				Map<PackageFragment, Boolean> changes = changesByProject.get(target);
+				if (changes == null)
+					changesByProject.put(target, changes = new LinkedHashMap<>());
+				changes.put(pkg, entry.getValue());
+			}
+		}
+		for (Map.Entry<IJavaElement, Map<PackageFragment, Boolean>> entry : changesByProject.entrySet())
+			((JavaProject) entry.getKey()).updatePackageCaches(entry.getValue());
+
 		this.projectCachesToReset.clear();
+		this.packageCachesToUpdate.clear();
 	}
 	/*
 	 * Registers the given delta with this delta processor.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,10 @@ public class ElementCache<K extends IJavaElement & IOpenable> extends Overflowin
 
 	IJavaElement spaceLimitParent = null;
 
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
 /**
  * Constructs a new element cache of the given size.
  */
@@ -54,6 +58,7 @@ protected boolean close(LRUCacheEntry<K, JavaElementInfo> entry) {
 			return false;
 		} else {
 			element.close();
+			this.evictionCount++;
 			return true;
 		}
 	} catch (JavaModelException npe) {
@@ -77,6 +82,37 @@ protected void ensureSpaceLimit(JavaElementInfo info, IJavaElement parent) {
 	}
 }
 
+@Override
+public JavaElementInfo get(K key) {
+	JavaElementInfo info = super.get(key);
+	if (info == null)
+		this.missCount++;
+	else
+		this.hitCount++;
+	return info;
+}
+
+/**
+ * Returns the number of lookups that found their element in the cache.
+ */
+public long getHitCount() {
+	return this.hitCount;
+}
+
+/**
+ * Returns the number of lookups that did not find their element in the cache.
+ */
+public long getMissCount() {
+	return this.missCount;
+}
+
+/**
+ * Returns the number of elements that were closed to make space in the cache.
+ */
+public long getEvictionCount() {
+	return this.evictionCount;
+}
+
 /*
  * Returns a new instance of the receiver.
  */
@@ -96,4 +132,16 @@ protected void resetSpaceLimit(int defaultLimit, IJavaElement parent) {
 	}
 }
 
+public String toStringStatistics(String cacheName) {
+	StringBuffer buffer = new StringBuffer(cacheName);
+	buffer.append(": "); //$NON-NLS-1$
+	buffer.append(this.hitCount);
+	buffer.append(" hits, "); //$NON-NLS-1$
+	buffer.append(this.missCount);
+	buffer.append(" misses, "); //$NON-NLS-1$
+	buffer.append(this.evictionCount);
+	buffer.append(" evictions"); //$NON-NLS-1$
+	return buffer.toString();
+}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,7 +16,6 @@ package org.eclipse.jdt.internal.core;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,51 +134,45 @@ public class JarPackageFragmentRoot extends PackageFragmentRoot {
 			// If we weren't able to compute the set of children from the index (either the index was disabled or didn't
 			// contain an up-to-date entry for this .jar) then fetch it directly from the .jar
 			if (!usedIndex) {
-				Object file = JavaModel.getTarget(getPath(), true);
-				long classLevel = Util.getJdkLevel(file);
+				ArchiveEntriesCache.ArchiveEntries entries = JavaModelManager.getJavaModelManager().archiveEntries.getEntries(getPath());
 				String projectCompliance = this.getJavaProject().getOption(JavaCore.COMPILER_COMPLIANCE, true);
 				long projectLevel = CompilerOptions.versionToJdkLevel(projectCompliance);
-				ZipFile jar = null;
-				try {
-					jar = getJar();
-					String version = "META-INF/versions/";  //$NON-NLS-1$
-					List<String> versions = new ArrayList<>();
-					if (projectLevel >= ClassFileConstants.JDK9 && jar.getEntry(version) != null) {
-						int earliestJavaVersion = ClassFileConstants.MAJOR_VERSION_9;
-						long latestJDK = CompilerOptions.releaseToJDKLevel(projectCompliance);
-						int latestJavaVer = (int) (latestJDK >> 16);
+				String version = "META-INF/versions/";  //$NON-NLS-1$
+				List<String> versions = new ArrayList<>();
+				if (projectLevel >= ClassFileConstants.JDK9 && entries.hasEntry(version)) {
+					int earliestJavaVersion = ClassFileConstants.MAJOR_VERSION_9;
+					long latestJDK = CompilerOptions.releaseToJDKLevel(projectCompliance);
+					int latestJavaVer = (int) (latestJDK >> 16);
 
-						for(int i = latestJavaVer; i >= earliestJavaVersion; i--) {
-							String s = "" + + (i - 44); //$NON-NLS-1$
-							String versionPath = version + s;
-							if (jar.getEntry(versionPath) != null) {
-								versions.add(s);
-							}
+					for(int i = latestJavaVer; i >= earliestJavaVersion; i--) {
+						String s = "" + + (i - 44); //$NON-NLS-1$
+						String versionPath = version + s;
+						if (entries.hasEntry(versionPath)) {
+							versions.add(s);
 						}
 					}
-					
-					String[] supportedVersions = versions.toArray(new String[versions.size()]);
-					if (supportedVersions.length > 0) {
-						this.multiVersion = true;
-					}
-					int length = version.length();
-					for (Enumeration<? extends ZipEntry> e= jar.entries(); e.hasMoreElements();) {
-						ZipEntry member= e.nextElement();
-						String name = member.getName();
-						if (this.multiVersion && name.length() > (length + 2) && name.startsWith(version)) {
-							int end = name.indexOf('/', length);
-							if (end >= name.length()) continue;
-							String versionPath = name.substring(0, end);
-							String ver = name.substring(length, end);
-							if(versions.contains(ver) && org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(name)) {
-								name = name.substring(end + 1);
-								overridden.put(name, versionPath);
-							}
+				}
+				
+				String[] supportedVersions = versions.toArray(new String[versions.size()]);
+				if (supportedVersions.length > 0) {
+					this.multiVersion = true;
+				}
+				int length = version.length();
+				String compliance = CompilerOptions.versionFromJdkLevel(entries.classLevel);
+				for (int i = 0, count = entries.names.length; i < count; i++) {
+					String name = entries.names[i];
+					boolean isDirectory = name.endsWith("/"); //$NON-NLS-1$
+					if (this.multiVersion && name.length() > (length + 2) && name.startsWith(version)) {
+						int end = name.indexOf('/', length);
+						if (end >= name.length()) continue;
+						String versionPath = name.substring(0, end);
+						String ver = name.substring(length, end);
+						if(versions.contains(ver) && org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(name)) {
+							name = name.substring(end + 1);
+							overridden.put(name, versionPath);
 						}
-						initRawPackageInfo(rawPackageInfo, name, member.isDirectory(), CompilerOptions.versionFromJdkLevel(classLevel));
 					}
-				}  finally {
-					JavaModelManager.getJavaModelManager().closeZipFile(jar);
+					initRawPackageInfo(rawPackageInfo, name, isDirectory, compliance);
 				}
 			}
 			// loop through all of referenced packages, creating package fragments if necessary
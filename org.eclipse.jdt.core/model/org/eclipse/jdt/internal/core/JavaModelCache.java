@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -339,4 +339,17 @@ public String toStringFillingRation(String prefix) {
 	buffer.append('\n');
 	return buffer.toString();
 }
+public String toStringStatistics(String prefix) {
+	StringBuffer buffer = new StringBuffer();
+	buffer.append(prefix);
+	buffer.append(this.rootCache.toStringStatistics("Root cache")); //$NON-NLS-1$
+	buffer.append('\n');
+	buffer.append(prefix);
+	buffer.append(this.pkgCache.toStringStatistics("Package cache")); //$NON-NLS-1$
+	buffer.append('\n');
+	buffer.append(prefix);
+	buffer.append(this.openableCache.toStringStatistics("Openable cache")); //$NON-NLS-1$
+	buffer.append('\n');
+	return buffer.toString();
+}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -50,6 +50,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 
@@ -185,6 +190,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	private static final String NON_CHAINING_JARS_CACHE = "nonChainingJarsCache"; //$NON-NLS-1$
 	private static final String EXTERNAL_FILES_CACHE = "externalFilesCache";  //$NON-NLS-1$
 	private static final String ASSUMED_EXTERNAL_FILES_CACHE = "assumedExternalFilesCache";  //$NON-NLS-1$
+	private static final String SOURCE_ROOT_PATHS_CACHE = "sourceRootPathsCache";  //$NON-NLS-1$
+	private static final String SOURCE_RANGE_INDEX = "sourceRangeIndex";  //$NON-NLS-1$
 
 	public static enum ArchiveValidity {
 		BAD_FORMAT, UNABLE_TO_READ, FILE_NOT_FOUND, VALID;
@@ -211,6 +218,9 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			Iterator<ZipFile> iterator = this.map.values().iterator();
 			while (iterator.hasNext()) {
 				ZipFile zipFile = iterator.next();
+				if (getJavaModelManager().zipFilePool.release(zipFile)) {
+					continue;
+				}
 				try {
 					if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
 						System.out.println("(" + currentThread + ") [ZipCache[" + this.owner //$NON-NLS-1$//$NON-NLS-2$
@@ -228,6 +238,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			return this.map.get(path);
 		}
 
+		public boolean contains(ZipFile zipFile) {
+			return this.map.containsValue(zipFile);
+		}
+
 		public void setCache(IPath path, ZipFile zipFile) {
 			ZipFile old = this.map.put(path, zipFile);
 			if(old != null) {
@@ -338,6 +352,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 */
 	private static final String RESOLVE_REFERENCED_LIBRARIES_FOR_CONTAINERS = "resolveReferencedLibrariesForContainers"; //$NON-NLS-1$
 
+	/**
+	 * Name of the JVM parameter to specify whether or not the last built states of all Java projects
+	 * should be read in the background on startup, instead of when first needed.
+	 */
+	private static final String READ_BUILT_STATES_ON_STARTUP = "readBuiltStatesOnStartup"; //$NON-NLS-1$
+
 	/**
 	 * Name of the JVM parameter to specify how many compilation units must be handled at once by the builder.
 	 * The default value is represented by <code>AbstractImageBuilder#MAX_AT_ONCE</code>.
@@ -1237,6 +1257,11 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 */
 	public DeltaProcessingState deltaState = new DeltaProcessingState();
 
+	/**
+	 * The number of times the classpath of a project was set or reset, see {@link #getClasspathChangesCount()}
+	 */
+	private final AtomicInteger classpathChangesCount = new AtomicInteger();
+
 	public IndexManager indexManager = null;
 
 	/**
@@ -1264,6 +1289,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		public IProject project;
 		public Object savedState;
 		public boolean triedRead;
+		/**
+		 * Guards savedState and triedRead while the state is read, without blocking the classpath resolution
+		 */
+		final Object savedStateLock = new Object();
 		public IClasspathEntry[] rawClasspath;
 		public IClasspathEntry[] referencedEntries;
 		public IJavaModelStatus rawClasspathStatus;
@@ -1283,6 +1312,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		 * The temporary structure used while indexing, previously known as INDEXED_SECONDARY_TYPES entry
 		 */
 		volatile Map<IFile, Map<String, Map<String, IType>>> indexingSecondaryCache;
+		/**
+		 * Whether the secondary types saved in the previous session were read, or must no longer be read
+		 */
+		public boolean triedReadSecondaryTypes;
 
 
 		// NB: PackageFragment#getAttachedJavadoc uses this map differently
@@ -1361,6 +1394,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				}
 			}
 			ClasspathChange classpathChange = addClasspathChange ? addClasspathChange() : null;
+			JavaModelManager.getJavaModelManager().classpathChangesCount.incrementAndGet();
 
 			if (referencedEntries != null)	this.referencedEntries = referencedEntries;
 			if (this.referencedEntries == null) this.referencedEntries = ClasspathEntry.NO_ENTRIES;
@@ -1605,6 +1639,16 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 */
 	private ThreadLocal<ZipCache> zipFiles = new ThreadLocal<>();
 
+	/**
+	 * The zip files opened by any thread, shared until they are no longer used.
+	 */
+	public final ZipFilePool zipFilePool = new ZipFilePool();
+
+	/**
+	 * The names of the entries of archives, saved across sessions.
+	 */
+	public final ArchiveEntriesCache archiveEntries = new ArchiveEntriesCache();
+
 	private UserLibraryManager userLibraryManager;
 
 	private ModuleSourcePathManager modulePathManager;
@@ -1652,6 +1696,16 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 */
 	private Set<IPath> assumedExternalFiles;
 
+	/*
+	 * The root paths found in the source attachments of archives.
+	 */
+	public final SourceRootPathsCache sourceRootPaths = new SourceRootPathsCache();
+
+	/*
+	 * The results of parsing the source attachments of archives.
+	 */
+	public final SourceRangeIndex sourceRangeIndex = new SourceRangeIndex();
+
 	/**
 	 * Update the classpath variable cache
 	 */
@@ -1790,6 +1844,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			this.nonChainingJars = loadClasspathListCache(NON_CHAINING_JARS_CACHE);
 			this.externalFiles = loadClasspathListCache(EXTERNAL_FILES_CACHE);
 			this.assumedExternalFiles = loadClasspathListCache(ASSUMED_EXTERNAL_FILES_CACHE);
+			loadSourceRootPathsCache();
+			loadSourceRangeIndex();
 			String includeContainerReferencedLib = System.getProperty(RESOLVE_REFERENCED_LIBRARIES_FOR_CONTAINERS);
 			this.resolveReferencedLibrariesForContainers = TRUE.equalsIgnoreCase(includeContainerReferencedLib);
 		}
@@ -1842,16 +1898,24 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 		// the owner will be responsible for flushing the cache
 		this.zipFiles.set(new ZipCache(owner));
+		this.zipFilePool.beginBracket();
 	}
 
 	public void closeZipFile(ZipFile zipFile) {
 		if (zipFile == null) return;
-		if (this.zipFiles.get() != null) {
+		ZipCache zipCache = this.zipFiles.get();
+		if (zipCache != null && zipCache.contains(zipFile)) {
 			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
 				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.closeZipFile(ZipFile)] NOT closed ZipFile (cache exist!) on " +zipFile.getName()); //$NON-NLS-1$	//$NON-NLS-2$
 			}
 			return; // zip file will be closed by call to flushZipFiles
 		}
+		if (this.zipFilePool.release(zipFile)) {
+			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
+				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.closeZipFile(ZipFile)] Released ZipFile on " +zipFile.getName()); //$NON-NLS-1$	//$NON-NLS-2$
+			}
+			return; // closed by the pool once no longer used
+		}
 		try {
 			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
 				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.closeZipFile(ZipFile)] Closing ZipFile on " +zipFile.getName()); //$NON-NLS-1$	//$NON-NLS-2$
@@ -2056,7 +2120,11 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		// we want to check object identity to make sure this is the owner that created the cache
 		if (zipCache.owner == owner) {
 			this.zipFiles.set(null);
-			zipCache.flush();
+			try {
+				zipCache.flush();
+			} finally {
+				this.zipFilePool.endBracket();
+			}
 		} else {
 			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
 				System.out.println("(" + Thread.currentThread() //$NON-NLS-1$
@@ -2279,17 +2347,19 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			return null; // should never be requested on non-Java projects
 		}
 		PerProjectInfo info = getPerProjectInfo(project, true/*create if missing*/);
-		if (!info.triedRead) {
-			info.triedRead = true;
-			try {
-				if (monitor != null)
-					monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
-				info.savedState = readState(project);
-			} catch (CoreException e) {
-				Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
+		synchronized (info.savedStateLock) { // the state may be read by another thread, see readBuiltStates(...)
+			if (!info.triedRead) {
+				info.triedRead = true;
+				try {
+					if (monitor != null)
+						monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
+					info.savedState = readState(project);
+				} catch (CoreException e) {
+					Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
+				}
 			}
+			return info.savedState;
 		}
-		return info.savedState;
 	}
 
 	public String getOption(String optionName) {
@@ -2786,6 +2856,15 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return workingLocation.append("state.dat").toFile(); //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns the File to use for saving and restoring the secondary types of the given project.
+	 */
+	private File getSecondaryTypesFile(IProject project) {
+		if (!project.exists()) return null;
+		IPath workingLocation = project.getWorkingLocation(JavaCore.PLUGIN_ID);
+		return workingLocation.append("secondaryTypes.dat").toFile(); //$NON-NLS-1$
+	}
+
 	public static UserLibraryManager getUserLibraryManager() {
 		if (MANAGER.userLibraryManager == null) {
 			UserLibraryManager libraryManager = new UserLibraryManager();
@@ -2809,6 +2888,13 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 		return MANAGER.modulePathManager;
 	}
+	/**
+	 * Returns a number that changes whenever the raw or resolved classpath of a project is set or reset.
+	 * Clients can compare it to a previous answer to know whether a classpath may have changed in between.
+	 */
+	public int getClasspathChangesCount() {
+		return this.classpathChangesCount.get();
+	}
 	/*
 	 * Returns all the working copies which have the given owner.
 	 * Adds the working copies of the primary owner if specified.
@@ -2890,6 +2976,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 * Returns the open ZipFile at the given path. If the ZipFile
 	 * does not yet exist, it is created, opened, and added to the cache
 	 * of open ZipFiles.
+	 * The ZipFile may be shared with other threads, see {@link ZipFilePool}.
+	 * It must be released with {@link #closeZipFile(ZipFile)}, not closed directly.
 	 *
 	 * The path must be a file system path if representing an external
 	 * zip/jar, or it must be an absolute workspace relative path if
@@ -2927,12 +3015,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 		try {
 			if (ZIP_ACCESS_VERBOSE) {
-				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.getZipFile(IPath)] Creating ZipFile on " + localFile ); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("(" + Thread.currentThread() + ") [JavaModelManager.getZipFile(IPath)] Getting ZipFile on " + localFile ); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			if (throwIoExceptionsInGetZipFile) {
 				throw new IOException();
 			}
-			zipFile = new ZipFile(localFile);
+			zipFile = this.zipFilePool.acquire(path, localFile);
 			if (zipCache != null) {
 				zipCache.setCache(path, zipFile);
 			}
@@ -3453,11 +3541,14 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		// If the TTL for this cache entry has expired, directly check whether the archive is still invalid.
 		// If it transitioned to being valid, remove it from the cache and force an update to project caches.
 		if (now > invalidArchiveInfo.evictionTimestamp) {
+			ZipFile zipFile = null;
 			try {
-				getZipFile(path, false);
+				zipFile = getZipFile(path, false);
 				removeFromInvalidArchiveCache(path);
 			} catch (CoreException e) {
 				// Archive is still invalid, fall through to reporting it is invalid.
+			} finally {
+				closeZipFile(zipFile);
 			}
 			// Retry the test from the start, now that we have an up-to-date result
 			return getArchiveValidity(path);
@@ -3565,6 +3656,48 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return Collections.synchronizedSet(pathCache);
 	}
 
+	private void loadSourceRootPathsCache() {
+		File cacheFile = getClasspathListFile(SOURCE_ROOT_PATHS_CACHE);
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+			this.sourceRootPaths.load(in);
+		} catch (IOException e) {
+			this.sourceRootPaths.reset();
+			if (cacheFile.exists())
+				Util.log(e, "Unable to read JavaModelManager " + SOURCE_ROOT_PATHS_CACHE + " file"); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// nothing we can do: ignore
+				}
+			}
+		}
+	}
+
+	private void loadSourceRangeIndex() {
+		File cacheFile = getClasspathListFile(SOURCE_RANGE_INDEX);
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+			this.sourceRangeIndex.load(in);
+		} catch (IOException e) {
+			this.sourceRangeIndex.reset();
+			if (cacheFile.exists())
+				Util.log(e, "Unable to read JavaModelManager " + SOURCE_RANGE_INDEX + " file"); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// nothing we can do: ignore
+				}
+			}
+		}
+	}
+
 	private File getClasspathListFile(String fileName) {
 		return JavaCore.getPlugin().getStateLocation().append(fileName).toFile();
 	}
@@ -4140,6 +4273,53 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		this.cache.jarTypeCache.put(type, info);
 	}
 
+	/**
+	 * Reads the last built states of the given projects that have not been read yet, using several threads.
+	 * The projects that are not Java projects are ignored.
+	 */
+	public void readBuiltStates(IProject[] projects, IProgressMonitor monitor) {
+		int projectsCount = projects.length;
+		SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.build_readStatesJobName, projectsCount);
+		int threadsCount = Math.min(projectsCount, Runtime.getRuntime().availableProcessors());
+		if (threadsCount < 2) {
+			for (int i = 0; i < projectsCount; i++) {
+				getLastBuiltState(projects[i], null);
+				subMonitor.split(1);
+			}
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount, runnable -> {
+			Thread thread = new Thread(runnable, "Java Build State Reader"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			ArrayList<Future<Object>> results = new ArrayList<>(projectsCount);
+			for (int i = 0; i < projectsCount; i++) {
+				IProject project = projects[i];
+				results.add(executor.submit(() -> getLastBuiltState(project, null)));
+			}
+			for (int i = 0; i < projectsCount; i++) {
+				try {
+					results.get(i).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OperationCanceledException();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new IllegalStateException(cause);
+				}
+				subMonitor.split(1);
+			}
+		} finally {
+			executor.shutdownNow(); // the states not read yet when canceled will be read when first needed
+		}
+	}
+
 	/**
 	 * Reads the build state for the relevant project.
 	 */
@@ -4376,6 +4556,108 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 		// save built state
 		if (info.triedRead) saveBuiltState(info);
+
+		// save secondary types
+		if (info.triedReadSecondaryTypes) saveSecondaryTypes(info);
+	}
+
+	/**
+	 * Saves the secondary types of the project, so that they do not have to be searched again in the next session.
+	 * The secondary types are only saved if they are up to date with the indexes, otherwise they are searched again.
+	 */
+	private void saveSecondaryTypes(PerProjectInfo info) {
+		File file = getSecondaryTypesFile(info.project);
+		if (file == null) return;
+		Hashtable<String, Map<String, IType>> secondaryTypes = info.secondaryTypes;
+		try {
+			if (secondaryTypes == null || info.indexingSecondaryCache != null) {
+				file.delete();
+				return;
+			}
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			try {
+				out.writeUTF(JavaCore.PLUGIN_ID);
+				out.writeUTF("SECONDARY_TYPES"); //$NON-NLS-1$
+				synchronized (secondaryTypes) {
+					out.writeInt(secondaryTypes.size());
+					for (Entry<String, Map<String, IType>> packageEntry : secondaryTypes.entrySet()) {
+						Map<String, IType> types = packageEntry.getValue();
+						out.writeUTF(packageEntry.getKey());
+						out.writeInt(types.size());
+						for (Entry<String, IType> typeEntry : types.entrySet()) {
+							out.writeUTF(typeEntry.getKey());
+							out.writeUTF(typeEntry.getValue().getPath().toPortableString());
+						}
+					}
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException | RuntimeException e) {
+			try {
+				file.delete();
+			} catch(SecurityException se) {
+				// could not delete file: cannot do much more
+			}
+			if (VERBOSE) {
+				Util.verbose("Could not save the secondary types of " + info.project.getName()); //$NON-NLS-1$
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Initializes the secondary types of the project with the ones saved in the previous session, if any.
+	 * The changes made since then are applied as their files are indexed again.
+	 */
+	private void readSecondaryTypes(PerProjectInfo info) {
+		synchronized (info) {
+			if (info.triedReadSecondaryTypes) return;
+			info.triedReadSecondaryTypes = true;
+		}
+		if (info.secondaryTypes != null) return;
+		File file = getSecondaryTypesFile(info.project);
+		if (file == null || !file.exists()) return;
+		Hashtable<String, Map<String, IType>> secondaryTypes = null;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (!JavaCore.PLUGIN_ID.equals(in.readUTF()) || !"SECONDARY_TYPES".equals(in.readUTF())) //$NON-NLS-1$
+					throw new IOException("Unrecognized secondary types file"); //$NON-NLS-1$
+				IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+				int packagesCount = in.readInt();
+				secondaryTypes = new Hashtable<>(Math.max(3, packagesCount));
+				for (int i = 0; i < packagesCount; i++) {
+					String packageName = in.readUTF();
+					int typesCount = in.readInt();
+					Map<String, IType> types = new HashMap<>(Math.max(3, typesCount));
+					for (int j = 0; j < typesCount; j++) {
+						String typeName = in.readUTF();
+						IFile typeFile = root.getFile(Path.fromPortableString(in.readUTF()));
+						ICompilationUnit unit = JavaModelManager.createCompilationUnitFrom(typeFile, null);
+						if (unit != null)
+							types.put(typeName, unit.getType(typeName));
+					}
+					if (!types.isEmpty())
+						secondaryTypes.put(packageName, types);
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException | RuntimeException e) {
+			if (VERBOSE) {
+				Util.verbose("Could not read the secondary types of " + info.project.getName()); //$NON-NLS-1$
+				e.printStackTrace();
+			}
+			return;
+		}
+		synchronized (info) {
+			if (info.secondaryTypes == null)
+				info.secondaryTypes = secondaryTypes;
+		}
+		if (VERBOSE) {
+			Util.verbose("JavaModelManager.readSecondaryTypes(" + info.project.getName() + ") -> " + secondaryTypes); //$NON-NLS-1$ //$NON-NLS-2$
+		}
 	}
 
 	/**
@@ -4454,6 +4736,46 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 	}
 
+	private void saveSourceRootPathsCache() throws CoreException {
+		File file = getClasspathListFile(SOURCE_ROOT_PATHS_CACHE);
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			this.sourceRootPaths.save(out);
+		} catch (IOException e) {
+			IStatus status = new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, IStatus.ERROR, "Problems while saving source root paths cache", e); //$NON-NLS-1$
+			throw new CoreException(status);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// nothing we can do: ignore
+				}
+			}
+		}
+	}
+
+	private void saveSourceRangeIndex() throws CoreException {
+		File file = getClasspathListFile(SOURCE_RANGE_INDEX);
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			this.sourceRangeIndex.save(out);
+		} catch (IOException e) {
+			IStatus status = new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, IStatus.ERROR, "Problems while saving source range index", e); //$NON-NLS-1$
+			throw new CoreException(status);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// nothing we can do: ignore
+				}
+			}
+		}
+	}
+
 	private void saveVariablesAndContainers(ISaveContext context) throws CoreException {
 		File file = getVariableAndContainersFile();
 		DataOutputStream out = null;
@@ -4699,10 +5021,14 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 		switch(context.getKind()) {
 			case ISaveContext.FULL_SAVE : {
-				// save non-chaining jar, invalid jar and external file caches on full save
+				// save non-chaining jar, invalid jar, external file and source root paths caches and the source range index
+				// on full save, and forget the entries of the archives that changed
 				saveClasspathListCache(NON_CHAINING_JARS_CACHE);
 				saveClasspathListCache(EXTERNAL_FILES_CACHE);
 				saveClasspathListCache(ASSUMED_EXTERNAL_FILES_CACHE);
+				saveSourceRootPathsCache();
+				saveSourceRangeIndex();
+				this.archiveEntries.cleanUp();
 
 				// will need delta since this save (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=38658)
 				context.needDelta();
@@ -4787,6 +5113,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				IProject project = resource.getProject();
 				try {
 					PerProjectInfo projectInfo = getPerProjectInfoCheckExistence(project);
+					readSecondaryTypes(projectInfo);
 					// Get or create map to cache secondary types while indexing (can be not synchronized as indexing insure a non-concurrent usage)
 					Map<IFile, Map<String, Map<String, IType>>> indexedSecondaryTypes;
 					if (projectInfo.secondaryTypes == null) {
@@ -4871,6 +5198,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 		// Return cache if not empty and there's no new secondary types created during indexing
 		final PerProjectInfo projectInfo = getPerProjectInfoCheckExistence(project.getProject());
+		readSecondaryTypes(projectInfo);
 		Map<IFile, Map<String, Map<String, IType>>> indexingSecondaryCache = projectInfo.secondaryTypes == null ? null : projectInfo.indexingSecondaryCache;
 		if (projectInfo.secondaryTypes != null && indexingSecondaryCache == null) {
 			return projectInfo.secondaryTypes;
@@ -5088,6 +5416,9 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 		if (file != null) {
 			PerProjectInfo projectInfo = getPerProjectInfo(file.getProject(), false);
+			if (projectInfo != null) {
+				readSecondaryTypes(projectInfo);
+			}
 			if (projectInfo != null && projectInfo.secondaryTypes != null) {
 				if (VERBOSE) {
 					Util.verbose("-> remove file from cache of project: "+file.getProject().getName()); //$NON-NLS-1$
@@ -5258,8 +5589,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		if (JavaProject.hasJavaNature(project)) {
 			// should never be requested on non-Java projects
 			PerProjectInfo info = getPerProjectInfo(project, true /*create if missing*/);
-			info.triedRead = true; // no point trying to re-read once using setter
-			info.savedState = state;
+			synchronized (info.savedStateLock) {
+				info.triedRead = true; // no point trying to re-read once using setter
+				info.savedState = state;
+			}
 		}
 		if (state == null) { // delete state file to ensure a full build happens if the workspace crashes
 			try {
@@ -5454,6 +5787,24 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			processSavedState.setSystem(true);
 			processSavedState.setPriority(Job.SHORT); // process asap
 			processSavedState.schedule();
+
+			if (TRUE.equalsIgnoreCase(System.getProperty(READ_BUILT_STATES_ON_STARTUP))) {
+				// read the states of all projects at once rather than one after the other during the first build
+				Job readBuiltStates = new Job(Messages.build_readStatesJobName) {
+					@Override
+					protected IStatus run(IProgressMonitor monitor) {
+						try {
+							readBuiltStates(workspace.getRoot().getProjects(), monitor);
+						} catch (OperationCanceledException e) {
+							return Status.CANCEL_STATUS;
+						}
+						return Status.OK_STATUS;
+					}
+				};
+				readBuiltStates.setSystem(true);
+				readBuiltStates.setPriority(Job.LONG);
+				readBuiltStates.schedule();
+			}
 		} catch (RuntimeException e) {
 			try {
 				shutdown();
@@ -5496,6 +5847,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			this.indexManager.shutdown();
 		}
 
+		this.zipFilePool.closeAll();
+
 		// Stop listening to preferences changes
 		preferences.removePreferenceChangeListener(this.propertyListener);
 		((IEclipsePreferences) this.preferencesLookup[PREF_DEFAULT].parent()).removeNodeChangeListener(this.defaultNodeListener);
@@ -5629,8 +5982,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			IJavaProject project = projects[i];
 			final PerProjectInfo projectInfo = getPerProjectInfo(project.getProject(), false /* don't create info */);
 			if (projectInfo != null) {
+				projectInfo.triedReadSecondaryTypes = true; // saved secondary types are obsolete
 				projectInfo.secondaryTypes = null;
 			}
+			File file = getSecondaryTypesFile(project.getProject());
+			if (file != null && file.exists())
+				file.delete();
 		}
 	}
 
@@ -5638,6 +5995,13 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return this.cache.toStringFillingRation(prefix);
 	}
 
+	/**
+	 * Returns the number of hits, misses and evictions of the caches of opened elements.
+	 */
+	public synchronized String cacheStatisticsToString(String prefix) {
+		return this.cache.toStringStatistics(prefix);
+	}
+
 	public ElementCache<ITypeRoot>.Stats debugNewOpenableCacheStats() {
 		return this.cache.openableCache.new Stats();
 	}
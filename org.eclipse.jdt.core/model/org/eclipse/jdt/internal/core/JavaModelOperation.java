@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -760,9 +760,11 @@ public abstract class JavaModelOperation implements IWorkspaceRunnable, IProgres
 						}
 						switch (element.getElementType()) {
 							case IJavaElement.PACKAGE_FRAGMENT_ROOT:
-							case IJavaElement.PACKAGE_FRAGMENT:
 								deltaProcessor.projectCachesToReset.add(element.getJavaProject());
 								break;
+							case IJavaElement.PACKAGE_FRAGMENT:
+								deltaProcessor.packageCachesToUpdate.put((PackageFragment) element, Boolean.valueOf(element.exists()));
+								break;
 						}
 					}
 					deltaProcessor.resetProjectCaches();
@@ -3052,6 +3052,17 @@ public class JavaProject
 		}
 	}
 
+	/*
+	 * Updates this project's package fragment caches after the given package fragments were added (true) or
+	 * removed (false). Resets the caches if they cannot be updated.
+	 */
+	public void updatePackageCaches(Map<PackageFragment, Boolean> changes) {
+		JavaProjectElementInfo info = (JavaProjectElementInfo) JavaModelManager.getJavaModelManager().peekAtInfo(this);
+		if (info != null && !info.updatePackageCaches(changes)) {
+			info.resetCaches();
+		}
+	}
+
 	public ClasspathChange resetResolvedClasspath() {
 		try {
 			return getPerProjectInfo().resetResolvedClasspath();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 import org.eclipse.core.resources.IContainer;
@@ -28,6 +30,7 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.DeltaProcessor.RootInfo;
+import org.eclipse.jdt.internal.core.nd.java.JavaIndex;
 import org.eclipse.jdt.internal.core.util.HashSetOfArray;
 import org.eclipse.jdt.internal.core.util.HashtableOfArrayToObject;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -230,6 +233,7 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 			HashMap<IPackageFragmentRoot, HashSetOfArray> pkgFragmentsCaches = new HashMap<>();
 			int length = roots.length;
 			JavaModelManager  manager = JavaModelManager.getJavaModelManager();
+			prefetchArchiveEntries(roots, rootInfos, project, manager);
 			for (int i = 0; i < length; i++) {
 				IPackageFragmentRoot root = roots[i];
 				DeltaProcessor.RootInfo rootInfo = rootInfos.get(root.getPath());
@@ -265,6 +269,29 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 		return resources;
 	}
 
+	/*
+	 * Reads ahead of time the entries of the archives of the given roots that are opened to compute
+	 * the package names of the project.
+	 */
+	private void prefetchArchiveEntries(IPackageFragmentRoot[] roots, Map<IPath, RootInfo> rootInfos, JavaProject project, JavaModelManager manager) {
+		if (JavaIndex.isEnabled())
+			return; // the children of the roots are computed from the index when possible
+		ArrayList<IPath> archivePaths = new ArrayList<>();
+		for (int i = 0, length = roots.length; i < length; i++) {
+			IPackageFragmentRoot root = roots[i];
+			if (!(root instanceof JarPackageFragmentRoot) || root.isOpen())
+				continue;
+			IPath path = root.getPath();
+			if (JavaModelManager.isJrt(path))
+				continue;
+			RootInfo rootInfo = rootInfos.get(path);
+			if (rootInfo == null || rootInfo.project.equals(project))
+				archivePaths.add(path);
+		}
+		if (archivePaths.size() > 1)
+			manager.archiveEntries.prefetch(archivePaths.toArray(new IPath[archivePaths.size()]));
+	}
+
 	private void initializePackageNames(IPackageFragmentRoot root, HashSetOfArray fragmentsCache) {
 		IJavaElement[] frags = null;
 		try {
@@ -374,4 +401,199 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 		this.projectCache = null;
 		this.mainProjectCache = null;
 	}
+
+	/*
+	 * Updates the package fragment caches after the given packages were added to (true) or removed from (false)
+	 * their roots, instead of resetting them.
+	 * All the changes are applied to a single copy of the tables, so that the name lookups created before keep
+	 * a consistent view of the packages.
+	 * Returns whether the caches could be updated.
+	 */
+	boolean updatePackageCaches(Map<PackageFragment, Boolean> changes) {
+		ProjectCache cache = this.projectCache;
+		if (cache != null && (cache = updatePackageCache(cache, changes)) == null)
+			return false;
+		ProjectCache mainCache = this.mainProjectCache;
+		if (mainCache != null && (mainCache = updatePackageCache(mainCache, changes)) == null)
+			return false;
+		this.projectCache = cache;
+		this.mainProjectCache = mainCache;
+		return true;
+	}
+
+	/*
+	 * Returns the given cache updated after the given packages were added or removed, or null if it cannot
+	 * be updated.
+	 * Each table is copied at most once, whatever the number of changes.
+	 */
+	@SuppressWarnings("unchecked")
+	private static ProjectCache updatePackageCache(ProjectCache cache, Map<PackageFragment, Boolean> changes) {
+		IPackageFragmentRoot[] allRoots = cache.allPkgFragmentRootsCache;
+		HashMap<IPackageFragmentRoot, Integer> rootPositions = new HashMap<>();
+		for (int i = 0, length = allRoots.length; i < length; i++)
+			rootPositions.put(allRoots[i], Integer.valueOf(i));
+		Map pkgFragmentsCaches = cache.pkgFragmentsCaches;
+		HashMap<Object, Object> newCaches = null;
+		HashSet<IPackageFragmentRoot> copiedRoots = null;
+		HashtableOfArrayToObject allPkgFragmentsCache = cache.allPkgFragmentsCache;
+		boolean allPackagesCopied = false;
+		ArrayList<String[]> removedNames = null;
+		try {
+			for (Map.Entry<PackageFragment, Boolean> entry : changes.entrySet()) {
+				PackageFragment pkg = entry.getKey();
+				IPackageFragmentRoot root = (IPackageFragmentRoot) pkg.getParent();
+				Integer rootPosition = rootPositions.get(root);
+				if (rootPosition == null)
+					continue; // root is not visible from this project
+				String[] pkgName = pkg.names;
+				boolean added = entry.getValue().booleanValue();
+				HashSetOfArray fragmentsCache = (HashSetOfArray) (newCaches == null ? pkgFragmentsCaches : newCaches).get(root);
+				if (fragmentsCache != null && fragmentsCache.contains(pkgName) != added) {
+					if (newCaches == null) {
+						newCaches = new HashMap<>(pkgFragmentsCaches);
+						copiedRoots = new HashSet<>();
+					}
+					if (copiedRoots.add(root)) {
+						fragmentsCache = (HashSetOfArray) fragmentsCache.clone();
+						newCaches.put(root, fragmentsCache);
+					}
+					if (added)
+						fragmentsCache.add(pkgName);
+					else
+						fragmentsCache.remove(pkgName);
+				}
+				if (allPkgFragmentsCache != null && containsRoot(allPkgFragmentsCache, pkgName, root) != added) {
+					if (!allPackagesCopied) {
+						allPkgFragmentsCache = (HashtableOfArrayToObject) allPkgFragmentsCache.clone();
+						allPackagesCopied = true;
+					}
+					if (added) {
+						addPackage(allPkgFragmentsCache, pkgName, root, rootPosition.intValue(), rootPositions);
+					} else if (removePackage(allPkgFragmentsCache, pkgName, root)) {
+						if (removedNames == null)
+							removedNames = new ArrayList<>();
+						removedNames.add(pkgName);
+					}
+				}
+			}
+		} catch (CloneNotSupportedException e) {
+			// cannot happen (HashSetOfArray and HashtableOfArrayToObject support cloning)
+			return null;
+		}
+		if (removedNames != null)
+			removeUnusedPackages(allPkgFragmentsCache, removedNames);
+		if (newCaches == null && !allPackagesCopied)
+			return cache;
+		ProjectCache newCache = new ProjectCache(allRoots, cache.rootToResolvedEntries, newCaches == null ? pkgFragmentsCaches : newCaches);
+		newCache.allPkgFragmentsCache = allPkgFragmentsCache;
+		return newCache;
+	}
+
+	/*
+	 * Adds the given root to the roots of the given package, keeping the roots in classpath order.
+	 */
+	private static void addPackage(HashtableOfArrayToObject packageFragments, String[] pkgName, IPackageFragmentRoot root, int rootPosition, Map<IPackageFragmentRoot, Integer> rootPositions) {
+		Object existing = packageFragments.get(pkgName);
+		if (existing == null || existing == NO_ROOTS) {
+			packageFragments.put(pkgName, root);
+			addSuperPackageNames(pkgName, packageFragments);
+			return;
+		}
+		IPackageFragmentRoot[] roots = existing instanceof IPackageFragmentRoot
+				? new IPackageFragmentRoot[] {(IPackageFragmentRoot) existing}
+				: (IPackageFragmentRoot[]) existing;
+		int rootLength = roots.length;
+		if (indexOf(roots, root) != -1)
+			return;
+		int insertionIndex = 0;
+		while (insertionIndex < rootLength) {
+			Integer position = rootPositions.get(roots[insertionIndex]);
+			if (position != null && position.intValue() > rootPosition)
+				break;
+			insertionIndex++;
+		}
+		IPackageFragmentRoot[] newRoots = new IPackageFragmentRoot[rootLength+1];
+		System.arraycopy(roots, 0, newRoots, 0, insertionIndex);
+		newRoots[insertionIndex] = root;
+		System.arraycopy(roots, insertionIndex, newRoots, insertionIndex+1, rootLength-insertionIndex);
+		packageFragments.put(pkgName, newRoots);
+	}
+
+	/*
+	 * Removes the given root from the roots of the given package.
+	 * Returns whether the package was left without roots, in which case it is kept as a super package until
+	 * removeUnusedPackages(...) is called.
+	 */
+	private static boolean removePackage(HashtableOfArrayToObject packageFragments, String[] pkgName, IPackageFragmentRoot root) {
+		Object existing = packageFragments.get(pkgName);
+		if (existing instanceof IPackageFragmentRoot[]) {
+			IPackageFragmentRoot[] roots = (IPackageFragmentRoot[]) existing;
+			int index = indexOf(roots, root);
+			if (index == -1)
+				return false;
+			int rootLength = roots.length;
+			if (rootLength == 2) {
+				packageFragments.put(pkgName, roots[1 - index]);
+			} else {
+				IPackageFragmentRoot[] newRoots = new IPackageFragmentRoot[rootLength-1];
+				System.arraycopy(roots, 0, newRoots, 0, index);
+				System.arraycopy(roots, index+1, newRoots, index, rootLength-index-1);
+				packageFragments.put(pkgName, newRoots);
+			}
+			return false;
+		}
+		if (existing == null || !existing.equals(root))
+			return false;
+		packageFragments.put(pkgName, NO_ROOTS);
+		return true;
+	}
+
+	/*
+	 * Removes the given packages that were left without roots, along with their super packages that were
+	 * only kept for them, unless they are still the super package of another package.
+	 * The super packages still in use are collected in a single pass over the table.
+	 */
+	private static void removeUnusedPackages(HashtableOfArrayToObject packageFragments, ArrayList<String[]> removedNames) {
+		HashSetOfArray usedSuperNames = new HashSetOfArray();
+		Object[][] keys = packageFragments.keyTable;
+		Object[] values = packageFragments.valueTable;
+		for (int i = 0, keysLength = keys.length; i < keysLength; i++) {
+			Object[] key = keys[i];
+			if (key == null || values[i] == NO_ROOTS)
+				continue;
+			for (int j = key.length-1; j > 0; j--) {
+				String[] superName = new String[j];
+				System.arraycopy(key, 0, superName, 0, j);
+				if (usedSuperNames.contains(superName))
+					break; // its own super packages were already collected
+				usedSuperNames.add(superName);
+			}
+		}
+		for (int i = 0, size = removedNames.size(); i < size; i++) {
+			String[] pkgName = removedNames.get(i);
+			for (int length = pkgName.length; length > 0; length--) {
+				String[] name = pkgName;
+				if (length < pkgName.length)
+					System.arraycopy(pkgName, 0, name = new String[length], 0, length);
+				if (packageFragments.get(name) != NO_ROOTS || usedSuperNames.contains(name))
+					break;
+				packageFragments.removeKey(name);
+			}
+		}
+	}
+
+	private static boolean containsRoot(HashtableOfArrayToObject packageFragments, String[] pkgName, IPackageFragmentRoot root) {
+		Object existing = packageFragments.get(pkgName);
+		if (existing instanceof IPackageFragmentRoot)
+			return existing.equals(root);
+		return existing != null && indexOf((IPackageFragmentRoot[]) existing, root) != -1;
+	}
+
+	private static int indexOf(IPackageFragmentRoot[] roots, IPackageFragmentRoot root) {
+		for (int i = 0, length = roots.length; i < length; i++) {
+			if (roots[i].equals(root))
+				return i;
+		}
+		return -1;
+	}
 }
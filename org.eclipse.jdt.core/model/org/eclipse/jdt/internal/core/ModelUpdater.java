@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,11 @@
 
 package org.eclipse.jdt.internal.core;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.jdt.core.*;
 
@@ -28,6 +31,9 @@ public class ModelUpdater {
 
 	HashSet projectsToUpdate = new HashSet();
 
+	/* A table from the projects to the package fragments that were added (true) or removed (false) in them */
+	HashMap<JavaProject, Map<PackageFragment, Boolean>> packageCachesToUpdate = new HashMap<>();
+
 	/**
 	 * Adds the given child handle to its parent's cache of children.
 	 */
@@ -94,9 +100,12 @@ public class ModelUpdater {
 				this.projectsToUpdate.add(element.getJavaProject());
 				break;
 			case IJavaElement.PACKAGE_FRAGMENT :
-				// get rid of package fragment cache
+				// update package fragment cache once the whole delta is traversed
 				JavaProject project = (JavaProject) element.getJavaProject();
-				project.resetCaches();
+				Map<PackageFragment, Boolean> changes = this.packageCachesToUpdate.get(project);
+				if (changes == null)
+					this.packageCachesToUpdate.put(project, changes = new LinkedHashMap<>());
+				changes.put((PackageFragment) element, Boolean.TRUE);
 				break;
 		}
 	}
@@ -141,9 +150,12 @@ public class ModelUpdater {
 				this.projectsToUpdate.add(element.getJavaProject());
 				break;
 			case IJavaElement.PACKAGE_FRAGMENT :
-				// get rid of package fragment cache
+				// update package fragment cache once the whole delta is traversed
 				JavaProject project = (JavaProject) element.getJavaProject();
-				project.resetCaches();
+				Map<PackageFragment, Boolean> changes = this.packageCachesToUpdate.get(project);
+				if (changes == null)
+					this.packageCachesToUpdate.put(project, changes = new LinkedHashMap<>());
+				changes.put((PackageFragment) element, Boolean.FALSE);
 				break;
 		}
 	}
@@ -163,8 +175,15 @@ public class ModelUpdater {
 				JavaProject project = (JavaProject) iterator.next();
 				project.resetCaches();
 			}
+			// update the package fragment caches of the other projects, with all their changes at once
+			for (Map.Entry<JavaProject, Map<PackageFragment, Boolean>> entry : this.packageCachesToUpdate.entrySet()) {
+				JavaProject project = entry.getKey();
+				if (!this.projectsToUpdate.contains(project))
+					project.updatePackageCaches(entry.getValue());
+			}
 		} finally {
 			this.projectsToUpdate = new HashSet();
+			this.packageCachesToUpdate = new HashMap<>();
 		}
 	}
 
@@ -242,15 +242,8 @@ public class NameLookup implements SuffixConstants {
 		}
 		this.rootToModule = new HashMap<>();
 		this.packageFragmentRoots = packageFragmentRoots;
-		if (workingCopies == null) {
-			this.packageFragments = packageFragments;
-		} else {
-			// clone tables as we're adding packages from working copies
-			try {
-				this.packageFragments = (HashtableOfArrayToObject) packageFragments.clone();
-			} catch (CloneNotSupportedException e1) {
-				// ignore (implementation of HashtableOfArrayToObject supports cloning)
-			}
+		this.packageFragments = packageFragments;
+		if (workingCopies != null) {
 			this.typesInWorkingCopies = new HashMap();
 			HashtableOfObjectToInt rootPositions = new HashtableOfObjectToInt();
 			for (int i = 0, length = packageFragmentRoots.length; i < length; i++) {
@@ -300,7 +293,7 @@ public class NameLookup implements SuffixConstants {
 				String[] pkgName = pkg.names;
 				Object existing = this.packageFragments.get(pkgName);
 				if (existing == null || existing == JavaProjectElementInfo.NO_ROOTS) {
-					this.packageFragments.put(pkgName, root);
+					getPackageFragmentsToModify(packageFragments).put(pkgName, root);
 					// ensure super packages (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=119161)
 					// are also in the map
 					JavaProjectElementInfo.addSuperPackageNames(pkgName, this.packageFragments);
@@ -308,7 +301,7 @@ public class NameLookup implements SuffixConstants {
 					if (existing instanceof PackageFragmentRoot) {
 						int exisitingPosition = rootPositions.get(existing);
 						if (rootPosition != exisitingPosition) { // if not equal
-							this.packageFragments.put(
+							getPackageFragmentsToModify(packageFragments).put(
 								pkgName,
 								exisitingPosition < rootPosition ?
 									new IPackageFragmentRoot[] {(PackageFragmentRoot) existing, root} :
@@ -338,7 +331,7 @@ public class NameLookup implements SuffixConstants {
 							System.arraycopy(roots, 0, newRoots, 0, insertionIndex);
 							newRoots[insertionIndex] = root;
 							System.arraycopy(roots, insertionIndex, newRoots, insertionIndex+1, rootLength-insertionIndex);
-							this.packageFragments.put(pkgName, newRoots);
+							getPackageFragmentsToModify(packageFragments).put(pkgName, newRoots);
 						}
 					}
 				}
@@ -351,6 +344,21 @@ public class NameLookup implements SuffixConstants {
         }
 	}
 
+	/*
+	 * Returns the package fragments table of this name lookup, after copying it if it is still the
+	 * given table of the project, so that the project's table is shared until a working copy adds to it.
+	 */
+	private HashtableOfArrayToObject getPackageFragmentsToModify(HashtableOfArrayToObject projectPackageFragments) {
+		if (this.packageFragments == projectPackageFragments) {
+			try {
+				this.packageFragments = (HashtableOfArrayToObject) projectPackageFragments.clone();
+			} catch (CloneNotSupportedException e) {
+				// ignore (implementation of HashtableOfArrayToObject supports cloning)
+			}
+		}
+		return this.packageFragments;
+	}
+
 	/**
 	 * Returns true if:<ul>
 	 *  <li>the given type is an existing class and the flag's <code>ACCEPT_CLASSES</code>
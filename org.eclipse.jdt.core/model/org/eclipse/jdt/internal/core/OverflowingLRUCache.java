@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -40,6 +40,11 @@ import org.eclipse.jdt.internal.core.util.Messages;
  *	<code>setSpaceLimit</code>.  Explicitly calling the <code>shrink</code> method
  *	will also cause the cache to attempt to shrink.
  *
+ *	<p>Elements used since they were added are given a second chance: when the cache
+ *	needs space, the least recently used elements that were not used since they were added
+ *	are removed first. Opening many elements once (e.g. during a search) thus does not remove
+ *	the elements that are used repeatedly.
+ *
  *	<p>The cache calculates the used space of all elements which implement
  *	<code>ILRUCacheable</code>.  All other elements are assumed to be of size one.
  *
@@ -186,6 +191,17 @@ public double getLoadFactor() {
 			// (by a call to get(Object) for example)
 			this.timestampsOn = false;
 
+			// first remove the entries that were not used since they were added, and give the others a second chance
+			while (this.currentSpace + spaceNeeded > limit && entry != null) {
+				if (entry.referenced)
+					entry.referenced = false;
+				else
+					this.privateRemoveEntry(entry, false, false);
+				entry = entry.previous;
+			}
+
+			// then remove the least recently used entries
+			entry = this.entryQueueTail;
 			while (this.currentSpace + spaceNeeded > limit && entry != null) {
 				this.privateRemoveEntry(entry, false, false);
 				entry = entry.previous;
@@ -415,6 +431,7 @@ public String toString() {
 protected void updateTimestamp(LRUCacheEntry<K, V> entry) {
 	if (this.timestampsOn) {
 		entry.timestamp = this.timestampCounter++;
+		entry.referenced = true;
 		if (this.entryQueue != entry) {
 			this.privateRemoveEntry(entry, true);
 			privateAddEntry(entry, true);
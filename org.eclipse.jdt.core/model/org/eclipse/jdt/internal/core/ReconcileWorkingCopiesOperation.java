@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaModelStatus;
+import org.eclipse.jdt.core.IJavaModelStatusConstants;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+import org.eclipse.jdt.internal.core.util.Messages;
+
+/**
+ * Reconciles several working copies together.
+ * <p>
+ * Each working copy is reconciled as by {@link ReconcileWorkingCopyOperation}, except that the working copies
+ * of the same project are resolved together in a single lookup environment by
+ * {@link CompilationUnitProblemFinder#process(CompilationUnit[], WorkingCopyOwner, HashMap[], boolean, int, boolean, org.eclipse.core.runtime.IProgressMonitor)},
+ * so that the types they depend on are only found and built once instead of once per working copy.
+ * The ASTs of the working copies are thus always created with their bindings resolved.
+ * </p>
+ */
+@SuppressWarnings({"rawtypes"})
+public class ReconcileWorkingCopiesOperation extends JavaModelOperation {
+
+	int astLevel;
+	int reconcileFlags;
+	WorkingCopyOwner workingCopyOwner;
+	boolean parseInParallel;
+	/**
+	 * The ASTs of the working copies, at the index of each working copy
+	 */
+	public org.eclipse.jdt.core.dom.CompilationUnit[] asts;
+
+	public ReconcileWorkingCopiesOperation(IJavaElement[] workingCopies, int astLevel, int reconcileFlags, WorkingCopyOwner workingCopyOwner, boolean parseInParallel) {
+		super(workingCopies);
+		this.astLevel = astLevel;
+		this.reconcileFlags = reconcileFlags;
+		this.workingCopyOwner = workingCopyOwner;
+		this.parseInParallel = parseInParallel;
+	}
+
+	@Override
+	protected void executeOperation() throws JavaModelException {
+		checkCanceled();
+		int length = this.elementsToProcess.length;
+		this.asts = new org.eclipse.jdt.core.dom.CompilationUnit[length];
+		try {
+			beginTask(Messages.element_reconciling, length * 3);
+
+			// make the working copies consistent and compute their deltas, without finding their problems yet
+			ReconcileWorkingCopyOperation[] operations = new ReconcileWorkingCopyOperation[length];
+			LinkedHashMap<IJavaProject, ArrayList<Integer>> workingCopiesByProject = new LinkedHashMap<>();
+			for (int i = 0; i < length; i++) {
+				CompilationUnit workingCopy = (CompilationUnit) this.elementsToProcess[i];
+				ReconcileWorkingCopyOperation operation = new ReconcileWorkingCopyOperation(workingCopy, this.astLevel, this.reconcileFlags, this.workingCopyOwner);
+				operation.progressMonitor = this.progressMonitor;
+				operation.prepare(workingCopy);
+				if (operation.makeStructureConsistent(workingCopy)) {
+					IJavaProject project = workingCopy.getJavaProject();
+					ArrayList<Integer> indexes = workingCopiesByProject.get(project);
+					if (indexes == null)
+						workingCopiesByProject.put(project, indexes = new ArrayList<>());
+					indexes.add(i);
+				}
+				operations[i] = operation;
+				worked(1);
+			}
+
+			// find the problems of the working copies of each project together
+			for (Iterator<ArrayList<Integer>> iterator = workingCopiesByProject.values().iterator(); iterator.hasNext();) {
+				checkCanceled();
+				ArrayList<Integer> indexes = iterator.next();
+				resolve(indexes, operations);
+			}
+
+			// notify the participants and report the problems and deltas of each working copy
+			for (int i = 0; i < length; i++) {
+				CompilationUnit workingCopy = (CompilationUnit) this.elementsToProcess[i];
+				ReconcileWorkingCopyOperation operation = operations[i];
+				if (!operation.wasConsistent || ((this.reconcileFlags & ICompilationUnit.FORCE_PROBLEM_DETECTION) != 0)) {
+					operation.notifyParticipants(workingCopy);
+
+					// recreate ast if one participant reset it
+					if (operation.ast == null && this.astLevel != ICompilationUnit.NO_AST)
+						operation.makeConsistent(workingCopy);
+				}
+				operation.reportProblemsAndDelta(workingCopy);
+				this.asts[i] = operation.ast;
+				worked(1);
+			}
+		} finally {
+			done();
+		}
+	}
+
+	/*
+	 * Resolves the working copies at the given indexes, which belong to the same project, and sets their
+	 * problems and ASTs in the corresponding operations.
+	 */
+	private void resolve(ArrayList<Integer> indexes, ReconcileWorkingCopyOperation[] operations) throws JavaModelException {
+		int count = indexes.size();
+		CompilationUnit[] sources = new CompilationUnit[count];
+		HashMap[] problems = new HashMap[count];
+		for (int i = 0; i < count; i++) {
+			sources[i] = ((CompilationUnit) this.elementsToProcess[indexes.get(i)]).cloneCachingContents();
+			problems[i] = new HashMap();
+		}
+		boolean creatingAST = this.astLevel != ICompilationUnit.NO_AST;
+		CompilationUnitDeclaration[] units = null;
+		try {
+			JavaModelManager.getJavaModelManager().abortOnMissingSource.set(Boolean.TRUE);
+			units = CompilationUnitProblemFinder.process(sources, this.workingCopyOwner, problems, creatingAST, this.reconcileFlags, this.parseInParallel, this.progressMonitor);
+			Map options = sources[0].getJavaProject().getOptions(true);
+			for (int i = 0; i < count; i++) {
+				int index = indexes.get(i);
+				CompilationUnit workingCopy = (CompilationUnit) this.elementsToProcess[index];
+				org.eclipse.jdt.core.dom.CompilationUnit ast = null;
+				if (creatingAST && units[i] != null) {
+					// the problems found while resolving bindings lazily during the conversion belong to the unit being converted
+					LookupEnvironment environment = units[i].scope == null ? null : units[i].scope.environment;
+					CompilationUnitDeclaration previousUnit = null;
+					if (environment != null) {
+						previousUnit = environment.unitBeingCompleted;
+						environment.unitBeingCompleted = units[i];
+					}
+					try {
+						ast = AST.convertCompilationUnit(this.astLevel, units[i], options, true/*resolve bindings*/, sources[i], this.reconcileFlags, this.progressMonitor);
+					} finally {
+						if (environment != null)
+							environment.unitBeingCompleted = previousUnit;
+					}
+				}
+				operations[index].setResolution(workingCopy, problems[i], ast);
+				worked(1);
+			}
+		} catch (JavaModelException e) {
+			if (JavaProject.hasJavaNature(sources[0].getJavaProject().getProject()))
+				throw e;
+			// else JavaProject has lost its nature (or most likely was closed/deleted) while reconciling -> ignore
+			// (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=100919)
+		} finally {
+			JavaModelManager.getJavaModelManager().abortOnMissingSource.set(null);
+			if (units != null) {
+				for (int i = 0; i < count; i++) {
+					if (units[i] != null)
+						units[i].cleanUp();
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return true;
+	}
+
+	@Override
+	protected IJavaModelStatus verify() {
+		IJavaModelStatus status = super.verify();
+		if (!status.isOK()) {
+			return status;
+		}
+		for (int i = 0, length = this.elementsToProcess.length; i < length; i++) {
+			CompilationUnit workingCopy = (CompilationUnit) this.elementsToProcess[i];
+			if (!workingCopy.isWorkingCopy()) {
+				return new JavaModelStatus(IJavaModelStatusConstants.ELEMENT_DOES_NOT_EXIST, workingCopy); //was destroyed
+			}
+		}
+		return status;
+	}
+}
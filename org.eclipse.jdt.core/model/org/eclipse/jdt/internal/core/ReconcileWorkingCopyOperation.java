@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -57,6 +57,11 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 	public org.eclipse.jdt.core.dom.CompilationUnit ast;
 	public JavaElementDeltaBuilder deltaBuilder;
 	public boolean requestorIsActive;
+	boolean wasConsistent;
+	IProblemRequestor problemRequestor;
+	IProblemRequestor ownerProblemRequestor;
+	boolean defaultRequestorIsActive;
+	boolean ownerRequestorIsActive;
 
 	public ReconcileWorkingCopyOperation(IJavaElement workingCopy, int astLevel, int reconcileFlags, WorkingCopyOwner workingCopyOwner) {
 		super(new IJavaElement[] {workingCopy});
@@ -76,26 +81,14 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 			beginTask(Messages.element_reconciling, 2);
 
 			CompilationUnit workingCopy = getWorkingCopy();
-			boolean wasConsistent = workingCopy.isConsistent();
-
-			// check is problem requestor is active
-			IProblemRequestor problemRequestor = workingCopy.getPerWorkingCopyInfo();
-			if (problemRequestor != null)
-				problemRequestor =  ((JavaModelManager.PerWorkingCopyInfo)problemRequestor).getProblemRequestor();
-			boolean defaultRequestorIsActive = problemRequestor != null && problemRequestor.isActive();
-			IProblemRequestor ownerProblemRequestor = this.workingCopyOwner.getProblemRequestor(workingCopy);
-			boolean ownerRequestorIsActive = ownerProblemRequestor != null && ownerProblemRequestor != problemRequestor && ownerProblemRequestor.isActive();
-			this.requestorIsActive = defaultRequestorIsActive || ownerRequestorIsActive;
-
-			// create the delta builder (this remembers the current content of the cu)
-			this.deltaBuilder = new JavaElementDeltaBuilder(workingCopy);
+			prepare(workingCopy);
 
 			// make working copy consistent if needed and compute AST if needed
 			makeConsistent(workingCopy);
 
 			// notify reconcile participants only if working copy was not consistent or if forcing problem detection
 			// (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=177319)
-			if (!wasConsistent || ((this.reconcileFlags & ICompilationUnit.FORCE_PROBLEM_DETECTION) != 0)) {
+			if (!this.wasConsistent || ((this.reconcileFlags & ICompilationUnit.FORCE_PROBLEM_DETECTION) != 0)) {
 				notifyParticipants(workingCopy);
 
 				// recreate ast if one participant reset it
@@ -103,35 +96,62 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 					makeConsistent(workingCopy);
 			}
 
-			// report problems
-			if (this.problems != null && (((this.reconcileFlags & ICompilationUnit.FORCE_PROBLEM_DETECTION) != 0) || !wasConsistent)) {
-				if (defaultRequestorIsActive) {
-					reportProblems(workingCopy, problemRequestor);
-				}
-				if (ownerRequestorIsActive) {
-					reportProblems(workingCopy, ownerProblemRequestor);
-				}
-			}
-
-			// report delta
-			JavaElementDelta delta = this.deltaBuilder.delta;
-			if (delta != null) {
-				addReconcileDelta(workingCopy, delta);
-			}
+			reportProblemsAndDelta(workingCopy);
 		} finally {
 			done();
 		}
 	}
 
+	/*
+	 * Remembers whether the given working copy is consistent, finds its problem requestors,
+	 * and creates the delta builder that remembers its current content.
+	 */
+	void prepare(CompilationUnit workingCopy) {
+		this.wasConsistent = workingCopy.isConsistent();
+
+		// check is problem requestor is active
+		this.problemRequestor = workingCopy.getPerWorkingCopyInfo();
+		if (this.problemRequestor != null)
+			this.problemRequestor =  ((JavaModelManager.PerWorkingCopyInfo)this.problemRequestor).getProblemRequestor();
+		this.defaultRequestorIsActive = this.problemRequestor != null && this.problemRequestor.isActive();
+		this.ownerProblemRequestor = this.workingCopyOwner.getProblemRequestor(workingCopy);
+		this.ownerRequestorIsActive = this.ownerProblemRequestor != null && this.ownerProblemRequestor != this.problemRequestor && this.ownerProblemRequestor.isActive();
+		this.requestorIsActive = this.defaultRequestorIsActive || this.ownerRequestorIsActive;
+
+		// create the delta builder (this remembers the current content of the cu)
+		this.deltaBuilder = new JavaElementDeltaBuilder(workingCopy);
+	}
+
+	/*
+	 * Reports the problems of the given working copy if needed, and its delta.
+	 */
+	void reportProblemsAndDelta(CompilationUnit workingCopy) {
+		// report problems
+		if (this.problems != null && (((this.reconcileFlags & ICompilationUnit.FORCE_PROBLEM_DETECTION) != 0) || !this.wasConsistent)) {
+			if (this.defaultRequestorIsActive) {
+				reportProblems(workingCopy, this.problemRequestor);
+			}
+			if (this.ownerRequestorIsActive) {
+				reportProblems(workingCopy, this.ownerProblemRequestor);
+			}
+		}
+
+		// report delta
+		JavaElementDelta delta = this.deltaBuilder.delta;
+		if (delta != null) {
+			addReconcileDelta(workingCopy, delta);
+		}
+	}
+
 	/**
 	 * Report working copy problems to a given requestor.
 	 *
 	 * @param workingCopy
-	 * @param problemRequestor
+	 * @param requestor
 	 */
-	private void reportProblems(CompilationUnit workingCopy, IProblemRequestor problemRequestor) {
+	private void reportProblems(CompilationUnit workingCopy, IProblemRequestor requestor) {
 		try {
-			problemRequestor.beginReporting();
+			requestor.beginReporting();
 			for (Iterator iteraror = this.problems.values().iterator(); iteraror.hasNext();) {
 				CategorizedProblem[] categorizedProblems = (CategorizedProblem[]) iteraror.next();
 				if (categorizedProblems == null) continue;
@@ -141,11 +161,11 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 						System.out.println("PROBLEM FOUND while reconciling : " + problem.getMessage());//$NON-NLS-1$
 					}
 					if (this.progressMonitor != null && this.progressMonitor.isCanceled()) break;
-					problemRequestor.acceptProblem(problem);
+					requestor.acceptProblem(problem);
 				}
 			}
 		} finally {
-			problemRequestor.endReporting();
+			requestor.endReporting();
 		}
 	}
 
@@ -236,7 +256,38 @@ public class ReconcileWorkingCopyOperation extends JavaModelOperation {
 		return this.ast;
 	}
 
-	private void notifyParticipants(final CompilationUnit workingCopy) {
+	/*
+	 * Makes the given working copy consistent and computes the delta, without finding its problems
+	 * nor creating an AST. Answers whether it needs to be resolved: as in makeConsistent(...), a working copy
+	 * that changed is only resolved if a problem requestor is active or an AST is wanted, unless problem
+	 * detection is forced.
+	 */
+	boolean makeStructureConsistent(CompilationUnit workingCopy) throws JavaModelException {
+		boolean findProblems = (!workingCopy.isConsistent() && (this.requestorIsActive || this.astLevel != ICompilationUnit.NO_AST))
+				|| (this.reconcileFlags & ICompilationUnit.FORCE_PROBLEM_DETECTION) != 0;
+		if (!workingCopy.isConsistent()) {
+			workingCopy.makeStructureConsistent(this.reconcileFlags, this.progressMonitor);
+			this.deltaBuilder.buildDeltas();
+		}
+		return findProblems && JavaProject.hasJavaNature(workingCopy.getJavaProject().getProject());
+	}
+
+	/*
+	 * Sets the problems and the AST found while resolving the given working copy together with other working copies.
+	 */
+	void setResolution(CompilationUnit workingCopy, HashMap unitProblems, org.eclipse.jdt.core.dom.CompilationUnit unitAST) {
+		this.problems = unitProblems;
+		this.resolveBindings = unitAST != null;
+		this.ast = unitAST;
+		if (unitAST != null) {
+			if (this.deltaBuilder.delta == null) {
+				this.deltaBuilder.delta = new JavaElementDelta(workingCopy);
+			}
+			this.deltaBuilder.delta.changedAST(unitAST);
+		}
+	}
+
+	void notifyParticipants(final CompilationUnit workingCopy) {
 		IJavaProject javaProject = getWorkingCopy().getJavaProject();
 		CompilationParticipant[] participants = JavaModelManager.getJavaModelManager().compilationParticipants.getCompilationParticipants(javaProject);
 		if (participants == null) return;
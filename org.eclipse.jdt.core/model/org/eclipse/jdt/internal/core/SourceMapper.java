@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -70,6 +70,7 @@ import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.jdt.internal.compiler.util.JRTUtil;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.core.util.MementoTokenizer;
 import org.eclipse.jdt.internal.core.util.ReferenceInfoAdapter;
 
 /**
@@ -280,6 +281,13 @@ public class SourceMapper
 	 */
 	private boolean areRootPathsComputed;
 
+	/**
+	 * The results of the current parse recorded for the source range index,
+	 * and the memento of the package fragment root of the binary type being mapped
+	 */
+	private SourceRangeIndex.UnitRanges recordedUnit;
+	private String recordedRootMemento;
+
 	public SourceMapper() {
 		this.areRootPathsComputed = false;
 	}
@@ -382,6 +390,7 @@ public class SourceMapper
 		if (this.categories == null)
 			this.categories = new HashMap();
 		this.categories.put(element, CharOperation.toStrings(elementCategories));
+		record(SourceRangeIndex.CATEGORIES, element, null, null, elementCategories);
 	}
 
 	/**
@@ -546,6 +555,22 @@ public class SourceMapper
 			System.out.println("compute all root paths for " + root.getElementName()); //$NON-NLS-1$
 			time = System.currentTimeMillis();
 		}
+		// the root paths found in an archive attachment are remembered as long as both archives are unchanged
+		SourceRootPathsCache rootPathsCache = null;
+		if (root.isArchive() && !Util.isJrt(pkgFragmentRootPath.toOSString())) {
+			rootPathsCache = JavaModelManager.getJavaModelManager().sourceRootPaths;
+			String[] knownRootPaths = rootPathsCache.getRootPaths(pkgFragmentRootPath, this.sourcePath);
+			if (knownRootPaths != null) {
+				for (int i = 0, length = knownRootPaths.length; i < length; i++) {
+					tempRoots.add(new Path(knownRootPaths[i]));
+				}
+				setRootPaths(tempRoots);
+				if (VERBOSE) {
+					System.out.println("Reused " + knownRootPaths.length + " root paths"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return;
+			}
+		}
 		final HashSet firstLevelPackageNames = new HashSet();
 		boolean containsADefaultPackage = false;
 		boolean containsJavaSource = !pkgFragmentRootPath.equals(this.sourcePath); // used to optimize zip file reading only if source path and root path are equals, otherwise assume that attachment contains Java source
@@ -675,6 +700,31 @@ public class SourceMapper
 				}
 			}
 		}
+		if (rootPathsCache != null) {
+			String[] foundRootPaths = new String[tempRoots.size()];
+			int i = 0;
+			for (Iterator iterator = tempRoots.iterator(); iterator.hasNext();) {
+				foundRootPaths[i++] = ((IPath) iterator.next()).toString();
+			}
+			rootPathsCache.setRootPaths(pkgFragmentRootPath, this.sourcePath, foundRootPaths);
+		}
+		int size = setRootPaths(tempRoots);
+		if (VERBOSE) {
+			System.out.println("Spent " + (System.currentTimeMillis() - time) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			System.out.println("Found " + size + " root paths");	//$NON-NLS-1$ //$NON-NLS-2$
+			int i = 0;
+			for (Iterator iterator = this.rootPaths.iterator(); iterator.hasNext();) {
+				System.out.println("root[" + i + "]=" + ((String) iterator.next()));//$NON-NLS-1$ //$NON-NLS-2$
+				i++;
+			}
+		}
+	}
+
+	/*
+	 * Sets the root paths to the given root paths and to the already known ones, shortest first.
+	 * Returns the number of root paths.
+	 */
+	private int setRootPaths(HashSet tempRoots) {
 		int size = tempRoots.size();
 		if (this.rootPaths != null) {
 			for (Iterator iterator = this.rootPaths.iterator(); iterator.hasNext(); ) {
@@ -703,15 +753,7 @@ public class SourceMapper
 			}
 		}
 		this.areRootPathsComputed = true;
-		if (VERBOSE) {
-			System.out.println("Spent " + (System.currentTimeMillis() - time) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
-			System.out.println("Found " + size + " root paths");	//$NON-NLS-1$ //$NON-NLS-2$
-			int i = 0;
-			for (Iterator iterator = this.rootPaths.iterator(); iterator.hasNext();) {
-				System.out.println("root[" + i + "]=" + ((String) iterator.next()));//$NON-NLS-1$ //$NON-NLS-2$
-				i++;
-			}
-		}
+		return size;
 	}
 
 	private void computeRootPath(IContainer container, HashSet firstLevelPackageNames, boolean hasDefaultPackage, Set set, int sourcePathSegmentCount) {
@@ -1011,6 +1053,12 @@ public class SourceMapper
 						}
 						this.finalParameters.add(key);
 					}
+					record(
+						parameterInfo.modifiers != 0 ? SourceRangeIndex.FINAL_PARAMETER : SourceRangeIndex.PARAMETER,
+						method,
+						key.name,
+						allRanges,
+						null);
 				}
 			}
 
@@ -1596,6 +1644,27 @@ public class SourceMapper
 			} else {
 				sourceFileName = TypeConstants.MODULE_INFO_CLASS_NAME_STRING; 
 			}
+			// the results of parsing the source of a binary type of an archive are recorded across sessions
+			SourceRangeIndex index = null;
+			String key = null;
+			IPackageFragmentRoot root = (IPackageFragmentRoot) this.binaryTypeOrModule.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+			if (elementToFind == null && !doFullParse && this.anonymousClassName == 0
+					&& this.binaryTypeOrModule instanceof BinaryType && root.isArchive() && this.sourcePath != null) {
+				String rootMemento = ((JavaElement) root).getHandleMemento();
+				String typeMemento = this.binaryTypeOrModule.getHandleMemento();
+				if (typeMemento.startsWith(rootMemento)) {
+					index = JavaModelManager.getJavaModelManager().sourceRangeIndex;
+					key = SourceRangeIndex.getKey(root.getPath(), typeMemento.substring(rootMemento.length()));
+					String sourceLevel = this.options == null ? null : (String) this.options.get(JavaCore.COMPILER_SOURCE);
+					if (sourceLevel == null) sourceLevel = ""; //$NON-NLS-1$
+					String path = this.sourcePath.toPortableString();
+					SourceRangeIndex.UnitRanges unit = index.get(key, path, sourceLevel, contents);
+					if (unit != null && replay(unit, (JavaElement) root))
+						return null;
+					this.recordedUnit = new SourceRangeIndex.UnitRanges(path, sourceLevel, contents);
+					this.recordedRootMemento = rootMemento;
+				}
+			}
 			parser = new SourceElementParser(this, factory, new CompilerOptions(this.options), doFullParse, true/*optimize string literals*/);
 			parser.javadocParser.checkDocComment = false; // disable javadoc parsing
 			IJavaElement javaElement = this.binaryTypeOrModule.getCompilationUnit();
@@ -1604,6 +1673,10 @@ public class SourceMapper
 				new BasicCompilationUnit(contents, null, sourceFileName, javaElement),
 				doFullParse,
 				null/*no progress*/);
+			if (this.recordedUnit != null) {
+				this.recordedUnit.imports = getImports(this.binaryTypeOrModule);
+				index.put(key, this.recordedUnit);
+			}
 			if (elementToFind != null) {
 				ISourceRange range = getNameRange(elementToFind);
 				return range;
@@ -1620,6 +1693,8 @@ public class SourceMapper
 			this.typeDeclarationStarts = null;
 			this.typeNameRanges = null;
 			this.typeDepth = -1;
+			this.recordedUnit = null;
+			this.recordedRootMemento = null;
 		}
 	}
 	private char[] readSource(ZipEntry entry, ZipFile zip, String charSet) {
@@ -1647,6 +1722,7 @@ public class SourceMapper
 			parameterNames = CharOperation.NO_CHAR_CHAR;
 		}
 		this.parameterNames.put(method, parameterNames);
+		record(SourceRangeIndex.PARAMETER_NAMES, method, null, null, parameterNames);
 	}
 
 	/**
@@ -1660,6 +1736,75 @@ public class SourceMapper
 		SourceRange sourceRange,
 		SourceRange nameRange) {
 		this.sourceRanges.put(element, new SourceRange[] { sourceRange, nameRange });
+		record(SourceRangeIndex.RANGES, element, null, new SourceRange[] { sourceRange, nameRange }, null);
+	}
+
+	/*
+	 * Records the given results of the current parse for the source range index.
+	 * The recording is abandoned if an element cannot be recorded relative to the package fragment root.
+	 */
+	private void record(int kind, IJavaElement element, String name, SourceRange[] ranges, char[][] names) {
+		if (this.recordedUnit == null) return;
+		String memento = ((JavaElement) element).getHandleMemento();
+		if (!memento.startsWith(this.recordedRootMemento) || (ranges != null && (ranges[0] == null || ranges[1] == null))) {
+			this.recordedUnit = null;
+			return;
+		}
+		int[] offsets = ranges == null ? null : new int[] {
+			ranges[0].getOffset(), ranges[0].getLength(), ranges[1].getOffset(), ranges[1].getLength()
+		};
+		this.recordedUnit.entries.add(new SourceRangeIndex.Entry(
+			kind, memento.substring(this.recordedRootMemento.length()), name, offsets, names));
+	}
+
+	/*
+	 * Maps the results recorded in the source range index to the binary type being mapped, as if its source was parsed.
+	 * Returns false and maps nothing if one of the recorded elements cannot be found.
+	 */
+	private boolean replay(SourceRangeIndex.UnitRanges unit, JavaElement root) {
+		int size = unit.entries.size();
+		IJavaElement[] elements = new IJavaElement[size];
+		for (int i = 0; i < size; i++) {
+			elements[i] = root.getHandleFromMemento(new MementoTokenizer(unit.entries.get(i).memento), DefaultWorkingCopyOwner.PRIMARY);
+			if (elements[i] == null) return false;
+		}
+		for (int i = 0; i < size; i++) {
+			SourceRangeIndex.Entry entry = unit.entries.get(i);
+			int[] offsets = entry.ranges;
+			switch (entry.kind) {
+				case SourceRangeIndex.RANGES :
+					this.sourceRanges.put(elements[i], new SourceRange[] {
+						new SourceRange(offsets[0], offsets[1]), new SourceRange(offsets[2], offsets[3])
+					});
+					break;
+				case SourceRangeIndex.PARAMETER_NAMES :
+					this.parameterNames.put(elements[i], entry.names);
+					break;
+				case SourceRangeIndex.PARAMETER :
+				case SourceRangeIndex.FINAL_PARAMETER :
+					LocalVariableElementKey key = new LocalVariableElementKey(elements[i], entry.name);
+					this.parametersRanges.put(key, new SourceRange[] {
+						new SourceRange(offsets[0], offsets[1]), new SourceRange(offsets[2], offsets[3])
+					});
+					if (entry.kind == SourceRangeIndex.FINAL_PARAMETER) {
+						if (this.finalParameters == null) {
+							this.finalParameters = new HashSet();
+						}
+						this.finalParameters.add(key);
+					}
+					break;
+				case SourceRangeIndex.CATEGORIES :
+					if (this.categories == null)
+						this.categories = new HashMap();
+					this.categories.put(elements[i], CharOperation.toStrings(entry.names));
+					break;
+			}
+		}
+		if (unit.imports != null) {
+			this.importsTable.put(this.binaryTypeOrModule, unit.imports);
+			this.importsCounterTable.put(this.binaryTypeOrModule, Integer.valueOf(unit.imports.length));
+		}
+		return true;
 	}
 
 	/**
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.internal.core.util.ICacheEnumeration;
+import org.eclipse.jdt.internal.core.util.ILRUCacheable;
+import org.eclipse.jdt.internal.core.util.LRUCache;
+
+/**
+ * The results of parsing the source attachments of archives, by binary type, saved across sessions.
+ * <p>
+ * A {@link SourceMapper} parses the attached source of a binary type the first time the source ranges of the
+ * type or of its members are needed, which is done again each time the package fragment root is opened again and
+ * in each session. The source ranges, parameter names, categories and imports found by parsing the source are thus
+ * recorded here, and replayed by the next mappers of the archive instead of parsing the same source again. They are
+ * only replayed for the same source attachment, source level and contents.
+ * </p><p>
+ * Elements are recorded by their handle memento relative to their package fragment root, so that the roots of
+ * an archive in different projects share the recorded results. At most {@link #MAX_ELEMENTS} elements are kept,
+ * the results of the least recently used types are forgotten first.
+ * </p>
+ */
+public class SourceRangeIndex {
+
+	/**
+	 * The maximum number of elements recorded, for all the types
+	 */
+	static final int MAX_ELEMENTS = 20000;
+
+	private static final int VERSION = 1;
+
+	/* kinds of the recorded elements */
+	static final int RANGES = 0;
+	static final int PARAMETER_NAMES = 1;
+	static final int PARAMETER = 2;
+	static final int FINAL_PARAMETER = 3;
+	static final int CATEGORIES = 4;
+
+	/**
+	 * An element recorded while parsing the source of a type
+	 */
+	static class Entry {
+		final int kind;
+		/** The root relative memento of the element, or of the method declaring the parameter */
+		final String memento;
+		/** The name of the parameter, null for the other kinds */
+		final String name;
+		/** The offsets and lengths of the source range and of the name range, null for the names and categories */
+		final int[] ranges;
+		/** The parameter names or the categories, null for the ranges */
+		final char[][] names;
+
+		Entry(int kind, String memento, String name, int[] ranges, char[][] names) {
+			this.kind = kind;
+			this.memento = memento;
+			this.name = name;
+			this.ranges = ranges;
+			this.names = names;
+		}
+	}
+
+	/**
+	 * The results of parsing the source of a binary type
+	 */
+	static class UnitRanges implements ILRUCacheable {
+		final String sourcePath;
+		final String sourceLevel;
+		final int contentsLength;
+		final int contentsHash;
+		final ArrayList<Entry> entries = new ArrayList<>();
+		char[][] imports;
+
+		UnitRanges(String sourcePath, String sourceLevel, char[] contents) {
+			this(sourcePath, sourceLevel, contents.length, Arrays.hashCode(contents));
+		}
+
+		UnitRanges(String sourcePath, String sourceLevel, int contentsLength, int contentsHash) {
+			this.sourcePath = sourcePath;
+			this.sourceLevel = sourceLevel;
+			this.contentsLength = contentsLength;
+			this.contentsHash = contentsHash;
+		}
+
+		boolean isFor(String path, String level, char[] contents) {
+			return this.sourcePath.equals(path)
+					&& this.sourceLevel.equals(level)
+					&& this.contentsLength == contents.length
+					&& this.contentsHash == Arrays.hashCode(contents);
+		}
+
+		@Override
+		public int getCacheFootprint() {
+			return this.entries.size() + 1;
+		}
+	}
+
+	private final LRUCache<String, UnitRanges> units = new LRUCache<>(256);
+
+	public SourceRangeIndex() {
+		this.units.setSpaceLimit(MAX_ELEMENTS);
+	}
+
+	/**
+	 * Returns the key of the binary type with the given root relative memento in the given archive.
+	 */
+	static String getKey(IPath archivePath, String typeMemento) {
+		return archivePath.toPortableString() + '|' + typeMemento;
+	}
+
+	/**
+	 * Returns the results recorded for the type with the given key, if they were found by parsing the same
+	 * contents of the given source attachment at the given source level, or <code>null</code> otherwise.
+	 */
+	synchronized UnitRanges get(String key, String sourcePath, String sourceLevel, char[] contents) {
+		UnitRanges unit = this.units.get(key);
+		return unit != null && unit.isFor(sourcePath, sourceLevel, contents) ? unit : null;
+	}
+
+	/**
+	 * Records the results of parsing the source of the type with the given key.
+	 */
+	synchronized void put(String key, UnitRanges unit) {
+		this.units.put(key, unit);
+	}
+
+	public synchronized void reset() {
+		this.units.flush();
+	}
+
+	synchronized void load(DataInputStream in) throws IOException {
+		if (in.readInt() != VERSION)
+			return;
+		for (int count = in.readInt(); count > 0; count--) {
+			String key = in.readUTF();
+			UnitRanges unit = new UnitRanges(in.readUTF(), in.readUTF(), in.readInt(), in.readInt());
+			int importsCount = in.readInt();
+			if (importsCount >= 0)
+				unit.imports = readNames(in, importsCount);
+			for (int entriesCount = in.readInt(); entriesCount > 0; entriesCount--) {
+				int kind = in.readByte();
+				String memento = in.readUTF();
+				switch (kind) {
+					case RANGES :
+						unit.entries.add(new Entry(kind, memento, null, readRanges(in), null));
+						break;
+					case PARAMETER :
+					case FINAL_PARAMETER :
+						String name = in.readUTF();
+						unit.entries.add(new Entry(kind, memento, name, readRanges(in), null));
+						break;
+					case PARAMETER_NAMES :
+					case CATEGORIES :
+						unit.entries.add(new Entry(kind, memento, null, null, readNames(in, in.readInt())));
+						break;
+					default :
+						throw new IOException("Invalid entry kind: " + kind); //$NON-NLS-1$
+				}
+			}
+			this.units.put(key, unit);
+		}
+		if (SourceMapper.VERBOSE)
+			System.out.println("Loaded the source ranges of " + this.units.getCurrentSpace() + " elements"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static int[] readRanges(DataInputStream in) throws IOException {
+		return new int[] {in.readInt(), in.readInt(), in.readInt(), in.readInt()};
+	}
+
+	private static char[][] readNames(DataInputStream in, int count) throws IOException {
+		if (count < 0)
+			throw new IOException("Invalid names count: " + count); //$NON-NLS-1$
+		char[][] names = new char[count][];
+		for (int i = 0; i < count; i++)
+			names[i] = in.readUTF().toCharArray();
+		return names;
+	}
+
+	synchronized void save(DataOutputStream out) throws IOException {
+		ArrayList<String> keys = new ArrayList<>();
+		ArrayList<UnitRanges> values = new ArrayList<>();
+		for (ICacheEnumeration<String, UnitRanges> e = this.units.keysAndValues(); e.hasMoreElements();) {
+			keys.add(e.nextElement());
+			values.add(e.getValue());
+		}
+		out.writeInt(VERSION);
+		out.writeInt(keys.size());
+		for (int i = 0, size = keys.size(); i < size; i++) {
+			UnitRanges unit = values.get(i);
+			out.writeUTF(keys.get(i));
+			out.writeUTF(unit.sourcePath);
+			out.writeUTF(unit.sourceLevel);
+			out.writeInt(unit.contentsLength);
+			out.writeInt(unit.contentsHash);
+			if (unit.imports == null) {
+				out.writeInt(-1);
+			} else {
+				writeNames(out, unit.imports);
+			}
+			out.writeInt(unit.entries.size());
+			for (int j = 0, length = unit.entries.size(); j < length; j++) {
+				Entry entry = unit.entries.get(j);
+				out.writeByte(entry.kind);
+				out.writeUTF(entry.memento);
+				if (entry.name != null)
+					out.writeUTF(entry.name);
+				if (entry.ranges != null) {
+					for (int k = 0; k < 4; k++)
+						out.writeInt(entry.ranges[k]);
+				} else {
+					writeNames(out, entry.names);
+				}
+			}
+		}
+	}
+
+	private static void writeNames(DataOutputStream out, char[][] names) throws IOException {
+		out.writeInt(names.length);
+		for (int i = 0, length = names.length; i < length; i++)
+			out.writeUTF(new String(names[i]));
+	}
+}
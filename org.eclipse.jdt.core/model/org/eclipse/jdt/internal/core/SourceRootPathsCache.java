@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.internal.core.util.ICacheEnumeration;
+import org.eclipse.jdt.internal.core.util.LRUCache;
+
+/**
+ * The root paths found in the source attachments of archives, by archive path.
+ * <p>
+ * Finding the root paths of a source attachment requires scanning all the entries of both the archive
+ * and its source attachment, which is done again each time a source mapper is created for the archive.
+ * The root paths found are thus remembered, also across sessions. They are only reused as long as
+ * neither the archive nor its source attachment changed on disk, that is as long as both have the
+ * same size and time stamp. The root paths of at most {@link #MAX_ARCHIVES} archives are remembered,
+ * those of the least recently used archives are forgotten first.
+ * </p>
+ */
+public class SourceRootPathsCache {
+
+	/**
+	 * The maximum number of archives whose root paths are remembered
+	 */
+	static final int MAX_ARCHIVES = 1000;
+
+	private static final int VERSION = 1;
+
+	static class CachedRootPaths {
+		final IPath sourcePath;
+		final long[] stamps;
+		final String[] rootPaths;
+
+		CachedRootPaths(IPath sourcePath, long[] stamps, String[] rootPaths) {
+			this.sourcePath = sourcePath;
+			this.stamps = stamps;
+			this.rootPaths = rootPaths;
+		}
+	}
+
+	private final LRUCache<IPath, CachedRootPaths> entries = new LRUCache<>(MAX_ARCHIVES);
+
+	/**
+	 * Returns the root paths found in the given source attachment of the given archive, or <code>null</code>
+	 * if they are not known or if the archive or the attachment changed since they were found.
+	 */
+	public synchronized String[] getRootPaths(IPath archivePath, IPath sourcePath) {
+		CachedRootPaths entry = this.entries.get(archivePath);
+		if (entry == null || !entry.sourcePath.equals(sourcePath))
+			return null;
+		long[] stamps = getStamps(archivePath, sourcePath);
+		if (stamps == null || stamps[0] != entry.stamps[0] || stamps[1] != entry.stamps[1]
+				|| stamps[2] != entry.stamps[2] || stamps[3] != entry.stamps[3]) {
+			this.entries.flush(archivePath);
+			return null;
+		}
+		return entry.rootPaths;
+	}
+
+	/**
+	 * Remembers the root paths found in the given source attachment of the given archive.
+	 * Nothing is remembered if the archive or the attachment is not a file.
+	 */
+	public synchronized void setRootPaths(IPath archivePath, IPath sourcePath, String[] rootPaths) {
+		long[] stamps = getStamps(archivePath, sourcePath);
+		if (stamps == null) {
+			this.entries.flush(archivePath);
+		} else {
+			this.entries.put(archivePath, new CachedRootPaths(sourcePath, stamps, rootPaths));
+		}
+	}
+
+	public synchronized void reset() {
+		this.entries.flush();
+	}
+
+	/*
+	 * Returns the time stamps and sizes of the given archive and source attachment,
+	 * or null if one of them is not an existing file.
+	 */
+	private static long[] getStamps(IPath archivePath, IPath sourcePath) {
+		File archive = getFile(archivePath);
+		File source = getFile(sourcePath);
+		if (archive == null || source == null)
+			return null;
+		long[] stamps = new long[] {archive.lastModified(), archive.length(), source.lastModified(), source.length()};
+		if (stamps[0] == 0 || stamps[2] == 0)
+			return null; // do not exist
+		return stamps;
+	}
+
+	private static File getFile(IPath path) {
+		Object target = JavaModel.getTarget(path, true);
+		if (target instanceof File) {
+			File file = (File) target;
+			return file.isFile() ? file : null;
+		}
+		if (target instanceof IFile) {
+			IPath location = ((IFile) target).getLocation();
+			return location == null ? null : location.toFile();
+		}
+		return null;
+	}
+
+	synchronized void load(DataInputStream in) throws IOException {
+		if (in.readInt() != VERSION)
+			return;
+		int size = in.readInt();
+		while (size-- > 0) {
+			IPath archivePath = Path.fromPortableString(in.readUTF());
+			IPath sourcePath = Path.fromPortableString(in.readUTF());
+			long[] stamps = new long[4];
+			for (int i = 0; i < 4; i++)
+				stamps[i] = in.readLong();
+			String[] rootPaths = new String[in.readInt()];
+			for (int i = 0, length = rootPaths.length; i < length; i++)
+				rootPaths[i] = in.readUTF();
+			this.entries.put(archivePath, new CachedRootPaths(sourcePath, stamps, rootPaths));
+		}
+		if (SourceMapper.VERBOSE)
+			System.out.println("Loaded the root paths of " + this.entries.getCurrentSpace() + " source attachments"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	synchronized void save(DataOutputStream out) throws IOException {
+		// forget the archives that have been deleted since their root paths were found
+		ArrayList<IPath> deleted = new ArrayList<>();
+		for (Enumeration<IPath> keys = this.entries.keys(); keys.hasMoreElements();) {
+			IPath archivePath = keys.nextElement();
+			if (getFile(archivePath) == null)
+				deleted.add(archivePath);
+		}
+		for (int i = 0, size = deleted.size(); i < size; i++)
+			this.entries.flush(deleted.get(i));
+		out.writeInt(VERSION);
+		out.writeInt(this.entries.getCurrentSpace());
+		for (ICacheEnumeration<IPath, CachedRootPaths> e = this.entries.keysAndValues(); e.hasMoreElements();) {
+			IPath archivePath = e.nextElement();
+			CachedRootPaths entry = e.getValue();
+			out.writeUTF(archivePath.toPortableString());
+			out.writeUTF(entry.sourcePath.toPortableString());
+			for (int i = 0; i < 4; i++)
+				out.writeLong(entry.stamps[i]);
+			out.writeInt(entry.rootPaths.length);
+			for (int i = 0, length = entry.rootPaths.length; i < length; i++)
+				out.writeUTF(entry.rootPaths[i]);
+		}
+	}
+}
@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.core.util.Messages;
+
+/**
+ * The archives opened through {@link JavaModelManager#getZipFile(IPath)}, shared by all threads.
+ * <p>
+ * Opening an archive parses its central directory, which is costly for large archives. An archive is thus
+ * opened once, and the same handle is answered to all the threads needing it, with a count of the references
+ * to it which are released by {@link JavaModelManager#closeZipFile(ZipFile)}.
+ * </p><p>
+ * While a thread is inside a {@link JavaModelManager#cacheZipFiles(Object)} bracket, an archive that is no longer
+ * referenced is kept open for {@link #IDLE_TIMEOUT} milliseconds, and at most {@link #MAX_IDLE_ARCHIVES}
+ * archives are kept open without being referenced. The archives that are not referenced are closed when the last
+ * bracket ends, and an archive released while no bracket is active is closed at once, so that the archives are not
+ * kept locked while no operation uses them.
+ * </p><p>
+ * An archive is opened again when the file changed since it was opened, or when it was reported changed
+ * or removed through {@link #invalidate(IPath)}. The previous handle is closed once it is no longer referenced.
+ * </p>
+ */
+public class ZipFilePool {
+
+	/**
+	 * The maximum number of archives kept open while they are not referenced
+	 */
+	public static int MAX_IDLE_ARCHIVES = 64;
+
+	/**
+	 * The number of milliseconds an archive is kept open after its last reference was released
+	 */
+	public static long IDLE_TIMEOUT = 10000;
+
+	static class PooledZipFile {
+		final IPath path;
+		final ZipFile zipFile;
+		final Object stamp;
+		int references;
+		long releaseTime;
+		boolean obsolete;
+
+		PooledZipFile(IPath path, ZipFile zipFile, Object stamp) {
+			this.path = path;
+			this.zipFile = zipFile;
+			this.stamp = stamp;
+		}
+	}
+
+	// the current handle of each archive
+	private final HashMap<IPath, PooledZipFile> archives = new HashMap<>();
+	// all the open handles, including the obsolete ones that are still referenced
+	private final IdentityHashMap<ZipFile, PooledZipFile> handles = new IdentityHashMap<>();
+	// the current handles that are not referenced, least recently released first
+	private final LinkedHashMap<IPath, PooledZipFile> idleArchives = new LinkedHashMap<>();
+
+	// the number of cacheZipFiles() brackets in progress in all threads
+	private int brackets;
+
+	private long openCount;
+	private long reuseCount;
+	private long statisticsStart = System.currentTimeMillis();
+
+	private final Job closeIdleArchivesJob = new Job(Messages.closing_unused_archives) {
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			if (closeIdleArchives(System.currentTimeMillis()))
+				schedule(IDLE_TIMEOUT);
+			return Status.OK_STATUS;
+		}
+	};
+
+	public ZipFilePool() {
+		this.closeIdleArchivesJob.setSystem(true);
+	}
+
+	/**
+	 * Returns a shared handle onto the given archive, opening it if needed, and adds a reference to it.
+	 * The reference must be released with {@link #release(ZipFile)}.
+	 */
+	public ZipFile acquire(IPath path, File localFile) throws IOException {
+		Object stamp = getStamp(localFile);
+		synchronized (this) {
+			PooledZipFile pooled = this.archives.get(path);
+			if (pooled != null && pooled.stamp.equals(stamp)) {
+				if (pooled.references++ == 0)
+					this.idleArchives.remove(path);
+				this.reuseCount++;
+				return pooled.zipFile;
+			}
+		}
+		ZipFile zipFile = new ZipFile(localFile); // do not hold the lock while reading the central directory
+		ZipFile toClose = null;
+		try {
+			synchronized (this) {
+				this.openCount++;
+				if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
+					System.out.println("(" + Thread.currentThread() + ") [ZipFilePool.acquire(IPath, File)] Opened ZipFile on " + localFile //$NON-NLS-1$ //$NON-NLS-2$
+							+ " (" + this + ')'); //$NON-NLS-1$
+				}
+				PooledZipFile pooled = this.archives.get(path);
+				if (pooled != null && pooled.stamp.equals(stamp)) {
+					// opened by another thread in the meantime
+					toClose = zipFile;
+					if (pooled.references++ == 0)
+						this.idleArchives.remove(path);
+					return pooled.zipFile;
+				}
+				if (pooled != null)
+					toClose = discard(pooled); // the archive changed
+				pooled = new PooledZipFile(path, zipFile, stamp);
+				pooled.references = 1;
+				this.archives.put(path, pooled);
+				this.handles.put(zipFile, pooled);
+				return zipFile;
+			}
+		} finally {
+			if (toClose != null)
+				close(toClose);
+		}
+	}
+
+	/**
+	 * Releases a reference to the given handle.
+	 *
+	 * @return whether the handle was answered by {@link #acquire(IPath, File)}
+	 */
+	public boolean release(ZipFile zipFile) {
+		ZipFile toClose = null;
+		synchronized (this) {
+			PooledZipFile pooled = this.handles.get(zipFile);
+			if (pooled == null)
+				return false;
+			if (pooled.references == 0 || --pooled.references > 0)
+				return true;
+			if (pooled.obsolete) {
+				this.handles.remove(zipFile);
+				toClose = zipFile;
+			} else if (this.brackets == 0) {
+				this.archives.remove(pooled.path);
+				this.handles.remove(zipFile);
+				toClose = zipFile;
+			} else {
+				pooled.releaseTime = System.currentTimeMillis();
+				this.idleArchives.put(pooled.path, pooled);
+			}
+		}
+		if (toClose != null) {
+			close(toClose);
+		} else if (closeIdleArchives(System.currentTimeMillis()) && this.closeIdleArchivesJob.getState() == Job.NONE) {
+			this.closeIdleArchivesJob.schedule(IDLE_TIMEOUT);
+		}
+		return true;
+	}
+
+	/**
+	 * Notes that a thread entered a {@link JavaModelManager#cacheZipFiles(Object)} bracket:
+	 * the archives released until the last bracket ends are kept open for a while.
+	 */
+	public synchronized void beginBracket() {
+		this.brackets++;
+	}
+
+	/**
+	 * Notes that a thread left a {@link JavaModelManager#cacheZipFiles(Object)} bracket,
+	 * and closes the archives that are not referenced if it was the last one.
+	 */
+	public void endBracket() {
+		synchronized (this) {
+			if (--this.brackets > 0)
+				return;
+		}
+		closeIdleArchives(Long.MAX_VALUE); // all the archives that are not referenced expired
+	}
+
+	/**
+	 * Forgets the handle onto the given archive, since the archive changed or was removed.
+	 * The handle is closed once it is no longer referenced.
+	 */
+	public void invalidate(IPath path) {
+		ZipFile toClose = null;
+		synchronized (this) {
+			PooledZipFile pooled = this.archives.get(path);
+			if (pooled != null)
+				toClose = discard(pooled);
+		}
+		if (toClose != null)
+			close(toClose);
+	}
+
+	/**
+	 * Closes all the handles, even those still referenced.
+	 */
+	public void closeAll() {
+		this.closeIdleArchivesJob.cancel();
+		ArrayList<ZipFile> toClose;
+		synchronized (this) {
+			toClose = new ArrayList<>(this.handles.keySet());
+			this.handles.clear();
+			this.archives.clear();
+			this.idleArchives.clear();
+		}
+		for (int i = 0, length = toClose.size(); i < length; i++)
+			close(toClose.get(i));
+	}
+
+	/*
+	 * Closes the handles that have not been referenced for too long, and the least recently used handles
+	 * that are not referenced beyond the maximum number of such handles.
+	 * Answers whether handles that are not referenced remain open.
+	 */
+	private boolean closeIdleArchives(long now) {
+		ArrayList<ZipFile> toClose = new ArrayList<>();
+		boolean remaining;
+		synchronized (this) {
+			for (Iterator<PooledZipFile> iterator = this.idleArchives.values().iterator(); iterator.hasNext();) {
+				PooledZipFile pooled = iterator.next();
+				if (now - pooled.releaseTime < IDLE_TIMEOUT && this.idleArchives.size() <= MAX_IDLE_ARCHIVES)
+					break;
+				iterator.remove();
+				this.archives.remove(pooled.path);
+				this.handles.remove(pooled.zipFile);
+				toClose.add(pooled.zipFile);
+			}
+			remaining = !this.idleArchives.isEmpty();
+		}
+		for (int i = 0, length = toClose.size(); i < length; i++)
+			close(toClose.get(i));
+		return remaining;
+	}
+
+	/*
+	 * Removes the given handle from the pool. Answers the handle if it must be closed now,
+	 * or null if it is still referenced.
+	 */
+	private ZipFile discard(PooledZipFile pooled) {
+		this.archives.remove(pooled.path);
+		this.idleArchives.remove(pooled.path);
+		if (pooled.references > 0) {
+			pooled.obsolete = true;
+			return null;
+		}
+		this.handles.remove(pooled.zipFile);
+		return pooled.zipFile;
+	}
+
+	/*
+	 * Returns an object identifying the current content of the given file: its size, modification time
+	 * and, where available, the file key that changes when the file is replaced by another one.
+	 */
+	private static Object getStamp(File file) throws IOException {
+		BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException(file.getPath()); // as thrown when opening the zip file
+		}
+		return Arrays.asList(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), attributes.fileKey());
+	}
+
+	private static void close(ZipFile zipFile) {
+		try {
+			if (JavaModelManager.ZIP_ACCESS_VERBOSE) {
+				System.out.println("(" + Thread.currentThread() + ") [ZipFilePool.close(ZipFile)] Closing ZipFile on " + zipFile.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			zipFile.close();
+		} catch (IOException e) {
+			// problem occured closing zip file: cannot do much more
+			JavaCore.getPlugin().getLog().log(new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, "Error closing " + zipFile.getName(), e)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the number of archives opened since the statistics were reset.
+	 */
+	public synchronized long getOpenCount() {
+		return this.openCount;
+	}
+
+	/**
+	 * Returns the number of times an open archive was reused since the statistics were reset.
+	 */
+	public synchronized long getReuseCount() {
+		return this.reuseCount;
+	}
+
+	/**
+	 * Returns the average number of archives opened per second since the statistics were reset.
+	 */
+	public synchronized double getOpensPerSecond() {
+		long elapsed = System.currentTimeMillis() - this.statisticsStart;
+		return elapsed <= 0 ? this.openCount : this.openCount * 1000.0 / elapsed;
+	}
+
+	public synchronized void resetStatistics() {
+		this.openCount = 0;
+		this.reuseCount = 0;
+		this.statisticsStart = System.currentTimeMillis();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return this.handles.size() + " open archives, " + this.openCount + " opened, " + this.reuseCount + " reused, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ String.format("%.2f", getOpensPerSecond()) + " opened per second"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
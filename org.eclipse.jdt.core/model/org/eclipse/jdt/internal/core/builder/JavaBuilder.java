@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -272,6 +272,12 @@ private void buildAll() {
 private void buildDeltas(SimpleLookupTable deltas) {
 	this.notifier.checkCancel();
 	this.notifier.subTask(Messages.bind(Messages.build_preparingBuild, this.currentProject.getName()));
+	if (!this.lastState.decodeReferences()) {
+		if (DEBUG)
+			System.out.println("JavaBuilder: Performing full build since the references of the last state could not be read"); //$NON-NLS-1$
+		buildAll();
+		return;
+	}
 	if (DEBUG && this.lastState != null)
 		System.out.println("JavaBuilder: Clearing last state : " + this.lastState); //$NON-NLS-1$
 	clearLastState(); // clear the previously built state so if the build fails, a full build will occur next time
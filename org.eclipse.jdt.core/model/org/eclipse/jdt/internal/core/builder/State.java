@@ -44,7 +44,12 @@ public ClasspathMultiDirectory[] testSourceLocations;
 ClasspathLocation[] binaryLocations;
 ClasspathLocation[] testBinaryLocations;
 // keyed by the project relative path of the type (i.e. "src1/p1/p2/A.java"), value is a ReferenceCollection or an AdditionalTypeCollection
-SimpleLookupTable references;
+// or null until decoded when the state was read from disk, see getReferences()
+private SimpleLookupTable references;
+// the references table of a state read from disk, encoded as saved, and the interned type locators it refers to
+private volatile byte[] encodedReferences;
+private String[] internedTypeLocators;
+private boolean hasInvalidReferences;
 // keyed by qualified type name "p1/p2/A", value is the project relative path which defines this type "src1/p1/p2/A.java"
 public SimpleLookupTable typeLocators;
 
@@ -58,7 +63,7 @@ private long previousStructuralBuildTime;
 private StringSet structurallyChangedTypes;
 public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
 
-public static final byte VERSION = 0x0022;
+public static final byte VERSION = 0x0023;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
@@ -101,13 +106,14 @@ void copyFrom(State lastState) {
 	this.lastStructuralBuildTime = lastState.lastStructuralBuildTime;
 	this.structuralBuildTimes = lastState.structuralBuildTimes;
 
+	SimpleLookupTable lastReferences = lastState.getReferences();
 	try {
-		this.references = (SimpleLookupTable) lastState.references.clone();
+		this.references = (SimpleLookupTable) lastReferences.clone();
 		this.typeLocators = (SimpleLookupTable) lastState.typeLocators.clone();
 	} catch (CloneNotSupportedException e) {
-		this.references = new SimpleLookupTable(lastState.references.elementSize);
-		Object[] keyTable = lastState.references.keyTable;
-		Object[] valueTable = lastState.references.valueTable;
+		this.references = new SimpleLookupTable(lastReferences.elementSize);
+		Object[] keyTable = lastReferences.keyTable;
+		Object[] valueTable = lastReferences.valueTable;
 		for (int i = 0, l = keyTable.length; i < l; i++)
 			if (keyTable[i] != null)
 				this.references.put(keyTable[i], valueTable[i]);
@@ -121,16 +127,39 @@ void copyFrom(State lastState) {
 	}
 }
 public char[][] getDefinedTypeNamesFor(String typeLocator) {
-	Object c = this.references.get(typeLocator);
+	Object c = getReferences().get(typeLocator);
 	if (c instanceof AdditionalTypeCollection)
 		return ((AdditionalTypeCollection) c).definedTypeNames;
 	return null; // means only one type is defined with the same name as the file... saves space
 }
 
 public SimpleLookupTable getReferences() {
+	if (this.encodedReferences != null)
+		decodeReferences();
 	return this.references;
 }
 
+/*
+ * The references of a state read from disk are only decoded when first needed, since reading the states
+ * of the prerequisite projects or searching the indexes does not need them.
+ * Answers false if they could not be decoded, in which case the references table is empty.
+ */
+synchronized boolean decodeReferences() {
+	if (this.encodedReferences != null) {
+		try {
+			this.references = readReferences(new DataInputStream(new ByteArrayInputStream(this.encodedReferences)), this.internedTypeLocators);
+		} catch (IOException e) {
+			if (JavaBuilder.DEBUG)
+				System.out.println("Could not decode the references of the state of " + this.javaProjectName); //$NON-NLS-1$
+			this.references = new SimpleLookupTable(3);
+			this.hasInvalidReferences = true;
+		}
+		this.internedTypeLocators = null;
+		this.encodedReferences = null;
+	}
+	return !this.hasInvalidReferences;
+}
+
 StringSet getStructurallyChangedTypes(State prereqState) {
 	if (prereqState != null && prereqState.previousStructuralBuildTime > 0) {
 		Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
@@ -186,11 +215,11 @@ boolean isSourceFolderEmpty(IContainer sourceFolder) {
 
 void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
 	if (typeNames.size() == 1 && CharOperation.equals(mainTypeName, (char[]) typeNames.get(0))) {
-		this.references.put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
+		getReferences().put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
 	} else {
 		char[][] definedTypeNames = new char[typeNames.size()][]; // can be empty when no types are defined
 		typeNames.toArray(definedTypeNames);
-		this.references.put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
+		getReferences().put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
 	}
 }
 
@@ -211,7 +240,7 @@ void recordStructuralDependency(IProject prereqProject, State prereqState) {
 
 void removeLocator(String typeLocatorToRemove) {
 	this.knownPackageNames = null;
-	this.references.removeKey(typeLocatorToRemove);
+	getReferences().removeKey(typeLocatorToRemove);
 	this.typeLocators.removeValue(typeLocatorToRemove);
 }
 
@@ -381,17 +410,29 @@ static State read(IProject project, DataInputStream in) throws IOException, Core
 	for (int i = 0; i < length; i++)
 		newState.structuralBuildTimes.put(in.readUTF(), Long.valueOf(in.readLong()));
 
-	String[] internedTypeLocators = new String[length = in.readInt()];
+	String[] typeLocatorNames = new String[length = in.readInt()];
 	for (int i = 0; i < length; i++)
-		internedTypeLocators[i] = in.readUTF();
+		typeLocatorNames[i] = in.readUTF();
 
 	newState.typeLocators = new SimpleLookupTable(length = in.readInt());
 	for (int i = 0; i < length; i++)
-		newState.recordLocatorForType(in.readUTF(), internedTypeLocators[in.readInt()]);
+		newState.recordLocatorForType(in.readUTF(), typeLocatorNames[in.readInt()]);
+
+	// the references are decoded when first needed
+	byte[] encoded = new byte[in.readInt()];
+	in.readFully(encoded);
+	newState.internedTypeLocators = typeLocatorNames;
+	newState.encodedReferences = encoded;
+	if (JavaBuilder.DEBUG)
+		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
+	return newState;
+}
 
+private static SimpleLookupTable readReferences(DataInputStream in, String[] typeLocatorNames) throws IOException {
 	/*
 	 * Here we read global arrays of names for the entire project - do not mess up the ordering while interning
 	 */
+	int length;
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(readNames(in), false /* keep well known */, false /* do not sort */);
 	char[][] internedSimpleNames = ReferenceCollection.internSimpleNames(readNames(in), false /* keep well known */, false /* do not sort */);
 	char[][][] internedQualifiedNames = new char[length = in.readInt()][][];
@@ -404,9 +445,9 @@ static State read(IProject project, DataInputStream in) throws IOException, Core
 	}
 	internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false /* drop well known */, false /* do not sort */);
 
-	newState.references = new SimpleLookupTable(length = in.readInt());
+	SimpleLookupTable references = new SimpleLookupTable(length = in.readInt());
 	for (int i = 0; i < length; i++) {
-		String typeLocator = internedTypeLocators[in.readInt()];
+		String typeLocator = typeLocatorNames[in.readInt()];
 		ReferenceCollection collection = null;
 		switch (in.readByte()) {
 			case 1 :
@@ -434,11 +475,9 @@ static State read(IProject project, DataInputStream in) throws IOException, Core
 					rNames[j] = internedRootNames[in.readInt()];
 				collection = new ReferenceCollection(qNames, sNames, rNames);
 		}
-		newState.references.put(typeLocator, collection);
+		references.put(typeLocator, collection);
 	}
-	if (JavaBuilder.DEBUG)
-		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
-	return newState;
+	return references;
 }
 
 private static char[] readName(DataInputStream in) throws IOException {
@@ -732,20 +771,38 @@ void write(DataOutputStream out) throws IOException {
 /*
  * String[]	Interned type locators
  */
-	out.writeInt(length = this.references.elementSize);
-	SimpleLookupTable internedTypeLocators = new SimpleLookupTable(length);
-	if (length > 0) {
+	byte[] encoded;
+	String[] encodedTypeLocators;
+	synchronized (this) {
+		encoded = this.encodedReferences;
+		encodedTypeLocators = this.internedTypeLocators;
+	}
+	SimpleLookupTable locatorIndexes;
+	if (encoded != null) {
+		// the references were not needed since the state was read, save them as they were
+		out.writeInt(length = encodedTypeLocators.length);
+		locatorIndexes = new SimpleLookupTable(length);
+		for (int i = 0; i < length; i++) {
+			out.writeUTF(encodedTypeLocators[i]);
+			locatorIndexes.put(encodedTypeLocators[i], Integer.valueOf(i));
+		}
+	} else if ((length = this.references.elementSize) > 0) {
+		out.writeInt(length);
+		locatorIndexes = new SimpleLookupTable(length);
 		keyTable = this.references.keyTable;
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				length--;
 				String key = (String) keyTable[i];
 				out.writeUTF(key);
-				internedTypeLocators.put(key, Integer.valueOf(internedTypeLocators.elementSize));
+				locatorIndexes.put(key, Integer.valueOf(locatorIndexes.elementSize));
 			}
 		}
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("references table is inconsistent"); //$NON-NLS-1$
+	} else {
+		out.writeInt(0);
+		locatorIndexes = new SimpleLookupTable(0);
 	}
 
 /*
@@ -761,7 +818,7 @@ void write(DataOutputStream out) throws IOException {
 			if (keyTable[i] != null) {
 				length--;
 				out.writeUTF((String) keyTable[i]);
-				Integer index = (Integer) internedTypeLocators.get(valueTable[i]);
+				Integer index = (Integer) locatorIndexes.get(valueTable[i]);
 				out.writeInt(index.intValue());
 			}
 		}
@@ -769,6 +826,26 @@ void write(DataOutputStream out) throws IOException {
 			System.out.println("typeLocators table is inconsistent"); //$NON-NLS-1$
 	}
 
+/*
+ * int		length of the encoded references
+ * byte[]	encoded references, see writeReferences()
+ */
+	if (encoded == null) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(bytes);
+		writeReferences(locatorIndexes, data);
+		data.flush();
+		encoded = bytes.toByteArray();
+	}
+	out.writeInt(encoded.length);
+	out.write(encoded);
+}
+
+private void writeReferences(SimpleLookupTable locatorIndexes, DataOutputStream out) throws IOException {
+	int length;
+	Object[] keyTable;
+	Object[] valueTable;
+
 /*
  * char[][]	Interned root names
  * char[][][]	Interned qualified names
@@ -860,7 +937,7 @@ void write(DataOutputStream out) throws IOException {
 		for (int i = 0, l = keyTable.length; i < l; i++) {
 			if (keyTable[i] != null) {
 				length--;
-				Integer index = (Integer) internedTypeLocators.get(keyTable[i]);
+				Integer index = (Integer) locatorIndexes.get(keyTable[i]);
 				out.writeInt(index.intValue());
 				ReferenceCollection collection = (ReferenceCollection) valueTable[i];
 				if (collection instanceof AdditionalTypeCollection) {
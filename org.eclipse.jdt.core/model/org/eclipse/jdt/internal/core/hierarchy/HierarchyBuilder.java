@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -105,6 +105,15 @@ public abstract class HierarchyBuilder {
 		this.focusQualifiedName = focusType == null ? null : focusType.getFullyQualifiedName();
 	}
 
+	/*
+	 * Creates a builder for the given hierarchy whose name lookup and resolver are set later on.
+	 */
+	protected HierarchyBuilder(TypeHierarchy hierarchy, String focusQualifiedName) {
+		this.hierarchy = hierarchy;
+		this.infoToHandle = new HashMap(5);
+		this.focusQualifiedName = focusQualifiedName;
+	}
+
 	public abstract void build(boolean computeSubtypes)
 		throws JavaModelException, CoreException;
 	/**
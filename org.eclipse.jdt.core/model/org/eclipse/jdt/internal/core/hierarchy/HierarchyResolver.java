@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -127,7 +127,7 @@ public void accept(IBinaryType binaryType, PackageBinding packageBinding, Access
 	}
 }
 
-private void sanitizeBinaryType(IGenericType binaryType) {
+static void sanitizeBinaryType(IGenericType binaryType) {
 	if (binaryType instanceof HierarchyBinaryType) {
 		HierarchyBinaryType hierarchyBinaryType = (HierarchyBinaryType) binaryType;
 		if (hierarchyBinaryType.getSuperclassName() == null)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -29,6 +33,7 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
@@ -44,6 +49,7 @@ import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
 import org.eclipse.jdt.internal.compiler.env.IBinaryType;
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.IGenericType;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObjectToInt;
@@ -131,12 +137,51 @@ public class IndexBasedHierarchyBuilder extends HierarchyBuilder implements Suff
 			return buffer.toString();
 		}
 	}
+	/**
+	 * The potential subtypes found in a project
+	 */
+	static class ProjectSubtypes {
+		final JavaProject project;
+		final ArrayList openables;
+		ProjectSubtypes(JavaProject project, ArrayList openables) {
+			this.project = project;
+			this.openables = openables;
+		}
+	}
+
+	/**
+	 * The maximum number of projects whose potential subtypes are resolved at the same time
+	 */
+	public static int RESOLUTION_THREADS = Runtime.getRuntime().availableProcessors();
+
+	/*
+	 * The connections made while resolving the potential subtypes of a project on a separate thread,
+	 * as arrays of the arguments of connect(...), or null if connections are made directly
+	 */
+	private ArrayList<Object[]> connections;
+
 public IndexBasedHierarchyBuilder(TypeHierarchy hierarchy, IJavaSearchScope scope) throws JavaModelException {
 	super(hierarchy);
 	this.cuToHandle = new HashMap(5);
 	this.binariesFromIndexMatches = new HashMap(10);
 	this.scope = scope;
 }
+/*
+ * Creates a builder resolving the potential subtypes of a single project for the given builder.
+ * The connections it makes are recorded, and are replayed on the given builder once the resolution is done.
+ */
+private IndexBasedHierarchyBuilder(IndexBasedHierarchyBuilder builder) {
+	super(newScratchHierarchy(builder.hierarchy), builder.focusQualifiedName);
+	this.cuToHandle = new HashMap(5);
+	this.binariesFromIndexMatches = builder.binariesFromIndexMatches; // sanitized up front, then only read while resolving
+	this.scope = builder.scope;
+	this.connections = new ArrayList<>();
+}
+private static TypeHierarchy newScratchHierarchy(TypeHierarchy hierarchy) {
+	TypeHierarchy scratch = new TypeHierarchy(hierarchy.focusType, hierarchy.workingCopies, hierarchy.scope, hierarchy.computeSubtypes);
+	scratch.progressMonitor = hierarchy.progressMonitor; // only checked for cancellation
+	return scratch;
+}
 @Override
 public void build(boolean computeSubtypes) {
 	JavaModelManager manager = JavaModelManager.getJavaModelManager();
@@ -264,6 +309,88 @@ private void buildForProject(JavaProject project, ArrayList potentialSubtypes, o
 		this.hierarchyResolver.resolve(openables, localTypes, subMonitor.split(9));
 	}
 }
+/*
+ * Resolves the potential subtypes of the given projects. When there are several projects, they are resolved
+ * on separate threads, each with its own name environment. The connections are then made in the order of the
+ * projects, so that the hierarchy is the same as if the projects were resolved one after the other.
+ */
+private void buildForProjects(ArrayList<ProjectSubtypes> projects, org.eclipse.jdt.core.ICompilationUnit[] workingCopies, HashSet localTypes, IProgressMonitor monitor) {
+	int projectsCount = projects.size();
+	SubMonitor subMonitor = SubMonitor.convert(monitor, projectsCount);
+	int threadsCount = Math.min(projectsCount, RESOLUTION_THREADS);
+	if (threadsCount < 2) {
+		for (int i = 0; i < projectsCount; i++) {
+			ProjectSubtypes projectSubtypes = projects.get(i);
+			try {
+				buildForProject(projectSubtypes.project, projectSubtypes.openables, workingCopies, localTypes, subMonitor.split(1));
+			} catch (JavaModelException e) {
+				// ignore
+			}
+		}
+		return;
+	}
+	// the binary types found in the indexes are shared by all the project builders: sanitize them here
+	// so that the resolvers never write to them
+	for (Object binaryType : this.binariesFromIndexMatches.values()) {
+		HierarchyResolver.sanitizeBinaryType((IGenericType) binaryType);
+	}
+	ExecutorService executor = Executors.newFixedThreadPool(threadsCount, runnable -> {
+		Thread thread = new Thread(runnable, "Java Type Hierarchy Resolver"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+	try {
+		ArrayList<Future<IndexBasedHierarchyBuilder>> results = new ArrayList<>(projectsCount);
+		for (int i = 0; i < projectsCount; i++) {
+			ProjectSubtypes projectSubtypes = projects.get(i);
+			results.add(executor.submit(() -> {
+				IndexBasedHierarchyBuilder projectBuilder = new IndexBasedHierarchyBuilder(this);
+				JavaModelManager manager = JavaModelManager.getJavaModelManager();
+				try {
+					manager.cacheZipFiles(projectBuilder);
+					projectBuilder.buildForProject(projectSubtypes.project, projectSubtypes.openables, workingCopies, localTypes, null);
+				} catch (JavaModelException e) {
+					// ignore
+				} finally {
+					manager.flushZipFiles(projectBuilder);
+				}
+				return projectBuilder;
+			}));
+		}
+		for (int i = 0; i < projectsCount; i++) {
+			IndexBasedHierarchyBuilder projectBuilder;
+			try {
+				projectBuilder = results.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new IllegalStateException(cause);
+			}
+			for (int j = 0, length = projectBuilder.connections.size(); j < length; j++) {
+				Object[] connection = projectBuilder.connections.get(j);
+				connect((IGenericType) connection[0], (IType) connection[1], (IType) connection[2], (IType[]) connection[3]);
+			}
+			this.hierarchy.missingTypes.addAll(projectBuilder.hierarchy.missingTypes);
+			subMonitor.split(1);
+		}
+	} finally {
+		executor.shutdownNow();
+	}
+}
+@Override
+public void connect(IGenericType type, IType typeHandle, IType superclassHandle, IType[] superinterfaceHandles) {
+	if (this.connections != null) {
+		this.connections.add(new Object[] {type, typeHandle, superclassHandle, superinterfaceHandles});
+	} else {
+		super.connect(type, typeHandle, superclassHandle, superinterfaceHandles);
+	}
+}
 /**
  * Configure this type hierarchy based on the given potential subtypes.
  */
@@ -315,67 +442,50 @@ private void buildFromPotentialSubtypes(String[] allPotentialSubTypes, HashSet l
 	ArrayList potentialSubtypes = new ArrayList();
 	try {
 		SubMonitor loopMonitor = subMonitor.split(95);
-		// create element infos for subtypes
+		// create element infos for subtypes, grouped per project
 		HandleFactory factory = new HandleFactory();
+		ArrayList<ProjectSubtypes> projects = new ArrayList<>();
 		IJavaProject currentProject = null;
 		for (int i = 0; i < length; i++) {
-			loopMonitor.setWorkRemaining(length - i + 1);
-			IJavaProject nextProject = null;
-			try {
-				String resourcePath = allPotentialSubTypes[i];
+			String resourcePath = allPotentialSubTypes[i];
 
-				// skip duplicate paths (e.g. if focus path was injected when it was already a potential subtype)
-				if (i > 0 && resourcePath.equals(allPotentialSubTypes[i-1])) continue;
-
-				Openable handle;
-				org.eclipse.jdt.core.ICompilationUnit workingCopy = (org.eclipse.jdt.core.ICompilationUnit)wcPaths.get(resourcePath);
-				if (workingCopy != null) {
-					handle = (Openable)workingCopy;
-				} else {
-					handle =
-						resourcePath.equals(focusPath) ?
-							focusCU :
-							factory.createOpenable(resourcePath, this.scope);
-					if (handle == null) continue; // match is outside classpath
-				}
+			// skip duplicate paths (e.g. if focus path was injected when it was already a potential subtype)
+			if (i > 0 && resourcePath.equals(allPotentialSubTypes[i-1])) continue;
 
-				IJavaProject project = handle.getJavaProject();
-				if (currentProject == null) {
-					currentProject = project;
-					potentialSubtypes = new ArrayList(5);
-				} else if (!currentProject.equals(project)) {
-					nextProject = project;
-					// build current project
-					buildForProject((JavaProject)currentProject, potentialSubtypes, workingCopies, localTypes, loopMonitor.split(1));
-					potentialSubtypes = new ArrayList(5);
-				}
+			Openable handle;
+			org.eclipse.jdt.core.ICompilationUnit workingCopy = (org.eclipse.jdt.core.ICompilationUnit)wcPaths.get(resourcePath);
+			if (workingCopy != null) {
+				handle = (Openable)workingCopy;
+			} else {
+				handle =
+					resourcePath.equals(focusPath) ?
+						focusCU :
+						factory.createOpenable(resourcePath, this.scope);
+				if (handle == null) continue; // match is outside classpath
+			}
 
-				potentialSubtypes.add(handle);
-			} catch (JavaModelException e) {
-				continue;
-			} finally {
-				if (nextProject != null) {
-					currentProject = nextProject;
-				}
+			IJavaProject project = handle.getJavaProject();
+			if (currentProject == null || !currentProject.equals(project)) {
+				currentProject = project;
+				potentialSubtypes = new ArrayList(5);
+				projects.add(new ProjectSubtypes((JavaProject) project, potentialSubtypes));
 			}
+			potentialSubtypes.add(handle);
 		}
 
-		loopMonitor.setWorkRemaining(2);
-		// build last project
-		try {
-			if (currentProject == null) {
-				// case of no potential subtypes
-				currentProject = focusType.getJavaProject();
-				if (focusType.isBinary()) {
-					potentialSubtypes.add(focusType.getClassFile());
-				} else {
-					potentialSubtypes.add(focusType.getCompilationUnit());
-				}
+		if (projects.isEmpty()) {
+			// case of no potential subtypes
+			potentialSubtypes = new ArrayList(1);
+			if (focusType.isBinary()) {
+				potentialSubtypes.add(focusType.getClassFile());
+			} else {
+				potentialSubtypes.add(focusType.getCompilationUnit());
 			}
-			buildForProject((JavaProject)currentProject, potentialSubtypes, workingCopies, localTypes, loopMonitor.split(1));
-		} catch (JavaModelException e) {
-			// ignore
+			projects.add(new ProjectSubtypes((JavaProject) focusType.getJavaProject(), potentialSubtypes));
 		}
+		int projectsCount = projects.size();
+		loopMonitor.setWorkRemaining(projectsCount + 1);
+		buildForProjects(projects, workingCopies, localTypes, loopMonitor.split(projectsCount));
 
 		loopMonitor.setWorkRemaining(1);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -68,6 +68,12 @@ public class LRUCache<K, V> implements Cloneable {
 		 */
 		public int space;
 
+		/**
+		 * Whether this entry was used since it was added, or since it was
+		 * last spared from removal
+		 */
+		public boolean referenced;
+
 		/**
 		 * Previous entry in queue
 		 */
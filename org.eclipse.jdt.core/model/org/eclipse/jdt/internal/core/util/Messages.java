@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -85,6 +85,7 @@ public final class Messages extends NLS {
 	public static String buffer_closed;
 	public static String build_preparingBuild;
 	public static String build_readStateProgress;
+	public static String build_readStatesJobName;
 	public static String build_saveStateProgress;
 	public static String build_saveStateComplete;
 	public static String build_readingDelta;
@@ -201,6 +202,7 @@ public final class Messages extends NLS {
 	public static String savedState_jobName;
 	public static String refreshing_external_folders;
 	public static String synchronizing_projects_job;
+	public static String closing_unused_archives;
 	public static String convention_unit_nullName;
 	public static String convention_unit_notJavaName;
 	public static String convention_classFile_nullName;
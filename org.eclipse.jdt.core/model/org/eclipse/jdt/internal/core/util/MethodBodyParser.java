@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Parses the method bodies of compilation unit declarations on several threads.
+ * <p>
+ * Parsing the method bodies of a unit only touches its own declaration and compilation result, so the units of
+ * a batch can be parsed concurrently before any of them is resolved, while the lookup environment and the bindings
+ * stay confined to the calling thread. One instance serves a whole batch: its threads are started on first use,
+ * reused by every call to {@link #parse(CompilationUnitDeclaration[], int, int)}, and stopped by {@link #shutdown()},
+ * which must be called once the batch is done.
+ * </p>
+ */
+public class MethodBodyParser {
+
+	/**
+	 * The maximum number of threads parsing at once, including the calling thread
+	 */
+	public static final int MAX_THREADS = 8;
+
+	private final ProblemReporter problemReporter;
+	private final boolean parseLiteralExpressionsAsConstants;
+	private final String threadName;
+	private final int threadCount;
+	private ExecutorService executor;
+	// parsers not in use, each is only used by one thread at a time
+	private final ConcurrentLinkedQueue<Parser> parsers = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * @param problemReporter the reporter whose policy, options and problem factory the parsers use
+	 * @param parseLiteralExpressionsAsConstants as for the parsers of the calling compiler
+	 * @param threadName the name of the threads parsing method bodies
+	 */
+	public MethodBodyParser(ProblemReporter problemReporter, boolean parseLiteralExpressionsAsConstants, String threadName) {
+		this.problemReporter = problemReporter;
+		this.parseLiteralExpressionsAsConstants = parseLiteralExpressionsAsConstants;
+		this.threadName = threadName;
+		this.threadCount = Math.min(Runtime.getRuntime().availableProcessors(), MAX_THREADS);
+	}
+
+	/**
+	 * Parses the method bodies of the units from start (inclusive) to end (exclusive), the calling thread taking
+	 * its share. Does nothing if there are fewer than two units or a single processor, the bodies are then parsed
+	 * when the units are processed. The first exception thrown while parsing, e.g. an AbortCompilation on cancel,
+	 * is rethrown in the calling thread once all threads stopped parsing.
+	 */
+	public void parse(final CompilationUnitDeclaration[] units, int start, final int end) {
+		int workers = Math.min(this.threadCount, end - start) - 1;
+		if (workers < 1)
+			return;
+		if (this.executor == null) {
+			this.executor = Executors.newFixedThreadPool(this.threadCount - 1, runnable -> {
+				Thread thread = new Thread(runnable, this.threadName);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		final AtomicInteger nextUnit = new AtomicInteger(start);
+		ArrayList<Future<?>> results = new ArrayList<>(workers);
+		for (int i = 0; i < workers; i++)
+			results.add(this.executor.submit(() -> parseUnits(units, nextUnit, end)));
+		Throwable failure = null;
+		try {
+			parseUnits(units, nextUnit, end);
+		} catch (Error | RuntimeException e) {
+			failure = e;
+		}
+		boolean interrupted = false;
+		for (int i = 0; i < workers; i++) {
+			while (true) {
+				try {
+					results.get(i).get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true; // wait for the units being parsed, they must not be processed concurrently
+				} catch (ExecutionException e) {
+					if (failure == null)
+						failure = e.getCause();
+					break;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw (RuntimeException) failure;
+	}
+
+	private void parseUnits(CompilationUnitDeclaration[] units, AtomicInteger nextUnit, int end) {
+		Parser parser = this.parsers.poll();
+		if (parser == null) {
+			ProblemReporter reporter = new ProblemReporter(this.problemReporter.policy, this.problemReporter.options, this.problemReporter.problemFactory);
+			parser = new CommentRecorderParser(reporter, this.parseLiteralExpressionsAsConstants);
+		}
+		try {
+			int i;
+			while ((i = nextUnit.getAndIncrement()) < end) {
+				parser.getMethodBodies(units[i]);
+			}
+		} catch (Error | RuntimeException e) {
+			nextUnit.set(end); // stop the other threads
+			throw e;
+		}
+		this.parsers.add(parser); // not reused after a failure
+	}
+
+	/**
+	 * Stops the threads parsing method bodies.
+	 */
+	public void shutdown() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+		this.parsers.clear();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,10 +14,12 @@
 package org.eclipse.jdt.internal.core.index;
 
 import java.io.*;
+import java.lang.ref.SoftReference;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.*;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
 import org.eclipse.jdt.internal.core.util.*;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfIntValues;
 import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
@@ -41,6 +43,7 @@ private int cacheUserCount;
 private String[][] cachedChunks; // decompressed chunks of document names
 private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) or offset if not read yet
 private char[] cachedCategoryName;
+private SoftReference<HashtableOfObject> sortedCategoryTables; // category name -> SortedCategoryTable, until memory is needed or the last query stops
 
 private static final int DEFAULT_BUFFER_SIZE = 2048;
 private static int BUFFER_READ_SIZE = DEFAULT_BUFFER_SIZE;
@@ -60,6 +63,8 @@ private static final int DELETED = -2;
 private static final int CHUNK_SIZE = 100;
 
 private static final SimpleSetOfCharArray INTERNED_CATEGORY_NAMES = new SimpleSetOfCharArray(20);
+// categories queried by code completion with prefixes and camel case patterns
+private static final char[][] SORTED_CATEGORIES = {IIndexConstants.TYPE_DECL, IIndexConstants.CONSTRUCTOR_DECL};
 private static final String TMP_EXT = ".tmp"; //$NON-NLS-1$
 
 static class IntList {
@@ -97,6 +102,7 @@ DiskIndex() {
 	this.cachedChunks = null;
 	this.categoryTables = null;
 	this.cachedCategoryName = null;
+	this.sortedCategoryTables = null;
 	this.categoryOffsets = null;
 	this.categoryEnds = null;
 }
@@ -201,6 +207,12 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 				break;
 			case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE:
 				for (int i = 0, l = categories.length; i < l; i++) {
+					SortedCategoryTable sortedTable = readSortedCategoryTable(categories[i]);
+					if (sortedTable != null) {
+						results = addSortedQueryResults(results, sortedTable, key, matchRule, memoryIndex, prevResults);
+						prevResults = results != null;
+						continue;
+					}
 					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
@@ -232,6 +244,12 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 				break;
 			default:
 				for (int i = 0, l = categories.length; i < l; i++) {
+					SortedCategoryTable sortedTable = readSortedCategoryTable(categories[i]);
+					if (sortedTable != null) {
+						results = addSortedQueryResults(results, sortedTable, key, matchRule, memoryIndex, prevResults);
+						prevResults = results != null;
+						continue;
+					}
 					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
@@ -249,6 +267,20 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 
 	return results;
 }
+private HashtableOfObject addSortedQueryResults(HashtableOfObject results, SortedCategoryTable sortedTable, char[] key, int matchRule, MemoryIndex memoryIndex, boolean prevResults) throws IOException {
+	char[][] words = sortedTable.words;
+	Object[] values = sortedTable.documentNumbers;
+	int[] ranges = sortedTable.candidateRanges(key, matchRule);
+	if (ranges == null)
+		ranges = new int[] {0, words.length};
+	for (int r = 0, rl = ranges.length; r < rl; r += 2) {
+		for (int j = ranges[r], end = ranges[r + 1]; j < end; j++) {
+			if (Index.isMatch(key, words[j], matchRule))
+				results = addQueryResult(results, words[j], values[j], memoryIndex, prevResults);
+		}
+	}
+	return results;
+}
 private void cacheDocumentNames() throws IOException {
 	// will need all document names so get them now
 	this.cachedChunks = new String[this.numberOfChunks][];
@@ -639,6 +671,29 @@ private synchronized String[] readAllDocumentNames() throws IOException {
 		this.streamBuffer = null;
 	}
 }
+/*
+ * Returns the sorted table of the given category if it is one of the categories queried by code completion,
+ * or null otherwise. The table is softly kept until the index changes or the last query stops.
+ */
+private synchronized SortedCategoryTable readSortedCategoryTable(char[] categoryName) throws IOException {
+	if (!CharOperation.equals(categoryName, SORTED_CATEGORIES[0]) && !CharOperation.equals(categoryName, SORTED_CATEGORIES[1]))
+		return null;
+	HashtableOfObject sortedTables = this.sortedCategoryTables == null ? null : this.sortedCategoryTables.get();
+	if (sortedTables == null) {
+		sortedTables = new HashtableOfObject(3);
+		this.sortedCategoryTables = new SoftReference<>(sortedTables);
+	} else {
+		SortedCategoryTable sortedTable = (SortedCategoryTable) sortedTables.get(categoryName);
+		if (sortedTable != null)
+			return sortedTable;
+	}
+	HashtableOfObject wordsToDocNumbers = readCategoryTable(categoryName, false);
+	if (wordsToDocNumbers == null)
+		return null;
+	SortedCategoryTable sortedTable = new SortedCategoryTable(wordsToDocNumbers);
+	sortedTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), sortedTable);
+	return sortedTable;
+}
 private synchronized HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
 	// result will be null if categoryName is unknown
 	int offset = this.categoryOffsets.get(categoryName);
@@ -873,6 +928,7 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 		this.categoryEnds.put(previousCategory, this.headerInfoOffset); // cache end of the category table
 	}
 	this.categoryTables = new HashtableOfObject(3);
+	this.sortedCategoryTables = null;
 }
 synchronized void startQuery() {
 	this.cacheUserCount++;
@@ -882,6 +938,7 @@ synchronized void stopQuery() {
 		// clear cached items
 		this.cacheUserCount = -1;
 		this.cachedChunks = null;
+		this.sortedCategoryTables = null;
 		if (this.categoryTables != null) {
 			if (this.cachedCategoryName == null) {
 				this.categoryTables = null;
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2019 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+
+/**
+ * The words of a category table in lexicographic order, along with their document numbers.
+ * <p>
+ * Every match rule but regular expressions and patterns starting with a wild card requires the first
+ * character of a word to be the first character of the key, possibly ignoring case. Queries thus only
+ * have to check the words in a few ranges of the table instead of all of them, and case sensitive
+ * prefix queries only have to check the words actually matching.
+ * </p>
+ */
+class SortedCategoryTable {
+
+final char[][] words;
+final Object[] documentNumbers; // int[] of document numbers or Integer offset of the array in the file
+
+SortedCategoryTable(HashtableOfObject wordsToDocNumbers) {
+	int size = wordsToDocNumbers.elementSize;
+	char[][] sortedWords = new char[size][];
+	int count = 0;
+	char[][] keys = wordsToDocNumbers.keyTable;
+	for (int i = 0, l = keys.length; i < l; i++)
+		if (keys[i] != null)
+			sortedWords[count++] = keys[i];
+	if (count < size)
+		System.arraycopy(sortedWords, 0, sortedWords = new char[count][], 0, count);
+	Arrays.sort(sortedWords, CharOperation::compareTo);
+	this.words = sortedWords;
+	this.documentNumbers = new Object[count];
+	for (int i = 0; i < count; i++)
+		this.documentNumbers[i] = wordsToDocNumbers.get(sortedWords[i]);
+}
+/**
+ * Returns the ranges of words that may match the given key, as pairs of start (inclusive) and end
+ * (exclusive) positions, or <code>null</code> if all the words must be checked.
+ */
+int[] candidateRanges(char[] key, int matchRule) {
+	if (key.length == 0)
+		return null;
+	char first = key[0];
+	switch (matchRule) {
+		case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE :
+		case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			return new int[] {lowerBound(key), upperBound(key)};
+		case SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE :
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			return firstCharRange(first);
+		case SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			return first == '*' || first == '?' ? null : firstCharRange(first);
+		case SearchPattern.R_PATTERN_MATCH :
+			if (first == '*' || first == '?')
+				return null;
+			//$FALL-THROUGH$
+		case SearchPattern.R_EXACT_MATCH :
+		case SearchPattern.R_PREFIX_MATCH :
+		case SearchPattern.R_CAMELCASE_MATCH :
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH :
+			if (first >= 128)
+				return null;
+			// case insensitive comparisons also lower case the non ASCII characters of the words
+			int[] lower = firstCharRange(Character.toLowerCase(first));
+			int[] upper = firstCharRange(Character.toUpperCase(first));
+			int nonAscii = lowerBound(new char[] {128});
+			if (lower[0] == upper[0])
+				return new int[] {lower[0], lower[1], nonAscii, this.words.length};
+			return new int[] {lower[0], lower[1], upper[0], upper[1], nonAscii, this.words.length};
+	}
+	return null;
+}
+private int[] firstCharRange(char first) {
+	char[] prefix = new char[] {first};
+	return new int[] {lowerBound(prefix), upperBound(prefix)};
+}
+/**
+ * Returns the position of the first word that is not lexicographically smaller than the given prefix.
+ */
+private int lowerBound(char[] prefix) {
+	int low = 0, high = this.words.length;
+	while (low < high) {
+		int middle = (low + high) >>> 1;
+		if (CharOperation.compareTo(this.words[middle], prefix) < 0)
+			low = middle + 1;
+		else
+			high = middle;
+	}
+	return low;
+}
+/**
+ * Returns the position after the last word starting with the given prefix.
+ */
+private int upperBound(char[] prefix) {
+	int low = lowerBound(prefix), high = this.words.length;
+	while (low < high) {
+		int middle = (low + high) >>> 1;
+		if (CharOperation.prefixEquals(prefix, this.words[middle]))
+			low = middle + 1;
+		else
+			high = middle;
+	}
+	return low;
+}
+}
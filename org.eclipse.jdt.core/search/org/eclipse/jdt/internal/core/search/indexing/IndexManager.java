@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.zip.CRC32;
@@ -99,6 +100,14 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	private SimpleLookupTable participantsContainers = null;
 	private boolean participantUpdated = false;
 
+	/* number of indexes removed, reset or forgotten so far, see indexChangesCount() */
+	private int removedIndexesCount = 0;
+
+	/* The jobs indexing a workspace file with the default participant that did not start yet, keyed by document path.
+	 * As such a job reads the contents of its file when it runs, indexing the file again
+	 * while its job is waiting is not needed: bursts of changes to a file are coalesced. */
+	private final HashMap<String, IndexRequest> waitingDocumentJobs = new HashMap<>();
+
 	// should JDT manage (update, delete as needed) pre-built indexes?
 	public static final String MANAGE_PRODUCT_INDEXES_PROPERTY = "jdt.core.manageProductIndexes"; //$NON-NLS-1$
 	private static final boolean IS_MANAGING_PRODUCT_INDEXES_PROPERTY = Boolean.getBoolean(MANAGE_PRODUCT_INDEXES_PROPERTY);
@@ -133,7 +142,7 @@ public void addBinary(IFile resource, IPath containerPath) {
 	SearchParticipant participant = SearchEngine.getDefaultSearchParticipant();
 	SearchDocument document = participant.getDocument(resource.getFullPath().toString());
 	IndexLocation indexLocation = computeIndexLocation(containerPath);
-	scheduleDocumentIndexing(document, containerPath, indexLocation, participant);
+	scheduleDocumentIndexing(document, containerPath, indexLocation, participant, true/*coalesce*/);
 }
 /**
  * Trigger addition of a resource to an index
@@ -145,7 +154,7 @@ public void addSource(IFile resource, IPath containerPath, SourceElementParser p
 	SearchDocument document = participant.getDocument(resource.getFullPath().toString());
 	document.setParser(parser);
 	IndexLocation indexLocation = computeIndexLocation(containerPath);
-	scheduleDocumentIndexing(document, containerPath, indexLocation, participant);
+	scheduleDocumentIndexing(document, containerPath, indexLocation, participant, true/*coalesce*/);
 }
 /*
  * Removes unused indexes from disk.
@@ -800,8 +809,19 @@ public synchronized Index recreateIndex(IPath containerPath) {
 public void remove(String containerRelativePath, IPath indexedContainer){
 	// New index is disabled, see bug 544898
 	// this.indexer.makeWorkspacePathDirty(indexedContainer);
+	synchronized (this.waitingDocumentJobs) {
+		// a later indexing of the document must not be coalesced with an indexing that runs before the removal
+		this.waitingDocumentJobs.remove(indexedContainer.append(containerRelativePath).toString());
+	}
 	request(new RemoveFromIndex(containerRelativePath, indexedContainer, this));
 }
+/**
+ * Answer a number that changes whenever an indexing job is requested or an index is removed or reset.
+ * Clients can compare it to a previous answer to know whether the indexes may have changed in between.
+ */
+public synchronized int indexChangesCount() {
+	return requestedJobsCount() + this.removedIndexesCount;
+}
 /**
  * Removes the index for a given path.
  * This is a no-op if the index did not exist.
@@ -833,6 +853,7 @@ public synchronized void removeIndex(IPath containerPath) {
 		this.indexLocations.removeKey(containerPath);
 	}
 	updateIndexState(indexLocation, null);
+	this.removedIndexesCount++;
 }
 /**
  * Removes all indexes whose paths start with (or are equal to) the given path.
@@ -869,6 +890,7 @@ public synchronized void removeIndexPath(IPath path) {
 		}
 	}
 	if (locations != null) {
+		this.removedIndexesCount++;
 		for (int i = 0; i < count; i++)
 			this.indexes.removeKey(locations[i]);
 		removeIndexesState(locations);
@@ -934,6 +956,7 @@ public void reset() {
 		}
 		this.indexLocations = new SimpleLookupTable();
 		this.javaPluginLocation = null;
+		this.removedIndexesCount++;
 	}
 }
 /**
@@ -955,6 +978,7 @@ public synchronized boolean resetIndex(IPath containerPath) {
 			return recreateIndex(containerPath) != null;
 		}
 		index.reset();
+		this.removedIndexesCount++;
 		return true;
 	} catch (IOException e) {
 		// The file could not be created. Possible reason: the project has been deleted.
@@ -1054,14 +1078,25 @@ public void saveIndexes() {
 	this.needToSave = !allSaved;
 }
 public void scheduleDocumentIndexing(final SearchDocument searchDocument, IPath container, final IndexLocation indexLocation, final SearchParticipant searchParticipant) {
+	scheduleDocumentIndexing(searchDocument, container, indexLocation, searchParticipant, false/*don't coalesce*/);
+}
+/*
+ * Schedules the indexing of the given document. If coalesce is set, the document must be a workspace file
+ * whose contents are read when the job runs, and it must be indexed by the default participant in the index
+ * of the given container: the job is then not added if such a job of the same document is already waiting.
+ * Documents of other participants, or whose contents are given, are always indexed.
+ */
+private void scheduleDocumentIndexing(final SearchDocument searchDocument, IPath container, final IndexLocation indexLocation, final SearchParticipant searchParticipant, boolean coalesce) {
 	// New index is disabled, see bug 544898
 //	IPath targetLocation = JavaIndex.getLocationForPath(new Path(searchDocument.getPath()));
 //	if (targetLocation != null) {
 //		 this.indexer.makeDirty(targetLocation);
 //	}
-	request(new IndexRequest(container, this) {
+	final String documentPath = searchDocument.getPath();
+	IndexRequest request = new IndexRequest(container, this) {
 		@Override
 		public boolean execute(IProgressMonitor progressMonitor) {
+			documentJobStarted(documentPath, this);
 			if (this.isCancelled || progressMonitor != null && progressMonitor.isCanceled()) return true;
 
 			/* ensure no concurrent write access to index */
@@ -1082,6 +1117,11 @@ public void scheduleDocumentIndexing(final SearchDocument searchDocument, IPath
 			return true;
 		}
 		@Override
+		public void cancel() {
+			super.cancel();
+			documentJobStarted(documentPath, this);
+		}
+		@Override
 		public String toString() {
 			return "indexing " + searchDocument.getPath(); //$NON-NLS-1$
 		}
@@ -1089,7 +1129,30 @@ public void scheduleDocumentIndexing(final SearchDocument searchDocument, IPath
 		public boolean waitNeeded() {
 			return false;
 		}
-	});
+	};
+	// only coalesce the documents that a removal can identify by their path in the container
+	if (!coalesce || !container.isPrefixOf(new Path(documentPath))) {
+		request(request);
+		return;
+	}
+	synchronized (this.waitingDocumentJobs) {
+		IndexRequest waitingJob = this.waitingDocumentJobs.get(documentPath);
+		if (waitingJob != null && !waitingJob.isCancelled && waitingJob.containerPath.equals(container)) {
+			if (VERBOSE)
+				Util.verbose("-> already waiting to index " + documentPath); //$NON-NLS-1$
+			return;
+		}
+		this.waitingDocumentJobs.put(documentPath, request);
+	}
+	request(request);
+}
+/*
+ * Forgets the given job for the given document, as it is about to read the document or was cancelled.
+ */
+void documentJobStarted(String documentPath, IndexRequest job) {
+	synchronized (this.waitingDocumentJobs) {
+		this.waitingDocumentJobs.remove(documentPath, job);
+	}
 }
 
 @Override
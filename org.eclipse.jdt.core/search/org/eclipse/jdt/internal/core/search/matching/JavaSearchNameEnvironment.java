@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -103,6 +103,9 @@ public static Map<String, org.eclipse.jdt.core.ICompilationUnit> getWorkingCopyM
 
 @Override
 public void cleanup() {
+	// release the archives given by the Java model, they stay open until released
+	for (ClasspathLocation location : this.locationSet)
+		location.cleanup();
 	this.locationSet.clear();
 }
 
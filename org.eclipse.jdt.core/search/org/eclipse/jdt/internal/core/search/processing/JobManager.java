@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2019 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,9 @@ public abstract class JobManager implements Runnable {
 	protected int jobEnd = -1;
 	protected boolean executing = false;
 
+	/* number of jobs requested so far */
+	private int requestedJobsCount = 0;
+
 	/* background processing */
 	protected Thread processingThread;
 	protected Job progressJob;
@@ -53,6 +56,13 @@ public abstract class JobManager implements Runnable {
 		// pretend busy in case concurrent job attempts performing before activated
 		return this.activated ? this.jobEnd - this.jobStart + 1 : 1;
 	}
+	/**
+	 * Answer the number of jobs requested since this job manager was created.
+	 * Clients can compare it to a previous answer to know whether a job was requested in between.
+	 */
+	public synchronized int requestedJobsCount() {
+		return this.requestedJobsCount;
+	}
 	/**
 	 * Answers the first job in the queue, or null if there is no job available
 	 * Until the job has completed, the job manager will keep answering the same job.
@@ -275,6 +285,7 @@ public abstract class JobManager implements Runnable {
 	public synchronized void request(IJob job) {
 
 		job.ensureReadyToRun();
+		this.requestedJobsCount++;
 
 		// append the job to the list of ones to process later on
 		int size = this.awaitingJobs.length;